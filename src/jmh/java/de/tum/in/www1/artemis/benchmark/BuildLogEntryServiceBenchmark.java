@@ -0,0 +1,61 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+import de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage;
+import de.tum.in.www1.artemis.service.BuildLogEntryService;
+
+/**
+ * Benchmarks {@link BuildLogEntryService#removeUnnecessaryLogsForProgrammingLanguage(List, ProgrammingLanguage)}, which filters the build logs of every failed build
+ * before they are stored. The method neither modifies the given entries nor uses the repositories of the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BuildLogEntryServiceBenchmark {
+
+    /**
+     * Typical lines of a failing build, from docker and git output over maven and gradle progress to compiler errors with assignment paths
+     */
+    private static final List<String> LOG_LINES = List.of("Unable to find image 'ls1tum/artemis-maven-template:java17-18' locally",
+            "3b65ec22a9e9: Pulling fs layer", "Digest: sha256:6f8a2e4b3c1d0e9f8a7b6c5d4e3f2a1b0c9d8e7f6a5b4c3d2e1f0a9b8c7d6e5f",
+            "Status: Downloaded newer image for ls1tum/artemis-maven-template:java17-18", "Checking out Revision 3f2a1b0c9d8e7f6a5b4c3d2e1f0a9b8c7d6e5f4a",
+            "Switched to branch 'main'", "[INFO] Scanning for projects...", "[INFO] Downloading from central: https://repo.maven.apache.org/maven2/org/junit/junit-bom.pom",
+            "Progress (1): 2.7/5.6 kB", "[WARNING] Using platform encoding (UTF-8 actually) to copy filtered resources",
+            "[ERROR] /var/application-data/jenkins/xml-data/build-dir/EIST23H01-STUDENT1/assignment/src/de/tum/in/ase/BubbleSort.java:[12,17] cannot find symbol",
+            "[ERROR]   symbol:   variable input", "[ERROR]   location: class de.tum.in.ase.BubbleSort", "COMPILATION ERROR :",
+            "/var/tmp/testing-dir/assignment/src/de/tum/in/ase/MergeSort.java:25: error: ';' expected", "> Task :compileJava FAILED",
+            "Starting a Gradle Daemon (subsequent builds will be faster)", "* What went wrong:", "Execution failed for task ':compileJava'.",
+            "[ERROR] Failed to execute goal org.apache.maven.plugins:maven-compiler-plugin:3.11.0:compile", "[ERROR] -> [Help 1]", "",
+            "NOTE: Picked up JDK_JAVA_OPTIONS: --add-opens=java.base/java.lang=ALL-UNNAMED", "Finished task 'Tests' with result: Failed");
+
+    @Param({ "1000", "10000" })
+    private int numberOfLogEntries;
+
+    @Param({ "JAVA", "C", "PYTHON" })
+    private ProgrammingLanguage programmingLanguage;
+
+    private final BuildLogEntryService buildLogEntryService = new BuildLogEntryService(null, null);
+
+    private List<BuildLogEntry> buildLogEntries;
+
+    @Setup
+    public void setup() {
+        ZonedDateTime start = ZonedDateTime.now();
+        buildLogEntries = new ArrayList<>(numberOfLogEntries);
+        for (int i = 0; i < numberOfLogEntries; i++) {
+            buildLogEntries.add(new BuildLogEntry(start.plusNanos(i * 1000L), LOG_LINES.get(i % LOG_LINES.size())));
+        }
+    }
+
+    @Benchmark
+    public List<BuildLogEntry> removeUnnecessaryLogs() {
+        return buildLogEntryService.removeUnnecessaryLogsForProgrammingLanguage(buildLogEntries, programmingLanguage);
+    }
+}
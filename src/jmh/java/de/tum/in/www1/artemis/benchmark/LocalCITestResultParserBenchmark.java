@@ -0,0 +1,145 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.config.Constants;
+import de.tum.in.www1.artemis.service.connectors.localci.LocalCITestResultParser;
+import de.tum.in.www1.artemis.service.connectors.localci.dto.LocalCIBuildResult;
+
+/**
+ * Benchmarks {@link LocalCITestResultParser#parseTestResults}, which parses the JUnit XML reports of every local CI build from the archive retrieved from the build
+ * container, against the previous path, which read each report into a String before parsing it. Every third test case fails with a long stack trace, like the failing
+ * tests of a typical student submission.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocalCITestResultParserBenchmark {
+
+    private static final int TEST_CASES_PER_FILE = 20;
+
+    @Param({ "1", "50" })
+    private int numberOfTestResultFiles;
+
+    private final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+    private final LocalCITestResultParser parser = new LocalCITestResultParser(xmlInputFactory, Constants.FEEDBACK_DETAIL_TEXT_DATABASE_MAX_LENGTH);
+
+    private byte[] testResultsArchive;
+
+    @Setup
+    public void setup() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(archive)) {
+            for (int file = 0; file < numberOfTestResultFiles; file++) {
+                byte[] content = createTestResultFile(file).getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry("test/TEST-de.tum.in.ase.SortingExampleTest" + file + ".xml");
+                entry.setSize(content.length);
+                tarArchiveOutputStream.putArchiveEntry(entry);
+                tarArchiveOutputStream.write(content);
+                tarArchiveOutputStream.closeArchiveEntry();
+            }
+        }
+        testResultsArchive = archive.toByteArray();
+    }
+
+    private static String createTestResultFile(int file) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<testsuite name=\"de.tum.in.ase.SortingExampleTest").append(file).append("\" tests=\"").append(TEST_CASES_PER_FILE).append("\">\n");
+        for (int testCase = 0; testCase < TEST_CASES_PER_FILE; testCase++) {
+            xml.append("  <testcase name=\"testSorting").append(testCase).append("()\" classname=\"de.tum.in.ase.SortingExampleTest\" time=\"0.012\"");
+            if (testCase % 3 == 0) {
+                xml.append(">\n    <failure message=\"The array was not sorted correctly. expected: &lt;[1, 2, 3]&gt; but was: &lt;[3, 1, 2]&gt;\" ");
+                xml.append("type=\"org.opentest4j.AssertionFailedError\">");
+                xml.append("org.opentest4j.AssertionFailedError: The array was not sorted correctly\n");
+                xml.append("\tat de.tum.in.ase.SortingExampleTest.testSorting(SortingExampleTest.java:42)\n".repeat(100));
+                xml.append("</failure>\n  </testcase>\n");
+            }
+            else {
+                xml.append("/>\n");
+            }
+        }
+        return xml.append("</testsuite>\n").toString();
+    }
+
+    @Benchmark
+    public int parseTestResults() throws IOException, XMLStreamException {
+        List<LocalCIBuildResult.LocalCITestJobDTO> failedTests = new ArrayList<>();
+        List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests = new ArrayList<>();
+        try (TarArchiveInputStream testResultsTarInputStream = new TarArchiveInputStream(new ByteArrayInputStream(testResultsArchive))) {
+            parser.parseTestResults(testResultsTarInputStream, failedTests, successfulTests);
+        }
+        return failedTests.size() + successfulTests.size();
+    }
+
+    @Benchmark
+    public int parseTestResultsFromStrings() throws IOException, XMLStreamException {
+        List<LocalCIBuildResult.LocalCITestJobDTO> failedTests = new ArrayList<>();
+        List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests = new ArrayList<>();
+        try (TarArchiveInputStream testResultsTarInputStream = new TarArchiveInputStream(new ByteArrayInputStream(testResultsArchive))) {
+            TarArchiveEntry tarEntry;
+            while ((tarEntry = testResultsTarInputStream.getNextTarEntry()) != null) {
+                if (tarEntry.isDirectory() || !tarEntry.getName().startsWith("test/TEST-") || !tarEntry.getName().endsWith(".xml")) {
+                    continue;
+                }
+                String xmlString = IOUtils.toString(testResultsTarInputStream, StandardCharsets.UTF_8);
+                processTestResultFile(xmlString, failedTests, successfulTests);
+            }
+        }
+        return failedTests.size() + successfulTests.size();
+    }
+
+    // the previous path of LocalCIBuildJobExecutionService, which parsed each test result file from a String
+
+    private void processTestResultFile(String testResultFileString, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
+            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws XMLStreamException {
+        XMLStreamReader xmlStreamReader = xmlInputFactory.createXMLStreamReader(new StringReader(testResultFileString));
+        while (xmlStreamReader.hasNext() && !xmlStreamReader.isStartElement()) {
+            xmlStreamReader.next();
+        }
+        if (!("testsuite".equals(xmlStreamReader.getLocalName()))) {
+            throw new IllegalStateException("Expected testsuite element, but got " + xmlStreamReader.getLocalName());
+        }
+        while (xmlStreamReader.hasNext()) {
+            xmlStreamReader.next();
+            if (!xmlStreamReader.isStartElement() || !("testcase".equals(xmlStreamReader.getLocalName()))) {
+                continue;
+            }
+            processTestCaseNode(xmlStreamReader, failedTests, successfulTests);
+        }
+        xmlStreamReader.close();
+    }
+
+    private static void processTestCaseNode(XMLStreamReader xmlStreamReader, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
+            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws XMLStreamException {
+        String name = xmlStreamReader.getAttributeValue(null, "name");
+        xmlStreamReader.next();
+        while (!(xmlStreamReader.isEndElement() || xmlStreamReader.isStartElement())) {
+            xmlStreamReader.next();
+        }
+        if (xmlStreamReader.isStartElement() && "failure".equals(xmlStreamReader.getLocalName())) {
+            String error = xmlStreamReader.getAttributeValue(null, "message");
+            failedTests.add(new LocalCIBuildResult.LocalCITestJobDTO(name, error != null ? List.of(error) : List.of()));
+        }
+        else {
+            successfulTests.add(new LocalCIBuildResult.LocalCITestJobDTO(name, List.of()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.domain.modeling.ModelCluster;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.service.compass.controller.ModelClusterFactory;
+
+/**
+ * Benchmarks {@link ModelClusterFactory#buildClusters(List, ModelingExercise)}, which clusters the similar elements of all submissions of a modeling exercise after its due
+ * date. The submissions are variations of the class diagrams used in the compass tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ModelClusterFactoryBenchmark {
+
+    private static final List<String> MODELS = List.of("model.54727.json", "model.54727.cpy.json", "model.54727-copy.json", "model.54727_old.json", "model.54742.json",
+            "model.54745.json", "model.inheritance.json", "model.different-context.json");
+
+    @Param({ "10", "100" })
+    private int numberOfSubmissions;
+
+    private final ModelClusterFactory modelClusterFactory = new ModelClusterFactory();
+
+    private final ModelingExercise exercise = new ModelingExercise();
+
+    private List<ModelingSubmission> submissions;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> models = new ArrayList<>();
+        for (String model : MODELS) {
+            try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test-data/model-submission/" + model), model)) {
+                models.add(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        submissions = new ArrayList<>(numberOfSubmissions);
+        for (int i = 0; i < numberOfSubmissions; i++) {
+            ModelingSubmission submission = new ModelingSubmission().model(models.get(i % models.size()));
+            submission.setId((long) i + 1);
+            submission.setSubmitted(true);
+            submissions.add(submission);
+        }
+    }
+
+    @Benchmark
+    public List<ModelCluster> buildClusters() {
+        return modelClusterFactory.buildClusters(submissions, exercise);
+    }
+}
@@ -0,0 +1,138 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.ScoringStrategy;
+
+/**
+ * Benchmarks the scoring strategies in {@link de.tum.in.www1.artemis.domain.quiz.scoring}, which score every submitted answer of every participant when a quiz ends
+ * or is re-evaluated. Each invocation scores the answers of all participants to one question.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizScoringBenchmark {
+
+    public enum QuestionType {
+        MULTIPLE_CHOICE, DRAG_AND_DROP, SHORT_ANSWER
+    }
+
+    private static final int NUMBER_OF_PARTICIPANTS = 1000;
+
+    private static final int NUMBER_OF_ELEMENTS = 10;
+
+    @Param
+    private QuestionType questionType;
+
+    @Param
+    private ScoringType scoringType;
+
+    private QuizQuestion question;
+
+    private ScoringStrategy scoringStrategy;
+
+    private List<SubmittedAnswer> submittedAnswers;
+
+    @Setup
+    public void setup() {
+        // a fixed seed makes the submitted answers and therefore the results comparable between runs
+        Random random = new Random(42);
+        submittedAnswers = new ArrayList<>(NUMBER_OF_PARTICIPANTS);
+        switch (questionType) {
+            case MULTIPLE_CHOICE -> setupMultipleChoice(random);
+            case DRAG_AND_DROP -> setupDragAndDrop(random);
+            case SHORT_ANSWER -> setupShortAnswer(random);
+        }
+        question.setPoints(NUMBER_OF_ELEMENTS);
+        question.setScoringType(scoringType);
+        scoringStrategy = question.makeScoringStrategy();
+        submittedAnswers.forEach(submittedAnswer -> submittedAnswer.setQuizQuestion(question));
+    }
+
+    private void setupMultipleChoice(Random random) {
+        MultipleChoiceQuestion multipleChoiceQuestion = new MultipleChoiceQuestion();
+        for (long id = 1; id <= NUMBER_OF_ELEMENTS; id++) {
+            AnswerOption answerOption = new AnswerOption().text("Option " + id).isCorrect(id % 2 == 0);
+            answerOption.setId(id);
+            answerOption.setQuestion(multipleChoiceQuestion);
+            multipleChoiceQuestion.getAnswerOptions().add(answerOption);
+        }
+        for (int i = 0; i < NUMBER_OF_PARTICIPANTS; i++) {
+            MultipleChoiceSubmittedAnswer submittedAnswer = new MultipleChoiceSubmittedAnswer();
+            multipleChoiceQuestion.getAnswerOptions().stream().filter(answerOption -> random.nextBoolean()).forEach(submittedAnswer::addSelectedOptions);
+            submittedAnswers.add(submittedAnswer);
+        }
+        question = multipleChoiceQuestion;
+    }
+
+    private void setupDragAndDrop(Random random) {
+        DragAndDropQuestion dragAndDropQuestion = new DragAndDropQuestion();
+        for (long id = 1; id <= NUMBER_OF_ELEMENTS; id++) {
+            DropLocation dropLocation = new DropLocation();
+            dropLocation.setId(id);
+            dragAndDropQuestion.addDropLocation(dropLocation);
+            DragItem dragItem = new DragItem();
+            dragItem.setId(id);
+            dragItem.setText("Item " + id);
+            dragAndDropQuestion.addDragItem(dragItem);
+            dragAndDropQuestion.addCorrectMapping(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+        }
+        for (int i = 0; i < NUMBER_OF_PARTICIPANTS; i++) {
+            DragAndDropSubmittedAnswer submittedAnswer = new DragAndDropSubmittedAnswer();
+            for (DropLocation dropLocation : dragAndDropQuestion.getDropLocations()) {
+                DragItem dragItem = dragAndDropQuestion.getDragItems().get(random.nextInt(NUMBER_OF_ELEMENTS));
+                submittedAnswer.addMappings(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+            }
+            submittedAnswers.add(submittedAnswer);
+        }
+        question = dragAndDropQuestion;
+    }
+
+    private void setupShortAnswer(Random random) {
+        ShortAnswerQuestion shortAnswerQuestion = new ShortAnswerQuestion();
+        List<ShortAnswerSpot> spots = new ArrayList<>();
+        for (long id = 1; id <= NUMBER_OF_ELEMENTS; id++) {
+            ShortAnswerSpot spot = new ShortAnswerSpot().spotNr((int) id);
+            spot.setId(id);
+            spot.setQuestion(shortAnswerQuestion);
+            spots.add(spot);
+            ShortAnswerSolution solution = new ShortAnswerSolution().text("Solution number " + id);
+            solution.setId(id);
+            shortAnswerQuestion.addSolution(solution);
+            shortAnswerQuestion.addCorrectMapping(new ShortAnswerMapping().spot(spot).solution(solution));
+        }
+        shortAnswerQuestion.setSpots(spots);
+        for (int i = 0; i < NUMBER_OF_PARTICIPANTS; i++) {
+            ShortAnswerSubmittedAnswer submittedAnswer = new ShortAnswerSubmittedAnswer();
+            for (ShortAnswerSpot spot : spots) {
+                ShortAnswerSubmittedText submittedText = new ShortAnswerSubmittedText();
+                // exact, slightly misspelled (fuzzy matched) and wrong texts
+                submittedText.setText(switch (random.nextInt(3)) {
+                    case 0 -> "Solution number " + spot.getSpotNr();
+                    case 1 -> "solutoin numbr " + spot.getSpotNr();
+                    default -> "Something else entirely";
+                });
+                submittedText.setSpot(spot);
+                submittedAnswer.addSubmittedTexts(submittedText);
+            }
+            submittedAnswers.add(submittedAnswer);
+        }
+        question = shortAnswerQuestion;
+    }
+
+    @Benchmark
+    public double scoreAllParticipants() {
+        double totalScore = 0;
+        for (SubmittedAnswer submittedAnswer : submittedAnswers) {
+            totalScore += scoringStrategy.calculateScore(question, submittedAnswer);
+        }
+        return totalScore;
+    }
+}
@@ -0,0 +1,133 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.domain.TextSubmission;
+import de.tum.in.www1.artemis.domain.modeling.ModelingSubmission;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.service.exam.StudentExamService;
+
+/**
+ * Benchmarks the {@code StudentExamService.isContentEqualTo} comparisons, which decide for every exercise of every student exam that is submitted whether the submission
+ * from the client has to be saved. Equal submissions are the common and most expensive case, because all answers have to be compared.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentExamServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class QuizSubmissions {
+
+        @Param({ "10", "50" })
+        private int numberOfQuestions;
+
+        private QuizSubmission submissionInDatabase;
+
+        private QuizSubmission submissionFromClient;
+
+        @Setup
+        public void setup() {
+            submissionInDatabase = createQuizSubmission(numberOfQuestions);
+            submissionFromClient = createQuizSubmission(numberOfQuestions);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TextAndModelingSubmissions {
+
+        private TextSubmission textSubmissionInDatabase;
+
+        private TextSubmission textSubmissionFromClient;
+
+        private ModelingSubmission modelingSubmissionInDatabase;
+
+        private ModelingSubmission modelingSubmissionFromClient;
+
+        @Setup
+        public void setup() throws IOException {
+            // new strings with equal content, so that the comparison cannot take the shortcut for identical references
+            String text = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(500);
+            textSubmissionInDatabase = new TextSubmission().text(new String(text));
+            textSubmissionFromClient = new TextSubmission().text(new String(text));
+
+            String model;
+            try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test-data/model-submission/model.54727.json"))) {
+                model = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            modelingSubmissionInDatabase = new ModelingSubmission().model(new String(model));
+            modelingSubmissionInDatabase.setExplanationText("The model follows the observer pattern.");
+            modelingSubmissionFromClient = new ModelingSubmission().model(new String(model));
+            modelingSubmissionFromClient.setExplanationText("The model follows the observer pattern.");
+        }
+    }
+
+    /**
+     * Creates a quiz submission with the same answers for the same number of questions in each call, alternating between the three question types
+     */
+    private static QuizSubmission createQuizSubmission(int numberOfQuestions) {
+        QuizSubmission submission = new QuizSubmission();
+        for (long questionId = 1; questionId <= numberOfQuestions; questionId++) {
+            SubmittedAnswer submittedAnswer = switch ((int) (questionId % 3)) {
+                case 0 -> {
+                    MultipleChoiceSubmittedAnswer answer = new MultipleChoiceSubmittedAnswer();
+                    answer.setQuizQuestion(new MultipleChoiceQuestion());
+                    for (long optionId = 1; optionId <= 4; optionId += 2) {
+                        AnswerOption answerOption = new AnswerOption();
+                        answerOption.setId(questionId * 10 + optionId);
+                        answer.addSelectedOptions(answerOption);
+                    }
+                    yield answer;
+                }
+                case 1 -> {
+                    DragAndDropSubmittedAnswer answer = new DragAndDropSubmittedAnswer();
+                    answer.setQuizQuestion(new DragAndDropQuestion());
+                    for (long mappingId = 1; mappingId <= 5; mappingId++) {
+                        DragItem dragItem = new DragItem();
+                        dragItem.setId(questionId * 10 + mappingId);
+                        DropLocation dropLocation = new DropLocation();
+                        dropLocation.setId(questionId * 10 + 6 - mappingId);
+                        answer.addMappings(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+                    }
+                    yield answer;
+                }
+                default -> {
+                    ShortAnswerSubmittedAnswer answer = new ShortAnswerSubmittedAnswer();
+                    answer.setQuizQuestion(new ShortAnswerQuestion());
+                    for (long spotId = 1; spotId <= 5; spotId++) {
+                        ShortAnswerSpot spot = new ShortAnswerSpot();
+                        spot.setId(questionId * 10 + spotId);
+                        ShortAnswerSubmittedText submittedText = new ShortAnswerSubmittedText();
+                        submittedText.setSpot(spot);
+                        submittedText.setText("Answer " + spotId);
+                        answer.addSubmittedTexts(submittedText);
+                    }
+                    yield answer;
+                }
+            };
+            submittedAnswer.getQuizQuestion().setId(questionId);
+            submission.addSubmittedAnswers(submittedAnswer);
+        }
+        return submission;
+    }
+
+    @Benchmark
+    public boolean compareQuizSubmissions(QuizSubmissions state) {
+        return StudentExamService.isContentEqualTo(state.submissionInDatabase, state.submissionFromClient);
+    }
+
+    @Benchmark
+    public boolean compareTextSubmissions(TextAndModelingSubmissions state) {
+        return StudentExamService.isContentEqualTo(state.textSubmissionInDatabase, state.textSubmissionFromClient);
+    }
+
+    @Benchmark
+    public boolean compareModelingSubmissions(TextAndModelingSubmissions state) {
+        return StudentExamService.isContentEqualTo(state.modelingSubmissionInDatabase, state.modelingSubmissionFromClient);
+    }
+}
@@ -0,0 +1,93 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.service.metis.similarity.PostSimilarityIndex;
+import de.tum.in.www1.artemis.service.metis.similarity.TitleJaccardSimilarityCompareStrategy;
+
+/**
+ * Benchmarks {@link TitleJaccardSimilarityCompareStrategy}, which compares the title of a new post with the titles of all posts of the course to suggest similar posts
+ * while the post is written, against the {@link PostSimilarityIndex}, which finds the similar posts without comparing the new post to every post.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TitleJaccardSimilarityCompareStrategyBenchmark {
+
+    private static final List<String> WORDS = List.of("exercise", "submission", "deadline", "error", "test", "build", "failed", "lecture", "exam", "question", "how", "to",
+            "the", "in", "my", "why", "does", "not", "work", "task", "gradle", "maven", "assignment", "repository", "result", "points", "feedback", "sorting", "algorithm",
+            "complexity", "tutor", "grading");
+
+    @Param({ "100", "1000" })
+    private int numberOfCoursePosts;
+
+    private final TitleJaccardSimilarityCompareStrategy compareStrategy = new TitleJaccardSimilarityCompareStrategy();
+
+    private Post newPost;
+
+    private List<Post> coursePosts;
+
+    private PostSimilarityIndex index;
+
+    @Setup
+    public void setup() {
+        // a fixed seed makes the titles and therefore the results comparable between runs
+        Random random = new Random(42);
+        newPost = createPost(random);
+        coursePosts = new ArrayList<>(numberOfCoursePosts);
+        index = new PostSimilarityIndex();
+        for (long id = 1; id <= numberOfCoursePosts; id++) {
+            Post coursePost = createPost(random);
+            coursePosts.add(coursePost);
+            index.addOrUpdatePost(id, coursePost.getTitle(), coursePost.getContent());
+        }
+    }
+
+    private static Post createPost(Random random) {
+        StringBuilder title = new StringBuilder();
+        int numberOfWords = 4 + random.nextInt(6);
+        for (int i = 0; i < numberOfWords; i++) {
+            title.append(i == 0 ? "" : " ").append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        Post post = new Post();
+        post.setTitle(title.toString());
+        return post;
+    }
+
+    /**
+     * Compares the new post with each post of the course once
+     */
+    @Benchmark
+    public double compareWithCoursePosts() {
+        double totalSimilarity = 0;
+        for (Post coursePost : coursePosts) {
+            totalSimilarity += compareStrategy.performSimilarityCheck(newPost, coursePost);
+        }
+        return totalSimilarity;
+    }
+
+    /**
+     * Sorts the posts of the course by their similarity to the new post the same way as {@code PostService.getSimilarPosts} does for strategies without an index
+     */
+    @Benchmark
+    public List<Post> sortCoursePostsBySimilarity() {
+        List<Post> sortedPosts = new ArrayList<>(coursePosts);
+        sortedPosts.sort(Comparator.comparing(coursePost -> compareStrategy.performSimilarityCheck(newPost, coursePost)));
+        return sortedPosts;
+    }
+
+    /**
+     * Finds the most similar posts in the index the same way as {@code PostService.getSimilarPosts} does for the indexed strategy
+     */
+    @Benchmark
+    public List<Long> findMostSimilarPostsInIndex() {
+        return index.findMostSimilarPostIds(newPost.getTitle(), newPost.getContent(), null, 5);
+    }
+}
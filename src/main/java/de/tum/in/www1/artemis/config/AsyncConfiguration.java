@@ -1,11 +1,13 @@
 package de.tum.in.www1.artemis.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,6 +43,110 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Creates the bounded executor used to fan out websocket messages to many users, e.g. the results at the end of a quiz.
+     * If the queue is full, the caller sends the message itself, which slows down the producer instead of overloading the broker relay.
+     *
+     * @param poolSize      the number of threads sending websocket messages
+     * @param queueCapacity the maximum number of queued websocket messages
+     * @return the websocket fan-out executor
+     */
+    @Bean(name = "websocketFanOutExecutor")
+    public ThreadPoolTaskExecutor websocketFanOutExecutor(@Value("${artemis.websocket.fan-out.pool-size:8}") int poolSize,
+            @Value("${artemis.websocket.fan-out.queue-capacity:10000}") int queueCapacity) {
+        log.debug("Creating Websocket Fan-Out Executor with {} threads and a queue capacity of {}", poolSize, queueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("websocket-fan-out-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Creates the bounded executor used to send many emails at once, e.g. the weekly summaries.
+     * If the queue is full, the caller sends the email itself, so that the emails are never all rendered and queued at the same time.
+     *
+     * @param poolSize      the number of threads sending emails
+     * @param queueCapacity the maximum number of queued emails
+     * @return the mail executor
+     */
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${artemis.mail.pool-size:4}") int poolSize, @Value("${artemis.mail.queue-capacity:1000}") int queueCapacity) {
+        log.debug("Creating Mail Executor with {} threads and a queue capacity of {}", poolSize, queueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Creates the bounded executor used to encrypt and send push notifications to many devices, e.g. for course-wide announcements.
+     * If the queue is full, the caller sends the notifications itself.
+     *
+     * @param poolSize      the number of threads sending push notifications
+     * @param queueCapacity the maximum number of queued chunks of push notifications
+     * @return the push notification executor
+     */
+    @Bean(name = "pushNotificationExecutor")
+    public ThreadPoolTaskExecutor pushNotificationExecutor(@Value("${artemis.push-notification.pool-size:8}") int poolSize,
+            @Value("${artemis.push-notification.queue-capacity:1000}") int queueCapacity) {
+        log.debug("Creating Push Notification Executor with {} threads and a queue capacity of {}", poolSize, queueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("push-notification-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Creates the bounded executor used to calculate the scores of many results at once, e.g. when the results of a programming exercise are re-evaluated.
+     * If the queue is full, the caller calculates the scores itself.
+     *
+     * @param poolSize      the number of threads calculating scores
+     * @param queueCapacity the maximum number of queued score calculations
+     * @return the re-evaluation executor
+     */
+    @Bean(name = "reEvaluationExecutor")
+    public ThreadPoolTaskExecutor reEvaluationExecutor(@Value("${artemis.re-evaluation.pool-size:4}") int poolSize,
+            @Value("${artemis.re-evaluation.queue-capacity:1000}") int queueCapacity) {
+        log.debug("Creating Re-Evaluation Executor with {} threads and a queue capacity of {}", poolSize, queueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("re-evaluation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Creates the bounded executor used to check out student repositories in parallel when many repositories are exported at once, e.g. all repositories of an exam.
+     * If the queue is full, the caller checks out the repository itself.
+     *
+     * @param poolSize      the number of threads checking out repositories
+     * @param queueCapacity the maximum number of queued checkouts
+     * @return the repository export executor
+     */
+    @Bean(name = "repositoryExportExecutor")
+    public ThreadPoolTaskExecutor repositoryExportExecutor(@Value("${artemis.repository-export.pool-size:4}") int poolSize,
+            @Value("${artemis.repository-export.queue-capacity:100}") int queueCapacity) {
+        log.debug("Creating Repository Export Executor with {} threads and a queue capacity of {}", poolSize, queueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("repository-export-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -4,9 +4,14 @@ import java.util.ArrayList;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
@@ -151,6 +156,23 @@ public class RestTemplateConfiguration {
         return createRestTemplate();
     }
 
+    /**
+     * Creates the rest template used to send push notifications to the relay service.
+     * Many requests are sent concurrently to the same host, so the connections are pooled and kept alive instead of opening a new connection per request.
+     *
+     * @param maxConnections the maximum number of concurrent connections to the relay service
+     * @return the push notification rest template
+     */
+    @Bean
+    public RestTemplate pushNotificationRestTemplate(@Value("${artemis.push-notification.max-connections:16}") int maxConnections) {
+        var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        var requestConfig = RequestConfig.custom().setConnectTimeout(SHORT_CONNECTION_TIMEOUT).setSocketTimeout(SHORT_READ_TIMEOUT).build();
+        var httpClient = HttpClientBuilder.create().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
     private RestTemplate createShortTimeoutRestTemplate() {
         var requestFactory = new SimpleClientHttpRequestFactory();
         requestFactory.setReadTimeout(SHORT_READ_TIMEOUT);
@@ -5,7 +5,7 @@ import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
@@ -66,11 +66,12 @@ public class LocalCIConfiguration {
 
     /**
      * Creates an executor service that manages the queue of build jobs.
+     * The queue is a priority queue, the order of the build jobs and the queue size limit are managed by the LocalCIBuildJobManagementService.
      *
      * @return The executor service bean.
      */
     @Bean
-    public ExecutorService localCIBuildExecutorService() {
+    public ThreadPoolExecutor localCIBuildExecutorService() {
         log.info("Using ExecutorService with thread pool size {} and a queue size limit of {}.", threadPoolSize, queueSizeLimit);
 
         ThreadFactory customThreadFactory = new ThreadFactoryBuilder().setNameFormat("local-ci-build-%d")
@@ -80,10 +81,32 @@ public class LocalCIConfiguration {
             throw new RejectedExecutionException("Task " + runnable.toString() + " rejected from " + executor.toString());
         };
 
-        return new ThreadPoolExecutor(threadPoolSize, threadPoolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueSizeLimit), customThreadFactory,
+        return new ThreadPoolExecutor(threadPoolSize, threadPoolSize, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), customThreadFactory,
                 customRejectedExecutionHandler);
     }
 
+    /**
+     * Creates a scheduled executor service that cancels local CI build jobs that exceed the configured timeout. A single thread is sufficient, as it only interrupts the build
+     * job and stops its container.
+     *
+     * @return The scheduled executor service bean.
+     */
+    @Bean
+    public ScheduledExecutorService localCIBuildTimeoutScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("local-ci-build-timeout-%d").build());
+    }
+
+    /**
+     * Creates an executor service that processes the results of local CI build jobs, i.e. it completes the futures returned for the build jobs.
+     * The callers store the results and notify the users in callbacks of these futures, which must not block the threads of the build executor service.
+     *
+     * @return The executor service bean.
+     */
+    @Bean
+    public ExecutorService localCIResultProcessingExecutorService() {
+        return Executors.newFixedThreadPool(Math.max(2, threadPoolSize), new ThreadFactoryBuilder().setNameFormat("local-ci-result-%d").build());
+    }
+
     /**
      * Creates a scheduled executor service that logs the current state of the local CI ExecutorService queue.
      *
@@ -91,12 +114,11 @@ public class LocalCIConfiguration {
      * @return The scheduled executor service bean.
      */
     @Bean
-    public ScheduledExecutorService buildQueueLogger(ExecutorService localCIBuildExecutorService) {
+    public ScheduledExecutorService buildQueueLogger(ThreadPoolExecutor localCIBuildExecutorService) {
         ScheduledExecutorService buildQueueLogger = Executors.newSingleThreadScheduledExecutor();
         buildQueueLogger.scheduleAtFixedRate(() -> {
-            ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) localCIBuildExecutorService;
             // Report on the current state of the local CI ExecutorService queue every 30 seconds.
-            log.info("Current queue size of local CI ExecutorService: {}", threadPoolExecutor.getQueue().size());
+            log.info("Current queue size of local CI ExecutorService: {}", localCIBuildExecutorService.getQueue().size());
         }, 0, 30, TimeUnit.SECONDS);
         return buildQueueLogger;
     }
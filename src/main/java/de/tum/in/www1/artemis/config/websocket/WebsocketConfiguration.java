@@ -6,6 +6,7 @@ import static de.tum.in.www1.artemis.web.websocket.team.ParticipationTeamWebsock
 import java.net.InetSocketAddress;
 import java.security.Principal;
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
 import javax.servlet.http.Cookie;
@@ -56,6 +57,8 @@ import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.security.jwt.JWTFilter;
 import de.tum.in.www1.artemis.security.jwt.TokenProvider;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService.SubscriptionType;
 import de.tum.in.www1.artemis.validation.InetSocketAddressValidator;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
@@ -85,6 +88,8 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
 
     private final ExamRepository examRepository;
 
+    private final WebsocketSubscriptionAuthorizationCacheService subscriptionAuthorizationCacheService;
+
     // Split the addresses by comma
     @Value("#{'${spring.websocket.broker.addresses}'.split(',')}")
     private List<String> brokerAddresses;
@@ -97,7 +102,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
 
     public WebsocketConfiguration(MappingJackson2HttpMessageConverter springMvcJacksonConverter, TaskScheduler messageBrokerTaskScheduler, TokenProvider tokenProvider,
             StudentParticipationRepository studentParticipationRepository, AuthorizationCheckService authorizationCheckService, ExerciseRepository exerciseRepository,
-            UserRepository userRepository, ExamRepository examRepository) {
+            UserRepository userRepository, ExamRepository examRepository, WebsocketSubscriptionAuthorizationCacheService subscriptionAuthorizationCacheService) {
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
         this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
         this.tokenProvider = tokenProvider;
@@ -106,6 +111,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         this.exerciseRepository = exerciseRepository;
         this.userRepository = userRepository;
         this.examRepository = examRepository;
+        this.subscriptionAuthorizationCacheService = subscriptionAuthorizationCacheService;
     }
 
     @Override
@@ -260,7 +266,8 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         }
 
         /**
-         * Returns whether the subscription of the given principal to the given destination is permitted
+         * Returns whether the subscription of the given principal to the given destination is permitted.
+         * The results of checks that access the database are cached, because all clients subscribe again at the same time after reconnecting.
          *
          * @param principal   User principal of the user who wants to subscribe
          * @param destination Destination topic to which the user wants to subscribe
@@ -269,30 +276,41 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         private boolean allowSubscription(Principal principal, String destination) {
             if (isParticipationTeamDestination(destination)) {
                 Long participationId = getParticipationIdFromDestination(destination);
-                return isParticipationOwnedByUser(principal, participationId);
+                return isSubscriptionAllowed(principal, SubscriptionType.TEAM_PARTICIPATION, participationId, () -> isParticipationOwnedByUser(principal, participationId));
             }
             if (isNonPersonalExerciseResultDestination(destination)) {
                 Long exerciseId = getExerciseIdFromNonPersonalExerciseResultDestination(destination);
-
-                // TODO: Is it right that TAs are not allowed to subscribe to exam exercises?
-                Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
-                if (exercise.isExamExercise()) {
-                    return isUserInstructorOrHigherForExercise(principal, exercise);
-                }
-                else {
-                    return isUserTAOrHigherForExercise(principal, exercise);
-                }
+                return isSubscriptionAllowed(principal, SubscriptionType.NON_PERSONAL_EXERCISE_RESULT, exerciseId, () -> {
+                    // TODO: Is it right that TAs are not allowed to subscribe to exam exercises?
+                    Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
+                    if (exercise.isExamExercise()) {
+                        return isUserInstructorOrHigherForExercise(principal, exercise);
+                    }
+                    else {
+                        return isUserTAOrHigherForExercise(principal, exercise);
+                    }
+                });
             }
 
             var examId = getExamIdFromExamRootDestination(destination);
             if (examId.isPresent()) {
-                var exam = examRepository.findByIdElseThrow(examId.get());
-                User user = userRepository.getUserWithGroupsAndAuthorities(principal.getName());
-                return authorizationCheckService.isAtLeastInstructorInCourse(exam.getCourse(), user);
+                return isSubscriptionAllowed(principal, SubscriptionType.EXAM, examId.get(), () -> {
+                    var exam = examRepository.findByIdElseThrow(examId.get());
+                    User user = userRepository.getUserWithGroupsAndAuthorities(principal.getName());
+                    return authorizationCheckService.isAtLeastInstructorInCourse(exam.getCourse(), user);
+                });
             }
             return true;
         }
 
+        private boolean isSubscriptionAllowed(Principal principal, SubscriptionType type, Long entityId, BooleanSupplier check) {
+            if (principal == null) {
+                // subscriptions of anonymous users are not cached
+                return check.getAsBoolean();
+            }
+            return subscriptionAuthorizationCacheService.isSubscriptionAllowed(principal.getName(), type, entityId, check);
+        }
+
         private void logUnauthorizedDestinationAccess(Principal principal, String destination) {
             if (principal == null) {
                 log.warn("Anonymous user tried to access the protected topic: {}", destination);
@@ -0,0 +1,78 @@
+package de.tum.in.www1.artemis.domain;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.*;
+
+/**
+ * The progress of a running re-evaluation of the results of a programming exercise, which processes the student participations in chunks ordered by their id.
+ * The progress is stored after each chunk, so that an interrupted re-evaluation (e.g. because the instance was restarted) can be continued after the last chunk.
+ * The entry is deleted once all participations have been re-evaluated.
+ */
+@Entity
+@Table(name = "programming_exercise_re_evaluation")
+public class ProgrammingExerciseReEvaluation {
+
+    @Id
+    @Column(name = "exercise_id")
+    private Long exerciseId;
+
+    @Column(name = "last_participation_id", nullable = false)
+    private long lastParticipationId;
+
+    @Column(name = "processed_participations", nullable = false)
+    private long processedParticipations;
+
+    @Column(name = "updated_results", nullable = false)
+    private long updatedResults;
+
+    @Column(name = "last_update_date", nullable = false)
+    private ZonedDateTime lastUpdateDate;
+
+    public ProgrammingExerciseReEvaluation() {
+        // Required for Hibernate
+    }
+
+    public ProgrammingExerciseReEvaluation(Long exerciseId) {
+        this.exerciseId = exerciseId;
+        this.lastUpdateDate = ZonedDateTime.now();
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public long getLastParticipationId() {
+        return lastParticipationId;
+    }
+
+    public long getProcessedParticipations() {
+        return processedParticipations;
+    }
+
+    public long getUpdatedResults() {
+        return updatedResults;
+    }
+
+    public ZonedDateTime getLastUpdateDate() {
+        return lastUpdateDate;
+    }
+
+    public void setLastUpdateDate(ZonedDateTime lastUpdateDate) {
+        this.lastUpdateDate = lastUpdateDate;
+    }
+
+    /**
+     * Records that the next chunk of participations has been re-evaluated
+     *
+     * @param lastParticipationId the id of the last participation of the chunk
+     * @param participations      the number of participations in the chunk
+     * @param results             the number of results that were updated
+     */
+    public void addProcessedChunk(long lastParticipationId, int participations, int results) {
+        this.lastParticipationId = lastParticipationId;
+        this.processedParticipations += participations;
+        this.updatedResults += results;
+        this.lastUpdateDate = ZonedDateTime.now();
+    }
+}
@@ -45,15 +45,29 @@ public class ConversationParticipant extends DomainObject {
     @Column(name = "last_read")
     private ZonedDateTime lastRead;
 
-    @Column(name = "unread_messages_count")
-    private Long unreadMessagesCount;
+    /**
+     * The message sequence number of the conversation up to which the participant has read the messages, see {@link Conversation#getMessageSequence()}
+     */
+    @Column(name = "last_read_sequence")
+    @JsonIgnore
+    private long lastReadSequence;
 
-    public Long getUnreadMessagesCount() {
-        return unreadMessagesCount;
+    public long getLastReadSequence() {
+        return lastReadSequence;
     }
 
-    public void setUnreadMessagesCount(Long unreadMessagesCount) {
-        this.unreadMessagesCount = unreadMessagesCount;
+    public void setLastReadSequence(long lastReadSequence) {
+        this.lastReadSequence = lastReadSequence;
+    }
+
+    /**
+     * Calculates the number of messages the participant has not read yet
+     *
+     * @param messageSequence the current message sequence number of the conversation
+     * @return the number of unread messages
+     */
+    public long getUnreadMessagesCount(long messageSequence) {
+        return Math.max(0, messageSequence - lastReadSequence);
     }
 
     public Conversation getConversation() {
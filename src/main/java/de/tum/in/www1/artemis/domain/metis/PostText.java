@@ -0,0 +1,7 @@
+package de.tum.in.www1.artemis.domain.metis;
+
+/**
+ * The searchable text of a post, used to build the index of similar posts without loading the posts with all their answers and reactions
+ */
+public record PostText(Long id, String title, String content) {
+}
@@ -54,6 +54,15 @@ public abstract class Conversation extends DomainObject {
     @Column(name = "last_message_date")
     private ZonedDateTime lastMessageDate;
 
+    /**
+     * Increases by one for every new message. Together with the last read sequence number of a participant, it determines the number of unread messages.
+     * It is only changed by {@link de.tum.in.www1.artemis.repository.metis.conversation.ConversationRepository#incrementMessageSequence}, so that saving a conversation never
+     * overwrites a concurrent increment.
+     */
+    @Column(name = "message_sequence", updatable = false)
+    @JsonIgnore
+    private long messageSequence;
+
     public Set<ConversationParticipant> getConversationParticipants() {
         return conversationParticipants;
     }
@@ -86,6 +95,14 @@ public abstract class Conversation extends DomainObject {
         this.lastMessageDate = lastMessageDate;
     }
 
+    public long getMessageSequence() {
+        return messageSequence;
+    }
+
+    public void setMessageSequence(long messageSequence) {
+        this.messageSequence = messageSequence;
+    }
+
     public User getCreator() {
         return creator;
     }
@@ -0,0 +1,9 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+/**
+ * The number of entries of one exercise at one point in time, used to pre-aggregate the statistics into hourly rollups
+ */
+public record ExerciseStatisticsEntry(Long exerciseId, ZonedDateTime date, Long amount) {
+}
@@ -0,0 +1,76 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.*;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+
+/**
+ * The number of entries of a graph type for one exercise in one hour, pre-aggregated from the source tables for the statistics pages.
+ * The exercise is only referenced by its id, so that deleting an exercise does not have to delete its rollups. Rollups of deleted exercises are never read.
+ */
+@Entity
+@Table(name = "statistics_rollup")
+public class StatisticsRollup extends DomainObject {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "graph_type", nullable = false)
+    private GraphType graphType;
+
+    @Column(name = "exercise_id", nullable = false)
+    private Long exerciseId;
+
+    /**
+     * The start of the hour the entries were created in
+     */
+    @Column(name = "time_slot", nullable = false)
+    private ZonedDateTime timeSlot;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    public StatisticsRollup() {
+        // Required for Hibernate
+    }
+
+    public StatisticsRollup(GraphType graphType, Long exerciseId, ZonedDateTime timeSlot, long amount) {
+        this.graphType = graphType;
+        this.exerciseId = exerciseId;
+        this.timeSlot = timeSlot;
+        this.amount = amount;
+    }
+
+    public GraphType getGraphType() {
+        return graphType;
+    }
+
+    public void setGraphType(GraphType graphType) {
+        this.graphType = graphType;
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(Long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public ZonedDateTime getTimeSlot() {
+        return timeSlot;
+    }
+
+    public void setTimeSlot(ZonedDateTime timeSlot) {
+        this.timeSlot = timeSlot;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+}
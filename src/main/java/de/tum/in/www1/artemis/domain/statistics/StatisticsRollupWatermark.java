@@ -0,0 +1,53 @@
+package de.tum.in.www1.artemis.domain.statistics;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.*;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+
+/**
+ * The time range for which the rollups of a graph type are complete, i.e. [rolledUpFrom, rolledUpUntil).
+ * Entries outside of this range are read from the source tables.
+ */
+@Entity
+@Table(name = "statistics_rollup_watermark")
+public class StatisticsRollupWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "graph_type")
+    private GraphType graphType;
+
+    @Column(name = "rolled_up_from", nullable = false)
+    private ZonedDateTime rolledUpFrom;
+
+    @Column(name = "rolled_up_until", nullable = false)
+    private ZonedDateTime rolledUpUntil;
+
+    public StatisticsRollupWatermark() {
+        // Required for Hibernate
+    }
+
+    public StatisticsRollupWatermark(GraphType graphType, ZonedDateTime rolledUpFrom) {
+        this.graphType = graphType;
+        this.rolledUpFrom = rolledUpFrom;
+        this.rolledUpUntil = rolledUpFrom;
+    }
+
+    public GraphType getGraphType() {
+        return graphType;
+    }
+
+    public ZonedDateTime getRolledUpFrom() {
+        return rolledUpFrom;
+    }
+
+    public ZonedDateTime getRolledUpUntil() {
+        return rolledUpUntil;
+    }
+
+    public void setRolledUpUntil(ZonedDateTime rolledUpUntil) {
+        this.rolledUpUntil = rolledUpUntil;
+    }
+}
@@ -47,4 +47,29 @@ public interface ModelElementRepository extends JpaRepository<ModelElement, Long
             GROUP BY element.modelElementId
             """)
     List<ModelElementRepository.ModelElementCount> countOtherElementsInSameClusterForSubmissionId(@Param("submissionId") Long submissionId);
+
+    /**
+     * Interface used to define return type for `findClusterMappingsByExerciseId`
+     */
+    interface ModelElementClusterMapping {
+
+        String getElementId();
+
+        String getElementType();
+
+        Long getClusterId();
+    }
+
+    /**
+     * Retrieves the id, type and cluster id of all clustered model elements of the exercise with the given `id` without loading the elements, clusters and submissions
+     *
+     * @param exerciseId the id of the modeling exercise
+     * @return the cluster mapping of all model elements of the exercise
+     */
+    @Query("""
+            SELECT element.modelElementId AS elementId, element.modelElementType AS elementType, element.cluster.id AS clusterId
+            FROM ModelElement element
+            WHERE element.cluster.exercise.id = :#{#exerciseId}
+            """)
+    List<ModelElementRepository.ModelElementClusterMapping> findClusterMappingsByExerciseId(@Param("exerciseId") Long exerciseId);
 }
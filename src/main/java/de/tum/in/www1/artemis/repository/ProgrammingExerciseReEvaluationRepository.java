@@ -0,0 +1,40 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExerciseReEvaluation;
+
+/**
+ * Spring Data JPA repository for the progress of running re-evaluations of programming exercise results
+ */
+@Repository
+public interface ProgrammingExerciseReEvaluationRepository extends JpaRepository<ProgrammingExerciseReEvaluation, Long> {
+
+    List<ProgrammingExerciseReEvaluation> findAllByLastUpdateDateBefore(ZonedDateTime lastUpdateDate);
+
+    /**
+     * Claims an interrupted re-evaluation, so that it is only continued by one instance
+     *
+     * @param exerciseId     the id of the exercise of the re-evaluation
+     * @param lastUpdateDate the last update date of the re-evaluation when it was found
+     * @param now            the new last update date
+     * @return 1 if the re-evaluation was claimed, 0 if it was updated or claimed in the meantime
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE ProgrammingExerciseReEvaluation reEvaluation
+            SET reEvaluation.lastUpdateDate = :#{#now}
+            WHERE reEvaluation.exerciseId = :#{#exerciseId}
+                AND reEvaluation.lastUpdateDate = :#{#lastUpdateDate}
+            """)
+    int claim(@Param("exerciseId") Long exerciseId, @Param("lastUpdateDate") ZonedDateTime lastUpdateDate, @Param("now") ZonedDateTime now);
+}
@@ -1,6 +1,11 @@
 package de.tum.in.www1.artemis.repository;
 
+import javax.transaction.Transactional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.quiz.QuizPointStatistic;
@@ -11,4 +16,21 @@ import de.tum.in.www1.artemis.domain.quiz.QuizPointStatistic;
 @Repository
 public interface QuizPointStatisticRepository extends JpaRepository<QuizPointStatistic, Long> {
 
+    /**
+     * Atomically adds the given changes to the participant counts of a quiz point statistic
+     *
+     * @param statisticId              the id of the quiz point statistic
+     * @param participantsRatedDelta   the change of the rated participants
+     * @param participantsUnratedDelta the change of the unrated participants
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE QuizPointStatistic statistic
+            SET statistic.participantsRated = statistic.participantsRated + :#{#participantsRatedDelta},
+                statistic.participantsUnrated = statistic.participantsUnrated + :#{#participantsUnratedDelta}
+            WHERE statistic.id = :#{#statisticId}
+            """)
+    void incrementParticipants(@Param("statisticId") Long statisticId, @Param("participantsRatedDelta") int participantsRatedDelta,
+            @Param("participantsUnratedDelta") int participantsUnratedDelta);
 }
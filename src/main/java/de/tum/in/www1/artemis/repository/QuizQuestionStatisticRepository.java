@@ -1,6 +1,11 @@
 package de.tum.in.www1.artemis.repository;
 
+import javax.transaction.Transactional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.quiz.QuizQuestionStatistic;
@@ -11,4 +16,26 @@ import de.tum.in.www1.artemis.domain.quiz.QuizQuestionStatistic;
 @Repository
 public interface QuizQuestionStatisticRepository extends JpaRepository<QuizQuestionStatistic, Long> {
 
+    /**
+     * Atomically adds the given changes to the participant and correct counts of a quiz question statistic
+     *
+     * @param statisticId                the id of the quiz question statistic
+     * @param participantsRatedDelta     the change of the rated participants
+     * @param participantsUnratedDelta   the change of the unrated participants
+     * @param ratedCorrectCounterDelta   the change of the rated correct counter
+     * @param unratedCorrectCounterDelta the change of the unrated correct counter
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE QuizQuestionStatistic statistic
+            SET statistic.participantsRated = statistic.participantsRated + :#{#participantsRatedDelta},
+                statistic.participantsUnrated = statistic.participantsUnrated + :#{#participantsUnratedDelta},
+                statistic.ratedCorrectCounter = statistic.ratedCorrectCounter + :#{#ratedCorrectCounterDelta},
+                statistic.unRatedCorrectCounter = statistic.unRatedCorrectCounter + :#{#unratedCorrectCounterDelta}
+            WHERE statistic.id = :#{#statisticId}
+            """)
+    void incrementCounters(@Param("statisticId") Long statisticId, @Param("participantsRatedDelta") int participantsRatedDelta,
+            @Param("participantsUnratedDelta") int participantsUnratedDelta, @Param("ratedCorrectCounterDelta") int ratedCorrectCounterDelta,
+            @Param("unratedCorrectCounterDelta") int unratedCorrectCounterDelta);
 }
@@ -0,0 +1,35 @@
+package de.tum.in.www1.artemis.repository;
+
+import javax.transaction.Transactional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizStatisticCounter;
+
+/**
+ * Spring Data JPA repository for the QuizStatisticCounter entity.
+ */
+@Repository
+public interface QuizStatisticCounterRepository extends JpaRepository<QuizStatisticCounter, Long> {
+
+    /**
+     * Atomically adds the given changes to the rated and unrated counter of a quiz statistic counter
+     *
+     * @param counterId           the id of the counter
+     * @param ratedCounterDelta   the change of the rated counter
+     * @param unratedCounterDelta the change of the unrated counter
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE QuizStatisticCounter counter
+            SET counter.ratedCounter = counter.ratedCounter + :#{#ratedCounterDelta},
+                counter.unRatedCounter = counter.unRatedCounter + :#{#unratedCounterDelta}
+            WHERE counter.id = :#{#counterId}
+            """)
+    void incrementCounters(@Param("counterId") Long counterId, @Param("ratedCounterDelta") int ratedCounterDelta, @Param("unratedCounterDelta") int unratedCounterDelta);
+}
@@ -0,0 +1,76 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollup;
+
+/**
+ * Spring Data JPA repository for the hourly rollups of the statistics pages
+ */
+@Repository
+public interface StatisticsRollupRepository extends JpaRepository<StatisticsRollup, Long> {
+
+    /**
+     * Sums up the rollups of all exercises that are part of an exam or a course that is not a test course, like the queries for the whole Artemis instance in
+     * {@link StatisticsRepository}
+     *
+     * @param graphType the graph type of the rollups
+     * @param startDate the start of the first hour (inclusive)
+     * @param endDate   the end of the time range (exclusive)
+     * @return the summed up amount per hour
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(r.timeSlot, SUM(r.amount))
+            FROM StatisticsRollup r, Exercise e
+                LEFT JOIN e.course c
+            WHERE r.exerciseId = e.id
+                AND r.graphType = :#{#graphType}
+                AND r.timeSlot >= :#{#startDate}
+                AND r.timeSlot < :#{#endDate}
+                AND (e.exerciseGroup IS NOT NULL OR c.testCourse = false)
+            GROUP BY r.timeSlot
+            ORDER BY r.timeSlot
+            """)
+    List<StatisticsEntry> getRolledUpEntries(@Param("graphType") GraphType graphType, @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.statistics.StatisticsEntry(r.timeSlot, SUM(r.amount))
+            FROM StatisticsRollup r
+            WHERE r.graphType = :#{#graphType}
+                AND r.timeSlot >= :#{#startDate}
+                AND r.timeSlot < :#{#endDate}
+                AND r.exerciseId IN :#{#exerciseIds}
+            GROUP BY r.timeSlot
+            ORDER BY r.timeSlot
+            """)
+    List<StatisticsEntry> getRolledUpEntriesForExercises(@Param("graphType") GraphType graphType, @Param("startDate") ZonedDateTime startDate,
+            @Param("endDate") ZonedDateTime endDate, @Param("exerciseIds") List<Long> exerciseIds);
+
+    @Transactional // ok because of delete
+    @Modifying
+    @Query("""
+            DELETE FROM StatisticsRollup r
+            WHERE r.graphType = :#{#graphType}
+                AND r.timeSlot >= :#{#startDate}
+                AND r.timeSlot < :#{#endDate}
+            """)
+    void deleteByGraphTypeAndTimeSlotBetween(@Param("graphType") GraphType graphType, @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+    @Transactional // ok because of delete
+    @Modifying
+    @Query("""
+            DELETE FROM StatisticsRollup r
+            WHERE r.exerciseId = :#{#exerciseId}
+            """)
+    void deleteByExerciseId(@Param("exerciseId") long exerciseId);
+}
@@ -0,0 +1,14 @@
+package de.tum.in.www1.artemis.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollupWatermark;
+
+/**
+ * Spring Data JPA repository for the time ranges covered by the hourly rollups of the statistics pages
+ */
+@Repository
+public interface StatisticsRollupWatermarkRepository extends JpaRepository<StatisticsRollupWatermark, GraphType> {
+}
@@ -280,6 +280,63 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
             """)
     Optional<StudentParticipation> findByIdWithManualResultAndFeedbacks(@Param("participationId") Long participationId);
 
+    /**
+     * Get the ids of the next participations of an exercise after the given participation id, ordered by id.
+     * Used to process all participations of an exercise in chunks, which can be continued after the last processed participation.
+     *
+     * @param exerciseId          Exercise id.
+     * @param lastParticipationId the id of the last processed participation, 0 to start with the first participation.
+     * @param pageable            the maximum number of ids (only the page size is used).
+     * @return the ids of the next participations.
+     */
+    @Query("""
+            SELECT p.id
+            FROM StudentParticipation p
+            WHERE p.exercise.id = :#{#exerciseId}
+                AND p.id > :#{#lastParticipationId}
+            ORDER BY p.id
+            """)
+    List<Long> findIdsByExerciseIdAfterParticipationId(@Param("exerciseId") Long exerciseId, @Param("lastParticipationId") Long lastParticipationId, Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(p)
+            FROM StudentParticipation p
+            WHERE p.exercise.id = :#{#exerciseId}
+            """)
+    long countByExerciseId(@Param("exerciseId") Long exerciseId);
+
+    /**
+     * Get the given participations with each latest {@link AssessmentType#AUTOMATIC} result and feedbacks (determined by id).
+     *
+     * @param participationIds the ids of the participations.
+     * @return the participations that have an automatic result.
+     */
+    @Query("""
+            SELECT DISTINCT p
+            FROM StudentParticipation p
+                LEFT JOIN FETCH p.results r
+                LEFT JOIN FETCH r.feedbacks
+                LEFT JOIN FETCH r.submission s
+            WHERE p.id IN :#{#participationIds}
+                AND (r.id = (SELECT max(pr.id) FROM p.results pr
+                    LEFT JOIN pr.submission prs
+                    WHERE pr.assessmentType = 'AUTOMATIC' AND (prs.type <> 'ILLEGAL' OR prs.type IS NULL)))
+            """)
+    List<StudentParticipation> findByIdsWithLatestAutomaticResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
+
+    // Manual result can either be from type MANUAL or SEMI_AUTOMATIC
+    @Query("""
+            SELECT DISTINCT p
+            FROM StudentParticipation p
+                LEFT JOIN FETCH p.results r
+                LEFT JOIN FETCH r.feedbacks
+                LEFT JOIN FETCH r.submission s
+            WHERE p.id IN :#{#participationIds}
+                AND (s.type <> 'ILLEGAL' OR s.type IS NULL)
+                AND (r.assessmentType = 'MANUAL' OR r.assessmentType = 'SEMI_AUTOMATIC')
+            """)
+    List<StudentParticipation> findByIdsWithManualResultAndFeedbacks(@Param("participationIds") Collection<Long> participationIds);
+
     @Query("""
             SELECT DISTINCT p
             FROM StudentParticipation p
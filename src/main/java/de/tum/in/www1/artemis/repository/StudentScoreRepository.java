@@ -29,6 +29,9 @@ public interface StudentScoreRepository extends JpaRepository<StudentScore, Long
     @EntityGraph(type = LOAD, attributePaths = { "user", "exercise" })
     Optional<StudentScore> findByExercise_IdAndUser_Id(Long exerciseId, Long userId);
 
+    @EntityGraph(type = LOAD, attributePaths = { "user", "exercise" })
+    List<StudentScore> findAllByExercise_IdAndUser_IdIn(Long exerciseId, Set<Long> userIds);
+
     @EntityGraph(type = LOAD, attributePaths = { "user", "exercise", "lastResult", "lastRatedResult" })
     List<StudentScore> findAllByExerciseIn(Set<Exercise> exercises, Pageable pageable);
 
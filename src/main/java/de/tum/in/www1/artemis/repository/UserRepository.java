@@ -67,6 +67,8 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     Optional<User> findOneByLogin(String login);
 
+    Set<User> findAllByLoginIn(Set<String> logins);
+
     @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
     Optional<User> findOneWithGroupsAndAuthoritiesByRegistrationNumber(String registrationNumber);
 
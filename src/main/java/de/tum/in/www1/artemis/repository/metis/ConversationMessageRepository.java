@@ -3,8 +3,11 @@ package de.tum.in.www1.artemis.repository.metis;
 import static de.tum.in.www1.artemis.repository.specs.MessageSpecs.*;
 import static de.tum.in.www1.artemis.repository.specs.PostSpecs.*;
 
+import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -18,13 +21,14 @@ import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.metis.Post;
 import de.tum.in.www1.artemis.repository.specs.MessageSpecs;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
  * Spring Data repository for the Message (Post) entity.
  */
 @Repository
-public interface ConversationMessageRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
+public interface ConversationMessageRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post>, PostKeysetRepository {
 
     /**
      * Generates SQL Query via specifications to find and sort Messages
@@ -44,6 +48,25 @@ public interface ConversationMessageRepository extends JpaRepository<Post, Long>
         return findAll(specification, pageable);
     }
 
+    /**
+     * Filters Messages like {@link #findMessages} and fetches the page before the cursor, sorted by creation date descending (keyset pagination)
+     *
+     * @param postContextFilter filtering properties for post objects
+     * @param cursor            the position of the last Message of the previous page, or null to fetch the first page
+     * @param limit             the maximum number of Messages to fetch
+     * @param userId            the id of the user for which the messages should be returned
+     * @return the Messages of the page together with their answers and reactions
+     */
+    default List<Post> findMessagesBeforeCursor(PostContextFilter postContextFilter, @Nullable PostCursor cursor, int limit, long userId) {
+        Specification<Post> specification = Specification.where(getConversationSpecification(postContextFilter.getConversationId())
+                .and(MessageSpecs.getSearchTextSpecification(postContextFilter.getSearchText()).and(MessageSpecs.getKeysetSortSpecification(cursor))
+                        .and(getOwnSpecification(postContextFilter.getFilterToOwn(), userId)))
+                .and(getAnsweredOrReactedSpecification(postContextFilter.getFilterToAnsweredOrReacted(), userId))
+                .and(getUnresolvedSpecification(postContextFilter.getFilterToUnresolved())));
+
+        return findAllWithAnswersAndReactionsByIdIn(findPostIds(specification, limit));
+    }
+
     default Post findMessagePostByIdElseThrow(Long postId) throws EntityNotFoundException {
         return findById(postId).filter(post -> post.getConversation() != null).orElseThrow(() -> new EntityNotFoundException("Message", postId));
     }
@@ -37,12 +37,24 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
             """)
     Set<ConversationParticipant> findConversationParticipantByConversationId(@Param("conversationId") Long conversationId);
 
+    @Query("""
+            SELECT DISTINCT conversationParticipant
+            FROM ConversationParticipant conversationParticipant
+                LEFT JOIN FETCH conversationParticipant.user
+            WHERE conversationParticipant.conversation.id = :#{#conversationId}
+            """)
+    Set<ConversationParticipant> findConversationParticipantsWithUserByConversationId(@Param("conversationId") Long conversationId);
+
     @Async
     @Transactional // ok because of modifying query
     @Modifying
     @Query("""
             UPDATE ConversationParticipant p
-            SET p.lastRead = :now, p.unreadMessagesCount = 0
+            SET p.lastRead = :now, p.lastReadSequence = (
+                SELECT conversation.messageSequence
+                FROM Conversation conversation
+                WHERE conversation.id = :conversationId
+            )
             WHERE p.user.id = :userId
                 AND p.conversation.id = :conversationId
             """)
@@ -73,7 +85,8 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
     void deleteAllByConversationId(Long conversationId);
 
     /**
-     * Increment unreadMessageCount field of ConversationParticipant
+     * Decrements the number of unread messages of all participants that have not read all messages yet by moving their last read sequence number forward by one.
+     * This is used when a message is deleted, which does not change the message sequence number of the conversation.
      *
      * @param senderId       userId of the sender of the message(Post)
      * @param conversationId conversationId id of the conversation with participants
@@ -82,28 +95,14 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
     @Modifying
     @Query("""
             UPDATE ConversationParticipant conversationParticipant
-            SET conversationParticipant.unreadMessagesCount = conversationParticipant.unreadMessagesCount + 1
-            WHERE conversationParticipant.conversation.id = :#{#conversationId}
-            AND (conversationParticipant.user.id <> :#{#senderId})
-            AND conversationParticipant.unreadMessagesCount IS NOT null
-            """)
-    void incrementUnreadMessagesCountOfParticipants(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
-
-    /**
-     * Decrement unreadMessageCount field of ConversationParticipant
-     *
-     * @param senderId       userId of the sender of the message(Post)
-     * @param conversationId conversationId id of the conversation with participants
-     */
-    @Transactional
-    @Modifying
-    @Query("""
-            UPDATE ConversationParticipant conversationParticipant
-            SET conversationParticipant.unreadMessagesCount = conversationParticipant.unreadMessagesCount - 1
+            SET conversationParticipant.lastReadSequence = conversationParticipant.lastReadSequence + 1
             WHERE conversationParticipant.conversation.id = :#{#conversationId}
             AND (conversationParticipant.user.id <> :#{#senderId})
-            AND conversationParticipant.unreadMessagesCount > 0
-            AND conversationParticipant.unreadMessagesCount IS NOT null
+            AND conversationParticipant.lastReadSequence < (
+                SELECT conversation.messageSequence
+                FROM Conversation conversation
+                WHERE conversation.id = :#{#conversationId}
+            )
             """)
     void decrementUnreadMessagesCountOfParticipants(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
 }
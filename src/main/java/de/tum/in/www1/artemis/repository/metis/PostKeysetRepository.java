@@ -0,0 +1,32 @@
+package de.tum.in.www1.artemis.repository.metis;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+
+/**
+ * Repository fragment for the keyset pagination of posts and messages, which is implemented in {@link PostKeysetRepositoryImpl}.
+ * A page is fetched in two steps: first only the ids of the posts of the page are selected, which the database can answer from its indices, then the posts of the page
+ * are loaded together with their answers and reactions. Fetching the collections in the first query would make Hibernate load all matching posts and paginate in memory.
+ */
+public interface PostKeysetRepository {
+
+    /**
+     * Selects the ids of the first posts matching the specification, in the order defined by the specification
+     *
+     * @param specification the filter and order of the posts, including the keyset predicate
+     * @param limit         the maximum number of ids to select
+     * @return the ids of the matching posts
+     */
+    List<Long> findPostIds(Specification<Post> specification, int limit);
+
+    /**
+     * Loads the posts with the given ids together with their answers, reactions and tags
+     *
+     * @param ids the ids of the posts to load
+     * @return the posts in the order of the given ids, posts that do not exist (anymore) are skipped
+     */
+    List<Post> findAllWithAnswersAndReactionsByIdIn(List<Long> ids);
+}
@@ -0,0 +1,62 @@
+package de.tum.in.www1.artemis.repository.metis;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.domain.metis.Post_;
+
+public class PostKeysetRepositoryImpl implements PostKeysetRepository {
+
+    private final EntityManager entityManager;
+
+    public PostKeysetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Long> findPostIds(Specification<Post> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // Workaround: remove all fetches as they are not supported when selecting single columns, see RepositoryImpl#getCountQuery
+        root.getFetches().clear();
+        // the columns the posts are ordered by are selected as well, because distinct results can only be ordered by selected columns
+        query.multiselect(root.get(Post_.ID), root.get(Post_.CREATION_DATE), root.get(Post_.DISPLAY_PRIORITY), root.get(Post_.COURSE_WIDE_CONTEXT));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream().map(tuple -> tuple.get(0, Long.class)).toList();
+    }
+
+    @Override
+    public List<Post> findAllWithAnswersAndReactionsByIdIn(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Post> posts = entityManager.createQuery("""
+                SELECT DISTINCT post
+                FROM Post post
+                    LEFT JOIN FETCH post.answers answer
+                    LEFT JOIN FETCH answer.reactions
+                    LEFT JOIN FETCH post.reactions
+                    LEFT JOIN FETCH post.tags
+                WHERE post.id IN :ids
+                """, Post.class).setParameter("ids", ids).getResultList();
+        Map<Long, Post> postsById = posts.stream().collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream().map(postsById::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -4,6 +4,7 @@ import static de.tum.in.www1.artemis.repository.specs.PostSpecs.*;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.transaction.Transactional;
 
 import org.springframework.data.domain.Page;
@@ -18,14 +19,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.domain.metis.PostText;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 /**
  * Spring Data repository for the Post entity.
  */
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
+public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post>, PostKeysetRepository {
 
     List<Post> findPostsByAuthorId(long authorId);
 
@@ -71,6 +74,27 @@ public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificat
         }
     }
 
+    /**
+     * Filters Posts like {@link #findPosts} and fetches the page after the cursor, sorted by display priority and creation date (keyset pagination)
+     *
+     * @param postContextFilter filtering properties for Posts and the direction of sorting by creation date
+     * @param userId            id of the user performing the call, needed on certain filters
+     * @param cursor            the position of the last Post of the previous page, or null to fetch the first page
+     * @param limit             the maximum number of Posts to fetch
+     * @return the Posts of the page together with their answers and reactions
+     */
+    default List<Post> findPostsAfterCursor(PostContextFilter postContextFilter, Long userId, @Nullable PostCursor cursor, int limit) {
+        Specification<Post> specification = Specification.where(distinct()).and(getCourseSpecification(postContextFilter.getCourseId()))
+                .and(getLectureSpecification(postContextFilter.getLectureIds()).or(getExerciseSpecification(postContextFilter.getExerciseIds()))
+                        .or(getCourseWideContextSpecification(postContextFilter.getCourseWideContexts())))
+                .and(getSearchTextSpecification(postContextFilter.getSearchText())).and(getOwnSpecification(postContextFilter.getFilterToOwn(), userId))
+                .and(getAnsweredOrReactedSpecification(postContextFilter.getFilterToAnsweredOrReacted(), userId))
+                .and(getUnresolvedSpecification(postContextFilter.getFilterToUnresolved()))
+                .and(getKeysetSortSpecification(postContextFilter.getSortingOrder(), cursor));
+
+        return findAllWithAnswersAndReactionsByIdIn(findPostIds(specification, limit));
+    }
+
     @Transactional // ok because of delete
     @Modifying
     void deleteAllByConversationId(Long conversationId);
@@ -84,6 +108,22 @@ public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificat
             """)
     List<String> findPostTagsForCourse(@Param("courseId") Long courseId);
 
+    /**
+     * Finds the title and content of all posts of a course, i.e. of the posts {@link de.tum.in.www1.artemis.repository.specs.PostSpecs#getCourseSpecification(Long)} finds
+     *
+     * @param courseId id of the course
+     * @return the texts of all posts in the course
+     */
+    @Query("""
+            SELECT new de.tum.in.www1.artemis.domain.metis.PostText(post.id, post.title, post.content)
+            FROM Post post
+            LEFT JOIN post.lecture lecture LEFT JOIN post.exercise exercise
+            WHERE lecture.course.id = :#{#courseId}
+            OR exercise.course.id = :#{#courseId}
+            OR post.course.id = :#{#courseId}
+            """)
+    List<PostText> findPostTextsForCourse(@Param("courseId") Long courseId);
+
     @Query("""
             SELECT DISTINCT post FROM Post post
             LEFT JOIN post.answers answer LEFT JOIN post.reactions reaction
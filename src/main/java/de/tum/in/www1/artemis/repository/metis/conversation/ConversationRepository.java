@@ -47,7 +47,22 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
              FROM Conversation c
                  LEFT JOIN c.conversationParticipants cp
                  LEFT JOIN cp.user user
-             WHERE user.id = :userId AND cp.unreadMessagesCount > 0 AND c.course.id = :courseId
+             WHERE user.id = :userId AND c.messageSequence > cp.lastReadSequence AND c.course.id = :courseId
             """)
     boolean userHasUnreadMessageInCourse(@Param("courseId") Long courseId, @Param("userId") Long userId);
+
+    /**
+     * Increments the message sequence number of the conversation when a new message is created.
+     * This only updates the row of the conversation, the unread messages of the participants are derived from it.
+     *
+     * @param conversationId the id of the conversation in which the message was created
+     */
+    @Transactional // ok because of modifying query
+    @Modifying
+    @Query("""
+            UPDATE Conversation conversation
+            SET conversation.messageSequence = conversation.messageSequence + 1
+            WHERE conversation.id = :#{#conversationId}
+            """)
+    void incrementMessageSequence(@Param("conversationId") Long conversationId);
 }
@@ -1,7 +1,11 @@
 package de.tum.in.www1.artemis.repository.specs;
 
+import java.time.ZonedDateTime;
+
+import javax.annotation.Nullable;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 
 import org.springframework.data.jpa.domain.Specification;
@@ -10,6 +14,7 @@ import de.tum.in.www1.artemis.domain.metis.AnswerPost_;
 import de.tum.in.www1.artemis.domain.metis.Post;
 import de.tum.in.www1.artemis.domain.metis.Post_;
 import de.tum.in.www1.artemis.domain.metis.conversation.Conversation_;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 
 public class MessageSpecs {
 
@@ -75,4 +80,24 @@ public class MessageSpecs {
             return null;
         });
     }
+
+    /**
+     * Specification which sorts Messages by creation date descending like {@link #getSortSpecification()} and only fetches the Messages before the given cursor
+     * (keyset pagination). The id is used as second sort criterion, so that the order of Messages with the same creation date is well-defined.
+     *
+     * @param cursor the position of the last Message of the previous page, or null to fetch the first page
+     * @return specification used to chain DB operations
+     */
+    public static Specification<Post> getKeysetSortSpecification(@Nullable PostCursor cursor) {
+        return ((root, query, criteriaBuilder) -> {
+            Path<ZonedDateTime> creationDate = root.get(Post_.CREATION_DATE);
+            Path<Long> id = root.get(Post_.ID);
+            query.orderBy(criteriaBuilder.desc(creationDate), criteriaBuilder.desc(id));
+            if (cursor == null) {
+                return null;
+            }
+            return criteriaBuilder.or(criteriaBuilder.lessThan(creationDate, cursor.creationDate()),
+                    criteriaBuilder.and(criteriaBuilder.equal(creationDate, cursor.creationDate()), criteriaBuilder.lessThan(id, cursor.id())));
+        });
+    }
 }
@@ -1,9 +1,11 @@
 package de.tum.in.www1.artemis.repository.specs;
 
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.persistence.criteria.*;
 
 import org.springframework.data.jpa.domain.Specification;
@@ -12,6 +14,7 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.DisplayPriority;
 import de.tum.in.www1.artemis.domain.enumeration.SortingOrder;
 import de.tum.in.www1.artemis.domain.metis.*;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 
 public class PostSpecs {
 
@@ -202,13 +205,7 @@ public class PostSpecs {
                 List<Order> orderList = new ArrayList<>();
 
                 // sort by priority
-                Expression<Object> pinnedFirstThenAnnouncementsArchivedLast = criteriaBuilder.selectCase()
-                        .when(criteriaBuilder.and(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.PINNED)),
-                                criteriaBuilder.equal(root.get(Post_.COURSE_WIDE_CONTEXT), criteriaBuilder.literal(CourseWideContext.ANNOUNCEMENT))), 1)
-                        .when(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.PINNED)), 2)
-                        .when(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.NONE)), 3)
-                        .when(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.ARCHIVED)), 4);
-                orderList.add(criteriaBuilder.asc(pinnedFirstThenAnnouncementsArchivedLast));
+                orderList.add(criteriaBuilder.asc(getDisplayPriorityRank(root, criteriaBuilder)));
 
                 Expression<?> sortCriterion = null;
 
@@ -233,6 +230,64 @@ public class PostSpecs {
         });
     }
 
+    /**
+     * Specification which sorts Posts like {@link #getSortSpecification} by CREATION_DATE and only fetches the Posts after the given cursor (keyset pagination).
+     * The id is used as last sort criterion, so that the order of Posts with the same priority and creation date is well-defined.
+     *
+     * @param sortingOrder direction of sorting by creation date (ASC, DESC)
+     * @param cursor       the position of the last Post of the previous page including its display priority rank, or null to fetch the first page
+     * @return specification used to chain DB operations
+     */
+    public static Specification<Post> getKeysetSortSpecification(SortingOrder sortingOrder, @Nullable PostCursor cursor) {
+        return ((root, query, criteriaBuilder) -> {
+            boolean ascending = sortingOrder == SortingOrder.ASCENDING;
+            Expression<Integer> displayPriorityRank = getDisplayPriorityRank(root, criteriaBuilder);
+            Path<ZonedDateTime> creationDate = root.get(Post_.CREATION_DATE);
+            Path<Long> id = root.get(Post_.ID);
+            query.orderBy(criteriaBuilder.asc(displayPriorityRank), ascending ? criteriaBuilder.asc(creationDate) : criteriaBuilder.desc(creationDate),
+                    ascending ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+            if (cursor == null) {
+                return null;
+            }
+
+            Predicate afterCreationDate = ascending ? criteriaBuilder.greaterThan(creationDate, cursor.creationDate())
+                    : criteriaBuilder.lessThan(creationDate, cursor.creationDate());
+            Predicate afterId = ascending ? criteriaBuilder.greaterThan(id, cursor.id()) : criteriaBuilder.lessThan(id, cursor.id());
+            Predicate afterInSameRank = criteriaBuilder.or(afterCreationDate, criteriaBuilder.and(criteriaBuilder.equal(creationDate, cursor.creationDate()), afterId));
+            return criteriaBuilder.or(criteriaBuilder.greaterThan(displayPriorityRank, cursor.displayPriorityRank()),
+                    criteriaBuilder.and(criteriaBuilder.equal(displayPriorityRank, cursor.displayPriorityRank()), afterInSameRank));
+        });
+    }
+
+    /**
+     * Ranks Posts by their display priority: pinned announcements first, then pinned posts, then all other posts, archived posts last.
+     * Must be consistent with {@link #getDisplayPriorityRank(Post)}.
+     *
+     * @param root            the root of the query
+     * @param criteriaBuilder the criteria builder of the query
+     * @return the expression of the rank
+     */
+    private static Expression<Integer> getDisplayPriorityRank(Root<Post> root, CriteriaBuilder criteriaBuilder) {
+        return criteriaBuilder.<Integer>selectCase()
+                .when(criteriaBuilder.and(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.PINNED)),
+                        criteriaBuilder.equal(root.get(Post_.COURSE_WIDE_CONTEXT), criteriaBuilder.literal(CourseWideContext.ANNOUNCEMENT))), 1)
+                .when(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.PINNED)), 2)
+                .when(criteriaBuilder.equal(root.get(Post_.DISPLAY_PRIORITY), criteriaBuilder.literal(DisplayPriority.ARCHIVED)), 4).otherwise(3);
+    }
+
+    /**
+     * Ranks the Post by its display priority the same way as {@link #getDisplayPriorityRank(Root, CriteriaBuilder)} does in queries
+     *
+     * @param post the post to rank
+     * @return the rank of the post
+     */
+    public static int getDisplayPriorityRank(Post post) {
+        if (post.getDisplayPriority() == DisplayPriority.PINNED) {
+            return post.getCourseWideContext() == CourseWideContext.ANNOUNCEMENT ? 1 : 2;
+        }
+        return post.getDisplayPriority() == DisplayPriority.ARCHIVED ? 4 : 3;
+    }
+
     /**
      * Creates the specification to get distinct Posts
      *
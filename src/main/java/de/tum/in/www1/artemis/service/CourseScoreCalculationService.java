@@ -148,18 +148,27 @@ public class CourseScoreCalculationService {
             plagiarismCases = plagiarismCaseRepository.findByCourseId(courseId);
         }
 
-        return studentIdToParticipations.entrySet().parallelStream().collect(Collectors.toMap(Map.Entry::getKey,
-                entry -> constructBonusSourceResultDTO(course, gradingScale, entry.getKey(), entry.getValue(), maxAndReachablePoints, plagiarismCases)));
+        // Build the lookup structures once for all students instead of once per student
+        PlagiarismMapping plagiarismMapping = PlagiarismMapping.createFromPlagiarismCases(plagiarismCases);
+        Map<Long, Double> presentationPointsByStudentId = null;
+        if (gradingScale != null && maxAndReachablePoints.reachablePresentationPoints > 0.0 && !studentIdToParticipations.isEmpty()) {
+            presentationPointsByStudentId = presentationPointsCalculationService.calculatePresentationPointsForStudentIds(gradingScale, studentIdToParticipations.keySet(),
+                    maxAndReachablePoints.reachablePresentationPoints);
+        }
+        final Map<Long, Double> finalPresentationPointsByStudentId = presentationPointsByStudentId;
+
+        return studentIdToParticipations.entrySet().parallelStream().collect(Collectors.toMap(Map.Entry::getKey, entry -> constructBonusSourceResultDTO(course, gradingScale,
+                entry.getKey(), entry.getValue(), maxAndReachablePoints, plagiarismMapping, finalPresentationPointsByStudentId)));
     }
 
     private BonusSourceResultDTO constructBonusSourceResultDTO(Course course, GradingScale gradingScale, Long studentId, List<StudentParticipation> participations,
-            MaxAndReachablePoints maxAndReachablePoints, List<PlagiarismCase> plagiarismCases) {
-        StudentScoresDTO studentScores = calculateCourseScoreForStudent(course, gradingScale, studentId, participations, maxAndReachablePoints, plagiarismCases);
+            MaxAndReachablePoints maxAndReachablePoints, PlagiarismMapping plagiarismMapping, @Nullable Map<Long, Double> presentationPointsByStudentId) {
+        StudentScoresDTO studentScores = calculateCourseScoreForStudent(course, gradingScale, studentId, participations, maxAndReachablePoints, plagiarismMapping,
+                presentationPointsByStudentId);
 
         boolean presentationScorePassed;
         PlagiarismVerdict mostSeverePlagiarismVerdict = null;
         boolean hasParticipated;
-        PlagiarismMapping plagiarismMapping = PlagiarismMapping.createFromPlagiarismCases(plagiarismCases);
         if (participations.isEmpty()) {
             presentationScorePassed = false;
             hasParticipated = false;
@@ -221,13 +230,16 @@ public class CourseScoreCalculationService {
             }
         }
 
+        PlagiarismMapping plagiarismMapping = PlagiarismMapping.createFromPlagiarismCases(plagiarismCases);
+
         // Get the total scores for the course.
-        StudentScoresDTO totalStudentScores = calculateCourseScoreForStudent(course, gradingScale, userId, gradedStudentParticipations, maxAndReachablePoints, plagiarismCases);
+        StudentScoresDTO totalStudentScores = calculateCourseScoreForStudent(course, gradingScale, userId, gradedStudentParticipations, maxAndReachablePoints, plagiarismMapping,
+                null);
         CourseScoresDTO totalScores = new CourseScoresDTO(maxAndReachablePoints.maxPoints, maxAndReachablePoints.reachablePoints, maxAndReachablePoints.reachablePresentationPoints,
                 totalStudentScores);
 
         // Get scores per exercise type for the course (used in course-statistics.component i.a.).
-        Map<ExerciseType, CourseScoresDTO> scoresPerExerciseType = calculateCourseScoresPerExerciseType(course, gradedStudentParticipations, userId, plagiarismCases);
+        Map<ExerciseType, CourseScoresDTO> scoresPerExerciseType = calculateCourseScoresPerExerciseType(course, gradedStudentParticipations, userId, plagiarismMapping);
 
         // Get participation results (used in course-statistics.component).
         List<ParticipationResultDTO> participationResults = new ArrayList<>();
@@ -259,24 +271,28 @@ public class CourseScoreCalculationService {
      *         the scores of the current user.
      */
     private Map<ExerciseType, CourseScoresDTO> calculateCourseScoresPerExerciseType(Course course, List<StudentParticipation> studentParticipations, long userId,
-            List<PlagiarismCase> plagiarismCases) {
+            PlagiarismMapping plagiarismMapping) {
 
         Map<ExerciseType, CourseScoresDTO> scoresPerExerciseType = new HashMap<>();
 
+        // Group the entities by exercise type once instead of filtering them for every exercise type.
+        Map<ExerciseType, Set<Exercise>> exercisesByExerciseType = course.getExercises().stream()
+                .collect(Collectors.groupingBy(Exercise::getExerciseType, () -> new EnumMap<>(ExerciseType.class), Collectors.toSet()));
+        Map<ExerciseType, List<StudentParticipation>> studentParticipationsByExerciseType = studentParticipations.stream()
+                .collect(Collectors.groupingBy(participation -> participation.getExercise().getExerciseType(), () -> new EnumMap<>(ExerciseType.class), Collectors.toList()));
+
         // Get scores per exercise type.
         for (ExerciseType exerciseType : ExerciseType.values()) {
-            // Filter out the entities per exercise type.
-            Set<Exercise> exercisesOfExerciseType = course.getExercises().stream().filter(exercise -> exercise.getExerciseType() == exerciseType).collect(Collectors.toSet());
+            Set<Exercise> exercisesOfExerciseType = exercisesByExerciseType.getOrDefault(exerciseType, Set.of());
 
             MaxAndReachablePoints maxAndReachablePointsOfExerciseType = calculateMaxAndReachablePoints(null, exercisesOfExerciseType);
 
-            List<StudentParticipation> studentParticipationsOfExerciseType = studentParticipations.stream()
-                    .filter(participation -> participation.getExercise().getExerciseType() == exerciseType).toList();
+            List<StudentParticipation> studentParticipationsOfExerciseType = studentParticipationsByExerciseType.getOrDefault(exerciseType, List.of());
 
             // Hand over all plagiarism cases (not just the ones for the current exercise type) because a student will receive a 0 score for all exercises if there is any
             // PLAGIARISM verdict.
             StudentScoresDTO studentScoresOfExerciseType = calculateCourseScoreForStudent(course, null, userId, studentParticipationsOfExerciseType,
-                    maxAndReachablePointsOfExerciseType, plagiarismCases);
+                    maxAndReachablePointsOfExerciseType, plagiarismMapping, null);
             CourseScoresDTO scoresOfExerciseType = new CourseScoresDTO(maxAndReachablePointsOfExerciseType.maxPoints, maxAndReachablePointsOfExerciseType.reachablePoints, 0.0,
                     studentScoresOfExerciseType);
             scoresPerExerciseType.put(exerciseType, scoresOfExerciseType);
@@ -299,8 +315,25 @@ public class CourseScoreCalculationService {
      */
     public StudentScoresDTO calculateCourseScoreForStudent(Course course, GradingScale gradingScale, Long studentId, List<StudentParticipation> participationsOfStudent,
             MaxAndReachablePoints maxAndReachablePoints, List<PlagiarismCase> plagiarismCases) {
+        return calculateCourseScoreForStudent(course, gradingScale, studentId, participationsOfStudent, maxAndReachablePoints,
+                PlagiarismMapping.createFromPlagiarismCases(plagiarismCases), null);
+    }
 
-        PlagiarismMapping plagiarismMapping = PlagiarismMapping.createFromPlagiarismCases(plagiarismCases);
+    /**
+     * Calculates the presentation score, relative and absolute points for the given studentId, see
+     * {@link #calculateCourseScoreForStudent(Course, GradingScale, Long, List, MaxAndReachablePoints, List)}.
+     *
+     * @param course                        the course the scores are calculated for.
+     * @param gradingScale                  the grading scale of the course.
+     * @param studentId                     the id of the student who has participated in the course exercises.
+     * @param participationsOfStudent       should be non-empty. The exercise participations of the given student.
+     * @param maxAndReachablePoints         max points and max reachable points in the given course.
+     * @param plagiarismMapping             the plagiarism cases of the course mapped by student and exercise.
+     * @param presentationPointsByStudentId the precalculated graded presentation points by student id, or null if they should be fetched for the given student.
+     * @return a StudentScoresDTO instance with the presentation score, relative and absolute points achieved by the given student.
+     */
+    private StudentScoresDTO calculateCourseScoreForStudent(Course course, GradingScale gradingScale, Long studentId, List<StudentParticipation> participationsOfStudent,
+            MaxAndReachablePoints maxAndReachablePoints, PlagiarismMapping plagiarismMapping, @Nullable Map<Long, Double> presentationPointsByStudentId) {
 
         if (participationsOfStudent.isEmpty() || plagiarismMapping.studentHasVerdict(studentId, PlagiarismVerdict.PLAGIARISM)) {
             return new StudentScoresDTO(0.0, 0.0, 0.0, 0);
@@ -326,8 +359,13 @@ public class CourseScoreCalculationService {
 
         // calculate presentation points for graded presentations
         if (gradingScale != null && maxAndReachablePoints.reachablePresentationPoints > 0.0) {
-            presentationScore = presentationPointsCalculationService.calculatePresentationPointsForStudentId(gradingScale, studentId,
-                    maxAndReachablePoints.reachablePresentationPoints);
+            if (presentationPointsByStudentId != null) {
+                presentationScore = presentationPointsByStudentId.getOrDefault(studentId, 0.0);
+            }
+            else {
+                presentationScore = presentationPointsCalculationService.calculatePresentationPointsForStudentId(gradingScale, studentId,
+                        maxAndReachablePoints.reachablePresentationPoints);
+            }
             pointsAchievedByStudentInCourse += presentationScore;
         }
         // calculate presentation score for basic presentations
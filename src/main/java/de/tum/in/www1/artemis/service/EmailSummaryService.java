@@ -4,8 +4,9 @@ import static de.tum.in.www1.artemis.service.notifications.NotificationSettingsS
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.repository.CourseRepository;
 import de.tum.in.www1.artemis.repository.ExerciseRepository;
 import de.tum.in.www1.artemis.repository.NotificationSettingRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
@@ -25,7 +27,9 @@ public class EmailSummaryService {
 
     private final NotificationSettingRepository notificationSettingRepository;
 
-    private final CourseService courseService;
+    private final CourseRepository courseRepository;
+
+    private final AuthorizationCheckService authCheckService;
 
     private final ExerciseRepository exerciseRepository;
 
@@ -33,11 +37,12 @@ public class EmailSummaryService {
 
     private final Duration weekly = Duration.ofDays(7);
 
-    public EmailSummaryService(MailService mailService, NotificationSettingRepository notificationSettingRepository, CourseService courseService,
-            ExerciseRepository exerciseRepository) {
+    public EmailSummaryService(MailService mailService, NotificationSettingRepository notificationSettingRepository, CourseRepository courseRepository,
+            AuthorizationCheckService authCheckService, ExerciseRepository exerciseRepository) {
         this.mailService = mailService;
         this.notificationSettingRepository = notificationSettingRepository;
-        this.courseService = courseService;
+        this.courseRepository = courseRepository;
+        this.authCheckService = authCheckService;
         this.exerciseRepository = exerciseRepository;
     }
 
@@ -58,7 +63,8 @@ public class EmailSummaryService {
     }
 
     /**
-     * Prepare email summaries for a set of users
+     * Prepare email summaries for a set of users.
+     * Users whose summaries contain the same exercises are grouped, so that the summary is only rendered once for all of them.
      *
      * @param users the users to prepare email summaries for
      */
@@ -70,28 +76,42 @@ public class EmailSummaryService {
         // load all relevant exercises from the DB once
         Set<Exercise> allExercisesRelevantForSummary = exerciseRepository.findAllExercisesForSummary(ZonedDateTime.now(), ZonedDateTime.now().minusDays(scheduleInterval.toDays()));
 
-        users.forEach(user -> prepareEmailSummaryForUser(user, allExercisesRelevantForSummary));
+        // load all active courses from the DB once, instead of once per user
+        List<Course> activeCourses = courseRepository.findAllActive(ZonedDateTime.now());
+        Map<String, Set<Long>> activeCourseIdsPerGroup = getActiveCourseIdsPerGroup(activeCourses);
+        Set<Long> allActiveCourseIds = activeCourses.stream().map(Course::getId).collect(Collectors.toSet());
+
+        Map<Set<Exercise>, Set<User>> usersPerRelevantExercises = users.stream().collect(Collectors.groupingBy(user -> {
+            Set<Long> courseIds = authCheckService.isAdmin(user) ? allActiveCourseIds : getActiveCourseIdsOfUser(user, activeCourseIdsPerGroup);
+            // Filter out the relevant exercises for this individual user's summary
+            return allExercisesRelevantForSummary.stream().filter(exercise -> courseIds.contains(exercise.getCourseViaExerciseGroupOrCourseMember().getId()))
+                    .collect(Collectors.toSet());
+        }, Collectors.toSet()));
+
+        // currently, only weekly summaries are supported -> for daily just add one more case
+        if (scheduleInterval.equals(weekly)) {
+            usersPerRelevantExercises.forEach((exercises, usersWithTheseExercises) -> mailService.sendWeeklySummaryEmails(usersWithTheseExercises, exercises));
+        }
     }
 
     /**
-     * Prepares all needed information to create the summary email for one user
-     * and calls the MailService
+     * Maps each group to the ids of the active courses in which it has a role.
+     * Students only see courses that have already started, which holds for all active courses.
      *
-     * @param user                                   for whom the summary email should be prepared
-     * @param allPossiblyRelevantExercisesForSummary are used to find the relevant exercises for this concrete user
+     * @param activeCourses all active courses
+     * @return the ids of the active courses per group name
      */
-    private void prepareEmailSummaryForUser(User user, Set<Exercise> allPossiblyRelevantExercisesForSummary) {
-        // Get all courses with exercises, lectures and exams (filtered for given user)
-        Set<Course> courses = courseService.findAllActiveForUser(user);
-
-        // Filter out the relevant exercises for this individual user's summary
-        Set<Exercise> relevantExercisesForThisUser = allPossiblyRelevantExercisesForSummary.stream()
-                .filter(exercise -> courses.contains(exercise.getCourseViaExerciseGroupOrCourseMember())).collect(Collectors.toSet());
-
-        // currently, only weekly summaries are supported -> for daily just add one more case
-        if (scheduleInterval.equals(weekly)) {
-            mailService.sendWeeklySummaryEmail(user, relevantExercisesForThisUser);
+    private Map<String, Set<Long>> getActiveCourseIdsPerGroup(List<Course> activeCourses) {
+        Map<String, Set<Long>> activeCourseIdsPerGroup = new HashMap<>();
+        for (Course course : activeCourses) {
+            Stream.of(course.getStudentGroupName(), course.getTeachingAssistantGroupName(), course.getEditorGroupName(), course.getInstructorGroupName()).filter(Objects::nonNull)
+                    .forEach(group -> activeCourseIdsPerGroup.computeIfAbsent(group, key -> new HashSet<>()).add(course.getId()));
         }
+        return activeCourseIdsPerGroup;
+    }
+
+    private Set<Long> getActiveCourseIdsOfUser(User user, Map<String, Set<Long>> activeCourseIdsPerGroup) {
+        return user.getGroups().stream().flatMap(group -> activeCourseIdsPerGroup.getOrDefault(group, Set.of()).stream()).collect(Collectors.toSet());
     }
 
     /**
@@ -63,11 +63,14 @@ public class ExerciseDeletionService {
 
     private final ChannelService channelService;
 
+    private final StatisticsRollupRepository statisticsRollupRepository;
+
     public ExerciseDeletionService(ExerciseRepository exerciseRepository, ExerciseUnitRepository exerciseUnitRepository, ParticipationService participationService,
             ProgrammingExerciseService programmingExerciseService, ModelingExerciseService modelingExerciseService, QuizExerciseService quizExerciseService,
             TutorParticipationRepository tutorParticipationRepository, ExampleSubmissionService exampleSubmissionService, StudentExamRepository studentExamRepository,
             LectureUnitService lectureUnitService, PlagiarismResultRepository plagiarismResultRepository, TextExerciseService textExerciseService,
-            TextClusterRepository textClusterRepository, ChannelRepository channelRepository, ChannelService channelService) {
+            TextClusterRepository textClusterRepository, ChannelRepository channelRepository, ChannelService channelService,
+            StatisticsRollupRepository statisticsRollupRepository) {
         this.exerciseRepository = exerciseRepository;
         this.participationService = participationService;
         this.programmingExerciseService = programmingExerciseService;
@@ -83,6 +86,7 @@ public class ExerciseDeletionService {
         this.textClusterRepository = textClusterRepository;
         this.channelRepository = channelRepository;
         this.channelService = channelService;
+        this.statisticsRollupRepository = statisticsRollupRepository;
     }
 
     /**
@@ -155,6 +159,9 @@ public class ExerciseDeletionService {
         // delete all participations belonging to this exercise, this will also delete submissions, results, feedback, complaints, etc.
         participationService.deleteAllByExerciseId(exercise.getId(), deleteStudentReposBuildPlans, deleteStudentReposBuildPlans);
 
+        // the rollups of the statistics only reference the exercise by its id
+        statisticsRollupRepository.deleteByExerciseId(exerciseId);
+
         // clean up the many-to-many relationship to avoid problems when deleting the entities but not the relationship table
         exercise = exerciseRepository.findByIdWithEagerExampleSubmissions(exerciseId).orElseThrow(() -> new EntityNotFoundException("Exercise", exerciseId));
         exercise.getExampleSubmissions().forEach(exampleSubmission -> exampleSubmissionService.deleteById(exampleSubmission.getId()));
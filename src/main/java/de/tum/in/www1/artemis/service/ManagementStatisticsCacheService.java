@@ -0,0 +1,153 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.web.rest.dto.CourseManagementStatisticsDTO;
+import de.tum.in.www1.artemis.web.rest.dto.ExerciseManagementStatisticsDTO;
+
+/**
+ * Caches the course and exercise management statistics, which instructors keep open (and reload) during the correction phase.
+ * Each course and exercise has a version that is changed whenever a result, post or answer that influences its statistics changes. The versions are distributed
+ * between all instances by Hazelcast, so that each instance only recalculates its cached statistics if they actually changed. Changes that are not tracked
+ * (e.g. new participations or students) become visible after the configured time to live at the latest.
+ * <p>
+ * The versions expire after twice the time to live, when all statistics cached for an older version have expired as well, so that the map only holds recently changed
+ * courses and exercises.
+ */
+@Service
+public class ManagementStatisticsCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagementStatisticsCacheService.class);
+
+    private static final String COURSE_KEY_PREFIX = "course-";
+
+    private static final String EXERCISE_KEY_PREFIX = "exercise-";
+
+    private final StatisticsService statisticsService;
+
+    private final ObjectMapper objectMapper;
+
+    private final IMap<String, Long> versions;
+
+    private final long versionTimeToLiveSeconds;
+
+    private final Cache<String, VersionedStatistics<?>> cachedStatistics;
+
+    public ManagementStatisticsCacheService(StatisticsService statisticsService, ObjectMapper objectMapper, HazelcastInstance hazelcastInstance,
+            @Value("${artemis.statistics.management-cache.size:1000}") long cacheSize,
+            @Value("${artemis.statistics.management-cache.time-to-live-seconds:60}") long timeToLiveSeconds) {
+        this.statisticsService = statisticsService;
+        this.objectMapper = objectMapper;
+        // The map will automatically be distributed between all instances by Hazelcast.
+        this.versions = hazelcastInstance.getMap("managementStatisticsVersions");
+        // a time to live of 0 would keep the versions forever in Hazelcast
+        this.versionTimeToLiveSeconds = Math.max(1, 2 * timeToLiveSeconds);
+        this.cachedStatistics = CacheBuilder.newBuilder().maximumSize(Math.max(0, cacheSize)).expireAfterWrite(Math.max(0, timeToLiveSeconds), TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * The statistics together with the version they were calculated for and an ETag of their content.
+     * The ETag only depends on the content, so that clients get a 304 (Not Modified) even if the statistics were recalculated without any change.
+     *
+     * @param statistics the calculated statistics
+     * @param version    the version of the course or exercise the statistics were calculated for
+     * @param eTag       the hash of the serialized statistics
+     * @param <T>        the type of the statistics
+     */
+    public record VersionedStatistics<T>(T statistics, long version, String eTag) {
+    }
+
+    /**
+     * Gets the cached course statistics or calculates them, if they are outdated, see {@link StatisticsService#getCourseStatistics(Long)}
+     *
+     * @param courseId the id of the course for which the statistics should be fetched
+     * @return the statistics of the course together with their ETag
+     */
+    public VersionedStatistics<CourseManagementStatisticsDTO> getCourseStatistics(Long courseId) {
+        return getOrCalculate(COURSE_KEY_PREFIX + courseId, () -> statisticsService.getCourseStatistics(courseId));
+    }
+
+    /**
+     * Gets the cached exercise statistics or calculates them, if they are outdated, see {@link StatisticsService#getExerciseStatistics(Exercise)}
+     *
+     * @param exercise the exercise for which the statistics should be fetched
+     * @return the statistics of the exercise together with their ETag
+     */
+    public VersionedStatistics<ExerciseManagementStatisticsDTO> getExerciseStatistics(Exercise exercise) {
+        return getOrCalculate(EXERCISE_KEY_PREFIX + exercise.getId(), () -> statisticsService.getExerciseStatistics(exercise));
+    }
+
+    /**
+     * Invalidates the cached statistics of the exercise and of its course, e.g. because the scores of the exercise changed
+     *
+     * @param exercise the exercise whose statistics changed
+     */
+    public void invalidateExerciseAndCourseStatistics(Exercise exercise) {
+        invalidateExerciseStatistics(exercise);
+        Course course = exercise.getCourseViaExerciseGroupOrCourseMember();
+        if (course != null) {
+            invalidate(COURSE_KEY_PREFIX + course.getId());
+        }
+    }
+
+    /**
+     * Invalidates the cached statistics of the exercise only, e.g. because a post of the exercise changed. Does nothing if the exercise is null.
+     *
+     * @param exercise the exercise whose statistics changed
+     */
+    public void invalidateExerciseStatistics(@Nullable Exercise exercise) {
+        if (exercise != null && exercise.getId() != null) {
+            invalidate(EXERCISE_KEY_PREFIX + exercise.getId());
+        }
+    }
+
+    private void invalidate(String key) {
+        // a random version cannot be set to the same value by two instances, which could happen with a timestamp and would hide the second change
+        versions.set(key, ThreadLocalRandom.current().nextLong(), versionTimeToLiveSeconds, TimeUnit.SECONDS);
+        cachedStatistics.invalidate(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> VersionedStatistics<T> getOrCalculate(String key, Supplier<T> calculateStatistics) {
+        // the version has to be read before the calculation, so that changes during the calculation lead to a recalculation on the next request
+        long version = versions.getOrDefault(key, 0L);
+        var cached = cachedStatistics.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return (VersionedStatistics<T>) cached;
+        }
+
+        T statistics = calculateStatistics.get();
+        var calculated = new VersionedStatistics<>(statistics, version, calculateETag(key, version, statistics));
+        cachedStatistics.put(key, calculated);
+        return calculated;
+    }
+
+    private String calculateETag(String key, long version, Object statistics) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(statistics));
+        }
+        catch (JsonProcessingException e) {
+            log.warn("Could not serialize the statistics of {} to calculate their ETag. Will fall back to their version", key, e);
+            return key + "-" + Long.toHexString(version);
+        }
+    }
+}
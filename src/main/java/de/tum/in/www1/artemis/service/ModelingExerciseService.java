@@ -15,6 +15,7 @@ import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
 import de.tum.in.www1.artemis.repository.ModelClusterRepository;
 import de.tum.in.www1.artemis.repository.ModelElementRepository;
 import de.tum.in.www1.artemis.repository.ModelingExerciseRepository;
+import de.tum.in.www1.artemis.service.compass.CompassService;
 import de.tum.in.www1.artemis.service.messaging.InstanceMessageSendService;
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SearchResultPageDTO;
@@ -35,13 +36,17 @@ public class ModelingExerciseService {
 
     private final ExerciseSpecificationService exerciseSpecificationService;
 
+    private final CompassService compassService;
+
     public ModelingExerciseService(ModelingExerciseRepository modelingExerciseRepository, InstanceMessageSendService instanceMessageSendService,
-            ModelClusterRepository modelClusterRepository, ModelElementRepository modelElementRepository, ExerciseSpecificationService exerciseSpecificationService) {
+            ModelClusterRepository modelClusterRepository, ModelElementRepository modelElementRepository, ExerciseSpecificationService exerciseSpecificationService,
+            CompassService compassService) {
         this.modelingExerciseRepository = modelingExerciseRepository;
         this.instanceMessageSendService = instanceMessageSendService;
         this.modelClusterRepository = modelClusterRepository;
         this.modelElementRepository = modelElementRepository;
         this.exerciseSpecificationService = exerciseSpecificationService;
+        this.compassService = compassService;
     }
 
     /**
@@ -87,5 +92,6 @@ public class ModelingExerciseService {
             modelElementRepository.deleteAll(cluster.getModelElements());
             modelClusterRepository.deleteById(cluster.getId());
         }
+        compassService.evictSuggestionIndex(modelingExercise.getId());
     }
 }
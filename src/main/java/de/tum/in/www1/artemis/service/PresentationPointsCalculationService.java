@@ -1,11 +1,13 @@
 package de.tum.in.www1.artemis.service;
 
 import static de.tum.in.www1.artemis.service.util.RoundingUtil.roundScoreSpecifiedByCourseSettings;
+import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
@@ -51,6 +53,26 @@ public class PresentationPointsCalculationService {
         return calculatePresentationPoints(gradingScale, reachablePresentationPoints, presentationPointSum);
     }
 
+    /**
+     * Calculates the points for presentations for multiple students at once, using a single query for the presentation scores of all given students.
+     *
+     * @param gradingScale                the grading scale with the presentation configuration
+     * @param studentIds                  the students for which the presentation points should be calculated
+     * @param reachablePresentationPoints the reachable presentation points in the given course.
+     * @return a map of the student id to the presentation points of this student
+     */
+    public Map<Long, Double> calculatePresentationPointsForStudentIds(GradingScale gradingScale, Set<Long> studentIds, double reachablePresentationPoints) {
+        // return 0 if grading scale is not set
+        if (gradingScale == null || gradingScale.getCourse() == null) {
+            return studentIds.stream().collect(toMap(Function.identity(), studentId -> 0.0));
+        }
+
+        Map<Long, Double> studentIdToPresentationPointSum = studentParticipationRepository.mapStudentIdToPresentationScoreSumByCourseIdAndStudentIds(gradingScale.getCourse().getId(),
+                studentIds);
+        return studentIds.stream().collect(
+                toMap(Function.identity(), studentId -> calculatePresentationPoints(gradingScale, reachablePresentationPoints, studentIdToPresentationPointSum.getOrDefault(studentId, 0.0))));
+    }
+
     /**
      * Adds the presentation points to the ScoreDTOs given the gradingScale, the reachable presentation points of the
      * course, and the presentationsWeight of the courses GradingScale.
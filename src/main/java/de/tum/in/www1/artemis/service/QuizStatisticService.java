@@ -1,8 +1,6 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,17 +26,21 @@ public class QuizStatisticService {
 
     private final QuizSubmissionRepository quizSubmissionRepository;
 
+    private final QuizStatisticCounterRepository quizStatisticCounterRepository;
+
     private final WebsocketMessagingService websocketMessagingService;
 
     public QuizStatisticService(StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository,
             WebsocketMessagingService websocketMessagingService, QuizPointStatisticRepository quizPointStatisticRepository,
-            QuizQuestionStatisticRepository quizQuestionStatisticRepository, QuizSubmissionRepository quizSubmissionRepository) {
+            QuizQuestionStatisticRepository quizQuestionStatisticRepository, QuizSubmissionRepository quizSubmissionRepository,
+            QuizStatisticCounterRepository quizStatisticCounterRepository) {
         this.studentParticipationRepository = studentParticipationRepository;
         this.resultRepository = resultRepository;
         this.quizPointStatisticRepository = quizPointStatisticRepository;
         this.quizQuestionStatisticRepository = quizQuestionStatisticRepository;
         this.websocketMessagingService = websocketMessagingService;
         this.quizSubmissionRepository = quizSubmissionRepository;
+        this.quizStatisticCounterRepository = quizStatisticCounterRepository;
     }
 
     /**
@@ -109,15 +111,21 @@ public class QuizStatisticService {
     /**
      * 1. check for each result if it's rated -> true: check if there is an old Result -> true: remove the old Result from the statistics 2. add new Result to the
      * quiz-point-statistic and all question-statistics
+     * <p>
+     * Only the counters that changed are written back: the counters are recorded before the results are applied and each changed statistic row is written with one atomic
+     * increment, instead of saving the whole statistics graph of the quiz. This also prevents lost updates when multiple instances update the same statistics.
+     * The quiz still has to be loaded with its questions and statistics, because the submitted answers are evaluated against the questions to find the changed counters.
      *
      * @param results the results, which will be added to the statistics
-     * @param quiz    the quizExercise with Questions where the results should contain to
+     * @param quiz    the quizExercise with Questions where the results should contain to, loaded with its questions and statistics
      */
     public void updateStatistics(Set<Result> results, QuizExercise quiz) {
 
         if (results != null && quiz != null && quiz.getQuizQuestions() != null) {
             log.debug("update statistics with {} new results", results.size());
 
+            var statisticDelta = new QuizStatisticDelta(quiz);
+
             for (Result result : results) {
                 // check if the result is rated
                 // NOTE: there is never an old Result if the new result is rated
@@ -127,15 +135,24 @@ public class QuizStatisticService {
                 var quizSubmission = quizSubmissionRepository.findWithEagerSubmittedAnswersById(result.getSubmission().getId());
                 quiz.addResultToAllStatistics(result, quizSubmission);
             }
-            // save statistics
-            quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
-            List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
-            for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
-                if (quizQuestion.getQuizQuestionStatistic() != null) {
-                    quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
+
+            if (statisticDelta.isPersisted()) {
+                if (!flushStatisticDelta(statisticDelta, quiz)) {
+                    // nothing changed, so there is no need to notify the instructors
+                    return;
                 }
             }
-            quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
+            else {
+                // the statistics contain new (i.e. not yet saved) objects, so we have to save the whole graph
+                quizPointStatisticRepository.save(quiz.getQuizPointStatistic());
+                List<QuizQuestionStatistic> quizQuestionStatistics = new ArrayList<>();
+                for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
+                    if (quizQuestion.getQuizQuestionStatistic() != null) {
+                        quizQuestionStatistics.add(quizQuestion.getQuizQuestionStatistic());
+                    }
+                }
+                quizQuestionStatisticRepository.saveAll(quizQuestionStatistics);
+            }
             // notify users via websocket about new results for the statistics.
             // filters out solution information
             quiz.filterForStatisticWebsocket();
@@ -143,6 +160,51 @@ public class QuizStatisticService {
         }
     }
 
+    /**
+     * Writes the accumulated changes of the statistics of the given quiz to the database with one atomic increment per changed row
+     *
+     * @param statisticDelta the values of the statistics before the update
+     * @param quiz           the quiz exercise with the updated statistics
+     * @return true if at least one counter changed, false otherwise
+     */
+    private boolean flushStatisticDelta(QuizStatisticDelta statisticDelta, QuizExercise quiz) {
+        boolean changed = false;
+        var pointStatistic = quiz.getQuizPointStatistic();
+        int[] pointStatisticDelta = statisticDelta.statisticDelta(pointStatistic);
+        if (pointStatisticDelta != null) {
+            quizPointStatisticRepository.incrementParticipants(pointStatistic.getId(), pointStatisticDelta[0], pointStatisticDelta[1]);
+            changed = true;
+        }
+        changed |= flushCounterDeltas(statisticDelta, pointStatistic.getPointCounters());
+
+        for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
+            var questionStatistic = quizQuestion.getQuizQuestionStatistic();
+            if (questionStatistic == null) {
+                continue;
+            }
+            int[] questionStatisticDelta = statisticDelta.statisticDelta(questionStatistic);
+            if (questionStatisticDelta != null) {
+                quizQuestionStatisticRepository.incrementCounters(questionStatistic.getId(), questionStatisticDelta[0], questionStatisticDelta[1], questionStatisticDelta[2],
+                        questionStatisticDelta[3]);
+                changed = true;
+            }
+            changed |= flushCounterDeltas(statisticDelta, QuizStatisticDelta.getCounters(questionStatistic));
+        }
+        return changed;
+    }
+
+    private boolean flushCounterDeltas(QuizStatisticDelta statisticDelta, Collection<? extends QuizStatisticCounter> counters) {
+        boolean changed = false;
+        for (QuizStatisticCounter counter : counters) {
+            int[] counterDelta = statisticDelta.counterDelta(counter);
+            if (counterDelta != null) {
+                quizStatisticCounterRepository.incrementCounters(counter.getId(), counterDelta[0], counterDelta[1]);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     /**
      * Go through all Results in the Participation and return the latest one before the new Result,
      *
@@ -162,4 +224,111 @@ public class QuizStatisticService {
         }
         return oldResult;
     }
+
+    /**
+     * Accumulates the changes of the statistics of one quiz exercise, grouped by statistic row.
+     * The values of all statistics and counters are recorded on creation, so that the changes can be computed after the results have been applied to the statistics.
+     */
+    private static final class QuizStatisticDelta {
+
+        private final Map<Long, int[]> statisticValues = new HashMap<>();
+
+        private final Map<Long, int[]> counterValues = new HashMap<>();
+
+        private boolean persisted = true;
+
+        private QuizStatisticDelta(QuizExercise quiz) {
+            var pointStatistic = quiz.getQuizPointStatistic();
+            if (pointStatistic == null) {
+                persisted = false;
+                return;
+            }
+            recordStatistic(pointStatistic);
+            pointStatistic.getPointCounters().forEach(this::recordCounter);
+            for (QuizQuestion quizQuestion : quiz.getQuizQuestions()) {
+                var questionStatistic = quizQuestion.getQuizQuestionStatistic();
+                if (questionStatistic != null) {
+                    recordStatistic(questionStatistic);
+                    getCounters(questionStatistic).forEach(this::recordCounter);
+                }
+            }
+        }
+
+        /**
+         * @return true if all statistics and counters are already saved in the database, i.e. the changes can be written as increments
+         */
+        private boolean isPersisted() {
+            return persisted;
+        }
+
+        private void recordStatistic(QuizStatistic statistic) {
+            if (statistic.getId() == null) {
+                persisted = false;
+                return;
+            }
+            statisticValues.put(statistic.getId(), statisticValues(statistic));
+        }
+
+        private void recordCounter(QuizStatisticCounter counter) {
+            if (counter.getId() == null) {
+                persisted = false;
+                return;
+            }
+            counterValues.put(counter.getId(), new int[] { valueOf(counter.getRatedCounter()), valueOf(counter.getUnRatedCounter()) });
+        }
+
+        /**
+         * @param statistic the updated statistic
+         * @return the changes of participantsRated, participantsUnrated and (for question statistics) ratedCorrectCounter and unRatedCorrectCounter, or null if nothing changed
+         */
+        private int[] statisticDelta(QuizStatistic statistic) {
+            return delta(statisticValues.get(statistic.getId()), statisticValues(statistic));
+        }
+
+        /**
+         * @param counter the updated counter
+         * @return the changes of ratedCounter and unRatedCounter, or null if nothing changed
+         */
+        private int[] counterDelta(QuizStatisticCounter counter) {
+            return delta(counterValues.get(counter.getId()), new int[] { valueOf(counter.getRatedCounter()), valueOf(counter.getUnRatedCounter()) });
+        }
+
+        private static int[] statisticValues(QuizStatistic statistic) {
+            if (statistic instanceof QuizQuestionStatistic questionStatistic) {
+                return new int[] { valueOf(statistic.getParticipantsRated()), valueOf(statistic.getParticipantsUnrated()), valueOf(questionStatistic.getRatedCorrectCounter()),
+                        valueOf(questionStatistic.getUnRatedCorrectCounter()) };
+            }
+            return new int[] { valueOf(statistic.getParticipantsRated()), valueOf(statistic.getParticipantsUnrated()) };
+        }
+
+        private static int[] delta(int[] before, int[] after) {
+            if (before == null) {
+                return null;
+            }
+            int[] delta = new int[after.length];
+            boolean changed = false;
+            for (int i = 0; i < after.length; i++) {
+                delta[i] = after[i] - before[i];
+                changed |= delta[i] != 0;
+            }
+            return changed ? delta : null;
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+
+        private static Collection<? extends QuizStatisticCounter> getCounters(QuizQuestionStatistic questionStatistic) {
+            if (questionStatistic instanceof MultipleChoiceQuestionStatistic multipleChoiceQuestionStatistic) {
+                return multipleChoiceQuestionStatistic.getAnswerCounters();
+            }
+            else if (questionStatistic instanceof DragAndDropQuestionStatistic dragAndDropQuestionStatistic) {
+                return dragAndDropQuestionStatistic.getDropLocationCounters();
+            }
+            else if (questionStatistic instanceof ShortAnswerQuestionStatistic shortAnswerQuestionStatistic) {
+                return shortAnswerQuestionStatistic.getShortAnswerSpotCounters();
+            }
+            return Set.of();
+        }
+    }
 }
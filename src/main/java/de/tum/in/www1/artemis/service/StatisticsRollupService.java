@@ -0,0 +1,176 @@
+package de.tum.in.www1.artemis.service;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import de.tum.in.www1.artemis.domain.enumeration.GraphType;
+import de.tum.in.www1.artemis.domain.enumeration.SpanType;
+import de.tum.in.www1.artemis.domain.enumeration.StatisticsView;
+import de.tum.in.www1.artemis.domain.statistics.ExerciseStatisticsEntry;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsEntry;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollup;
+import de.tum.in.www1.artemis.domain.statistics.StatisticsRollupWatermark;
+import de.tum.in.www1.artemis.repository.StatisticsRepository;
+import de.tum.in.www1.artemis.repository.StatisticsRollupRepository;
+import de.tum.in.www1.artemis.repository.StatisticsRollupWatermarkRepository;
+
+/**
+ * Maintains hourly rollups per exercise for the graph types that count entries of the largest tables (submissions, results and feedbacks) and reads the statistics from them.
+ * Only completed hours are rolled up. Hours that are not yet rolled up are read from the source tables, so the statistics are always up-to-date.
+ * The hours of the last {@code recomputeDays} days are rolled up again on each run, so that later changes of the entries (e.g. deleted submissions or results) are reflected.
+ * The rollups of an exercise are deleted together with the exercise, see {@link ExerciseDeletionService}.
+ * Graphs counting distinct users cannot be summed up from hourly rollups and graphs based on dates that can still change (e.g. release or due dates) would become
+ * outdated, so they are always read from the source tables.
+ */
+@Service
+public class StatisticsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsRollupService.class);
+
+    private static final Set<GraphType> ROLLED_UP_GRAPH_TYPES = EnumSet.of(GraphType.SUBMISSIONS, GraphType.CREATED_RESULTS, GraphType.CREATED_FEEDBACKS);
+
+    private final StatisticsRepository statisticsRepository;
+
+    private final StatisticsRollupRepository statisticsRollupRepository;
+
+    private final StatisticsRollupWatermarkRepository statisticsRollupWatermarkRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int backfillDays;
+
+    private final int maxDaysPerRun;
+
+    private final int recomputeDays;
+
+    public StatisticsRollupService(StatisticsRepository statisticsRepository, StatisticsRollupRepository statisticsRollupRepository,
+            StatisticsRollupWatermarkRepository statisticsRollupWatermarkRepository, TransactionTemplate transactionTemplate,
+            @Value("${artemis.statistics.rollup.backfill-days:1826}") int backfillDays, @Value("${artemis.statistics.rollup.max-days-per-run:90}") int maxDaysPerRun,
+            @Value("${artemis.statistics.rollup.recompute-days:7}") int recomputeDays) {
+        this.statisticsRepository = statisticsRepository;
+        this.statisticsRollupRepository = statisticsRollupRepository;
+        this.statisticsRollupWatermarkRepository = statisticsRollupWatermarkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillDays = backfillDays;
+        this.maxDaysPerRun = maxDaysPerRun;
+        this.recomputeDays = recomputeDays;
+    }
+
+    /**
+     * Gets the number of entries for the specific graphType and the span, like {@link StatisticsRepository#getNumberOfEntriesPerTimeSlot}.
+     * For rolled up graph types, the entries of the already rolled up hours are read from the rollups and only the remaining entries from the source tables.
+     *
+     * @param graphType the type of graph the data should be fetched for
+     * @param span      the spanType for which the call is executed
+     * @param startDate the startDate of which the data should be fetched
+     * @param endDate   the endDate of which the data should be fetched
+     * @param view      the view in which the data will be displayed (Artemis, Course, Exercise)
+     * @param entityId  the entityId which is null for a user statistics call and contains the id for the other statistics pages
+     * @return a list of entries, each containing a date and the amount of entries at that date
+     */
+    public List<StatisticsEntry> getNumberOfEntriesPerTimeSlot(GraphType graphType, SpanType span, ZonedDateTime startDate, ZonedDateTime endDate, StatisticsView view,
+            @Nullable Long entityId) {
+        // the rollups are aligned to full hours, which only match the time slots of the charts if the start is a full hour in a time zone with a full hour offset
+        boolean alignedToHours = startDate.getOffset().getTotalSeconds() % 3600 == 0 && startDate.equals(startDate.truncatedTo(ChronoUnit.HOURS));
+        Optional<StatisticsRollupWatermark> watermark = ROLLED_UP_GRAPH_TYPES.contains(graphType) && alignedToHours ? statisticsRollupWatermarkRepository.findById(graphType)
+                : Optional.empty();
+        if (watermark.isEmpty() || startDate.isBefore(watermark.get().getRolledUpFrom()) || !startDate.isBefore(watermark.get().getRolledUpUntil())) {
+            return statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+        }
+
+        ZonedDateTime rolledUpUntil = watermark.get().getRolledUpUntil().withZoneSameInstant(startDate.getZone());
+        ZonedDateTime rolledUpEnd = endDate.isBefore(rolledUpUntil) ? endDate : rolledUpUntil;
+        List<StatisticsEntry> rolledUpEntries = switch (view) {
+            case ARTEMIS -> statisticsRollupRepository.getRolledUpEntries(graphType, startDate, rolledUpEnd);
+            case COURSE -> statisticsRollupRepository.getRolledUpEntriesForExercises(graphType, startDate, rolledUpEnd, statisticsRepository.findExerciseIdsByCourseId(entityId));
+            case EXERCISE -> statisticsRollupRepository.getRolledUpEntriesForExercises(graphType, startDate, rolledUpEnd, List.of(entityId));
+        };
+        List<StatisticsEntry> entries = new ArrayList<>(rolledUpEntries);
+        if (!endDate.isBefore(rolledUpUntil)) {
+            entries.addAll(statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, rolledUpUntil, endDate, view, entityId));
+        }
+        return entries;
+    }
+
+    /**
+     * Rolls up the hours of the last {@code recomputeDays} days again and then all completed hours that are not yet rolled up, at most {@code maxDaysPerRun} days per graph type,
+     * so that the initial backfill is spread over several runs.
+     * The last completed hour is only rolled up one hour after it ended, so that entries that are saved with a slight delay are still included.
+     */
+    public void rollUpCompletedHours() {
+        ZonedDateTime rollUpLimit = ZonedDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        for (GraphType graphType : ROLLED_UP_GRAPH_TYPES) {
+            Optional<StatisticsRollupWatermark> existingWatermark = statisticsRollupWatermarkRepository.findById(graphType);
+            existingWatermark.ifPresent(watermark -> rollUpAgain(graphType, watermark));
+
+            StatisticsRollupWatermark watermark = existingWatermark.orElseGet(() -> new StatisticsRollupWatermark(graphType, rollUpLimit.minusDays(backfillDays)));
+            for (int day = 0; day < maxDaysPerRun && watermark.getRolledUpUntil().isBefore(rollUpLimit); day++) {
+                ZonedDateTime startDate = watermark.getRolledUpUntil();
+                ZonedDateTime endDate = startDate.plusDays(1).isBefore(rollUpLimit) ? startDate.plusDays(1) : rollUpLimit;
+                watermark.setRolledUpUntil(endDate);
+                watermark = rollUp(graphType, startDate, endDate, watermark);
+            }
+            log.debug("Rolled up the statistics of {} until {}", graphType, watermark.getRolledUpUntil());
+        }
+    }
+
+    /**
+     * Rolls up the already rolled up hours of the last {@code recomputeDays} days again, day by day
+     *
+     * @param graphType the graph type to roll up
+     * @param watermark the time range that is already rolled up
+     */
+    private void rollUpAgain(GraphType graphType, StatisticsRollupWatermark watermark) {
+        ZonedDateTime recomputeFrom = watermark.getRolledUpUntil().minusDays(recomputeDays);
+        ZonedDateTime startDate = recomputeFrom.isAfter(watermark.getRolledUpFrom()) ? recomputeFrom : watermark.getRolledUpFrom();
+        while (startDate.isBefore(watermark.getRolledUpUntil())) {
+            ZonedDateTime endDate = startDate.plusDays(1).isBefore(watermark.getRolledUpUntil()) ? startDate.plusDays(1) : watermark.getRolledUpUntil();
+            rollUp(graphType, startDate, endDate, null);
+            startDate = endDate;
+        }
+    }
+
+    /**
+     * Replaces the rollups of the given graph type in the given time range. Replacing instead of adding makes a repeated run after a failure idempotent.
+     * The rollups are replaced and the watermark is saved in one transaction, so that the statistics never read the time range while it has no rollups and the watermark
+     * never covers hours whose rollups could not be saved.
+     *
+     * @param graphType the graph type to roll up
+     * @param startDate the start of the first hour to roll up (inclusive)
+     * @param endDate   the end of the last hour to roll up (exclusive)
+     * @param watermark the watermark that covers the time range after the roll up and should be saved, or null if the time range is already covered
+     * @return the saved watermark or null if no watermark was given
+     */
+    private StatisticsRollupWatermark rollUp(GraphType graphType, ZonedDateTime startDate, ZonedDateTime endDate, @Nullable StatisticsRollupWatermark watermark) {
+        List<ExerciseStatisticsEntry> entries = switch (graphType) {
+            case SUBMISSIONS -> statisticsRepository.getTotalSubmissionsPerExercise(startDate, endDate);
+            case CREATED_RESULTS -> statisticsRepository.getCreatedResultsPerExercise(startDate, endDate);
+            case CREATED_FEEDBACKS -> statisticsRepository.getResultFeedbacksPerExercise(startDate, endDate);
+            default -> throw new UnsupportedOperationException("Unsupported graph type: " + graphType);
+        };
+
+        // the entries are grouped by their exact date, so they are summed up per exercise and hour here
+        Map<Long, Map<ZonedDateTime, Long>> amountPerExerciseAndHour = entries.stream().filter(entry -> entry.amount() != null)
+                .collect(Collectors.groupingBy(ExerciseStatisticsEntry::exerciseId,
+                        Collectors.groupingBy(entry -> entry.date().truncatedTo(ChronoUnit.HOURS), Collectors.summingLong(ExerciseStatisticsEntry::amount))));
+        List<StatisticsRollup> rollups = new ArrayList<>();
+        amountPerExerciseAndHour.forEach((exerciseId, amountPerHour) -> amountPerHour
+                .forEach((timeSlot, amount) -> rollups.add(new StatisticsRollup(graphType, exerciseId, timeSlot, amount))));
+
+        return transactionTemplate.execute(status -> {
+            statisticsRollupRepository.deleteByGraphTypeAndTimeSlotBetween(graphType, startDate, endDate);
+            statisticsRollupRepository.saveAll(rollups);
+            return watermark != null ? statisticsRollupWatermarkRepository.save(watermark) : null;
+        });
+    }
+}
@@ -31,6 +31,8 @@ public class StatisticsService {
 
     private final StatisticsRepository statisticsRepository;
 
+    private final StatisticsRollupService statisticsRollupService;
+
     private final ParticipantScoreRepository participantScoreRepository;
 
     private final CourseRepository courseRepository;
@@ -45,10 +47,11 @@ public class StatisticsService {
 
     private final GradingScaleRepository gradingScaleRepository;
 
-    public StatisticsService(StatisticsRepository statisticsRepository, ParticipantScoreRepository participantScoreRepository, CourseRepository courseRepository,
-            ExerciseRepository exerciseRepository, UserRepository userRepository, TeamRepository teamRepository, StudentParticipationRepository studentParticipationRepository,
-            GradingScaleRepository gradingScaleRepository) {
+    public StatisticsService(StatisticsRepository statisticsRepository, StatisticsRollupService statisticsRollupService, ParticipantScoreRepository participantScoreRepository,
+            CourseRepository courseRepository, ExerciseRepository exerciseRepository, UserRepository userRepository, TeamRepository teamRepository,
+            StudentParticipationRepository studentParticipationRepository, GradingScaleRepository gradingScaleRepository) {
         this.statisticsRepository = statisticsRepository;
+        this.statisticsRollupService = statisticsRollupService;
         this.participantScoreRepository = participantScoreRepository;
         this.courseRepository = courseRepository;
         this.exerciseRepository = exerciseRepository;
@@ -59,9 +62,8 @@ public class StatisticsService {
     }
 
     /**
-     * Forwards the request to the repository, which returns a List<Map<String, Object>>. For week, month or year the map from the Repository contains a String with the column
-     * name, "day" and "amount" and an Object being the value, either the date in the format "YYYY-MM-DD" or the amount of the findings. For day, the column names are "day" and
-     * "amount", which then contains the date in the ZonedDateFormat as Integer and the amount as Long.
+     * Fetches the entries of the graph from the rollup service (see {@link StatisticsRollupService}), which reads them from the hourly rollups and, for the hours that are not
+     * rolled up (yet), from the source tables. Each entry contains a date and the amount of findings at that date.
      * It then collects the amounts in an array, depending on the span value, and returns it
      *
      * @param span        DAY,WEEK,MONTH or YEAR depending on the active tab in the view
@@ -85,20 +87,20 @@ public class StatisticsService {
             case DAY -> {
                 startDate = now.minusDays(-periodIndex).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = now.minusDays(-periodIndex).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
                 this.statisticsRepository.sortDataIntoHours(outcome, result);
             }
             case WEEK -> {
                 startDate = now.minusWeeks(-periodIndex).minusDays(6).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = now.minusWeeks(-periodIndex).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
                 this.statisticsRepository.sortDataIntoDays(outcome, result, startDate);
             }
             case MONTH -> {
                 startDate = now.minusMonths(1L - periodIndex).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = now.minusMonths(-periodIndex).withHour(23).withMinute(59).withSecond(59);
                 result = new ArrayList<>(Collections.nCopies((int) ChronoUnit.DAYS.between(startDate, endDate), 0));
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate.plusDays(1), endDate, view, entityId);
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate.plusDays(1), endDate, view, entityId);
                 this.statisticsRepository.sortDataIntoDays(outcome, result, startDate.plusDays(1));
             }
             case QUARTER -> {
@@ -108,14 +110,14 @@ public class StatisticsService {
                 startDate = localStartDate.atZone(zone).minusWeeks(11 + (12L * (-periodIndex))).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 endDate = periodIndex != 0 ? localEndDate.atZone(zone).minusWeeks(12L * (-periodIndex)).withHour(23).withMinute(59).withSecond(59)
                         : localEndDate.atZone(zone).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
                 this.statisticsRepository.sortDataIntoWeeks(outcome, result, startDate);
             }
             case YEAR -> {
                 startDate = now.minusYears(1L - periodIndex).plusMonths(1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
                 lengthOfMonth = YearMonth.of(now.minusYears(-periodIndex).getYear(), now.minusYears(-periodIndex).getMonth()).lengthOfMonth();
                 endDate = now.minusYears(-periodIndex).withDayOfMonth(lengthOfMonth).withHour(23).withMinute(59).withSecond(59);
-                outcome = this.statisticsRepository.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
+                outcome = this.statisticsRollupService.getNumberOfEntriesPerTimeSlot(graphType, span, startDate, endDate, view, entityId);
                 this.statisticsRepository.sortDataIntoMonths(outcome, result, startDate);
             }
         }
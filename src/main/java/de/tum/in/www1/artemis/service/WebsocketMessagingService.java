@@ -4,8 +4,11 @@ import static de.tum.in.www1.artemis.config.Constants.*;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,14 +18,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
+
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.service.exam.ExamDateService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * This service sends out websocket messages.
@@ -42,13 +51,30 @@ public class WebsocketMessagingService {
 
     private final Executor asyncExecutor;
 
+    private final ThreadPoolTaskExecutor fanOutExecutor;
+
+    /**
+     * The latest not yet sent payload for each user and destination of the fan-out, used to coalesce multiple messages to the same destination
+     */
+    private final Map<String, Object> pendingFanOutMessages = new ConcurrentHashMap<>();
+
+    private final Timer fanOutSendTimer;
+
     public WebsocketMessagingService(SimpMessageSendingOperations messagingTemplate, ExamDateService examDateService, ExerciseDateService exerciseDateService,
-            AuthorizationCheckService authCheckService, @Qualifier("taskExecutor") Executor asyncExecutor) {
+            AuthorizationCheckService authCheckService, @Qualifier("taskExecutor") Executor asyncExecutor,
+            @Qualifier("websocketFanOutExecutor") ThreadPoolTaskExecutor fanOutExecutor, MeterRegistry meterRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.examDateService = examDateService;
         this.exerciseDateService = exerciseDateService;
         this.authCheckService = authCheckService;
         this.asyncExecutor = asyncExecutor;
+        this.fanOutExecutor = fanOutExecutor;
+        this.fanOutSendTimer = Timer.builder("artemis.websocket.fan_out.send").description("Time to send a fanned out websocket message to the broker").publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("artemis.websocket.fan_out.queue_size", fanOutExecutor, executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Number of websocket messages waiting to be fanned out").register(meterRegistry);
+        Gauge.builder("artemis.websocket.fan_out.pending_destinations", pendingFanOutMessages, Map::size)
+                .description("Number of user destinations with a websocket message waiting to be fanned out").register(meterRegistry);
     }
 
     /**
@@ -109,6 +135,86 @@ public class WebsocketMessagingService {
         }
     }
 
+    /**
+     * Sends a message over websocket to the given topic to a specific user using the bounded fan-out executor.
+     * This should be used when the same kind of message is sent to many users at once, e.g. the results at the end of a quiz.
+     * <p>
+     * Messages to the same user and topic are coalesced: if a previous message to this destination has not been sent yet, it is replaced by the given payload.
+     * If the fan-out queue is full, the message is sent by the calling thread, which slows down the producer instead of overloading the message broker.
+     *
+     * @param user    the user that should receive the message.
+     * @param topic   the destination to send the message to
+     * @param payload the payload to send
+     */
+    public void sendFanOutMessageToUser(String user, String topic, Object payload) {
+        final String destinationKey = user + topic;
+        if (pendingFanOutMessages.put(destinationKey, payload) != null) {
+            // a message to this destination is already queued, it will send the newest payload
+            return;
+        }
+        try {
+            fanOutExecutor.execute(() -> {
+                Object latestPayload = pendingFanOutMessages.remove(destinationKey);
+                if (latestPayload == null) {
+                    return;
+                }
+                try {
+                    fanOutSendTimer.record(() -> messagingTemplate.convertAndSendToUser(user, topic, latestPayload));
+                }
+                catch (Exception ex) {
+                    log.error("Error when sending message {} on topic {} to user {}", latestPayload, topic, user, ex);
+                }
+            });
+        }
+        // Note: explicitly catch ALL kinds of exceptions here and do NOT rethrow, because the actual task should NEVER be interrupted when the server cannot send WS messages
+        catch (Exception ex) {
+            pendingFanOutMessages.remove(destinationKey);
+            log.error("Error when sending message {} on topic {} to user {}", payload, topic, user, ex);
+        }
+    }
+
+    /**
+     * Sends the given envelopes over websocket using the bounded fan-out executor.
+     * This should be used when one event results in several messages to each of many users, e.g. a new message in a large channel.
+     * <p>
+     * The envelopes are split into chunks of the given size and each chunk is sent by one task of the fan-out executor, all messages of an envelope one after another.
+     * If the fan-out queue is full, the chunk is sent by the calling thread, which slows down the producer instead of overloading the message broker.
+     *
+     * @param envelopes the envelopes to send, one per receiving user
+     * @param chunkSize the maximum number of envelopes sent by one task
+     * @return a future that completes when all envelopes were handed over to the message broker
+     */
+    public CompletableFuture<Void> sendFanOutEnvelopes(List<FanOutEnvelope> envelopes, int chunkSize) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (List<FanOutEnvelope> chunk : Lists.partition(envelopes, Math.max(1, chunkSize))) {
+            try {
+                chunks.add(CompletableFuture.runAsync(() -> chunk.forEach(this::sendFanOutEnvelope), fanOutExecutor));
+            }
+            // Note: explicitly catch ALL kinds of exceptions here and do NOT rethrow, because the actual task should NEVER be interrupted when the server cannot send WS messages
+            catch (Exception ex) {
+                log.error("Error when sending {} websocket envelopes", chunk.size(), ex);
+                chunks.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new));
+    }
+
+    private void sendFanOutEnvelope(FanOutEnvelope envelope) {
+        for (FanOutMessage message : envelope.messages()) {
+            try {
+                if (message.userDestination()) {
+                    fanOutSendTimer.record(() -> messagingTemplate.convertAndSendToUser(envelope.userLogin(), message.topic(), message.payload()));
+                }
+                else {
+                    fanOutSendTimer.record(() -> messagingTemplate.convertAndSend(message.topic(), message.payload()));
+                }
+            }
+            catch (Exception ex) {
+                log.error("Error when sending message {} on topic {} to user {}", message.payload(), message.topic(), envelope.userLogin(), ex);
+            }
+        }
+    }
+
     /**
      * Broadcast a new result to the client.
      *
@@ -195,4 +301,23 @@ public class WebsocketMessagingService {
     private static String getNonPersonalExerciseResultDestination(String exerciseId) {
         return EXERCISE_TOPIC_ROOT + exerciseId + "/newResults";
     }
+
+    /**
+     * All websocket messages one user receives because of the same event.
+     *
+     * @param userLogin the login of the user receiving the messages
+     * @param messages  the messages, sent in the given order
+     */
+    public record FanOutEnvelope(String userLogin, List<FanOutMessage> messages) {
+    }
+
+    /**
+     * A websocket message that is part of a {@link FanOutEnvelope}.
+     *
+     * @param topic           the destination to send the message to
+     * @param payload         the payload to send
+     * @param userDestination true if the topic is a user destination (only delivered to the user of the envelope), false if it is a regular topic
+     */
+    public record FanOutMessage(String topic, Object payload, boolean userDestination) {
+    }
 }
@@ -0,0 +1,115 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+
+/**
+ * Caches the results of the authorization checks for websocket subscriptions.
+ * After a restart of an instance or a network interruption, e.g. during an exam, all clients reconnect at the same time and subscribe to their topics again.
+ * Without the cache, every SUBSCRIBE frame would load the user and the subscribed participation, exercise or exam from the database.
+ * <p>
+ * The results are cached per user for the configured time to live and are invalidated on all instances (using a Hazelcast topic) when the groups of a user or the
+ * members of a team change. Concurrent checks of the same user for the same topic are only performed once, the other subscriptions wait for the result.
+ */
+@Service
+public class WebsocketSubscriptionAuthorizationCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(WebsocketSubscriptionAuthorizationCacheService.class);
+
+    private static final String INVALIDATION_TOPIC = "websocket-subscription-authorization-invalidation";
+
+    // logins cannot be empty, so the empty string is used to invalidate the results of all users
+    private static final String ALL_USERS = "";
+
+    /**
+     * The types of topics whose subscriptions require an authorization check that accesses the database
+     */
+    public enum SubscriptionType {
+        TEAM_PARTICIPATION, NON_PERSONAL_EXERCISE_RESULT, EXAM
+    }
+
+    private final Cache<String, ConcurrentMap<String, Boolean>> resultsByLogin;
+
+    private final ITopic<String> invalidations;
+
+    public WebsocketSubscriptionAuthorizationCacheService(HazelcastInstance hazelcastInstance,
+            @Value("${artemis.websocket.subscription-authorization-cache.size:50000}") long cacheSize,
+            @Value("${artemis.websocket.subscription-authorization-cache.time-to-live-seconds:120}") long timeToLiveSeconds) {
+        this.resultsByLogin = CacheBuilder.newBuilder().maximumSize(Math.max(0, cacheSize)).expireAfterWrite(Math.max(0, timeToLiveSeconds), TimeUnit.SECONDS).build();
+        this.invalidations = hazelcastInstance.getTopic(INVALIDATION_TOPIC);
+        this.invalidations.addMessageListener(message -> invalidateLocally(message.getMessageObject()));
+    }
+
+    /**
+     * Returns the cached result of the authorization check of the user for the topic or performs the check, if there is no cached result.
+     * The result is not cached if the check throws an exception, e.g. because the entity does not exist (yet).
+     *
+     * @param login    the login of the user who wants to subscribe
+     * @param type     the type of the topic
+     * @param entityId the id of the entity the topic belongs to, e.g. the id of the exam
+     * @param check    performs the authorization check
+     * @return true if the user is allowed to subscribe to the topic
+     */
+    public boolean isSubscriptionAllowed(String login, SubscriptionType type, long entityId, BooleanSupplier check) {
+        ConcurrentMap<String, Boolean> results;
+        try {
+            results = resultsByLogin.get(login, ConcurrentHashMap::new);
+        }
+        catch (ExecutionException e) {
+            // cannot happen, creating the map does not throw a checked exception
+            throw new IllegalStateException(e);
+        }
+        return results.computeIfAbsent(type + "-" + entityId, key -> check.getAsBoolean());
+    }
+
+    /**
+     * Invalidates the cached results of the user on all instances, e.g. because the user was added to or removed from a group
+     *
+     * @param login the login of the user
+     */
+    public void invalidateUser(String login) {
+        if (login != null && !login.isEmpty()) {
+            publishInvalidation(login);
+        }
+    }
+
+    /**
+     * Invalidates the cached results of all users on all instances, e.g. because the groups of a course changed
+     */
+    public void invalidateAll() {
+        publishInvalidation(ALL_USERS);
+    }
+
+    private void publishInvalidation(String login) {
+        try {
+            invalidations.publish(login);
+        }
+        catch (Exception e) {
+            // the results on other instances expire after the time to live, but the results on this instance can be invalidated directly
+            log.warn("Could not publish the invalidation of websocket subscription authorizations to other instances: {}", e.getMessage());
+            invalidateLocally(login);
+        }
+    }
+
+    private void invalidateLocally(String login) {
+        if (ALL_USERS.equals(login)) {
+            resultsByLogin.invalidateAll();
+        }
+        else {
+            resultsByLogin.invalidate(login);
+        }
+    }
+}
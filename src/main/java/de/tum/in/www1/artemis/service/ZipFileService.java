@@ -12,6 +12,7 @@ import java.util.zip.ZipOutputStream;
 import javax.annotation.Nullable;
 
 import org.apache.commons.compress.utils.FileNameUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -71,6 +72,32 @@ public class ZipFileService {
         }
     }
 
+    /**
+     * Recursively adds all files in contentRootPath to the given, already opened zip file below the given folder.
+     * In contrast to creating a separate zip file for the folder, the content is streamed directly into the zip file without intermediate files.
+     *
+     * @param zipOutputStream the zip file to which the files should be added
+     * @param contentRootPath a path to a folder: all content in this folder (and in any subfolders) will be included in the zip file
+     * @param folderName      the name of the folder in the zip file that contains the content
+     * @param contentFilter   a path filter to exclude some files, can be null to include everything
+     * @throws IOException if an error occurred while zipping
+     */
+    public void addFolderToZipFile(ZipOutputStream zipOutputStream, Path contentRootPath, String folderName, @Nullable Predicate<Path> contentFilter) throws IOException {
+        try (var files = Files.walk(contentRootPath)) {
+            var filteredPaths = files.filter(path -> Files.isReadable(path) && !Files.isDirectory(path));
+            if (contentFilter != null) {
+                filteredPaths = filteredPaths.filter(contentFilter);
+            }
+            for (Path path : (Iterable<Path>) filteredPaths::iterator) {
+                // the entries of a zip file always use slashes as separator
+                String entryName = folderName + "/" + FilenameUtils.separatorsToUnix(contentRootPath.relativize(path).toString());
+                zipOutputStream.putNextEntry(new ZipEntry(entryName));
+                Files.copy(path, zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+        }
+    }
+
     /**
      * Extracts a zip file to a folder with the same name as the zip file
      *
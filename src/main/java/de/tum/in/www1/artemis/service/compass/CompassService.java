@@ -1,11 +1,17 @@
 package de.tum.in.www1.artemis.service.compass;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
 import de.tum.in.www1.artemis.domain.Feedback;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
@@ -33,17 +39,26 @@ public class CompassService {
 
     private final FeedbackRepository feedbackRepository;
 
+    /**
+     * The time after which a suggestion index is rebuilt even if it has not been evicted, this bounds the staleness in case an eviction races with a concurrent rebuild
+     */
+    private static final long SUGGESTION_INDEX_TIME_TO_LIVE_MINUTES = 30;
+
+    // exercise id -> cluster structure of the exercise, shared between all instances
+    private final IMap<Long, SuggestionIndex> suggestionIndexes;
+
     public CompassService(ModelingSubmissionRepository modelingSubmissionRepository, ModelElementRepository modelElementRepository, ModelClusterRepository modelClusterRepository,
-            FeedbackRepository feedbackRepository) {
+            FeedbackRepository feedbackRepository, HazelcastInstance hazelcastInstance) {
         this.modelingSubmissionRepository = modelingSubmissionRepository;
         this.modelClusterRepository = modelClusterRepository;
         this.modelElementRepository = modelElementRepository;
         this.feedbackRepository = feedbackRepository;
+        this.suggestionIndexes = hazelcastInstance.getMap("compassSuggestionIndexes");
     }
 
     /**
      * Builds and saves the clusters
-     * Does not build clusters if there is already a cluster for given exercise
+     * If there are already clusters for the given exercise, only the submissions that have not been clustered yet are added to them
      *
      * @param modelingExercise the exercise to build clusters for
      */
@@ -55,12 +70,11 @@ public class CompassService {
         }
 
         List<ModelCluster> currentClusters = modelClusterRepository.findAllByExerciseIdWithEagerElements(modelingExercise.getId());
+        List<ModelingSubmission> submissions = modelingSubmissionRepository.findSubmittedByExerciseIdWithEagerResultsAndFeedback(modelingExercise.getId());
         if (!currentClusters.isEmpty()) {
-            log.info("Clusters have already been built. First delete existing clusters and then rebuild them!");
-            // Do not build submissions if this process has already been done before
+            extend(modelingExercise, currentClusters, submissions, start);
             return;
         }
-        List<ModelingSubmission> submissions = modelingSubmissionRepository.findSubmittedByExerciseIdWithEagerResultsAndFeedback(modelingExercise.getId());
         log.info("ModelCluster: start building clusters of {} submissions for modeling exercise {}", submissions.size(), modelingExercise.getId());
 
         ModelClusterFactory clusterFactory = new ModelClusterFactory();
@@ -69,10 +83,46 @@ public class CompassService {
                 TimeLogUtil.formatDurationFrom(start));
         modelClusterRepository.saveAll(modelClusters);
         modelElementRepository.saveAll(modelClusters.stream().flatMap(modelCluster -> modelCluster.getModelElements().stream()).toList());
+        evictSuggestionIndex(modelingExercise.getId());
         log.info("ModelClusterTimeLog: building and saving clusters of {} submissions for exercise {} done in {}", submissions.size(), modelingExercise.getId(),
                 TimeLogUtil.formatDurationFrom(start));
     }
 
+    /**
+     * Adds the submissions that are not part of any cluster yet (e.g. late submissions) to the existing clusters of the exercise instead of rebuilding them
+     *
+     * @param modelingExercise the exercise to extend the clusters for
+     * @param currentClusters  the existing clusters of the exercise with their model elements
+     * @param submissions      all submitted submissions of the exercise
+     * @param start            the start time of the build in nano seconds
+     */
+    private void extend(ModelingExercise modelingExercise, List<ModelCluster> currentClusters, List<ModelingSubmission> submissions, long start) {
+        Set<Long> clusteredSubmissionIds = new HashSet<>();
+        for (ModelCluster cluster : currentClusters) {
+            cluster.getModelElements().forEach(modelElement -> clusteredSubmissionIds.add(modelElement.getSubmission().getId()));
+        }
+        Map<Boolean, List<ModelingSubmission>> submissionsByClustered = new HashMap<>();
+        for (ModelingSubmission submission : submissions) {
+            submissionsByClustered.computeIfAbsent(clusteredSubmissionIds.contains(submission.getId()), clustered -> new ArrayList<>()).add(submission);
+        }
+        List<ModelingSubmission> additionalSubmissions = submissionsByClustered.getOrDefault(false, List.of());
+        if (additionalSubmissions.isEmpty()) {
+            log.info("Clusters have already been built and contain all submissions of modeling exercise {}", modelingExercise.getId());
+            return;
+        }
+        log.info("ModelCluster: start adding {} submissions to the {} existing clusters of modeling exercise {}", additionalSubmissions.size(), currentClusters.size(),
+                modelingExercise.getId());
+
+        ModelClusterFactory clusterFactory = new ModelClusterFactory();
+        ModelClusterFactory.ClusterExtension extension = clusterFactory.extendClusters(currentClusters, submissionsByClustered.getOrDefault(true, List.of()),
+                additionalSubmissions, modelingExercise);
+        modelClusterRepository.saveAll(extension.clusters());
+        modelElementRepository.saveAll(extension.elements());
+        evictSuggestionIndex(modelingExercise.getId());
+        log.info("ModelClusterTimeLog: adding {} submissions with {} new model elements to the clusters of exercise {} done in {}", additionalSubmissions.size(),
+                extension.elements().size(), modelingExercise.getId(), TimeLogUtil.formatDurationFrom(start));
+    }
+
     /**
      * Selects the feedback suggestion for each element in submission and creates a result from them
      * Returns null if no feedback can be selected or the submission has already a manual feedback
@@ -95,24 +145,36 @@ public class CompassService {
             }
 
             // Note: this code assumes that the model element id is globally unique
-            List<ModelElement> modelElements = modelElementRepository.findByModelElementIdIn(elements.stream().map(UMLElement::getJSONElementID).toList());
-            List<Long> clusterIds = modelElements.stream().map(ModelElement::getCluster).map(ModelCluster::getId).toList();
-            List<ModelCluster> modelClusters = modelClusterRepository.findAllByIdInWithEagerElements(clusterIds);
-            List<String> references = modelClusters.stream().flatMap(modelCluster -> modelCluster.getModelElements().stream())
-                    .map(modelElement1 -> modelElement1.getModelElementType() + ":" + modelElement1.getModelElementId()).toList();
+            SuggestionIndex suggestionIndex = getSuggestionIndex(modelingExercise);
+            Map<Long, List<ClusteredElement>> elementsByCluster = new LinkedHashMap<>();
+            for (UMLElement element : elements) {
+                ClusteredElement clusteredElement = suggestionIndex.elementsById().get(element.getJSONElementID());
+                if (clusteredElement != null) {
+                    elementsByCluster.computeIfAbsent(clusteredElement.clusterId(), clusterId -> new ArrayList<>()).add(clusteredElement);
+                }
+            }
+            if (elementsByCluster.isEmpty()) {
+                return null;
+            }
+
+            List<String> references = elementsByCluster.keySet().stream().flatMap(clusterId -> suggestionIndex.referencesByClusterId().get(clusterId).stream()).toList();
             List<Feedback> feedbacks = feedbackRepository.findByReferenceInAndResult_Submission_Participation_Exercise(references, modelingExercise);
-            for (ModelElement modelElement : modelElements) {
-                if (modelElement != null) {
-                    ModelCluster cluster = modelClusters.get(modelClusters.indexOf(modelElement.getCluster()));
-                    Set<ModelElement> similarElements = cluster.getModelElements();
-                    List<String> similarReferences = similarElements.stream().map(element -> element.getModelElementType() + ":" + element.getModelElementId()).toList();
-                    List<Feedback> similarFeedbacks = feedbacks.stream().filter(feedback -> similarReferences.contains(feedback.getReference())).toList();
-                    Feedback suggestedFeedback = FeedbackSelector.selectFeedback(modelElement, similarFeedbacks, result);
+            Map<Long, List<Feedback>> feedbacksByCluster = new HashMap<>();
+            for (Feedback feedback : feedbacks) {
+                ClusteredElement referencedElement = suggestionIndex.elementsById().get(elementIdOfReference(feedback.getReference()));
+                if (referencedElement != null) {
+                    feedbacksByCluster.computeIfAbsent(referencedElement.clusterId(), clusterId -> new ArrayList<>()).add(feedback);
+                }
+            }
+            elementsByCluster.forEach((clusterId, clusteredElements) -> {
+                List<Feedback> similarFeedbacks = feedbacksByCluster.get(clusterId);
+                for (ClusteredElement clusteredElement : clusteredElements) {
+                    Feedback suggestedFeedback = FeedbackSelector.selectFeedback(clusteredElement.toModelElement(), similarFeedbacks, result);
                     if (suggestedFeedback != null) {
                         feedbacksForSuggestion.add(suggestedFeedback);
                     }
                 }
-            }
+            });
             if (feedbacksForSuggestion.isEmpty()) {
                 return null;
             }
@@ -123,6 +185,46 @@ public class CompassService {
         return result;
     }
 
+    /**
+     * Returns the cluster structure of the given exercise from the distributed cache or builds and caches it if it is not available
+     *
+     * @param modelingExercise the exercise to get the suggestion index for
+     * @return the suggestion index of the exercise
+     */
+    private SuggestionIndex getSuggestionIndex(ModelingExercise modelingExercise) {
+        SuggestionIndex suggestionIndex = suggestionIndexes.get(modelingExercise.getId());
+        if (suggestionIndex != null) {
+            return suggestionIndex;
+        }
+        HashMap<String, ClusteredElement> elementsById = new HashMap<>();
+        HashMap<Long, List<String>> referencesByClusterId = new HashMap<>();
+        for (var mapping : modelElementRepository.findClusterMappingsByExerciseId(modelingExercise.getId())) {
+            ClusteredElement clusteredElement = new ClusteredElement(mapping.getElementId(), mapping.getElementType(), mapping.getClusterId());
+            elementsById.put(clusteredElement.elementId(), clusteredElement);
+            referencesByClusterId.computeIfAbsent(clusteredElement.clusterId(), clusterId -> new ArrayList<>()).add(clusteredElement.reference());
+        }
+        suggestionIndex = new SuggestionIndex(elementsById, referencesByClusterId);
+        suggestionIndexes.set(modelingExercise.getId(), suggestionIndex, SUGGESTION_INDEX_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+        return suggestionIndex;
+    }
+
+    /**
+     * Removes the cached cluster structure of the given exercise, this has to be called whenever clusters or model elements of the exercise change
+     *
+     * @param exerciseId the id of the exercise whose clusters changed
+     */
+    public void evictSuggestionIndex(Long exerciseId) {
+        suggestionIndexes.delete(exerciseId);
+    }
+
+    private static String elementIdOfReference(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        // references have the format "<element type>:<element id>"
+        return reference.substring(reference.indexOf(':') + 1);
+    }
+
     /**
      * Get the result of the given modeling submission. If the given submission already contains a manual result, this result is returned. Otherwise, it tries to load and return
      * the result for the submission from the hash map containing all automatic results. If no result could be found in the hash map, a new result is created for the given
@@ -159,4 +261,33 @@ public class CompassService {
         // if the assessment mode is not specified (e.g. for legacy exercises), team exercises are not supported
         return !modelingExercise.isTeamMode();
     }
+
+    /**
+     * The clusters of all model elements of an exercise, the feedback of the elements is not part of the index as it changes with every assessment
+     *
+     * @param elementsById          the clustered model elements by their Apollon id
+     * @param referencesByClusterId the feedback references of all elements of a cluster by cluster id
+     */
+    private record SuggestionIndex(HashMap<String, ClusteredElement> elementsById, HashMap<Long, List<String>> referencesByClusterId) implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+    private record ClusteredElement(String elementId, String elementType, long clusterId) implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private String reference() {
+            return elementType + ":" + elementId;
+        }
+
+        private ModelElement toModelElement() {
+            ModelElement modelElement = new ModelElement();
+            modelElement.setModelElementId(elementId);
+            modelElement.setModelElementType(elementType);
+            return modelElement;
+        }
+    }
 }
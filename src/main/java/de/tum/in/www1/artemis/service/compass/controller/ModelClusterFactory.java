@@ -3,16 +3,19 @@ package de.tum.in.www1.artemis.service.compass.controller;
 import static com.google.gson.JsonParser.parseString;
 
 import java.io.IOException;
-import java.util.HashSet;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.util.Pair;
 
 import com.google.gson.JsonObject;
 
@@ -33,6 +36,16 @@ public class ModelClusterFactory {
 
     private final Logger log = LoggerFactory.getLogger(ModelClusterFactory.class);
 
+    /**
+     * Buckets with at least this many unique elements are searched in parallel, smaller buckets are cheaper to scan on the calling thread
+     */
+    private static final int PARALLEL_SEARCH_THRESHOLD = 256;
+
+    /**
+     * Dedicated pool for the similarity search so that clustering large exercises does not starve the common pool used by parallel streams elsewhere
+     */
+    private static final ForkJoinPool CLUSTERING_POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
     /**
      * Finds the similar elements among submissions and puts them in a cluster
      *
@@ -41,11 +54,78 @@ public class ModelClusterFactory {
      * @return an unmodifiable list of clusters that have more than one element in them
      */
     public List<ModelCluster> buildClusters(List<ModelingSubmission> modelingSubmissions, ModelingExercise exercise) {
-        // The elements that has no other similar elements or are the first of their kind
-        HashSet<UMLElement> uniqueElements = new HashSet<>();
+        SimilarityIndex index = new SimilarityIndex();
+        addSubmissions(modelingSubmissions, index, exercise);
+        return index.clusters.values().stream().filter(modelCluster -> modelCluster.getModelElements().size() > 1).toList();
+    }
 
-        // The map of similarity id and clusters. We are using similarity id instead of cluster id here since clusters do not exist in database yet
-        Map<Integer, ModelCluster> clusters = new ConcurrentHashMap<>();
+    /**
+     * Adds the elements of late submissions to the already persisted clusters of an exercise without rebuilding them. The index is seeded with one representative element per
+     * existing cluster and with all elements of the already clustered submissions that did not end up in any cluster, i.e. exactly the unique elements a full build would have
+     * compared against. New elements are then assigned as in {@link #buildClusters(List, ModelingExercise)}.
+     *
+     * @param existingClusters      the persisted clusters of the exercise including their model elements
+     * @param clusteredSubmissions  the submissions whose elements have already been clustered
+     * @param additionalSubmissions the submissions that have not been clustered yet
+     * @param exercise              the exercise that the submissions belong to
+     * @return the new model elements together with the clusters they belong to, only elements of clusters with more than one element are contained
+     */
+    public ClusterExtension extendClusters(List<ModelCluster> existingClusters, List<ModelingSubmission> clusteredSubmissions, List<ModelingSubmission> additionalSubmissions,
+            ModelingExercise exercise) {
+        SimilarityIndex index = new SimilarityIndex();
+
+        Map<String, ModelCluster> clusterByElementId = new HashMap<>();
+        for (ModelCluster cluster : existingClusters) {
+            for (ModelElement modelElement : cluster.getModelElements()) {
+                clusterByElementId.put(modelElement.getModelElementId(), cluster);
+            }
+        }
+
+        Map<ModelCluster, Integer> similarityIdByCluster = new HashMap<>();
+        List<ModelElement> createdElements = new ArrayList<>();
+        for (Submission submission : clusteredSubmissions) {
+            ModelingSubmission modelingSubmission = (ModelingSubmission) Hibernate.unproxy(submission);
+            List<UMLElement> modelElements = getModelElements(modelingSubmission);
+            if (modelElements == null) {
+                continue;
+            }
+            for (UMLElement element : modelElements) {
+                ModelCluster cluster = clusterByElementId.get(element.getJSONElementID());
+                if (cluster == null) {
+                    // the element was unique within the previous build, keep it as a candidate for a cluster with late elements
+                    ModelCluster singleton = index.registerNewCluster(element, exercise);
+                    createdElements.add(createModelElement(element, singleton, modelingSubmission));
+                    continue;
+                }
+                Integer similarityId = similarityIdByCluster.get(cluster);
+                if (similarityId == null) {
+                    similarityId = index.register(element, cluster);
+                    similarityIdByCluster.put(cluster, similarityId);
+                }
+                element.setSimilarityID(similarityId);
+            }
+            setContextOfModelElements(modelElements);
+        }
+
+        createdElements.addAll(addSubmissions(additionalSubmissions, index, exercise));
+        // model elements are identified by their Apollon id, elements that are already persisted must not be moved to another cluster
+        List<ModelElement> newElements = createdElements.stream().filter(modelElement -> !clusterByElementId.containsKey(modelElement.getModelElementId()))
+                .filter(modelElement -> modelElement.getCluster().getModelElements().size() > 1).toList();
+        List<ModelCluster> affectedClusters = newElements.stream().map(ModelElement::getCluster).distinct().toList();
+        log.debug("Extended {} existing clusters with {} new model elements", similarityIdByCluster.size(), newElements.size());
+        return new ClusterExtension(affectedClusters, newElements);
+    }
+
+    /**
+     * Assigns all elements of the given submissions to the best fitting cluster of the index or creates new clusters for them
+     *
+     * @param modelingSubmissions the submissions to add
+     * @param index               the similarity index that holds the unique elements and clusters
+     * @param exercise            the exercise that submissions belong to
+     * @return the model elements that have been created for the elements of the given submissions
+     */
+    private List<ModelElement> addSubmissions(List<ModelingSubmission> modelingSubmissions, SimilarityIndex index, ModelingExercise exercise) {
+        List<ModelElement> createdElements = new ArrayList<>();
         // TODO: this should work without unproxy!
         for (Submission submission : modelingSubmissions) {
             // We have to unproxy here as sometimes the Submission is a Hibernate proxy resulting in a cast exception
@@ -55,13 +135,12 @@ public class ModelClusterFactory {
             List<UMLElement> modelElements = getModelElements(modelingSubmission);
             if (modelElements != null) {
                 for (UMLElement element : modelElements) {
-                    selectCluster(element, uniqueElements, clusters, exercise, modelingSubmission);
+                    createdElements.add(selectCluster(element, index, exercise, modelingSubmission));
                 }
                 setContextOfModelElements(modelElements);
             }
         }
-
-        return clusters.values().stream().filter(modelCluster -> modelCluster.getModelElements().size() > 1).toList();
+        return createdElements;
     }
 
     /**
@@ -109,50 +188,118 @@ public class ModelClusterFactory {
     }
 
     /**
-     * Builds and returns the elements of the modeling submission
+     * Assigns the element to the cluster of the most similar unique element or creates a new cluster if there is no similar element
      *
-     * @param element             the element to compare for other elements
-     * @param uniqueModelElements the elements that have no similar elements or the first of their kind
-     * @param clusters            map of clusters and similarity ids to assign the element
-     * @param exercise            the exercise that submission of element belongs to
-     * @param submission          the submission that element belongs to
+     * @param element    the element to compare for other elements
+     * @param index      the similarity index that holds the unique elements and clusters
+     * @param exercise   the exercise that submission of element belongs to
+     * @param submission the submission that element belongs to
+     * @return the model element that has been added to the selected cluster
      */
-    private void selectCluster(UMLElement element, Set<UMLElement> uniqueModelElements, Map<Integer, ModelCluster> clusters, ModelingExercise exercise,
-            ModelingSubmission submission) {
-
-        // Pair of similarity value and cluster ID
-        var bestSimilarityFit = Pair.of(-1.0, -1);
-
-        for (final var knownElement : uniqueModelElements) {
-            final var similarity = knownElement.similarity(element);
-            if (similarity > CompassConfiguration.EQUALITY_THRESHOLD && similarity > bestSimilarityFit.getFirst()) {
-                // element is similar to existing element and has a higher similarity than another element
-                bestSimilarityFit = Pair.of(similarity, knownElement.getSimilarityID());
-            }
-        }
-
+    private ModelElement selectCluster(UMLElement element, SimilarityIndex index, ModelingExercise exercise, ModelingSubmission submission) {
         ModelCluster cluster;
-        if (bestSimilarityFit.getFirst() != -1.0) {
-            int similarityId = bestSimilarityFit.getSecond();
+        int similarityId = index.findMostSimilar(element);
+        if (similarityId != -1) {
             element.setSimilarityID(similarityId);
-            cluster = clusters.get(similarityId);
+            cluster = index.clusters.get(similarityId);
         }
         else {
-            int similarityId = uniqueModelElements.size();
-            cluster = new ModelCluster();
-            cluster.setMinimumSimilarity(CompassConfiguration.EQUALITY_THRESHOLD);
-            cluster.setModelElementType(element.getType());
-            cluster.setExercise(exercise);
-            clusters.put(similarityId, cluster);
             // element does not fit already known element / similarity set
-            element.setSimilarityID(similarityId);
-            uniqueModelElements.add(element);
+            cluster = index.registerNewCluster(element, exercise);
         }
+        return createModelElement(element, cluster, submission);
+    }
+
+    private static ModelElement createModelElement(UMLElement element, ModelCluster cluster, ModelingSubmission submission) {
         ModelElement modelElement = new ModelElement();
         modelElement.setCluster(cluster);
         modelElement.setModelElementId(element.getJSONElementID());
         modelElement.setModelElementType(element.getType());
         modelElement.setSubmission(submission);
         cluster.addModelElement(modelElement);
+        return modelElement;
+    }
+
+    /**
+     * Returns the class that determines which elements can be similar to the given element at all. All similarity implementations return 0 for references that are not an
+     * instance of their own type, so elements only have to be compared within the most general concrete class of their hierarchy, e.g. object attributes with attributes and
+     * deployment components with components.
+     *
+     * @param element the element to determine the similarity family for
+     * @return the most general concrete superclass of the element below UMLElement
+     */
+    private static Class<?> similarityFamily(UMLElement element) {
+        Class<?> family = element.getClass();
+        Class<?> superclass = family.getSuperclass();
+        while (superclass != null && superclass != UMLElement.class && !Modifier.isAbstract(superclass.getModifiers())) {
+            family = superclass;
+            superclass = family.getSuperclass();
+        }
+        return family;
+    }
+
+    /**
+     * The new model elements and affected clusters of an incremental clustering run
+     *
+     * @param clusters the new and modified clusters that have to be saved
+     * @param elements the new model elements that have to be saved
+     */
+    public record ClusterExtension(List<ModelCluster> clusters, List<ModelElement> elements) {
+    }
+
+    /**
+     * Holds the unique elements (i.e. the first element of each cluster) bucketed by their similarity family. Elements are only compared with the unique elements of their
+     * own bucket and large buckets are scanned in parallel. The order of elements within a bucket is the insertion order and ties are resolved in favor of the element that was
+     * added first, so the result does not depend on the parallelism.
+     */
+    private static class SimilarityIndex {
+
+        private final Map<Class<?>, List<UMLElement>> buckets = new HashMap<>();
+
+        // The map of similarity id and clusters. We are using similarity id instead of cluster id here since clusters do not exist in database yet
+        private final Map<Integer, ModelCluster> clusters = new LinkedHashMap<>();
+
+        private int register(UMLElement uniqueElement, ModelCluster cluster) {
+            int similarityId = clusters.size();
+            uniqueElement.setSimilarityID(similarityId);
+            clusters.put(similarityId, cluster);
+            buckets.computeIfAbsent(similarityFamily(uniqueElement), family -> new ArrayList<>()).add(uniqueElement);
+            return similarityId;
+        }
+
+        private ModelCluster registerNewCluster(UMLElement uniqueElement, ModelingExercise exercise) {
+            ModelCluster cluster = new ModelCluster();
+            cluster.setMinimumSimilarity(CompassConfiguration.EQUALITY_THRESHOLD);
+            cluster.setModelElementType(uniqueElement.getType());
+            cluster.setExercise(exercise);
+            register(uniqueElement, cluster);
+            return cluster;
+        }
+
+        /**
+         * @param element the element to find the most similar unique element for
+         * @return the similarity id of the most similar unique element above the equality threshold or -1 if there is none
+         */
+        private int findMostSimilar(UMLElement element) {
+            List<UMLElement> candidates = buckets.get(similarityFamily(element));
+            if (candidates == null) {
+                return -1;
+            }
+            if (candidates.size() < PARALLEL_SEARCH_THRESHOLD) {
+                return bestFit(IntStream.range(0, candidates.size()), candidates, element);
+            }
+            return CLUSTERING_POOL.submit(() -> bestFit(IntStream.range(0, candidates.size()).parallel(), candidates, element)).join();
+        }
+
+        private static int bestFit(IntStream candidateIndices, List<UMLElement> candidates, UMLElement element) {
+            return candidateIndices.mapToObj(candidateIndex -> new SimilarityFit(candidateIndex, candidates.get(candidateIndex).similarity(element)))
+                    .filter(fit -> fit.similarity() > CompassConfiguration.EQUALITY_THRESHOLD).min(SimilarityFit.BEST_FIRST)
+                    .map(fit -> candidates.get(fit.candidateIndex()).getSimilarityID()).orElse(-1);
+        }
+    }
+
+    private record SimilarityFit(int candidateIndex, double similarity) {
+
+        private static final Comparator<SimilarityFit> BEST_FIRST = Comparator.comparingDouble(SimilarityFit::similarity).reversed().thenComparingInt(SimilarityFit::candidateIndex);
     }
 }
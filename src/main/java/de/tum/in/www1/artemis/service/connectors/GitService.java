@@ -19,6 +19,8 @@ import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
@@ -32,6 +34,7 @@ import org.eclipse.jgit.api.errors.*;
 import org.eclipse.jgit.errors.UnsupportedCredentialItem;
 import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
@@ -39,6 +42,7 @@ import org.eclipse.jgit.transport.*;
 import org.eclipse.jgit.transport.sshd.JGitKeyCache;
 import org.eclipse.jgit.transport.sshd.KeyPasswordProvider;
 import org.eclipse.jgit.transport.sshd.SshdSessionFactoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -52,6 +56,7 @@ import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipat
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.exception.GitException;
+import de.tum.in.www1.artemis.exception.localvc.LocalVCInternalException;
 import de.tum.in.www1.artemis.service.FileService;
 import de.tum.in.www1.artemis.service.ProfileService;
 import de.tum.in.www1.artemis.service.ZipFileService;
@@ -333,18 +338,128 @@ public class GitService {
      * @throws InvalidPathException if the repository could not be checked out Because it contains unmappable characters.
      */
     public Repository getOrCheckoutRepositoryForJPlag(ProgrammingExerciseParticipation participation, String targetPath) throws GitAPIException, InvalidPathException {
-        var repoUrl = participation.getVcsRepositoryUrl();
-        String repoFolderName = repoUrl.folderNameForRepositoryUrl();
+        Repository repository = getOrCheckoutRepository(participation.getVcsRepositoryUrl(), getLocalPathForJPlag(participation, targetPath), true);
+        repository.setParticipation(participation);
+
+        return repository;
+    }
+
+    /**
+     * Get the local path of the repository of the given participation for JPlag.
+     * The path includes the participation ID so JPlag can refer back to the correct participation.
+     *
+     * @param participation Participation the remote repository belongs to.
+     * @param targetPath    path where the repositories for JPlag are located on disk
+     * @return the local path of the repository
+     * @throws InvalidPathException if the path contains unmappable characters.
+     */
+    public Path getLocalPathForJPlag(ProgrammingExerciseParticipation participation, String targetPath) throws InvalidPathException {
+        String repoFolderName = participation.getVcsRepositoryUrl().folderNameForRepositoryUrl();
 
         // Replace the exercise name in the repository folder name with the participation ID.
         // This is necessary to be able to refer back to the correct participation after the JPlag detection run.
         String updatedRepoFolderName = repoFolderName.replaceAll("/[a-zA-Z0-9]*-", "/" + participation.getId() + "-");
-        Path localPath = Path.of(targetPath, updatedRepoFolderName);
+        return Path.of(targetPath, updatedRepoFolderName);
+    }
 
-        Repository repository = getOrCheckoutRepository(repoUrl, localPath, true);
-        repository.setParticipation(participation);
+    /**
+     * Get the path of the bare repository in the local VCS for the given repository url.
+     * The files of this repository can be read directly with {@link #readHeadTree}, without cloning the repository into the repos folder first.
+     *
+     * @param repoUrl the url of the repository
+     * @return the path of the bare repository or an empty optional if the local VCS is not used or the repository does not exist
+     */
+    public Optional<Path> getLocalVCBareRepositoryPath(VcsRepositoryUrl repoUrl) {
+        if (repoUrl == null || !profileService.isLocalVcsCi()) {
+            return Optional.empty();
+        }
+        try {
+            LocalVCRepositoryUrl localVCRepositoryUrl = new LocalVCRepositoryUrl(repoUrl.toString(), gitUrl);
+            Path bareRepositoryPath = localVCRepositoryUrl.getLocalRepositoryPath(environment.getProperty("artemis.version-control.local-vcs-repo-path"));
+            return Files.isDirectory(bareRepositoryPath) ? Optional.of(bareRepositoryPath) : Optional.empty();
+        }
+        catch (LocalVCInternalException | InvalidPathException e) {
+            log.warn("Cannot determine the local VC repository of {}: {}", repoUrl, e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-        return repository;
+    /**
+     * Reads all files of the HEAD commit of a bare repository directly from its object database, without cloning the repository or checking out a working copy.
+     * Symbolic links and submodules are skipped, as they are not checked out in the repos folder either.
+     *
+     * @param bareRepositoryPath the path of the bare repository, see {@link #getLocalVCBareRepositoryPath}
+     * @param fileConsumer       is called with the path (relative to the repository root, separated by slashes) and the content of each file
+     * @return the id of the HEAD commit or an empty optional if the repository does not have any commits yet
+     * @throws IOException if the repository could not be read or the consumer failed
+     */
+    public Optional<ObjectId> readHeadTree(Path bareRepositoryPath, HeadTreeFileConsumer fileConsumer) throws IOException {
+        try (org.eclipse.jgit.lib.Repository repository = new FileRepositoryBuilder().setGitDir(bareRepositoryPath.toFile()).setMustExist(true).build();
+                ObjectReader reader = repository.newObjectReader(); RevWalk revWalk = new RevWalk(reader); TreeWalk treeWalk = new TreeWalk(reader)) {
+            ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null) {
+                return Optional.empty();
+            }
+            treeWalk.addTree(revWalk.parseCommit(head).getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                FileMode fileMode = treeWalk.getFileMode(0);
+                if (fileMode == FileMode.REGULAR_FILE || fileMode == FileMode.EXECUTABLE_FILE) {
+                    fileConsumer.accept(treeWalk.getPathString(), reader.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB));
+                }
+            }
+            return Optional.of(head);
+        }
+    }
+
+    /**
+     * Writes all files of the HEAD commit of a bare repository to the given directory, without the git history and without cloning the repository.
+     *
+     * @param bareRepositoryPath the path of the bare repository, see {@link #getLocalVCBareRepositoryPath}
+     * @param targetPath         the directory to which the files are written
+     * @return the id of the written commit or an empty optional if the repository does not have any commits yet
+     * @throws IOException if the repository could not be read or a file could not be written
+     */
+    public Optional<ObjectId> writeHeadTree(Path bareRepositoryPath, Path targetPath) throws IOException {
+        Path normalizedTargetPath = targetPath.toAbsolutePath().normalize();
+        return readHeadTree(bareRepositoryPath, (filePath, content) -> {
+            Path targetFile = normalizedTargetPath.resolve(filePath).normalize();
+            if (!targetFile.startsWith(normalizedTargetPath)) {
+                throw new IOException("The file " + filePath + " is outside of the repository");
+            }
+            Files.createDirectories(targetFile.getParent());
+            try (var outputStream = Files.newOutputStream(targetFile)) {
+                content.copyTo(outputStream);
+            }
+        });
+    }
+
+    /**
+     * Adds all files of the HEAD commit of a bare repository to the given zip file, without the git history and without cloning the repository.
+     *
+     * @param bareRepositoryPath the path of the bare repository, see {@link #getLocalVCBareRepositoryPath}
+     * @param zipOutputStream    the zip file to which the files are added
+     * @param folderPrefix       prefix of the paths of the files in the zip file, e.g. "assignment/", can be empty
+     * @param fileFilter         filters the files by their path relative to the repository root
+     * @throws IOException if the repository could not be read or the zip file could not be written
+     */
+    public void addHeadTreeToZipFile(Path bareRepositoryPath, ZipOutputStream zipOutputStream, String folderPrefix, Predicate<String> fileFilter) throws IOException {
+        readHeadTree(bareRepositoryPath, (filePath, content) -> {
+            if (fileFilter.test(filePath)) {
+                zipOutputStream.putNextEntry(new ZipEntry(folderPrefix + filePath));
+                content.copyTo(zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+        });
+    }
+
+    /**
+     * Consumes the files of the HEAD commit of a bare repository, see {@link #readHeadTree}
+     */
+    @FunctionalInterface
+    public interface HeadTreeFileConsumer {
+
+        void accept(String filePath, ObjectLoader content) throws IOException;
     }
 
     /**
@@ -1258,22 +1373,33 @@ public class GitService {
      * @throws IOException if the zipping process failed.
      */
     public Path zipRepositoryWithParticipation(Repository repo, String repositoryDir, boolean hideStudentName) throws IOException, UncheckedIOException {
+        return zipFiles(repo.getLocalPath(), getExportNameOfRepositoryWithParticipation(repo, hideStudentName) + ".zip", repositoryDir, null);
+    }
+
+    /**
+     * Get the name under which the content of a git repository that contains a participation is exported, i.e. the name of the zip file or the folder in an archive.
+     *
+     * @param repo            Local Repository Object.
+     * @param hideStudentName option to hide the student name in the exported name
+     * @return the name without file extension.
+     */
+    public String getExportNameOfRepositoryWithParticipation(Repository repo, boolean hideStudentName) {
         var exercise = repo.getParticipation().getProgrammingExercise();
         var courseShortName = exercise.getCourseViaExerciseGroupOrCourseMember().getShortName();
         var participation = (ProgrammingExerciseStudentParticipation) repo.getParticipation();
 
-        // The zip filename is either the student login, team short name or some default string.
+        // The name is either the student login, team short name or some default string.
         var studentTeamOrDefault = Objects.requireNonNullElse(participation.getParticipantIdentifier(), "student-submission" + repo.getParticipation().getId());
 
-        String zipRepoName = FileService.removeIllegalCharacters(courseShortName + "-" + exercise.getTitle() + "-" + participation.getId());
+        String repoName = FileService.removeIllegalCharacters(courseShortName + "-" + exercise.getTitle() + "-" + participation.getId());
         if (hideStudentName) {
-            zipRepoName += "-student-submission.git.zip";
+            repoName += "-student-submission.git";
         }
         else {
-            zipRepoName += "-" + studentTeamOrDefault + ".zip";
+            repoName += "-" + studentTeamOrDefault;
         }
-        zipRepoName = participation.addPracticePrefixIfTestRun(zipRepoName);
-        return zipFiles(repo.getLocalPath(), zipRepoName, repositoryDir, null);
+        // Strip whitespaces from the name
+        return participation.addPracticePrefixIfTestRun(repoName).replaceAll("\\s", "");
     }
 
     /**
@@ -1,22 +1,22 @@
 package de.tum.in.www1.artemis.service.connectors.localci;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.XMLStreamReader;
 
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
-import org.apache.commons.io.IOUtils;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,9 +24,14 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.exception.DockerException;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.HostConfig;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
+import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.config.localvcci.LocalCIConfiguration;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.exception.LocalCIException;
@@ -55,9 +60,23 @@ public class LocalCIBuildJobExecutionService {
     private final LocalCIContainerService localCIContainerService;
 
     /**
-     * Instead of creating a new XMLInputFactory for every build job, it is created once and provided as a Bean (see {@link LocalCIConfiguration#localCIXMLInputFactory()}).
+     * Streams the test results into the XMLInputFactory that is created once and provided as a Bean (see {@link LocalCIConfiguration#localCIXMLInputFactory()}).
      */
-    private final XMLInputFactory localCIXMLInputFactory;
+    private final LocalCITestResultParser testResultParser;
+
+    /**
+     * The test results of already built (assignment commit, test commit) pairs. The outcome of a build only depends on the content of both repositories and the build environment,
+     * so e.g. the initial commit of every student repository, which is identical to the template, or a re-submission of an unchanged commit does not have to be built again.
+     */
+    private final Cache<String, CachedBuild> buildResultCache;
+
+    /**
+     * The hash of the Docker image and the build configuration, see {@link LocalCIContainerService#getBuildEnvironmentHash()}. It is part of the cache key, so that the commits
+     * are built again after the image was updated. It is only looked up once per minute, an empty value disables the cache until the next lookup.
+     */
+    private final Supplier<Optional<String>> buildEnvironmentHash;
+
+    private final boolean isBuildResultCacheEnabled;
 
     @Value("${artemis.version-control.url}")
     private URL localVCBaseUrl;
@@ -66,11 +85,16 @@ public class LocalCIBuildJobExecutionService {
     private String localVCBasePath;
 
     public LocalCIBuildJobExecutionService(LocalCIBuildPlanService localCIBuildPlanService, Optional<VersionControlService> versionControlService,
-            LocalCIContainerService localCIContainerService, XMLInputFactory localCIXMLInputFactory) {
+            LocalCIContainerService localCIContainerService, XMLInputFactory localCIXMLInputFactory,
+            @Value("${artemis.continuous-integration.build-result-cache-size:1000}") int buildResultCacheSize) {
         this.localCIBuildPlanService = localCIBuildPlanService;
         this.versionControlService = versionControlService;
         this.localCIContainerService = localCIContainerService;
-        this.localCIXMLInputFactory = localCIXMLInputFactory;
+        // Failure messages are stored as feedback detail text, longer messages would be truncated when saving the feedback anyway.
+        this.testResultParser = new LocalCITestResultParser(localCIXMLInputFactory, Constants.FEEDBACK_DETAIL_TEXT_DATABASE_MAX_LENGTH);
+        this.buildResultCache = CacheBuilder.newBuilder().maximumSize(Math.max(0, buildResultCacheSize)).build();
+        this.isBuildResultCacheEnabled = buildResultCacheSize > 0;
+        this.buildEnvironmentHash = Suppliers.memoizeWithExpiration(this::lookUpBuildEnvironmentHash, 1, TimeUnit.MINUTES)::get;
     }
 
     public enum LocalCIBuildJobRepositoryType {
@@ -89,6 +113,66 @@ public class LocalCIBuildJobExecutionService {
         }
     }
 
+    /**
+     * Looks up the result of a previous build of the same assignment and test commit. The commits are resolved directly from the local VC repositories, so no container is
+     * needed for the lookup.
+     *
+     * @param participation The participation of the repository for which the build job should be executed.
+     * @param commitHash    The commit hash of the commit that should be built. If it is null, the latest commit of the default branch is used.
+     * @return the cached build result with the current date as build run date or an empty Optional if the commits have not been built yet or could not be resolved
+     */
+    public Optional<LocalCIBuildResult> getCachedBuildResult(ProgrammingExerciseParticipation participation, String commitHash) {
+        if (buildResultCache.size() == 0) {
+            return Optional.empty();
+        }
+        try {
+            LocalVCRepositoryUrl assignmentRepositoryUrl = new LocalVCRepositoryUrl(participation.getRepositoryUrl(), localVCBaseUrl);
+            LocalVCRepositoryUrl testsRepositoryUrl = new LocalVCRepositoryUrl(participation.getProgrammingExercise().getTestRepositoryUrl(), localVCBaseUrl);
+            String branch = versionControlService.orElseThrow().getOrRetrieveBranchOfParticipation(participation);
+
+            String assignmentRepoCommitHash = commitHash != null ? commitHash
+                    : resolveCommitHashOfBranch(assignmentRepositoryUrl.getLocalRepositoryPath(localVCBasePath).toAbsolutePath(), branch);
+            String testRepoCommitHash = resolveCommitHashOfBranch(testsRepositoryUrl.getLocalRepositoryPath(localVCBasePath).toAbsolutePath(), branch);
+            if (assignmentRepoCommitHash == null || testRepoCommitHash == null) {
+                return Optional.empty();
+            }
+
+            Optional<String> cacheKey = buildResultCacheKey(assignmentRepoCommitHash, testRepoCommitHash);
+            CachedBuild cachedBuild = cacheKey.map(buildResultCache::getIfPresent).orElse(null);
+            if (cachedBuild == null) {
+                return Optional.empty();
+            }
+            log.info("Reusing the test results of commit {} and test commit {} for repository {}", assignmentRepoCommitHash, testRepoCommitHash,
+                    participation.getRepositoryUrl());
+            return Optional.of(new LocalCIBuildResult(branch, assignmentRepoCommitHash, testRepoCommitHash, cachedBuild.isBuildSuccessful(), ZonedDateTime.now(),
+                    cachedBuild.jobs()));
+        }
+        catch (LocalVCInternalException | IOException e) {
+            log.warn("Could not look up cached build result for repository {}: {}", participation.getRepositoryUrl(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the result of a build job that finished within the timeout, so that it can be reused for other build jobs of the same commits.
+     * Only builds that ran tests are cached. Builds without test results might have failed for reasons that are unrelated to the commits, e.g. a full disk.
+     *
+     * @param buildResult the result of the build job
+     */
+    public void cacheBuildResult(LocalCIBuildResult buildResult) {
+        if (!isBuildResultCacheEnabled) {
+            return;
+        }
+        boolean hasTestResults = buildResult.getBuildJobs().stream().anyMatch(job -> !job.getFailedTests().isEmpty() || !job.getSuccessfulTests().isEmpty());
+        Optional<String> assignmentRepoCommitHash = buildResult.getCommitHashFromAssignmentRepo();
+        Optional<String> testRepoCommitHash = buildResult.getCommitHashFromTestsRepo();
+        if (!hasTestResults || assignmentRepoCommitHash.isEmpty() || testRepoCommitHash.isEmpty()) {
+            return;
+        }
+        buildResultCacheKey(assignmentRepoCommitHash.get(), testRepoCommitHash.get()).ifPresent(cacheKey -> buildResultCache.put(cacheKey,
+                new CachedBuild(buildResult.isBuildSuccessful(), buildResult.getBuildJobs().stream().map(LocalCIBuildResult.LocalCIJobDTO.class::cast).toList())));
+    }
+
     /**
      * Prepare the paths to the assignment and test repositories, the branch to checkout, the volume configuration for the Docker container, and the container configuration,
      * and then call {@link #runScriptAndParseResults(ProgrammingExerciseParticipation, String, String, String, String)} to execute the job.
@@ -222,103 +306,37 @@ public class LocalCIBuildJobExecutionService {
 
     // --- Helper methods ----
 
-    private LocalCIBuildResult parseTestResults(TarArchiveInputStream testResultsTarInputStream, String assignmentRepoBranchName, String assignmentRepoCommitHash,
-            String testsRepoCommitHash, ZonedDateTime buildCompletedDate) throws IOException, XMLStreamException {
-
-        List<LocalCIBuildResult.LocalCITestJobDTO> failedTests = new ArrayList<>();
-        List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests = new ArrayList<>();
-
-        TarArchiveEntry tarEntry;
-        while ((tarEntry = testResultsTarInputStream.getNextTarEntry()) != null) {
-
-            // Go through all tar entries that are test result files.
-            if (!isValidTestResultFile(tarEntry)) {
-                continue;
-            }
-
-            // Read the contents of the tar entry as a string.
-            String xmlString = readTarEntryContent(testResultsTarInputStream);
-
-            processTestResultFile(xmlString, failedTests, successfulTests);
-        }
-
-        return constructBuildResult(failedTests, successfulTests, assignmentRepoBranchName, assignmentRepoCommitHash, testsRepoCommitHash, !failedTests.isEmpty(),
-                buildCompletedDate);
-    }
-
-    private boolean isValidTestResultFile(TarArchiveEntry tarArchiveEntry) {
-        return !tarArchiveEntry.isDirectory() && tarArchiveEntry.getName().endsWith(".xml") && tarArchiveEntry.getName().startsWith("test/TEST-")
-                && tarArchiveEntry.getName().endsWith(".xml");
-    }
-
-    private String readTarEntryContent(TarArchiveInputStream tarArchiveInputStream) throws IOException {
-        return IOUtils.toString(tarArchiveInputStream, StandardCharsets.UTF_8);
+    private Optional<String> buildResultCacheKey(String assignmentRepoCommitHash, String testRepoCommitHash) {
+        return buildEnvironmentHash.get().map(environmentHash -> environmentHash + ":" + assignmentRepoCommitHash + ":" + testRepoCommitHash);
     }
 
-    /**
-     * Processes a test result file and adds the failed and successful tests to the corresponding lists.
-     *
-     * @param testResultFileString The string that represents the test results XML file.
-     * @param failedTests          The list of failed tests.
-     * @param successfulTests      The list of successful tests.
-     * @throws XMLStreamException    if the XML stream reader cannot be created or there is an error while parsing the XML file
-     * @throws IllegalStateException if the first start element of the XML file is not a "testsuite" node
-     */
-    private void processTestResultFile(String testResultFileString, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
-            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws XMLStreamException {
-        // Create an XML stream reader for the string that represents the test results XML file.
-        XMLStreamReader xmlStreamReader = localCIXMLInputFactory.createXMLStreamReader(new StringReader(testResultFileString));
-
-        // Move to the first start element.
-        while (xmlStreamReader.hasNext() && !xmlStreamReader.isStartElement()) {
-            xmlStreamReader.next();
+    private Optional<String> lookUpBuildEnvironmentHash() {
+        try {
+            return Optional.of(localCIContainerService.getBuildEnvironmentHash());
         }
-
-        // Check if the start element is the "testsuite" node.
-        if (!("testsuite".equals(xmlStreamReader.getLocalName()))) {
-            throw new IllegalStateException("Expected testsuite element, but got " + xmlStreamReader.getLocalName());
+        catch (DockerException | IOException e) {
+            log.warn("Could not determine the build environment, build results are not reused: {}", e.getMessage());
+            return Optional.empty();
         }
+    }
 
-        // Go through all testcase nodes.
-        while (xmlStreamReader.hasNext()) {
-            xmlStreamReader.next();
-
-            if (!xmlStreamReader.isStartElement() || !("testcase".equals(xmlStreamReader.getLocalName()))) {
-                continue;
-            }
-
-            // Now we are at the start of a "testcase" node.
-            processTestCaseNode(xmlStreamReader, failedTests, successfulTests);
+    private String resolveCommitHashOfBranch(Path repositoryPath, String branch) throws IOException {
+        try (Repository repository = FileRepositoryBuilder.create(repositoryPath.toFile())) {
+            ObjectId commitId = repository.resolve("refs/heads/" + branch);
+            return commitId != null ? commitId.getName() : null;
         }
-
-        // Close the XML stream reader.
-        xmlStreamReader.close();
     }
 
-    private void processTestCaseNode(XMLStreamReader xmlStreamReader, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
-            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws XMLStreamException {
-        // Extract the name attribute from the "testcase" node. This is the name of the test case.
-        String name = xmlStreamReader.getAttributeValue(null, "name");
-
-        // Check if there is a failure node inside the testcase node.
-        // Call next() until there is an end element (no failure node exists inside the testcase node) or a start element (failure node exists inside the
-        // testcase node).
-        xmlStreamReader.next();
-        while (!(xmlStreamReader.isEndElement() || xmlStreamReader.isStartElement())) {
-            xmlStreamReader.next();
-        }
-        if (xmlStreamReader.isStartElement() && "failure".equals(xmlStreamReader.getLocalName())) {
-            // Extract the message attribute from the "failure" node.
-            String error = xmlStreamReader.getAttributeValue(null, "message");
+    private LocalCIBuildResult parseTestResults(TarArchiveInputStream testResultsTarInputStream, String assignmentRepoBranchName, String assignmentRepoCommitHash,
+            String testsRepoCommitHash, ZonedDateTime buildCompletedDate) throws IOException, XMLStreamException {
 
-            // Add the failed test to the list of failed tests.
-            List<String> errors = error != null ? List.of(error) : List.of();
-            failedTests.add(new LocalCIBuildResult.LocalCITestJobDTO(name, errors));
-        }
-        else {
-            // Add the successful test to the list of successful tests.
-            successfulTests.add(new LocalCIBuildResult.LocalCITestJobDTO(name, List.of()));
-        }
+        List<LocalCIBuildResult.LocalCITestJobDTO> failedTests = new ArrayList<>();
+        List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests = new ArrayList<>();
+
+        testResultParser.parseTestResults(testResultsTarInputStream, failedTests, successfulTests);
+
+        return constructBuildResult(failedTests, successfulTests, assignmentRepoBranchName, assignmentRepoCommitHash, testsRepoCommitHash, !failedTests.isEmpty(),
+                buildCompletedDate);
     }
 
     /**
@@ -354,4 +372,13 @@ public class LocalCIBuildJobExecutionService {
 
         return new LocalCIBuildResult(assignmentRepoBranchName, assignmentRepoCommitHash, testsRepoCommitHash, isBuildSuccessful, buildRunDate, List.of(job));
     }
+
+    /**
+     * The outcome of a build that can be reused for another build of the same commits.
+     *
+     * @param isBuildSuccessful whether the build was successful
+     * @param jobs              the parsed test results of the build
+     */
+    private record CachedBuild(boolean isBuildSuccessful, List<LocalCIBuildResult.LocalCIJobDTO> jobs) {
+    }
 }
@@ -2,36 +2,59 @@ package de.tum.in.www1.artemis.service.connectors.localci;
 
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.Callable;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.hibernate.LazyInitializationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.enumeration.ProjectType;
 import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.domain.participation.TemplateProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.exception.LocalCIException;
 import de.tum.in.www1.artemis.service.connectors.ci.ContinuousIntegrationService;
 import de.tum.in.www1.artemis.service.connectors.localci.dto.LocalCIBuildResult;
 import de.tum.in.www1.artemis.service.programming.ProgrammingMessagingService;
 import de.tum.in.www1.artemis.web.websocket.programmingSubmission.BuildTriggerWebsocketError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * This service is responsible for adding build jobs to the local CI executor service.
  * It handles timeouts as well as exceptions that occur during the execution of the build job.
+ * <p>
+ * Queued build jobs are ordered by
+ * <ol>
+ * <li>their {@link BuildJobPriority}, i.e. builds of the template and solution repositories and of exam exercises run before builds of students and practice builds run last,</li>
+ * <li>their fairness round, i.e. the n-th queued job of a course runs before the (n+1)-th job of any other course, so a course with many pushes cannot starve other courses,</li>
+ * <li>the order in which they were added.</li>
+ * </ol>
+ * Only the newest commit of a participation is built: a job that is still waiting in the queue is replaced when a newer build job for the same participation is added.
  */
 @Service
 @Profile("localci")
@@ -41,7 +64,11 @@ public class LocalCIBuildJobManagementService {
 
     private final LocalCIBuildJobExecutionService localCIBuildJobExecutionService;
 
-    private final ExecutorService localCIBuildExecutorService;
+    private final ThreadPoolExecutor localCIBuildExecutorService;
+
+    private final ScheduledExecutorService localCIBuildTimeoutScheduler;
+
+    private final ExecutorService localCIResultProcessingExecutorService;
 
     private final ProgrammingMessagingService programmingMessagingService;
 
@@ -49,30 +76,74 @@ public class LocalCIBuildJobManagementService {
 
     private final LocalCIContainerService localCIContainerService;
 
+    private final MeterRegistry meterRegistry;
+
+    private final Counter supersededBuildJobCounter;
+
+    // Guards the queue bookkeeping below, the executor queue itself is thread safe.
+    private final Object queueLock = new Object();
+
+    // participation id -> build job that is waiting in the queue and has not been started yet
+    private final Map<Long, QueuedBuildJob> queuedBuildJobs = new ConcurrentHashMap<>();
+
+    // fairness key (course) -> fairness round of the last job that was queued for the course, only contains rounds that have not been started yet
+    private final Map<String, Long> lastRoundByFairnessKey = new HashMap<>();
+
+    // the highest fairness round of all jobs that have been started so far
+    private long currentRound = 0;
+
+    private final AtomicLong sequence = new AtomicLong();
+
     @Value("${artemis.continuous-integration.timeout-seconds:120}")
     private int timeoutSeconds;
 
     @Value("${artemis.continuous-integration.asynchronous:true}")
     private boolean runBuildJobsAsynchronously;
 
-    public LocalCIBuildJobManagementService(LocalCIBuildJobExecutionService localCIBuildJobExecutionService, ExecutorService localCIBuildExecutorService,
-            ProgrammingMessagingService programmingMessagingService, LocalCIBuildPlanService localCIBuildPlanService, LocalCIContainerService localCIContainerService) {
+    @Value("${artemis.continuous-integration.queue-size-limit:30}")
+    private int queueSizeLimit;
+
+    public LocalCIBuildJobManagementService(LocalCIBuildJobExecutionService localCIBuildJobExecutionService, ThreadPoolExecutor localCIBuildExecutorService,
+            @Qualifier("localCIBuildTimeoutScheduler") ScheduledExecutorService localCIBuildTimeoutScheduler,
+            @Qualifier("localCIResultProcessingExecutorService") ExecutorService localCIResultProcessingExecutorService, ProgrammingMessagingService programmingMessagingService,
+            LocalCIBuildPlanService localCIBuildPlanService, LocalCIContainerService localCIContainerService, MeterRegistry meterRegistry) {
         this.localCIBuildJobExecutionService = localCIBuildJobExecutionService;
         this.localCIBuildExecutorService = localCIBuildExecutorService;
+        this.localCIBuildTimeoutScheduler = localCIBuildTimeoutScheduler;
+        this.localCIResultProcessingExecutorService = localCIResultProcessingExecutorService;
         this.programmingMessagingService = programmingMessagingService;
         this.localCIBuildPlanService = localCIBuildPlanService;
         this.localCIContainerService = localCIContainerService;
+        this.meterRegistry = meterRegistry;
+        this.supersededBuildJobCounter = Counter.builder("artemis.localci.build.superseded").description("Number of queued build jobs that were replaced by a newer commit")
+                .register(meterRegistry);
+        Gauge.builder("artemis.localci.build.queued", queuedBuildJobs, Map::size).description("Number of build jobs waiting in the local CI queue").register(meterRegistry);
+    }
+
+    /**
+     * The priority classes of build jobs, jobs of a higher priority class are always started before jobs of a lower one.
+     */
+    public enum BuildJobPriority {
+        // Template and solution builds determine the test case configuration for all students and exam builds are time-critical.
+        HIGH,
+        // Builds of students working on course exercises.
+        NORMAL,
+        // Builds of students practicing after the due date.
+        LOW
     }
 
     /**
      * Submit a build job for a given participation to the executor service.
      *
-     * @param participation The participation of the repository for which the build job should be executed.
-     * @param commitHash    The commit hash of the submission that led to this build. If it is "null", the latest commit of the repository will be used.
-     * @return A future that will be completed with the build result.
+     * @param participation   The participation of the repository for which the build job should be executed.
+     * @param commitHash      The commit hash of the submission that led to this build. If it is "null", the latest commit of the repository will be used.
+     * @param useCachedResult Whether the result of a previous build of the same commits can be reused. This is false for builds that are triggered explicitly, e.g. by an
+     *                            instructor, as they are usually triggered to repeat a build that failed or timed out.
+     * @return A future that will be completed with the build result. The future is already completed if the result of a previous build of the same commits could be reused. It
+     *         is cancelled if the build job is replaced by a newer build job for the same participation before it started.
      * @throws LocalCIException If the build job could not be submitted to the executor service.
      */
-    public CompletableFuture<LocalCIBuildResult> addBuildJobToQueue(ProgrammingExerciseParticipation participation, String commitHash) {
+    public CompletableFuture<LocalCIBuildResult> addBuildJobToQueue(ProgrammingExerciseParticipation participation, String commitHash, boolean useCachedResult) {
 
         // It should not be possible to create a programming exercise with a different project type than Gradle. This is just a sanity check.
         ProjectType projectType = participation.getProgrammingExercise().getProjectType();
@@ -80,64 +151,172 @@ public class LocalCIBuildJobManagementService {
             throw new LocalCIException("Project type must be Gradle.");
         }
 
+        // Skip the build entirely if the same assignment and test commits have already been built, e.g. for the unchanged initial commit of a student repository.
+        Optional<LocalCIBuildResult> cachedBuildResult = useCachedResult ? localCIBuildJobExecutionService.getCachedBuildResult(participation, commitHash) : Optional.empty();
+        if (cachedBuildResult.isPresent()) {
+            return CompletableFuture.completedFuture(cachedBuildResult.get());
+        }
+
         // Prepare the Docker container name before submitting the build job to the executor service, so we can remove the container if something goes wrong.
         String containerName = "artemis-local-ci-" + participation.getId() + "-" + ZonedDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS"));
 
-        // Prepare a Callable that will later be called. It contains the actual steps needed to execute the build job.
-        Callable<LocalCIBuildResult> buildJob = () -> localCIBuildJobExecutionService.runBuildJob(participation, commitHash, containerName);
-
-        // Wrap the buildJob Callable in a BuildJobTimeoutCallable, so that the build job is cancelled if it takes too long.
-        BuildJobTimeoutCallable<LocalCIBuildResult> timedBuildJob = new BuildJobTimeoutCallable<>(buildJob, timeoutSeconds);
+        BuildJobPriority priority = getPriority(participation);
+        QueuedBuildJob buildJob;
+        QueuedBuildJob supersededBuildJob = null;
+        synchronized (queueLock) {
+            QueuedBuildJob queuedBuildJob = queuedBuildJobs.get(participation.getId());
+            // Only remove the queued job if it has not been started in the meantime.
+            if (queuedBuildJob != null && localCIBuildExecutorService.remove(queuedBuildJob)) {
+                supersededBuildJob = queuedBuildJob;
+            }
+            if (supersededBuildJob == null && queuedBuildJobs.size() >= queueSizeLimit) {
+                // The queue size limit is defined in "artemis.continuous-integration.queue-size-limit".
+                RejectedExecutionException exception = new RejectedExecutionException("The local CI queue is full, the build job for participation " + participation.getId()
+                        + " was rejected (queue size limit: " + queueSizeLimit + ")");
+                finishBuildJobExceptionally(participation, commitHash, containerName, exception);
+                return CompletableFuture.failedFuture(new CompletionException(exception));
+            }
 
-        /*
-         * Submit the build job to the executor service. This runs in a separate thread, so it does not block the main thread.
-         * createCompletableFuture() is only used to provide a way to run build jobs synchronously for testing and debugging purposes and depends on the
-         * artemis.continuous-integration.asynchronous environment variable.
-         * Usually, when using asynchronous build jobs, it will just resolve to "CompletableFuture.supplyAsync".
-         */
-        CompletableFuture<LocalCIBuildResult> futureResult = createCompletableFuture(() -> {
-            try {
-                return localCIBuildExecutorService.submit(timedBuildJob).get();
+            long round;
+            long order;
+            if (supersededBuildJob != null) {
+                // The newer commit takes over the position of the replaced job in the queue.
+                round = supersededBuildJob.round;
+                order = supersededBuildJob.order;
             }
-            catch (RejectedExecutionException | CancellationException | ExecutionException | InterruptedException e) {
-                // RejectedExecutionException is thrown if the queue size limit (defined in "artemis.continuous-integration.queue-size-limit") is reached.
-                finishBuildJobExceptionally(participation, commitHash, containerName, e);
-                // Wrap the exception in a CompletionException so that the future is completed exceptionally and the thenAccept block is not run.
-                // This CompletionException will not resurface anywhere else as it is thrown in this completable future's separate thread.
-                throw new CompletionException(e);
+            else {
+                String fairnessKey = getFairnessKey(participation.getProgrammingExercise());
+                round = Math.max(lastRoundByFairnessKey.getOrDefault(fairnessKey, 0L) + 1, currentRound);
+                lastRoundByFairnessKey.put(fairnessKey, round);
+                order = sequence.incrementAndGet();
             }
-        });
+            buildJob = new QueuedBuildJob(participation, commitHash, containerName, priority, round, order);
+            queuedBuildJobs.put(participation.getId(), buildJob);
+        }
 
-        // Update the build plan status to "QUEUED".
+        if (supersededBuildJob != null) {
+            log.info("Replaced queued build job for commit {} of participation {} with a build job for commit {}", supersededBuildJob.commitHash, participation.getId(),
+                    commitHash);
+            supersededBuildJobCounter.increment();
+            // The replaced job never runs, so its submission will not receive a result. The result of the newer commit is shown instead.
+            supersededBuildJob.result.cancel(false);
+        }
+
+        // Update the build plan status to "QUEUED" before submitting the job, so that it cannot overwrite the status set by the running job.
         localCIBuildPlanService.updateBuildPlanStatus(participation, ContinuousIntegrationService.BuildStatus.QUEUED);
 
-        return futureResult;
+        try {
+            localCIBuildExecutorService.execute(buildJob);
+        }
+        catch (RejectedExecutionException e) {
+            // The executor only rejects jobs when it is shut down.
+            queuedBuildJobs.remove(participation.getId(), buildJob);
+            finishBuildJobExceptionally(participation, commitHash, containerName, e);
+            return CompletableFuture.failedFuture(new CompletionException(e));
+        }
+
+        if (!runBuildJobsAsynchronously) {
+            // Wait for the build job to finish, e.g. in the test environment.
+            // Otherwise, tests will not wait for the CompletableFuture to complete before asserting on the database.
+            try {
+                buildJob.result.join();
+            }
+            catch (CompletionException | CancellationException e) {
+                // The future is returned completed exceptionally and the exception has already been handled when running the build job.
+            }
+        }
+
+        return buildJob.result;
     }
 
     /**
-     * Create an asynchronous or a synchronous CompletableFuture depending on the runBuildJobsAsynchronously flag.
+     * Runs a build job that was taken from the queue on the current thread of the executor service. The build job is cancelled when it takes longer than the configured timeout.
+     * Instead of waiting for the build job on an additional thread, the timeout is enforced by a shared scheduler that interrupts the thread and stops the container.
      *
-     * @param supplier the supplier of the Future, i.e. the function that submits the build job
-     * @return the CompletableFuture
+     * @param buildJob the build job to run
      */
-    private CompletableFuture<LocalCIBuildResult> createCompletableFuture(Supplier<LocalCIBuildResult> supplier) {
-        if (runBuildJobsAsynchronously) {
-            // Just use the normal supplyAsync.
-            return CompletableFuture.supplyAsync(supplier);
+    private void runQueuedBuildJob(QueuedBuildJob buildJob) {
+        ProgrammingExerciseParticipation participation = buildJob.participation;
+        synchronized (queueLock) {
+            queuedBuildJobs.remove(participation.getId(), buildJob);
+            if (buildJob.round > currentRound) {
+                currentRound = buildJob.round;
+                // Courses whose last queued job belongs to an earlier round are queued in the current round anyway, so their entries are not needed anymore.
+                lastRoundByFairnessKey.values().removeIf(round -> round < currentRound);
+            }
         }
-        else {
-            // Use a synchronous CompletableFuture, e.g. in the test environment.
-            // Otherwise, tests will not wait for the CompletableFuture to complete before asserting on the database.
-            CompletableFuture<LocalCIBuildResult> future = new CompletableFuture<>();
-            try {
-                LocalCIBuildResult result = supplier.get();
-                future.complete(result);
+        if (buildJob.result.isDone()) {
+            // The build job has been replaced by a newer one after it was taken from the queue.
+            return;
+        }
+
+        String priorityTag = buildJob.priority.name().toLowerCase();
+        Timer.builder("artemis.localci.build.queue_wait_time").description("Time build jobs wait in the local CI queue").tag("priority", priorityTag).publishPercentileHistogram()
+                .register(meterRegistry).record(System.nanoTime() - buildJob.queuedAtNanos, TimeUnit.NANOSECONDS);
+
+        BuildJobTimeout timeout = new BuildJobTimeout(Thread.currentThread());
+        ScheduledFuture<?> scheduledTimeout = localCIBuildTimeoutScheduler.schedule(() -> {
+            if (timeout.expire()) {
+                // Stopping the container makes the build script return, so the build job does not stay blocked in a Docker call that ignores the interrupt.
+                localCIContainerService.stopContainer(buildJob.containerName);
             }
-            catch (Exception e) {
-                future.completeExceptionally(e);
+        }, timeoutSeconds, TimeUnit.SECONDS);
+
+        long buildStart = System.nanoTime();
+        String outcome = "success";
+        try {
+            LocalCIBuildResult buildResult = localCIBuildJobExecutionService.runBuildJob(participation, buildJob.commitHash, buildJob.containerName);
+            if (timeout.finish()) {
+                throw new TimeoutException("The build job did not finish within " + timeoutSeconds + " seconds");
+            }
+            localCIBuildJobExecutionService.cacheBuildResult(buildResult);
+            // The callers process the result in callbacks of the future, which must not run on the build thread, so that the next build job can start.
+            buildJob.result.completeAsync(() -> buildResult, localCIResultProcessingExecutorService);
+        }
+        catch (Exception e) {
+            outcome = "error";
+            Exception cause = e;
+            if (timeout.finish()) {
+                outcome = "timeout";
+                cause = e instanceof TimeoutException ? e : new TimeoutException("The build job did not finish within " + timeoutSeconds + " seconds");
+            }
+            finishBuildJobExceptionally(participation, buildJob.commitHash, buildJob.containerName, cause);
+            // Complete the future exceptionally so that the thenAccept block of the caller is not run.
+            buildJob.result.completeExceptionally(new CompletionException(cause));
+        }
+        finally {
+            scheduledTimeout.cancel(false);
+            // Do not leak an interrupt of a timed out build job to the next build job running on this thread.
+            Thread.interrupted();
+            Timer.builder("artemis.localci.build.duration").description("Time to run a local CI build job").tag("priority", priorityTag).tag("outcome", outcome)
+                    .register(meterRegistry).record(System.nanoTime() - buildStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static BuildJobPriority getPriority(ProgrammingExerciseParticipation participation) {
+        if (participation instanceof TemplateProgrammingExerciseParticipation || participation instanceof SolutionProgrammingExerciseParticipation) {
+            return BuildJobPriority.HIGH;
+        }
+        if (participation.getProgrammingExercise().isExamExercise()) {
+            return BuildJobPriority.HIGH;
+        }
+        if (participation instanceof Participation studentParticipation && studentParticipation.isTestRun()) {
+            return BuildJobPriority.LOW;
+        }
+        return BuildJobPriority.NORMAL;
+    }
+
+    private String getFairnessKey(ProgrammingExercise exercise) {
+        try {
+            Course course = exercise.getCourseViaExerciseGroupOrCourseMember();
+            if (course != null && course.getId() != null) {
+                return "course-" + course.getId();
             }
-            return future;
         }
+        catch (LazyInitializationException e) {
+            log.debug("Could not load the course of exercise {} to queue the build job fairly", exercise.getId());
+        }
+        return "exercise-" + exercise.getId();
     }
 
     /**
@@ -163,47 +342,90 @@ public class LocalCIBuildJobManagementService {
     }
 
     /**
-     * Wrapper for the buildJob Callable that adds a timeout when the build job is called.
-     *
-     * @param buildJobCallable The build job that should be called.
-     * @param timeoutSeconds   The number of seconds after which the build job is cancelled.
+     * A build job waiting in the queue of the executor service. The queue of the executor service is a priority queue that orders the build jobs by their natural order.
      */
-    private record BuildJobTimeoutCallable<LocalCIBuildResult> (Callable<LocalCIBuildResult> buildJobCallable, long timeoutSeconds) implements Callable<LocalCIBuildResult> {
+    private final class QueuedBuildJob implements Runnable, Comparable<QueuedBuildJob> {
+
+        private static final Comparator<QueuedBuildJob> QUEUE_ORDER = Comparator.comparing((QueuedBuildJob buildJob) -> buildJob.priority)
+                .thenComparingLong(buildJob -> buildJob.round).thenComparingLong(buildJob -> buildJob.order);
+
+        private final ProgrammingExerciseParticipation participation;
+
+        private final String commitHash;
+
+        private final String containerName;
+
+        private final BuildJobPriority priority;
+
+        // The fairness round of the build job.
+        private final long round;
+
+        // The position of the build job within its priority class and round.
+        private final long order;
+
+        private final long queuedAtNanos = System.nanoTime();
+
+        // Completed with the build result.
+        private final CompletableFuture<LocalCIBuildResult> result = new CompletableFuture<>();
+
+        private QueuedBuildJob(ProgrammingExerciseParticipation participation, String commitHash, String containerName, BuildJobPriority priority, long round, long order) {
+            this.participation = participation;
+            this.commitHash = commitHash;
+            this.containerName = containerName;
+            this.priority = priority;
+            this.round = round;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            runQueuedBuildJob(this);
+        }
+
+        @Override
+        public int compareTo(QueuedBuildJob other) {
+            return QUEUE_ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * Coordinates the end of a build job between the thread running it and the scheduler enforcing the timeout, so that exactly one of them wins.
+     */
+    private static class BuildJobTimeout {
+
+        private final Thread buildThread;
+
+        private boolean finished = false;
+
+        private boolean expired = false;
+
+        private BuildJobTimeout(Thread buildThread) {
+            this.buildThread = buildThread;
+        }
 
         /**
-         * Calls the buildJobCallable and waits for the result or for the timeout to pass.
+         * Called by the scheduler when the timeout passed.
          *
-         * @return the LocalCIBuildResult
-         * @throws ExecutionException   if there was an error when calling the buildJobCallable or during the execution of the buildJobCallable, i.e. a LocalCIException.
-         * @throws InterruptedException if the thread was interrupted while waiting for the buildJobCallable to finish, e.g. if the ExecutorService was terminated from somewhere
-         *                                  else.
-         * @throws TimeoutException     if the timeout passed before the buildJobCallable finished.
+         * @return true if the build job was still running and has been interrupted
          */
-        @Override
-        public LocalCIBuildResult call() throws ExecutionException, InterruptedException, TimeoutException {
-            Future<LocalCIBuildResult> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    return buildJobCallable.call();
-                }
-                catch (Exception e) {
-                    // Something went wrong while executing the build job.
-                    // The exception is stored in the Future and will resurface as an ExecutionException when running "future.get()" below.
-                    throw new CompletionException(e);
-                }
-            });
-
-            try {
-                // When the build job is called, wait for the result or for the timeout to pass.
-                return future.get(timeoutSeconds, TimeUnit.SECONDS);
-            }
-            catch (ExecutionException | InterruptedException | TimeoutException e) {
-                // Cancel the future if it is not completed or cancelled yet.
-                future.cancel(true);
-                // This exception will resurface in the catch block of "localCIBuildExecutorService.submit(timedBuildJob).get()"
-                // where the container is stopped and the user is notified.
-                throw e;
+        private synchronized boolean expire() {
+            if (finished) {
+                return false;
             }
+            expired = true;
+            finished = true;
+            buildThread.interrupt();
+            return true;
         }
-    }
 
+        /**
+         * Called by the build thread when the build job returned.
+         *
+         * @return true if the build job has been interrupted because the timeout passed
+         */
+        private synchronized boolean finish() {
+            finished = true;
+            return expired;
+        }
+    }
 }
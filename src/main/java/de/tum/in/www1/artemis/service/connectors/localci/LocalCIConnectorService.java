@@ -196,7 +196,7 @@ public class LocalCIConnectorService {
         }
 
         // Trigger a build of the solution repository.
-        CompletableFuture<LocalCIBuildResult> futureSolutionBuildResult = localCIBuildJobManagementService.addBuildJobToQueue(solutionParticipation, commitHash);
+        CompletableFuture<LocalCIBuildResult> futureSolutionBuildResult = localCIBuildJobManagementService.addBuildJobToQueue(solutionParticipation, commitHash, true);
         futureSolutionBuildResult.thenAccept(buildResult -> {
 
             // The 'user' is not properly logged into Artemis, this leads to an issue when accessing custom repository methods.
@@ -2,7 +2,9 @@ package de.tum.in.www1.artemis.service.connectors.localci;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
@@ -14,11 +16,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.CreateContainerResponse;
 import com.github.dockerjava.api.command.ExecCreateCmdResponse;
+import com.github.dockerjava.api.model.AccessMode;
 import com.github.dockerjava.api.model.Bind;
 import com.github.dockerjava.api.model.Container;
 import com.github.dockerjava.api.model.HostConfig;
@@ -37,6 +41,8 @@ public class LocalCIContainerService {
 
     private final Logger log = LoggerFactory.getLogger(LocalCIContainerService.class);
 
+    private static final String GRADLE_DEPENDENCY_CACHE_CONTAINER_PATH = "/gradle-dependency-cache";
+
     private final DockerClient dockerClient;
 
     /**
@@ -48,24 +54,49 @@ public class LocalCIContainerService {
     @Value("${artemis.continuous-integration.build.images.java.default}")
     String dockerImage;
 
+    /**
+     * Optional path to a pre-populated Gradle dependency cache on the host, i.e. a folder containing "modules-2". It is mounted read-only into every build container and used as
+     * Gradle's read-only dependency cache, so that dependencies do not have to be downloaded for every build.
+     */
+    @Value("${artemis.continuous-integration.build.gradle-dependency-cache-path:#{null}}")
+    Path gradleDependencyCachePath;
+
     public LocalCIContainerService(DockerClient dockerClient, Path buildScriptFilePath) {
         this.dockerClient = dockerClient;
         this.buildScriptFilePath = buildScriptFilePath;
     }
 
     /**
-     * Configure the volumes of the container such that it can access the assignment repository, the test repository, and the build script.
+     * Computes a hash of everything besides the repositories that determines the outcome of a build job: the id of the Docker image, which changes when the image is updated,
+     * the build script, and the configuration of the container.
+     *
+     * @return the hash of the build environment
+     * @throws IOException if the build script could not be read
+     */
+    public String getBuildEnvironmentHash() throws IOException {
+        String imageId = dockerClient.inspectImageCmd(dockerImage).exec().getId();
+        String buildEnvironment = String.join("\n", dockerImage, imageId, String.valueOf(gradleDependencyCachePath), Files.readString(buildScriptFilePath));
+        return DigestUtils.md5DigestAsHex(buildEnvironment.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Configure the volumes of the container such that it can access the assignment repository, the test repository, the build script, and the Gradle dependency cache if one is
+     * configured.
      *
      * @param assignmentRepositoryPath the path to the assignment repository in the file system
      * @param testRepositoryPath       the path to the test repository in the file system
      * @return the host configuration for the container containing the binds to the assignment repository, the test repository, and the build script
      */
     public HostConfig createVolumeConfig(Path assignmentRepositoryPath, Path testRepositoryPath) {
+        List<Bind> binds = new ArrayList<>();
+        binds.add(new Bind(assignmentRepositoryPath.toString(), new Volume("/" + LocalCIBuildJobExecutionService.LocalCIBuildJobRepositoryType.ASSIGNMENT + "-repository")));
+        binds.add(new Bind(testRepositoryPath.toString(), new Volume("/" + LocalCIBuildJobExecutionService.LocalCIBuildJobRepositoryType.TEST + "-repository")));
+        binds.add(new Bind(buildScriptFilePath.toString(), new Volume("/script.sh")));
+        if (gradleDependencyCachePath != null) {
+            binds.add(new Bind(gradleDependencyCachePath.toAbsolutePath().toString(), new Volume(GRADLE_DEPENDENCY_CACHE_CONTAINER_PATH), AccessMode.ro));
+        }
         return HostConfig.newHostConfig().withAutoRemove(true) // Automatically remove the container when it exits.
-                .withBinds(
-                        new Bind(assignmentRepositoryPath.toString(), new Volume("/" + LocalCIBuildJobExecutionService.LocalCIBuildJobRepositoryType.ASSIGNMENT + "-repository")),
-                        new Bind(testRepositoryPath.toString(), new Volume("/" + LocalCIBuildJobExecutionService.LocalCIBuildJobRepositoryType.TEST + "-repository")),
-                        new Bind(buildScriptFilePath.toString(), new Volume("/script.sh")));
+                .withBinds(binds);
     }
 
     /**
@@ -78,8 +109,13 @@ public class LocalCIContainerService {
      * @return {@link CreateContainerResponse} that can be used to start the container
      */
     public CreateContainerResponse configureContainer(String containerName, HostConfig volumeConfig, String branch, String commitHash) {
-        return dockerClient.createContainerCmd(dockerImage).withName(containerName).withHostConfig(volumeConfig)
-                .withEnv("ARTEMIS_BUILD_TOOL=gradle", "ARTEMIS_DEFAULT_BRANCH=" + branch, "ARTEMIS_ASSIGNMENT_REPOSITORY_COMMIT_HASH=" + (commitHash != null ? commitHash : ""))
+        List<String> environment = new ArrayList<>(List.of("ARTEMIS_BUILD_TOOL=gradle", "ARTEMIS_DEFAULT_BRANCH=" + branch,
+                "ARTEMIS_ASSIGNMENT_REPOSITORY_COMMIT_HASH=" + (commitHash != null ? commitHash : "")));
+        if (gradleDependencyCachePath != null) {
+            // Gradle resolves dependencies from this read-only cache first and only downloads missing ones into the writable cache of the container.
+            environment.add("GRADLE_RO_DEP_CACHE=" + GRADLE_DEPENDENCY_CACHE_CONTAINER_PATH);
+        }
+        return dockerClient.createContainerCmd(dockerImage).withName(containerName).withHostConfig(volumeConfig).withEnv(environment.toArray(String[]::new))
                 // Command to run when the container starts. This is the command that will be executed in the container's main process, which runs in the foreground and blocks the
                 // container from exiting until it finishes.
                 // It waits until the script that is running the tests (see below execCreateCmdResponse) is completed, and until the result files are extracted which is indicated
@@ -0,0 +1,134 @@
+package de.tum.in.www1.artemis.service.connectors.localci;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.lang3.StringUtils;
+
+import de.tum.in.www1.artemis.service.connectors.localci.dto.LocalCIBuildResult;
+
+/**
+ * Parses the JUnit XML test result files of a local CI build job directly from the tar archive retrieved from the build container.
+ * The files are streamed into the XML parser, so neither a file nor the (potentially very long) content of the failure nodes is ever held in memory as a whole.
+ */
+public class LocalCITestResultParser {
+
+    private final XMLInputFactory xmlInputFactory;
+
+    private final int maxMessageLength;
+
+    /**
+     * @param xmlInputFactory  the factory used to create the XML stream readers
+     * @param maxMessageLength the maximum number of characters of a failure message, longer messages are truncated
+     */
+    public LocalCITestResultParser(XMLInputFactory xmlInputFactory, int maxMessageLength) {
+        this.xmlInputFactory = xmlInputFactory;
+        this.maxMessageLength = maxMessageLength;
+    }
+
+    /**
+     * Processes all test result files of the given archive and adds the failed and successful tests to the corresponding lists.
+     *
+     * @param testResultsTarInputStream the archive containing the test result files
+     * @param failedTests               The list of failed tests.
+     * @param successfulTests           The list of successful tests.
+     * @throws IOException           if the archive cannot be read
+     * @throws XMLStreamException    if the XML stream reader cannot be created or there is an error while parsing an XML file
+     * @throws IllegalStateException if the first start element of an XML file is not a "testsuite" node
+     */
+    public void parseTestResults(TarArchiveInputStream testResultsTarInputStream, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
+            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws IOException, XMLStreamException {
+        TarArchiveEntry tarEntry;
+        while ((tarEntry = testResultsTarInputStream.getNextTarEntry()) != null) {
+
+            // Go through all tar entries that are test result files.
+            if (!isValidTestResultFile(tarEntry)) {
+                continue;
+            }
+
+            // The tar input stream only returns the content of the current entry. Closing the XML stream reader does not close the underlying stream.
+            processTestResultFile(testResultsTarInputStream, failedTests, successfulTests);
+        }
+    }
+
+    private boolean isValidTestResultFile(TarArchiveEntry tarArchiveEntry) {
+        return !tarArchiveEntry.isDirectory() && tarArchiveEntry.getName().endsWith(".xml") && tarArchiveEntry.getName().startsWith("test/TEST-");
+    }
+
+    /**
+     * Processes a test result file and adds the failed and successful tests to the corresponding lists.
+     *
+     * @param testResultFile  The stream of the test results XML file.
+     * @param failedTests     The list of failed tests.
+     * @param successfulTests The list of successful tests.
+     * @throws XMLStreamException    if the XML stream reader cannot be created or there is an error while parsing the XML file
+     * @throws IllegalStateException if the first start element of the XML file is not a "testsuite" node
+     */
+    private void processTestResultFile(InputStream testResultFile, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
+            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws XMLStreamException {
+        // Create an XML stream reader for the test results XML file.
+        XMLStreamReader xmlStreamReader = xmlInputFactory.createXMLStreamReader(testResultFile, StandardCharsets.UTF_8.name());
+
+        try {
+            // Move to the first start element.
+            while (xmlStreamReader.hasNext() && !xmlStreamReader.isStartElement()) {
+                xmlStreamReader.next();
+            }
+
+            // Check if the start element is the "testsuite" node.
+            if (!("testsuite".equals(xmlStreamReader.getLocalName()))) {
+                throw new IllegalStateException("Expected testsuite element, but got " + xmlStreamReader.getLocalName());
+            }
+
+            // Go through all testcase nodes.
+            while (xmlStreamReader.hasNext()) {
+                xmlStreamReader.next();
+
+                if (!xmlStreamReader.isStartElement() || !("testcase".equals(xmlStreamReader.getLocalName()))) {
+                    continue;
+                }
+
+                // Now we are at the start of a "testcase" node.
+                processTestCaseNode(xmlStreamReader, failedTests, successfulTests);
+            }
+        }
+        finally {
+            // Close the XML stream reader.
+            xmlStreamReader.close();
+        }
+    }
+
+    private void processTestCaseNode(XMLStreamReader xmlStreamReader, List<LocalCIBuildResult.LocalCITestJobDTO> failedTests,
+            List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests) throws XMLStreamException {
+        // Extract the name attribute from the "testcase" node. This is the name of the test case.
+        String name = xmlStreamReader.getAttributeValue(null, "name");
+
+        // Check if there is a failure node inside the testcase node.
+        // Call next() until there is an end element (no failure node exists inside the testcase node) or a start element (failure node exists inside the
+        // testcase node).
+        xmlStreamReader.next();
+        while (!(xmlStreamReader.isEndElement() || xmlStreamReader.isStartElement())) {
+            xmlStreamReader.next();
+        }
+        if (xmlStreamReader.isStartElement() && "failure".equals(xmlStreamReader.getLocalName())) {
+            // Extract the message attribute from the "failure" node. The text content of the node (the stack trace) is never read.
+            String error = StringUtils.truncate(xmlStreamReader.getAttributeValue(null, "message"), maxMessageLength);
+
+            // Add the failed test to the list of failed tests.
+            List<String> errors = error != null ? List.of(error) : List.of();
+            failedTests.add(new LocalCIBuildResult.LocalCITestJobDTO(name, errors));
+        }
+        else {
+            // Add the successful test to the list of successful tests.
+            successfulTests.add(new LocalCIBuildResult.LocalCITestJobDTO(name, List.of()));
+        }
+    }
+}
@@ -36,24 +36,30 @@ public class LocalCITriggerService implements ContinuousIntegrationTriggerServic
 
     /**
      * Add a new build job to the queue managed by the ExecutorService and process the returned result.
+     * The build is triggered explicitly, e.g. by an instructor, so the repository is always built again instead of reusing the result of a previous build of the same commits.
      *
      * @param participation the participation of the repository which should be built and tested.
      * @throws LocalCIException if the build job could not be added to the queue.
      */
     @Override
     public void triggerBuild(ProgrammingExerciseParticipation participation) {
-        triggerBuild(participation, null);
+        triggerBuild(participation, null, false);
     }
 
     /**
      * Add a new build job for a specific commit to the queue managed by the ExecutorService and process the returned result.
+     * The result of a previous build of the same commits is reused if possible, e.g. when a student pushes a commit that has already been built.
      *
      * @param participation the participation of the repository which should be built and tested
      * @param commitHash    the commit hash of the commit that triggers the build. If it is null, the latest commit of the default branch will be built.
      * @throws LocalCIException if the build job could not be added to the queue.
      */
     public void triggerBuild(ProgrammingExerciseParticipation participation, String commitHash) {
-        CompletableFuture<LocalCIBuildResult> futureResult = localCIBuildJobManagementService.addBuildJobToQueue(participation, commitHash);
+        triggerBuild(participation, commitHash, true);
+    }
+
+    private void triggerBuild(ProgrammingExerciseParticipation participation, String commitHash, boolean useCachedResult) {
+        CompletableFuture<LocalCIBuildResult> futureResult = localCIBuildJobManagementService.addBuildJobToQueue(participation, commitHash, useCachedResult);
         futureResult.thenAccept(buildResult -> {
             // The 'user' is not properly logged into Artemis, this leads to an issue when accessing custom repository methods.
             // Therefore, a mock auth object has to be created.
@@ -2,14 +2,19 @@ package de.tum.in.www1.artemis.service.connectors.localvc;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Base64;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.jgit.errors.RepositoryNotFoundException;
@@ -25,6 +30,11 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.RepositoryType;
@@ -84,11 +94,26 @@ public class LocalVCServletService {
 
     // Cache the retrieved repositories for quicker access.
     // The resolveRepository method is called multiple times per request.
-    private final Map<String, Repository> repositories = new HashMap<>();
+    // The cache holds one reference to each repository, which is released when the repository is evicted because the cache is full or the repository was not accessed for a
+    // while. Requests still using an evicted repository keep it open until they close it themselves.
+    private final Cache<String, Repository> repositories;
+
+    // Cache the users whose credentials were recently verified, so that the (deliberately slow) password check does not run for every request of a git command.
+    // Only a salted hash of the verified password is kept in memory.
+    private final Cache<String, AuthenticatedUser> authenticatedUsers;
+
+    // Cache the successful authorizations of read requests. Write requests are always authorized against the database, because their result changes exactly at the due date
+    // or the end of an exam, when most pushes arrive.
+    private final Cache<AuthorizationKey, Boolean> authorizedRequests;
+
+    private final byte[] passwordHashSalt = new byte[16];
 
     public LocalVCServletService(AuthenticationManagerBuilder authenticationManagerBuilder, UserRepository userRepository,
             ProgrammingExerciseRepository programmingExerciseRepository, RepositoryAccessService repositoryAccessService, AuthorizationCheckService authorizationCheckService,
-            Optional<LocalCIConnectorService> localCIConnectorService, ProgrammingExerciseParticipationService programmingExerciseParticipationService) {
+            Optional<LocalCIConnectorService> localCIConnectorService, ProgrammingExerciseParticipationService programmingExerciseParticipationService,
+            @Value("${artemis.version-control.repository-cache-size:500}") int repositoryCacheSize,
+            @Value("${artemis.version-control.repository-cache-idle-minutes:10}") int repositoryCacheIdleMinutes,
+            @Value("${artemis.version-control.auth-cache-ttl-seconds:60}") int authCacheTtlSeconds) {
         this.authenticationManagerBuilder = authenticationManagerBuilder;
         this.userRepository = userRepository;
         this.programmingExerciseRepository = programmingExerciseRepository;
@@ -96,6 +121,22 @@ public class LocalVCServletService {
         this.authorizationCheckService = authorizationCheckService;
         this.localCIConnectorService = localCIConnectorService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
+        this.repositories = CacheBuilder.newBuilder().maximumSize(Math.max(0, repositoryCacheSize)).expireAfterAccess(Math.max(0, repositoryCacheIdleMinutes), TimeUnit.MINUTES)
+                .removalListener((RemovalListener<String, Repository>) notification -> {
+                    log.debug("Closing cached local repository {}", notification.getKey());
+                    notification.getValue().close();
+                }).build();
+        this.authenticatedUsers = CacheBuilder.newBuilder().expireAfterWrite(Math.max(0, authCacheTtlSeconds), TimeUnit.SECONDS).build();
+        this.authorizedRequests = CacheBuilder.newBuilder().expireAfterWrite(Math.max(0, authCacheTtlSeconds), TimeUnit.SECONDS).build();
+        new SecureRandom().nextBytes(passwordHashSalt);
+    }
+
+    /**
+     * Closes all cached repositories before shutdown.
+     */
+    @PreDestroy
+    public void closeRepositories() {
+        repositories.invalidateAll();
     }
 
     /**
@@ -114,29 +155,26 @@ public class LocalVCServletService {
             throw new RepositoryNotFoundException(repositoryPath);
         }
 
-        if (repositories.containsKey(repositoryPath)) {
-            log.debug("Retrieving cached local repository {}", repositoryPath);
-            Repository repository = repositories.get(repositoryPath);
+        try {
+            Repository repository = repositories.get(repositoryPath, () -> openRepository(repositoryDir));
+            // The caller closes the repository after the request, the reference of the cache stays open.
             repository.incrementOpen();
             return repository;
         }
-        else {
-            log.debug("Opening local repository {}", repositoryPath);
-            try (Repository repository = FileRepositoryBuilder.create(repositoryDir.toFile())) {
-                // Enable pushing without credentials, authentication is handled by the LocalVCPushFilter.
-                repository.getConfig().setBoolean("http", null, "receivepack", true);
-
-                this.repositories.put(repositoryPath, repository);
-                repository.incrementOpen();
-                return repository;
-            }
-            catch (IOException e) {
-                log.error("Unable to open local repository {}", repositoryPath);
-                throw new RepositoryNotFoundException(repositoryPath, e);
-            }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            log.error("Unable to open local repository {}", repositoryPath);
+            throw new RepositoryNotFoundException(repositoryPath, e.getCause());
         }
     }
 
+    private Repository openRepository(Path repositoryDir) throws IOException {
+        log.debug("Opening local repository {}", repositoryDir);
+        Repository repository = FileRepositoryBuilder.create(repositoryDir.toFile());
+        // Enable pushing without credentials, authentication is handled by the LocalVCPushFilter.
+        repository.getConfig().setBoolean("http", null, "receivepack", true);
+        return repository;
+    }
+
     /**
      * Determines whether a given request to access a local VC repository (either via fetch of push) is authenticated and authorized.
      *
@@ -165,6 +203,12 @@ public class LocalVCServletService {
 
         LocalVCRepositoryUrl localVCRepositoryUrl = new LocalVCRepositoryUrl(servletRequest.getRequestURL().toString().replace("/info/refs", ""), localVCBaseUrl);
 
+        AuthorizationKey authorizationKey = new AuthorizationKey(user.getLogin(), localVCRepositoryUrl.toString(), repositoryActionType);
+        if (authorizedRequests.getIfPresent(authorizationKey) != null) {
+            log.debug("Using cached authorization of user {} for repository {}", user.getLogin(), localVCRepositoryUrl);
+            return;
+        }
+
         String projectKey = localVCRepositoryUrl.getProjectKey();
         String repositoryTypeOrUserName = localVCRepositoryUrl.getRepositoryTypeOrUserName();
 
@@ -184,6 +228,10 @@ public class LocalVCServletService {
 
         authorizeUser(repositoryTypeOrUserName, user, exercise, repositoryActionType, localVCRepositoryUrl.isPracticeRepository());
 
+        if (repositoryActionType == RepositoryActionType.READ) {
+            authorizedRequests.put(authorizationKey, Boolean.TRUE);
+        }
+
         log.info("Authorizing user {} for repository {} took {}", user.getLogin(), localVCRepositoryUrl, TimeLogUtil.formatDurationFrom(timeNanoStart));
     }
 
@@ -198,6 +246,12 @@ public class LocalVCServletService {
         String username = basicAuthCredentials.split(":")[0];
         String password = basicAuthCredentials.split(":")[1];
 
+        byte[] passwordHash = hashPassword(password);
+        AuthenticatedUser authenticatedUser = authenticatedUsers.getIfPresent(username);
+        if (authenticatedUser != null && MessageDigest.isEqual(authenticatedUser.passwordHash(), passwordHash)) {
+            return authenticatedUser.user();
+        }
+
         try {
             SecurityUtils.checkUsernameAndPasswordValidity(username, password);
 
@@ -210,7 +264,21 @@ public class LocalVCServletService {
         }
 
         // Check that the user exists.
-        return userRepository.findOneByLogin(username).orElseThrow(LocalVCAuthException::new);
+        User user = userRepository.findOneByLogin(username).orElseThrow(LocalVCAuthException::new);
+        authenticatedUsers.put(username, new AuthenticatedUser(passwordHash, user));
+        return user;
+    }
+
+    private byte[] hashPassword(String password) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(passwordHashSalt);
+            return messageDigest.digest(password.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new LocalVCInternalException("Could not hash the password", e);
+        }
     }
 
     private String checkAuthorizationHeader(String authorizationHeader) throws LocalVCAuthException {
@@ -294,4 +362,10 @@ public class LocalVCServletService {
     public void processNewPush(String commitHash, Repository repository) {
         localCIConnectorService.orElseThrow().processNewPush(commitHash, repository);
     }
+
+    private record AuthenticatedUser(byte[] passwordHash, User user) {
+    }
+
+    private record AuthorizationKey(String login, String repositoryUrl, RepositoryActionType repositoryActionType) {
+    }
 }
@@ -93,7 +93,9 @@ public class ExamQuizService {
             if (optionalExistingSubmission.isPresent()) {
                 QuizSubmission quizSubmission = quizSubmissionRepository.findWithEagerResultAndFeedbackById(optionalExistingSubmission.get().getId())
                         .orElseThrow(() -> new EntityNotFoundException("Submission with id \"" + optionalExistingSubmission.get().getId() + "\" does not exist"));
-                participation.setExercise(quizExerciseRepository.findByIdWithQuestionsElseThrow(quizExercise.getId()));
+                // the statistics are only updated for test exams, so they are only loaded (together with the questions) in this case
+                participation.setExercise(studentExam.isTestExam() ? quizExerciseRepository.findByIdWithQuestionsAndStatisticsElseThrow(quizExercise.getId())
+                        : quizExerciseRepository.findByIdWithQuestionsElseThrow(quizExercise.getId()));
                 quizExercise = (QuizExercise) participation.getExercise();
                 Result result;
                 if (quizSubmission.getLatestResult() == null) {
@@ -132,8 +134,7 @@ public class ExamQuizService {
                 }
                 if (studentExam.isTestExam()) {
                     // In case of an test exam, the quiz statistic should also be updated
-                    var quizExercise1 = quizExerciseRepository.findByIdWithQuestionsAndStatisticsElseThrow(quizExercise.getId());
-                    quizStatisticService.updateStatistics(Set.of(result), quizExercise1);
+                    quizStatisticService.updateStatistics(Set.of(result), quizExercise);
                 }
                 submissionRepository.save(quizSubmission);
             }
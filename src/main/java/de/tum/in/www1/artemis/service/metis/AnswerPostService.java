@@ -19,7 +19,9 @@ import de.tum.in.www1.artemis.repository.metis.ConversationParticipantRepository
 import de.tum.in.www1.artemis.repository.metis.PostRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.ManagementStatisticsCacheService;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.metis.conversation.ConversationMessagePageCacheService;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
 import de.tum.in.www1.artemis.service.notifications.SingleUserNotificationService;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
@@ -39,15 +41,20 @@ public class AnswerPostService extends PostingService {
 
     private final SingleUserNotificationService singleUserNotificationService;
 
+    private final ManagementStatisticsCacheService managementStatisticsCacheService;
+
     protected AnswerPostService(CourseRepository courseRepository, AuthorizationCheckService authorizationCheckService, UserRepository userRepository,
             AnswerPostRepository answerPostRepository, PostRepository postRepository, ExerciseRepository exerciseRepository, LectureRepository lectureRepository,
             GroupNotificationService groupNotificationService, SingleUserNotificationService singleUserNotificationService, WebsocketMessagingService websocketMessagingService,
-            ConversationParticipantRepository conversationParticipantRepository) {
-        super(courseRepository, userRepository, exerciseRepository, lectureRepository, authorizationCheckService, websocketMessagingService, conversationParticipantRepository);
+            ConversationParticipantRepository conversationParticipantRepository, ManagementStatisticsCacheService managementStatisticsCacheService,
+            ConversationMessagePageCacheService conversationMessagePageCacheService) {
+        super(courseRepository, userRepository, exerciseRepository, lectureRepository, authorizationCheckService, websocketMessagingService, conversationParticipantRepository,
+                conversationMessagePageCacheService);
         this.answerPostRepository = answerPostRepository;
         this.postRepository = postRepository;
         this.groupNotificationService = groupNotificationService;
         this.singleUserNotificationService = singleUserNotificationService;
+        this.managementStatisticsCacheService = managementStatisticsCacheService;
     }
 
     /**
@@ -120,6 +127,7 @@ public class AnswerPostService extends PostingService {
             // sets the post as resolved if there exists any resolving answer
             existingAnswerPost.getPost().setResolved(existingAnswerPost.getPost().getAnswers().stream().anyMatch(answer -> answer.doesResolvePost()));
             postRepository.save(existingAnswerPost.getPost());
+            managementStatisticsCacheService.invalidateExerciseStatistics(existingAnswerPost.getPost().getExercise());
         }
         else {
             // check if requesting user is allowed to update the content, i.e. if user is author of answer post or at least tutor
@@ -178,6 +186,9 @@ public class AnswerPostService extends PostingService {
 
         // delete
         answerPostRepository.deleteById(answerPostId);
+        if (answerPost.doesResolvePost()) {
+            managementStatisticsCacheService.invalidateExerciseStatistics(post.getExercise());
+        }
 
         broadcastForPost(new PostDTO(post, MetisCrudAction.UPDATE), course, null);
     }
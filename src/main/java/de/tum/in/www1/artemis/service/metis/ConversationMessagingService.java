@@ -1,23 +1,23 @@
 package de.tum.in.www1.artemis.service.metis;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
-import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.DisplayPriority;
-import de.tum.in.www1.artemis.domain.metis.ConversationParticipant;
 import de.tum.in.www1.artemis.domain.metis.Post;
 import de.tum.in.www1.artemis.domain.metis.conversation.Channel;
 import de.tum.in.www1.artemis.domain.metis.conversation.Conversation;
@@ -31,10 +31,12 @@ import de.tum.in.www1.artemis.repository.metis.ConversationParticipantRepository
 import de.tum.in.www1.artemis.repository.metis.conversation.ConversationRepository;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.metis.conversation.ConversationMessageFanOutService;
+import de.tum.in.www1.artemis.service.metis.conversation.ConversationMessagePageCacheService;
 import de.tum.in.www1.artemis.service.metis.conversation.ConversationService;
 import de.tum.in.www1.artemis.service.metis.conversation.auth.ChannelAuthorizationService;
-import de.tum.in.www1.artemis.service.notifications.ConversationNotificationService;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.websocket.dto.metis.MetisCrudAction;
@@ -47,7 +49,7 @@ public class ConversationMessagingService extends PostingService {
 
     private final ConversationService conversationService;
 
-    private final ConversationNotificationService conversationNotificationService;
+    private final ConversationMessageFanOutService conversationMessageFanOutService;
 
     private final ConversationMessageRepository conversationMessageRepository;
 
@@ -58,12 +60,13 @@ public class ConversationMessagingService extends PostingService {
     protected ConversationMessagingService(CourseRepository courseRepository, ExerciseRepository exerciseRepository, LectureRepository lectureRepository,
             ConversationMessageRepository conversationMessageRepository, AuthorizationCheckService authorizationCheckService, WebsocketMessagingService websocketMessagingService,
             UserRepository userRepository, ConversationService conversationService, ConversationParticipantRepository conversationParticipantRepository,
-            ConversationNotificationService conversationNotificationService, ChannelAuthorizationService channelAuthorizationService,
-            ConversationRepository conversationRepository) {
-        super(courseRepository, userRepository, exerciseRepository, lectureRepository, authorizationCheckService, websocketMessagingService, conversationParticipantRepository);
+            ConversationMessageFanOutService conversationMessageFanOutService, ChannelAuthorizationService channelAuthorizationService,
+            ConversationRepository conversationRepository, ConversationMessagePageCacheService conversationMessagePageCacheService) {
+        super(courseRepository, userRepository, exerciseRepository, lectureRepository, authorizationCheckService, websocketMessagingService, conversationParticipantRepository,
+                conversationMessagePageCacheService);
         this.conversationService = conversationService;
         this.conversationMessageRepository = conversationMessageRepository;
-        this.conversationNotificationService = conversationNotificationService;
+        this.conversationMessageFanOutService = conversationMessageFanOutService;
         this.channelAuthorizationService = channelAuthorizationService;
         this.conversationRepository = conversationRepository;
     }
@@ -89,11 +92,8 @@ public class ConversationMessagingService extends PostingService {
 
         conversationService.isMemberElseThrow(newMessage.getConversation().getId(), author.getId());
 
-        var conversation = conversationRepository.findWithConversationParticipantsByIdElseThrow(newMessage.getConversation().getId());
-        var conversationParticipants = conversation.getConversationParticipants();
-        var notificationRecipients = conversationParticipants.stream().map(ConversationParticipant::getUser).filter(Objects::nonNull).collect(Collectors.toSet());
-        // IMPORTANT we don't need it in the conversation any more, so we reduce the amount of data sent to clients
-        conversation.setConversationParticipants(Set.of());
+        // the members of the conversation are only loaded when notifying them, which happens asynchronously
+        var conversation = conversationRepository.findByIdElseThrow(newMessage.getConversation().getId());
         var course = preCheckUserAndCourseForMessaging(author, courseId);
 
         // extra checks for channels
@@ -106,11 +106,8 @@ public class ConversationMessagingService extends PostingService {
         conversation.setCourse(course);
         conversation = conversationService.updateConversation(conversation);
 
-        // update last read date and unread message count of author
-        // invoke async due to db write access to avoid that the client has to wait
-        conversationParticipantRepository.updateLastReadAsync(author.getId(), conversation.getId(), ZonedDateTime.now());
-
         var createdMessage = conversationMessageRepository.save(newMessage);
+        long messagePersistedNanos = System.nanoTime();
         // set the conversation again, because it might have been lost during save
         createdMessage.setConversation(conversation);
         // reduce the payload of the response / websocket message: this is important to avoid overloading the involved subsystems
@@ -118,46 +115,32 @@ public class ConversationMessagingService extends PostingService {
             createdMessage.getConversation().hideDetails();
         }
 
-        // TODO: we should consider invoking the following method async to avoid that authors wait for the message creation if many notifications are sent
-        notifyAboutMessageCreation(author, conversation, notificationRecipients, course, createdMessage);
+        // the unread messages of the participants are derived from the message sequence number, so only the row of the conversation is updated
+        conversationRepository.incrementMessageSequence(conversation.getId());
+        conversationMessagePageCacheService.invalidate(conversation.getId());
 
-        return createdMessage;
-    }
+        // update last read date and last read sequence number of the author after the increment, so that the new message counts as read for them
+        // invoke async due to db write access to avoid that the client has to wait
+        conversationParticipantRepository.updateLastReadAsync(author.getId(), conversation.getId(), ZonedDateTime.now());
 
-    private void notifyAboutMessageCreation(User author, Conversation conversation, Set<User> notificationRecipients, Course course, Post createdMessage) {
+        // first message in one to one chat --> the participants are notified that a conversation with them has been created
+        boolean isFirstMessageOfOneToOneChat = conversation instanceof OneToOneChat && conversationMessageRepository.countByConversationId(conversation.getId()) == 1;
 
-        // Websocket notification 1: this notifies everyone including the author that there is a new message
-        broadcastForPost(new PostDTO(createdMessage, MetisCrudAction.CREATE), course, notificationRecipients);
+        // the members of the conversation are notified asynchronously, so that the author does not have to wait for it
+        conversationMessageFanOutService.notifyAboutNewMessage(createdMessage, conversation, course, author, isFirstMessageOfOneToOneChat, messagePersistedNanos);
 
-        if (conversation instanceof OneToOneChat) {
-            var getNumberOfPosts = conversationMessageRepository.countByConversationId(conversation.getId());
-            if (getNumberOfPosts == 1) { // first message in one to one chat --> notify all participants that a conversation with them has been created
-                // Another websocket notification
-                conversationService.broadcastOnConversationMembershipChannel(course, MetisCrudAction.CREATE, conversation, notificationRecipients);
-            }
-        }
-        conversationParticipantRepository.incrementUnreadMessagesCountOfParticipants(conversation.getId(), author.getId());
-        // ToDo: Optimization Idea: Maybe we can save this websocket call and instead get the last message date from the conversation object in the post somehow?
-        // send conversation with updated last message date to participants. This is necessary to show the unread messages badge in the client
-
-        notificationRecipients = notificationRecipients.stream().filter(user -> !Objects.equals(user.getId(), author.getId())).collect(Collectors.toSet());
-        // TODO: why do we need notification 2 and 3? we should definitely re-work this!
-        // Websocket notification 2
-        conversationService.notifyAllConversationMembersAboutNewMessage(course, conversation, notificationRecipients);
-
-        // creation of message posts should not trigger entity creation alert
-        // Websocket notification 3
-        conversationNotificationService.notifyAboutNewMessage(createdMessage, notificationRecipients, course);
+        return createdMessage;
     }
 
     /**
-     * fetch posts from database by conversationId
+     * fetch posts from database by conversationId.
+     * If the request contains a cursor, the messages before the cursor are fetched with keyset pagination. The unfiltered first page is cached per conversation.
      *
      * @param pageable          requested page and page size
      * @param postContextFilter request object to fetch posts
-     * @return page of posts that match the given context
+     * @return page of posts that match the given context, or a slice without total count if the page was requested with a cursor
      */
-    public Page<Post> getMessages(Pageable pageable, @Valid PostContextFilter postContextFilter) {
+    public Slice<Post> getMessages(Pageable pageable, @Valid PostContextFilter postContextFilter) {
 
         if (postContextFilter.getConversationId() == null) {
             throw new BadRequestAlertException("Messages must be associated with a conversion", METIS_POST_ENTITY_NAME, "conversationMissing");
@@ -168,12 +151,26 @@ public class ConversationMessagingService extends PostingService {
             throw new AccessForbiddenException("User not allowed to access this conversation!");
         }
 
-        // The following query loads posts, answerPosts and reactions to avoid too many database calls (due to eager references)
-        Page<Post> conversationPosts = conversationMessageRepository.findMessages(postContextFilter, pageable, requestingUser.getId());
-
-        // protect sample solution, grading instructions, etc.
-        conversationPosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
-        setAuthorRoleOfPostings(conversationPosts.getContent());
+        Slice<Post> conversationPosts;
+        if (postContextFilter.getCursor() != null) {
+            PostCursor cursor = PostCursor.decode(postContextFilter.getCursor());
+            // one more message than requested is fetched to determine if there is a next page
+            List<Post> messages = conversationMessageRepository.findMessagesBeforeCursor(postContextFilter, cursor, pageable.getPageSize() + 1, requestingUser.getId());
+            boolean hasNext = messages.size() > pageable.getPageSize();
+            conversationPosts = new SliceImpl<>(prepareMessages(hasNext ? messages.subList(0, pageable.getPageSize()) : messages), pageable, hasNext);
+        }
+        else if (pageable.getPageNumber() == 0 && !isFiltered(postContextFilter)) {
+            conversationPosts = conversationMessagePageCacheService.getFirstPage(postContextFilter.getConversationId(), pageable.getPageSize(), () -> {
+                List<Post> messages = conversationMessageRepository.findMessagesBeforeCursor(postContextFilter, null, pageable.getPageSize(), requestingUser.getId());
+                return new PageImpl<>(prepareMessages(messages), pageable, conversationMessageRepository.countByConversationId(postContextFilter.getConversationId()));
+            });
+        }
+        else {
+            // The following query loads posts, answerPosts and reactions to avoid too many database calls (due to eager references)
+            Page<Post> messages = conversationMessageRepository.findMessages(postContextFilter, pageable, requestingUser.getId());
+            prepareMessages(messages.getContent());
+            conversationPosts = messages;
+        }
 
         // invoke async due to db write access to avoid that the client has to wait
         conversationParticipantRepository.updateLastReadAsync(requestingUser.getId(), postContextFilter.getConversationId(), ZonedDateTime.now());
@@ -181,6 +178,27 @@ public class ConversationMessagingService extends PostingService {
         return conversationPosts;
     }
 
+    /**
+     * Prepares the loaded messages for the client. The messages are not modified anymore afterwards, because the first page is cached and shared between requests.
+     *
+     * @param messages the loaded messages
+     * @return the prepared messages
+     */
+    private List<Post> prepareMessages(List<Post> messages) {
+        // protect sample solution, grading instructions, etc.
+        messages.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
+        // keep the data as small as possible and avoid unnecessary information sent to the client
+        // TODO: in the future we should set conversation to null
+        messages.stream().map(Post::getConversation).filter(Objects::nonNull).forEach(Conversation::hideDetails);
+        setAuthorRoleOfPostings(messages);
+        return messages;
+    }
+
+    private static boolean isFiltered(PostContextFilter postContextFilter) {
+        return (postContextFilter.getSearchText() != null && !postContextFilter.getSearchText().isBlank()) || postContextFilter.getFilterToOwn()
+                || postContextFilter.getFilterToAnsweredOrReacted() || postContextFilter.getFilterToUnresolved();
+    }
+
     /**
      * Checks course, user and post validity,
      * updates non-restricted field of the post, persists the post,
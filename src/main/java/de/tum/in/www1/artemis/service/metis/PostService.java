@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.service.metis;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.validation.Valid;
@@ -12,6 +13,8 @@ import org.commonmark.renderer.html.HtmlRenderer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Lists;
@@ -23,6 +26,7 @@ import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.DisplayPriority;
 import de.tum.in.www1.artemis.domain.metis.CourseWideContext;
 import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.domain.metis.PostSortCriterion;
 import de.tum.in.www1.artemis.domain.metis.Reaction;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCase;
 import de.tum.in.www1.artemis.repository.CourseRepository;
@@ -34,11 +38,14 @@ import de.tum.in.www1.artemis.repository.metis.PostRepository;
 import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCaseRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.ManagementStatisticsCacheService;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.metis.conversation.ConversationMessagePageCacheService;
 import de.tum.in.www1.artemis.service.metis.similarity.PostSimilarityComparisonStrategy;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
 import de.tum.in.www1.artemis.service.plagiarism.PlagiarismCaseService;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.websocket.dto.metis.MetisCrudAction;
@@ -61,16 +68,21 @@ public class PostService extends PostingService {
 
     private final PostSimilarityComparisonStrategy postContentCompareStrategy;
 
+    private final ManagementStatisticsCacheService managementStatisticsCacheService;
+
     protected PostService(CourseRepository courseRepository, AuthorizationCheckService authorizationCheckService, UserRepository userRepository, PostRepository postRepository,
             ExerciseRepository exerciseRepository, LectureRepository lectureRepository, GroupNotificationService groupNotificationService,
             PostSimilarityComparisonStrategy postContentCompareStrategy, WebsocketMessagingService websocketMessagingService, PlagiarismCaseService plagiarismCaseService,
-            PlagiarismCaseRepository plagiarismCaseRepository, ConversationParticipantRepository conversationParticipantRepository) {
-        super(courseRepository, userRepository, exerciseRepository, lectureRepository, authorizationCheckService, websocketMessagingService, conversationParticipantRepository);
+            PlagiarismCaseRepository plagiarismCaseRepository, ConversationParticipantRepository conversationParticipantRepository,
+            ManagementStatisticsCacheService managementStatisticsCacheService, ConversationMessagePageCacheService conversationMessagePageCacheService) {
+        super(courseRepository, userRepository, exerciseRepository, lectureRepository, authorizationCheckService, websocketMessagingService, conversationParticipantRepository,
+                conversationMessagePageCacheService);
         this.postRepository = postRepository;
         this.plagiarismCaseRepository = plagiarismCaseRepository;
         this.groupNotificationService = groupNotificationService;
         this.postContentCompareStrategy = postContentCompareStrategy;
         this.plagiarismCaseService = plagiarismCaseService;
+        this.managementStatisticsCacheService = managementStatisticsCacheService;
     }
 
     /**
@@ -103,11 +115,14 @@ public class PostService extends PostingService {
             // display priority of announcement is set to pinned per default
             post.setDisplayPriority(DisplayPriority.PINNED);
             Post savedPost = postRepository.save(post);
+            postContentCompareStrategy.postSaved(courseId, savedPost);
             sendNotification(savedPost, course);
             broadcastForPost(new PostDTO(savedPost, MetisCrudAction.CREATE), course, null);
             return savedPost;
         }
         Post savedPost = postRepository.save(post);
+        managementStatisticsCacheService.invalidateExerciseStatistics(savedPost.getExercise());
+        postContentCompareStrategy.postSaved(courseId, savedPost);
 
         // handle posts for plagiarism cases specifically
         if (savedPost.getPlagiarismCase() != null) {
@@ -145,6 +160,7 @@ public class PostService extends PostingService {
         mayUpdateOrDeletePostingElseThrow(existingPost, user, course);
 
         boolean contextHasChanged = !existingPost.hasSameContext(post);
+        Exercise previousExercise = existingPost.getExercise();
         // depending on if there is a context change we need to broadcast different information
         if (contextHasChanged) {
             // in case the context changed, a post is moved from one context (page) to another
@@ -174,6 +190,12 @@ public class PostService extends PostingService {
         }
 
         Post updatedPost = postRepository.save(existingPost);
+        postContentCompareStrategy.postSaved(courseId, updatedPost);
+        if (contextHasChanged) {
+            // the post counts in the statistics of both exercises change when a post is moved between them
+            managementStatisticsCacheService.invalidateExerciseStatistics(previousExercise);
+            managementStatisticsCacheService.invalidateExerciseStatistics(updatedPost.getExercise());
+        }
 
         if (updatedPost.getExercise() != null) {
             // protect sample solution, grading instructions, etc.
@@ -238,19 +260,22 @@ public class PostService extends PostingService {
     /**
      * @param pagingEnabled     fetches single page instead of all entities
      * @param pageable          requested page and page size
-     * @param postContextFilter request object to fetch posts
-     * @return page of posts that match the given context
+     * @param postContextFilter request object to fetch posts, if it contains a cursor, the posts after the cursor are fetched with keyset pagination
+     * @return page of posts that match the given context, or a slice without total count if the page was requested with a cursor
      */
-    public Page<Post> getPostsInCourse(boolean pagingEnabled, Pageable pageable, @Valid PostContextFilter postContextFilter) {
+    public Slice<Post> getPostsInCourse(boolean pagingEnabled, Pageable pageable, @Valid PostContextFilter postContextFilter) {
         if (postContextFilter.getConversationId() != null) {
             // we throw general exception without details to malicious requests that try to fetch messages, to not leak implementation details
             // message posts should rather be fetched via the MessagePostService
             throw new AccessForbiddenException();
         }
 
-        Page<Post> postsInCourse;
+        Slice<Post> postsInCourse;
+        if (postContextFilter.getCursor() != null) {
+            postsInCourse = getCoursePostsAfterCursor(pagingEnabled, pageable, postContextFilter);
+        }
         // filter by plagiarism case
-        if (postContextFilter.getCourseWideContexts() == null && postContextFilter.getExerciseIds() == null && postContextFilter.getLectureIds() == null
+        else if (postContextFilter.getCourseWideContexts() == null && postContextFilter.getExerciseIds() == null && postContextFilter.getLectureIds() == null
                 && postContextFilter.getPlagiarismCaseId() != null) {
             postsInCourse = new PageImpl<>(this.getAllPlagiarismCasePosts(postContextFilter));
         }
@@ -267,6 +292,37 @@ public class PostService extends PostingService {
         return postsInCourse;
     }
 
+    /**
+     * Checks if the posts can be fetched with keyset pagination, which is only possible if they are sorted by their creation date.
+     * Other sort criteria like the number of votes change too often to be used as stable position.
+     *
+     * @param pagingEnabled     whether a single page is requested
+     * @param postContextFilter request object to fetch posts
+     * @return true if the next page can be requested with a {@link PostCursor}
+     */
+    public static boolean isKeysetPaginationSupported(boolean pagingEnabled, PostContextFilter postContextFilter) {
+        return pagingEnabled && postContextFilter.getPostSortCriterion() == PostSortCriterion.CREATION_DATE && postContextFilter.getSortingOrder() != null
+                && postContextFilter.getPlagiarismCaseId() == null;
+    }
+
+    private Slice<Post> getCoursePostsAfterCursor(boolean pagingEnabled, Pageable pageable, PostContextFilter postContextFilter) {
+        PostCursor cursor = PostCursor.decode(postContextFilter.getCursor());
+        if (!isKeysetPaginationSupported(pagingEnabled, postContextFilter) || cursor.displayPriorityRank() == null) {
+            throw new BadRequestAlertException("A cursor can only be used for paged posts of a course sorted by creation date", METIS_POST_ENTITY_NAME, "invalidCursor");
+        }
+        final User user = userRepository.getUserWithGroupsAndAuthorities();
+        preCheckCoursePostContext(user, postContextFilter);
+
+        // one more post than requested is fetched to determine if there is a next page
+        List<Post> posts = postRepository.findPostsAfterCursor(postContextFilter, user.getId(), cursor, pageable.getPageSize() + 1);
+        boolean hasNext = posts.size() > pageable.getPageSize();
+        List<Post> page = hasNext ? posts.subList(0, pageable.getPageSize()) : posts;
+
+        // protect sample solution, grading instructions, etc.
+        page.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
+        return new SliceImpl<>(page, pageable, hasNext);
+    }
+
     /**
      * Checks course, user and post validity,
      * retrieves and filters posts for a plagiarism case by its id
@@ -317,6 +373,8 @@ public class PostService extends PostingService {
 
         // delete
         postRepository.deleteById(postId);
+        managementStatisticsCacheService.invalidateExerciseStatistics(post.getExercise());
+        postContentCompareStrategy.postDeleted(courseId, post);
         broadcastForPost(new PostDTO(post, MetisCrudAction.DELETE), course, null);
     }
 
@@ -364,15 +422,33 @@ public class PostService extends PostingService {
     }
 
     /**
-     * Calculates k similar posts based on the underlying content comparison strategy
+     * Calculates k similar posts based on the underlying content comparison strategy.
+     * If the strategy maintains an index of the course posts, only the most similar posts are loaded, otherwise the post is compared to every post of the course.
      *
      * @param courseId id of the course in which similar posts are searched for
      * @param post     post that is to be created and check for similar posts beforehand
      * @return list of similar posts
      */
     public List<Post> getSimilarPosts(Long courseId, Post post) {
+        final User user = userRepository.getUserWithGroupsAndAuthorities();
+        preCheckUserAndCourseForCommunication(user, courseId);
+
+        Optional<List<Long>> similarPostIds = postContentCompareStrategy.findMostSimilarPostIds(courseId, post, TOP_K_SIMILARITY_RESULTS);
+        if (similarPostIds.isPresent()) {
+            // posts deleted on another instance might still be in the index, they are just not found anymore
+            Map<Long, Post> similarPostsById = postRepository.findAllById(similarPostIds.get()).stream().collect(Collectors.toMap(Post::getId, Function.identity()));
+            List<Post> similarPosts = similarPostIds.get().stream().map(similarPostsById::get).filter(Objects::nonNull).toList();
+            // protect sample solution, grading instructions, etc.
+            similarPosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
+            setAuthorRoleOfPostings(similarPosts);
+            return similarPosts;
+        }
+
+        // the user and course were already checked above, so the posts are loaded directly instead of checking them again in getCoursePosts
         PostContextFilter postContextFilter = new PostContextFilter(courseId);
-        List<Post> coursePosts = this.getCoursePosts(postContextFilter, false, null).stream().collect(Collectors.toCollection(ArrayList::new));
+        List<Post> coursePosts = postRepository.findPosts(postContextFilter, user.getId(), false, null).stream().collect(Collectors.toCollection(ArrayList::new));
+        // protect sample solution, grading instructions, etc.
+        coursePosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
 
         // sort course posts by calculated similarity scores
         coursePosts.sort(Comparator.comparing(coursePost -> postContentCompareStrategy.performSimilarityCheck(post, coursePost)));
@@ -406,8 +482,24 @@ public class PostService extends PostingService {
      */
     private Page<Post> getCoursePosts(PostContextFilter postContextFilter, boolean pagingEnabled, Pageable pageable) {
         final User user = userRepository.getUserWithGroupsAndAuthorities();
+        preCheckCoursePostContext(user, postContextFilter);
 
-        // checks
+        // retrieve posts
+        Page<Post> coursePosts = postRepository.findPosts(postContextFilter, user.getId(), pagingEnabled, pageable);
+
+        // protect sample solution, grading instructions, etc.
+        coursePosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
+
+        return coursePosts;
+    }
+
+    /**
+     * Checks if the user is allowed to read the posts of the course and of the lectures and exercises in the filter
+     *
+     * @param user              requesting user
+     * @param postContextFilter filter object
+     */
+    private void preCheckCoursePostContext(User user, PostContextFilter postContextFilter) {
         preCheckUserAndCourseForCommunication(user, postContextFilter.getCourseId());
         if (postContextFilter.getLectureIds() != null) {
             for (Long lectureId : postContextFilter.getLectureIds()) {
@@ -419,14 +511,6 @@ public class PostService extends PostingService {
                 preCheckExercise(user, postContextFilter.getCourseId(), exerciseId);
             }
         }
-
-        // retrieve posts
-        Page<Post> coursePosts = postRepository.findPosts(postContextFilter, user.getId(), pagingEnabled, pageable);
-
-        // protect sample solution, grading instructions, etc.
-        coursePosts.stream().map(Post::getExercise).filter(Objects::nonNull).forEach(Exercise::filterSensitiveInformation);
-
-        return coursePosts;
     }
 
     /**
@@ -20,6 +20,8 @@ import de.tum.in.www1.artemis.repository.metis.ConversationParticipantRepository
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.metis.conversation.ConversationMessagePageCacheService;
+import de.tum.in.www1.artemis.service.metis.conversation.ConversationService;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.websocket.dto.metis.MetisCrudAction;
 import de.tum.in.www1.artemis.web.websocket.dto.metis.PostDTO;
@@ -40,13 +42,15 @@ public abstract class PostingService {
 
     private final WebsocketMessagingService websocketMessagingService;
 
+    protected final ConversationMessagePageCacheService conversationMessagePageCacheService;
+
     protected static final String METIS_POST_ENTITY_NAME = "metis.post";
 
     private static final String METIS_WEBSOCKET_CHANNEL_PREFIX = "/topic/metis/";
 
     protected PostingService(CourseRepository courseRepository, UserRepository userRepository, ExerciseRepository exerciseRepository, LectureRepository lectureRepository,
             AuthorizationCheckService authorizationCheckService, WebsocketMessagingService websocketMessagingService,
-            ConversationParticipantRepository conversationParticipantRepository) {
+            ConversationParticipantRepository conversationParticipantRepository, ConversationMessagePageCacheService conversationMessagePageCacheService) {
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
         this.exerciseRepository = exerciseRepository;
@@ -54,6 +58,7 @@ public abstract class PostingService {
         this.authorizationCheckService = authorizationCheckService;
         this.websocketMessagingService = websocketMessagingService;
         this.conversationParticipantRepository = conversationParticipantRepository;
+        this.conversationMessagePageCacheService = conversationMessagePageCacheService;
     }
 
     /**
@@ -84,6 +89,8 @@ public abstract class PostingService {
         // reduce the payload of the websocket message: this is important to avoid overloading the involved subsystems
         if (postDTO.post().getConversation() != null) {
             postDTO.post().getConversation().hideDetails();
+            // every change of a message, its answers or reactions is broadcast, so the cached first page of the conversation is outdated
+            conversationMessagePageCacheService.invalidate(postDTO.post().getConversation().getId());
         }
 
         String specificTopicName = METIS_WEBSOCKET_CHANNEL_PREFIX;
@@ -103,8 +110,8 @@ public abstract class PostingService {
                 recipients = this.conversationParticipantRepository.findConversationParticipantByConversationId(postDTO.post().getConversation().getId()).stream()
                         .map(ConversationParticipant::getUser).collect(Collectors.toSet());
             }
-            recipients.forEach(
-                    user -> websocketMessagingService.sendMessageToUser(user.getLogin(), genericTopicName + "/conversations/" + postDTO.post().getConversation().getId(), postDTO));
+            String conversationTopicName = ConversationService.getConversationTopicName(course.getId(), postDTO.post().getConversation().getId());
+            recipients.forEach(user -> websocketMessagingService.sendMessageToUser(user.getLogin(), conversationTopicName, postDTO));
 
             return;
         }
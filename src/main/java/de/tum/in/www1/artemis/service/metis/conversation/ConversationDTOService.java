@@ -100,7 +100,7 @@ public class ConversationDTOService {
         channelDTO.setIsChannelModerator(channelAuthorizationService.isChannelModerator(channel.getId(), requestingUser.getId()));
         channelDTO.setHasChannelModerationRights(channelAuthorizationService.hasChannelModerationRights(channel.getId(), requestingUser));
         var participantOptional = conversationParticipantRepository.findConversationParticipantByConversationIdAndUserId(channel.getId(), requestingUser.getId());
-        setDTOPropertiesBasedOnParticipant(channelDTO, participantOptional);
+        setDTOPropertiesBasedOnParticipant(channelDTO, channel, participantOptional);
         setDTOCreatorProperty(requestingUser, channel, channelDTO);
         channelDTO.setNumberOfMembers(conversationParticipantRepository.countByConversationId(channel.getId()));
         var tutorialGroup = tutorialGroupRepository.findByTutorialGroupChannelId(channel.getId());
@@ -127,7 +127,7 @@ public class ConversationDTOService {
                 .filter(conversationParticipant -> conversationParticipant.getUser().getId().equals(requestingUser.getId())).findFirst();
         Set<ConversationUserDTO> chatParticipants = getChatParticipantDTOs(requestingUser, course, conversationParticipants);
         var oneToOneChatDTO = new OneToOneChatDTO(oneToOneChat);
-        setDTOPropertiesBasedOnParticipant(oneToOneChatDTO, participantOfRequestingUser);
+        setDTOPropertiesBasedOnParticipant(oneToOneChatDTO, oneToOneChat, participantOfRequestingUser);
         setDTOCreatorProperty(requestingUser, oneToOneChat, oneToOneChatDTO);
         oneToOneChatDTO.setMembers(chatParticipants);
         oneToOneChatDTO.setNumberOfMembers(conversationParticipants.size());
@@ -149,7 +149,7 @@ public class ConversationDTOService {
                 .filter(conversationParticipant -> conversationParticipant.getUser().getId().equals(requestingUser.getId())).findFirst();
         Set<ConversationUserDTO> chatParticipants = getChatParticipantDTOs(requestingUser, course, conversationParticipants);
         var groupChatDTO = new GroupChatDTO(groupChat);
-        setDTOPropertiesBasedOnParticipant(groupChatDTO, participantOfRequestingUser);
+        setDTOPropertiesBasedOnParticipant(groupChatDTO, groupChat, participantOfRequestingUser);
         setDTOCreatorProperty(requestingUser, groupChat, groupChatDTO);
         groupChatDTO.setMembers(chatParticipants);
         groupChatDTO.setNumberOfMembers(conversationParticipants.size());
@@ -186,11 +186,11 @@ public class ConversationDTOService {
         }).collect(Collectors.toSet());
     }
 
-    private void setDTOPropertiesBasedOnParticipant(ConversationDTO conversationDTO, Optional<ConversationParticipant> participantOptional) {
+    private void setDTOPropertiesBasedOnParticipant(ConversationDTO conversationDTO, Conversation conversation, Optional<ConversationParticipant> participantOptional) {
         conversationDTO.setIsMember(participantOptional.isPresent());
         participantOptional.ifPresent(participant -> {
             conversationDTO.setLastReadDate(participant.getLastRead());
-            conversationDTO.setUnreadMessagesCount(participant.getUnreadMessagesCount());
+            conversationDTO.setUnreadMessagesCount(participant.getUnreadMessagesCount(conversation.getMessageSequence()));
         });
         conversationDTO.setIsFavorite(participantOptional.map(ConversationParticipant::getIsFavorite).orElse(false));
         conversationDTO.setIsHidden(participantOptional.map(ConversationParticipant::getIsHidden).orElse(false));
@@ -0,0 +1,123 @@
+package de.tum.in.www1.artemis.service.metis.conversation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.metis.ConversationParticipant;
+import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.domain.metis.conversation.Conversation;
+import de.tum.in.www1.artemis.domain.notification.ConversationNotification;
+import de.tum.in.www1.artemis.repository.metis.ConversationParticipantRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService.FanOutEnvelope;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService.FanOutMessage;
+import de.tum.in.www1.artemis.service.notifications.ConversationNotificationService;
+import de.tum.in.www1.artemis.web.websocket.dto.metis.ConversationWebsocketDTO;
+import de.tum.in.www1.artemis.web.websocket.dto.metis.MetisCrudAction;
+import de.tum.in.www1.artemis.web.websocket.dto.metis.PostDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Notifies the members of a conversation about a new message after the message was persisted.
+ * All websocket messages a member receives for the new message are combined into one envelope per member, and the envelopes are sent in chunks by the bounded websocket
+ * fan-out executor, so that posting in a large channel neither blocks the author nor floods the shared task executor.
+ */
+@Service
+public class ConversationMessageFanOutService {
+
+    private final ConversationParticipantRepository conversationParticipantRepository;
+
+    private final ConversationService conversationService;
+
+    private final ConversationDTOService conversationDTOService;
+
+    private final ConversationNotificationService conversationNotificationService;
+
+    private final WebsocketMessagingService websocketMessagingService;
+
+    private final int chunkSize;
+
+    private final Timer fanOutLagTimer;
+
+    private final DistributionSummary fanOutRecipients;
+
+    public ConversationMessageFanOutService(ConversationParticipantRepository conversationParticipantRepository, ConversationService conversationService,
+            ConversationDTOService conversationDTOService, ConversationNotificationService conversationNotificationService, WebsocketMessagingService websocketMessagingService,
+            @Value("${artemis.websocket.fan-out.chunk-size:100}") int chunkSize, MeterRegistry meterRegistry) {
+        this.conversationParticipantRepository = conversationParticipantRepository;
+        this.conversationService = conversationService;
+        this.conversationDTOService = conversationDTOService;
+        this.conversationNotificationService = conversationNotificationService;
+        this.websocketMessagingService = websocketMessagingService;
+        this.chunkSize = chunkSize;
+        this.fanOutLagTimer = Timer.builder("artemis.metis.message.fan_out.lag").description("Time from persisting a new message until all members of the conversation were notified")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.fanOutRecipients = DistributionSummary.builder("artemis.metis.message.fan_out.recipients").description("Number of conversation members notified about a new message")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Notifies all members of the conversation about the new message.
+     * Every member receives the message itself; all members except the author additionally receive the updated conversation (for the unread messages badge) and the
+     * notification about the new message. Members that enabled it are also notified via email and push notification.
+     *
+     * @param createdMessage               the persisted message, its conversation must already hide its details
+     * @param conversation                 the conversation the message was posted in
+     * @param course                       the course of the conversation
+     * @param author                       the author of the message
+     * @param isFirstMessageOfOneToOneChat whether the message is the first message of a one to one chat, in which case the chat partner is notified about the new chat
+     * @param messagePersistedNanos        the value of {@link System#nanoTime()} when the message was persisted, used to measure the fan-out lag
+     */
+    @Async
+    public void notifyAboutNewMessage(Post createdMessage, Conversation conversation, Course course, User author, boolean isFirstMessageOfOneToOneChat,
+            long messagePersistedNanos) {
+        SecurityUtils.setAuthorizationObject();
+
+        Set<User> recipients = conversationParticipantRepository.findConversationParticipantsWithUserByConversationId(conversation.getId()).stream()
+                .map(ConversationParticipant::getUser).filter(Objects::nonNull).collect(Collectors.toSet());
+
+        if (isFirstMessageOfOneToOneChat) {
+            // notify all participants that a conversation with them has been created
+            conversationService.broadcastOnConversationMembershipChannel(course, MetisCrudAction.CREATE, conversation, recipients);
+        }
+
+        ConversationNotification notification = conversationNotificationService.createNewMessageNotification(createdMessage, course);
+
+        // the payloads are the same for all members, only the topics differ
+        PostDTO postDTO = new PostDTO(createdMessage, MetisCrudAction.CREATE);
+        ConversationWebsocketDTO newMessageDTO = new ConversationWebsocketDTO(conversationDTOService.convertToDTOWithNoExtraDBCalls(conversation), MetisCrudAction.NEW_MESSAGE);
+        String conversationTopicName = ConversationService.getConversationTopicName(course.getId(), conversation.getId());
+        String conversationParticipantTopicName = ConversationService.getConversationParticipantTopicName(course.getId());
+
+        List<FanOutEnvelope> envelopes = new ArrayList<>(recipients.size());
+        for (User recipient : recipients) {
+            List<FanOutMessage> messages = new ArrayList<>(3);
+            messages.add(new FanOutMessage(conversationTopicName, postDTO, true));
+            if (!Objects.equals(recipient.getId(), author.getId())) {
+                messages.add(new FanOutMessage(conversationParticipantTopicName + recipient.getId(), newMessageDTO, true));
+                messages.add(new FanOutMessage(notification.getTopic(recipient.getId()), notification, false));
+            }
+            envelopes.add(new FanOutEnvelope(recipient.getLogin(), messages));
+        }
+
+        fanOutRecipients.record(envelopes.size());
+        websocketMessagingService.sendFanOutEnvelopes(envelopes, chunkSize)
+                .whenComplete((ignored, throwable) -> fanOutLagTimer.record(System.nanoTime() - messagePersistedNanos, TimeUnit.NANOSECONDS));
+
+        Set<User> otherRecipients = recipients.stream().filter(recipient -> !Objects.equals(recipient.getId(), author.getId())).collect(Collectors.toSet());
+        conversationNotificationService.sendInstantNotification(notification, otherRecipients);
+    }
+}
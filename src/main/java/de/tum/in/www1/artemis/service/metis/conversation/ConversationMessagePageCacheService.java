@@ -0,0 +1,80 @@
+package de.tum.in.www1.artemis.service.metis.conversation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+
+/**
+ * Caches the first page of messages of each active conversation, which all members load when they open the conversation, e.g. a lecture channel during the lecture.
+ * Each conversation has a version that is changed whenever a message of the conversation, one of its answers or one of their reactions is created, updated or deleted.
+ * The versions are distributed between all instances by Hazelcast, so that each instance only reloads its cached page if the conversation actually changed.
+ * Only unfiltered first pages are cached, all other pages are loaded with keyset pagination.
+ * <p>
+ * The versions expire after twice the time to live, when all pages cached for an older version have expired as well, so that the map only holds recently changed conversations.
+ */
+@Service
+public class ConversationMessagePageCacheService {
+
+    private final IMap<Long, Long> versions;
+
+    private final long versionTimeToLiveSeconds;
+
+    private final Cache<String, VersionedPage> cachedPages;
+
+    public ConversationMessagePageCacheService(HazelcastInstance hazelcastInstance, @Value("${artemis.metis.message-page-cache.size:1000}") long cacheSize,
+            @Value("${artemis.metis.message-page-cache.time-to-live-seconds:300}") long timeToLiveSeconds) {
+        // The map will automatically be distributed between all instances by Hazelcast.
+        this.versions = hazelcastInstance.getMap("conversationMessagePageVersions");
+        // a time to live of 0 would keep the versions forever in Hazelcast
+        this.versionTimeToLiveSeconds = Math.max(1, 2 * timeToLiveSeconds);
+        this.cachedPages = CacheBuilder.newBuilder().maximumSize(Math.max(0, cacheSize)).expireAfterWrite(Math.max(0, timeToLiveSeconds), TimeUnit.SECONDS).build();
+    }
+
+    private record VersionedPage(Page<Post> page, long version) {
+    }
+
+    /**
+     * Gets the cached first page of messages of the conversation or loads it, if the conversation changed since it was cached
+     *
+     * @param conversationId the id of the conversation
+     * @param pageSize       the size of the requested page, pages of different sizes are cached separately
+     * @param loadFirstPage  loads the first page of messages including everything the client needs, e.g. the author roles
+     * @return the first page of messages of the conversation
+     */
+    public Page<Post> getFirstPage(Long conversationId, int pageSize, Supplier<Page<Post>> loadFirstPage) {
+        String key = conversationId + "-" + pageSize;
+        // the version has to be read before loading, so that changes during loading lead to a reload on the next request
+        long version = versions.getOrDefault(conversationId, 0L);
+        VersionedPage cached = cachedPages.getIfPresent(key);
+        if (cached != null && cached.version() == version) {
+            return cached.page();
+        }
+
+        Page<Post> page = loadFirstPage.get();
+        cachedPages.put(key, new VersionedPage(page, version));
+        return page;
+    }
+
+    /**
+     * Invalidates the cached first pages of the conversation on all instances, because one of its messages changed. Does nothing if the conversation id is null.
+     *
+     * @param conversationId the id of the conversation
+     */
+    public void invalidate(Long conversationId) {
+        if (conversationId != null) {
+            // a random version cannot be set to the same value by two instances, which could happen with a timestamp and would hide the second change
+            versions.set(conversationId, ThreadLocalRandom.current().nextLong(), versionTimeToLiveSeconds, TimeUnit.SECONDS);
+        }
+    }
+}
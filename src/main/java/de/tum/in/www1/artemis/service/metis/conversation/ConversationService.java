@@ -187,7 +187,7 @@ public class ConversationService {
             conversationParticipant.setIsFavorite(false);
             // set the last reading time of a participant in the past when creating conversation for the first time!
             conversationParticipant.setLastRead(ZonedDateTime.now().minusYears(2));
-            conversationParticipant.setUnreadMessagesCount(0L);
+            conversationParticipant.setLastReadSequence(conversation.getMessageSequence());
             newConversationParticipants.add(conversationParticipant);
         }
         if (!newConversationParticipants.isEmpty()) {
@@ -208,17 +208,6 @@ public class ConversationService {
         broadcastOnConversationMembershipChannel(conversation.getCourse(), MetisCrudAction.UPDATE, conversation, usersToContact);
     }
 
-    /**
-     * Notify all members of a conversation about a new message in the conversation
-     *
-     * @param course       the course in which the conversation takes place
-     * @param conversation conversation which members to notify about the new message (except the author)
-     * @param recipients   users to which the notification should be sent
-     */
-    public void notifyAllConversationMembersAboutNewMessage(Course course, Conversation conversation, Set<User> recipients) {
-        broadcastOnConversationMembershipChannel(course, MetisCrudAction.NEW_MESSAGE, conversation, recipients);
-    }
-
     /**
      * Removes users from a conversation
      *
@@ -303,16 +292,13 @@ public class ConversationService {
         return METIS_WEBSOCKET_CHANNEL_PREFIX + "courses/" + courseId + "/conversations/user/";
     }
 
-    private void sendToConversationMembershipChannel(MetisCrudAction metisCrudAction, Conversation conversation, User user, String conversationParticipantTopicName) {
-        ConversationDTO dto;
-        if (metisCrudAction.equals(MetisCrudAction.NEW_MESSAGE)) {
-            // we do not want to recalculate the whole dto for a new message, just the information needed for updating the unread messages
-            dto = conversationDTOService.convertToDTOWithNoExtraDBCalls(conversation);
-        }
-        else {
-            dto = conversationDTOService.convertToDTO(conversation, user);
-        }
+    @NotNull
+    public static String getConversationTopicName(Long courseId, Long conversationId) {
+        return METIS_WEBSOCKET_CHANNEL_PREFIX + "courses/" + courseId + "/conversations/" + conversationId;
+    }
 
+    private void sendToConversationMembershipChannel(MetisCrudAction metisCrudAction, Conversation conversation, User user, String conversationParticipantTopicName) {
+        ConversationDTO dto = conversationDTOService.convertToDTO(conversation, user);
         var websocketDTO = new ConversationWebsocketDTO(dto, metisCrudAction);
         websocketMessagingService.sendMessageToUser(user.getLogin(), conversationParticipantTopicName + user.getId(), websocketDTO);
     }
@@ -67,7 +67,7 @@ public class OneToOneChatService {
         participant.setIsFavorite(false);
         // set the last reading time of a participant in the past when creating conversation for the first time!
         participant.setLastRead(ZonedDateTime.now().minusYears(2));
-        participant.setUnreadMessagesCount(0L);
+        participant.setLastReadSequence(oneToOneChat.getMessageSequence());
         return participant;
     }
 }
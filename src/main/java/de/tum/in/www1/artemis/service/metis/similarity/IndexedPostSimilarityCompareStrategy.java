@@ -0,0 +1,155 @@
+package de.tum.in.www1.artemis.service.metis.similarity;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.domain.metis.PostText;
+import de.tum.in.www1.artemis.repository.metis.PostRepository;
+
+/**
+ * Implementation of a PostSimilarityComparisonStrategy to be used when searching for duplicates during post creation.
+ * Instead of comparing the new post to every post of the course on every request, each instance keeps a {@link PostSimilarityIndex} per course in memory, which is built
+ * when the similar posts of the course are searched for the first time and afterwards updated whenever a post of the course is created, updated or deleted.
+ * Posts changed on other instances are only contained after the index of the course was rebuilt, which happens after the configured time to live.
+ * The index of a course is built under a lock, which changes of posts in a course without index also acquire, so that concurrent first searches build the index only once
+ * and posts saved during the build are not lost.
+ * Two single posts are compared with the Jaccard similarity of their terms.
+ */
+@Primary
+@Component
+public class IndexedPostSimilarityCompareStrategy implements PostSimilarityComparisonStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexedPostSimilarityCompareStrategy.class);
+
+    private final PostRepository postRepository;
+
+    private final Cache<Long, PostSimilarityIndex> indexByCourse;
+
+    private final Striped<Lock> buildLocks = Striped.lock(64);
+
+    public IndexedPostSimilarityCompareStrategy(PostRepository postRepository, @Value("${artemis.metis.similarity-index.max-courses:100}") long maxCourses,
+            @Value("${artemis.metis.similarity-index.time-to-live-minutes:10}") long timeToLiveMinutes) {
+        this.postRepository = postRepository;
+        this.indexByCourse = CacheBuilder.newBuilder().maximumSize(Math.max(0, maxCourses)).expireAfterWrite(Math.max(0, timeToLiveMinutes), TimeUnit.MINUTES).build();
+    }
+
+    @Override
+    public Double performSimilarityCheck(Post post1, Post post2) {
+        Set<String> terms1 = terms(post1);
+        Set<String> terms2 = terms(post2);
+        Set<String> union = new HashSet<>(terms1);
+        union.addAll(terms2);
+        if (union.isEmpty()) {
+            return 0.0;
+        }
+        terms1.retainAll(terms2);
+        return (double) terms1.size() / union.size();
+    }
+
+    @Override
+    public Optional<List<Long>> findMostSimilarPostIds(Long courseId, Post post, int limit) {
+        return Optional.of(getOrBuildIndex(courseId).findMostSimilarPostIds(post.getTitle(), post.getContent(), post.getId(), limit));
+    }
+
+    @Override
+    public void postSaved(Long courseId, Post post) {
+        // indices that are not built yet will contain the post once they are built
+        findIndex(courseId).ifPresent(index -> {
+            if (isIndexed(post)) {
+                index.addOrUpdatePost(post.getId(), post.getTitle(), post.getContent());
+            }
+            else {
+                index.removePost(post.getId());
+            }
+        });
+    }
+
+    @Override
+    public void postDeleted(Long courseId, Post post) {
+        findIndex(courseId).ifPresent(index -> index.removePost(post.getId()));
+    }
+
+    private PostSimilarityIndex getOrBuildIndex(Long courseId) {
+        PostSimilarityIndex index = indexByCourse.getIfPresent(courseId);
+        if (index != null) {
+            return index;
+        }
+        Lock lock = buildLocks.get(courseId);
+        lock.lock();
+        try {
+            // another request might have built the index while this one waited for the lock
+            index = indexByCourse.getIfPresent(courseId);
+            if (index == null) {
+                index = buildIndex(courseId);
+                indexByCourse.put(courseId, index);
+            }
+            return index;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the index of the course without building it. If the index is being built at the moment, waits until it is built, so that a change of a post that was saved
+     * after the posts were loaded for the index is applied to the built index.
+     *
+     * @param courseId the id of the course
+     * @return the index of the course or an empty optional if it is not built
+     */
+    private Optional<PostSimilarityIndex> findIndex(Long courseId) {
+        PostSimilarityIndex index = indexByCourse.getIfPresent(courseId);
+        if (index != null) {
+            return Optional.of(index);
+        }
+        Lock lock = buildLocks.get(courseId);
+        lock.lock();
+        try {
+            return Optional.ofNullable(indexByCourse.getIfPresent(courseId));
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private PostSimilarityIndex buildIndex(Long courseId) {
+        long start = System.nanoTime();
+        PostSimilarityIndex index = new PostSimilarityIndex();
+        List<PostText> postTexts = postRepository.findPostTextsForCourse(courseId);
+        postTexts.forEach(postText -> index.addOrUpdatePost(postText.id(), postText.title(), postText.content()));
+        log.debug("Built the similarity index of the {} posts in course {} in {} ms", postTexts.size(), courseId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return index;
+    }
+
+    /**
+     * Checks if the post is one of the posts that are searched for similar posts, i.e. a post in the course, a lecture or an exercise.
+     * Messages in conversations and posts of plagiarism cases are not searched.
+     *
+     * @param post the post to check
+     * @return true if the post belongs in the index of its course
+     */
+    private static boolean isIndexed(Post post) {
+        return post.getConversation() == null && post.getPlagiarismCase() == null;
+    }
+
+    private static Set<String> terms(Post post) {
+        Set<String> terms = new HashSet<>(PostTextTokenizer.tokenize(post.getTitle()));
+        terms.addAll(PostTextTokenizer.tokenize(post.getContent()));
+        return terms;
+    }
+}
@@ -1,10 +1,14 @@
 package de.tum.in.www1.artemis.service.metis.similarity;
 
+import java.util.List;
+import java.util.Optional;
+
 import de.tum.in.www1.artemis.domain.metis.Post;
 
 /**
  * This interface offers a method that performs a similarity check on two posts that are compared to each other.
  * Every strategy that implements this interface has to provide this method in order to be applicable as post similarity comparison strategy, that can be interchanged easily.
+ * Strategies that maintain an index of the posts can additionally find the most similar posts of a course directly, instead of comparing the post to every post of the course.
  */
 public interface PostSimilarityComparisonStrategy {
 
@@ -16,4 +20,35 @@ public interface PostSimilarityComparisonStrategy {
      * @return the calculated similarity score
      */
     Double performSimilarityCheck(Post post1, Post post2);
+
+    /**
+     * Finds the ids of the posts in the course that are most similar to the given post.
+     * Strategies without an index return an empty optional, so that the caller compares the post to every post of the course using {@link #performSimilarityCheck}.
+     *
+     * @param courseId id of the course in which similar posts are searched for
+     * @param post     post that is compared against the posts of the course
+     * @param limit    the maximum number of post ids to return
+     * @return the ids of the most similar posts ordered by descending similarity, or an empty optional if the strategy does not support this
+     */
+    default Optional<List<Long>> findMostSimilarPostIds(Long courseId, Post post, int limit) {
+        return Optional.empty();
+    }
+
+    /**
+     * Notifies the strategy that the post was created or updated, so that it can update its index
+     *
+     * @param courseId id of the course the post belongs to
+     * @param post     the saved post
+     */
+    default void postSaved(Long courseId, Post post) {
+    }
+
+    /**
+     * Notifies the strategy that the post was deleted, so that it can update its index
+     *
+     * @param courseId id of the course the post belonged to
+     * @param post     the deleted post
+     */
+    default void postDeleted(Long courseId, Post post) {
+    }
 }
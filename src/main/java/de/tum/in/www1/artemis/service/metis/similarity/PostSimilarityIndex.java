@@ -0,0 +1,157 @@
+package de.tum.in.www1.artemis.service.metis.similarity;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nullable;
+
+/**
+ * An inverted index over the titles and contents of the posts of one course, which finds the posts most similar to a given text without comparing it to every post.
+ * For each term, the index stores the posts containing the term together with its frequency in the post. The posts are ranked with Okapi BM25, which favours posts
+ * sharing many rare terms with the searched text. Terms of the title are weighted higher than terms of the content, as the title summarizes the question.
+ * The index is thread-safe: searches can run concurrently, while adding and removing posts is exclusive.
+ */
+public class PostSimilarityIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+
+    // the usual BM25 parameters: k1 limits the influence of the term frequency, b the normalization by the length of the post
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postsByTerm = new HashMap<>();
+
+    private final Map<Long, Map<String, Integer>> termsByPost = new HashMap<>();
+
+    private final Map<Long, Integer> lengthByPost = new HashMap<>();
+
+    private long totalLength = 0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds the post to the index or replaces its previously indexed text
+     *
+     * @param postId  the id of the post
+     * @param title   the title of the post
+     * @param content the content of the post
+     */
+    public void addOrUpdatePost(Long postId, @Nullable String title, @Nullable String content) {
+        Map<String, Integer> termFrequencies = weightedTermFrequencies(title, content);
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        lock.writeLock().lock();
+        try {
+            removePostUnlocked(postId);
+            termFrequencies.forEach((term, frequency) -> postsByTerm.computeIfAbsent(term, key -> new HashMap<>()).put(postId, frequency));
+            termsByPost.put(postId, termFrequencies);
+            lengthByPost.put(postId, length);
+            totalLength += length;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the post from the index, does nothing if it is not indexed
+     *
+     * @param postId the id of the post
+     */
+    public void removePost(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removePostUnlocked(postId);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePostUnlocked(Long postId) {
+        Map<String, Integer> termFrequencies = termsByPost.remove(postId);
+        if (termFrequencies == null) {
+            return;
+        }
+        for (String term : termFrequencies.keySet()) {
+            Map<Long, Integer> posts = postsByTerm.get(term);
+            posts.remove(postId);
+            if (posts.isEmpty()) {
+                postsByTerm.remove(term);
+            }
+        }
+        totalLength -= lengthByPost.remove(postId);
+    }
+
+    /**
+     * Finds the posts that are most similar to the given text, i.e. the posts with the highest BM25 score. Posts without any common term are not found.
+     *
+     * @param title         the title to search for
+     * @param content       the content to search for
+     * @param excludePostId the id of a post that should not be found, e.g. the post the text belongs to, or null
+     * @param limit         the maximum number of posts to find
+     * @return the ids of the found posts, ordered from the most to the least similar post (newer posts first if their score is equal)
+     */
+    public List<Long> findMostSimilarPostIds(@Nullable String title, @Nullable String content, @Nullable Long excludePostId, int limit) {
+        Set<String> queryTerms = weightedTermFrequencies(title, content).keySet();
+        Map<Long, Double> scoreByPost = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int numberOfPosts = termsByPost.size();
+            if (numberOfPosts == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / numberOfPosts);
+            for (String term : queryTerms) {
+                Map<Long, Integer> posts = postsByTerm.get(term);
+                if (posts == null) {
+                    continue;
+                }
+                double inverseDocumentFrequency = Math.log(1 + (numberOfPosts - posts.size() + 0.5) / (posts.size() + 0.5));
+                posts.forEach((postId, frequency) -> {
+                    double normalizedLength = 1 - B + B * lengthByPost.get(postId) / averageLength;
+                    double score = inverseDocumentFrequency * frequency * (K1 + 1) / (frequency + K1 * normalizedLength);
+                    scoreByPost.merge(postId, score, Double::sum);
+                });
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        if (excludePostId != null) {
+            scoreByPost.remove(excludePostId);
+        }
+
+        Comparator<Map.Entry<Long, Double>> bestFirst = Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.<Long, Double>comparingByKey()).reversed();
+        // keep only the best posts in a min-heap instead of sorting all posts containing any of the terms
+        PriorityQueue<Map.Entry<Long, Double>> bestPosts = new PriorityQueue<>(bestFirst.reversed());
+        for (Map.Entry<Long, Double> entry : scoreByPost.entrySet()) {
+            bestPosts.add(entry);
+            if (bestPosts.size() > limit) {
+                bestPosts.poll();
+            }
+        }
+        return bestPosts.stream().sorted(bestFirst).map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * @return the number of indexed posts
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByPost.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> weightedTermFrequencies(@Nullable String title, @Nullable String content) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        PostTextTokenizer.tokenize(title).forEach(term -> termFrequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        PostTextTokenizer.tokenize(content).forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+        return termFrequencies;
+    }
+}
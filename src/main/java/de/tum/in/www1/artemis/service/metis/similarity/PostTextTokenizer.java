@@ -0,0 +1,81 @@
+package de.tum.in.www1.artemis.service.metis.similarity;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Splits the title and content of posts into normalized terms, so that posts can be compared independent of the case, accents and inflections of their words.
+ * Posts are written in English and German, so common stop words of both languages are removed and both are stemmed by removing common suffixes.
+ * The stemming is deliberately light: it only has to map the forms of a word used in similar questions to the same term, e.g. "compiling", "compiles" and "compile".
+ */
+public final class PostTextTokenizer {
+
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern DIACRITICAL_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    // ordered so that the longest matching suffix is removed
+    private static final List<String> SUFFIXES = List.of("ations", "ation", "ungen", "ings", "ness", "ment", "ing", "ung", "ies", "ed", "es", "en", "er", "ly", "e", "s");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from", "has", "have", "how", "i", "if", "in", "is", "it", "my", "no", "not", "of",
+            "on", "or", "so", "that", "the", "there", "this", "to", "was", "we", "what", "when", "where", "which", "why", "with", "you",
+            // German
+            "aber", "als", "am", "auch", "auf", "aus", "bei", "bin", "das", "dass", "dem", "den", "der", "des", "die", "ein", "eine", "einen", "einer", "es", "fur", "hat", "ich",
+            "im", "ist", "mit", "nicht", "noch", "oder", "sich", "sie", "sind", "und", "von", "wie", "wir", "zu", "zum", "zur");
+
+    private PostTextTokenizer() {
+        // utility class
+    }
+
+    /**
+     * Splits the text into its normalized terms, i.e. lower case words without accents, stop words and common suffixes.
+     * Terms that occur multiple times in the text are contained multiple times in the result.
+     *
+     * @param text the text to split, e.g. the title or the content of a post
+     * @return the terms of the text in the order of their occurrence or an empty list if the text is null
+     */
+    public static List<String> tokenize(@Nullable String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String normalizedText = DIACRITICAL_MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        for (String word : NON_WORD_CHARACTERS.split(normalizedText)) {
+            if (word.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Removes the longest common suffix of the word, if the remaining stem is still long enough to be meaningful
+     *
+     * @param word the lower case word
+     * @return the stem of the word
+     */
+    static String stem(String word) {
+        for (String suffix : SUFFIXES) {
+            // e.g. "class" is not a plural, but "classes" is
+            boolean isDoubleS = "s".equals(suffix) && word.endsWith("ss");
+            if (!isDoubleS && word.endsWith(suffix) && word.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                String stem = word.substring(0, word.length() - suffix.length());
+                // e.g. "queries" -> "query"
+                return "ies".equals(suffix) ? stem + "y" : stem;
+            }
+        }
+        return word;
+    }
+}
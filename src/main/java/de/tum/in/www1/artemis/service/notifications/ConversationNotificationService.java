@@ -15,7 +15,6 @@ import de.tum.in.www1.artemis.domain.metis.conversation.Channel;
 import de.tum.in.www1.artemis.domain.metis.conversation.GroupChat;
 import de.tum.in.www1.artemis.domain.notification.ConversationNotification;
 import de.tum.in.www1.artemis.repository.metis.conversation.ConversationNotificationRepository;
-import de.tum.in.www1.artemis.service.WebsocketMessagingService;
 
 /**
  * Service for sending notifications about new messages in conversations.
@@ -25,25 +24,21 @@ public class ConversationNotificationService {
 
     private final ConversationNotificationRepository conversationNotificationRepository;
 
-    private final WebsocketMessagingService websocketMessagingService;
-
     private final GeneralInstantNotificationService generalInstantNotificationService;
 
-    public ConversationNotificationService(ConversationNotificationRepository conversationNotificationRepository, WebsocketMessagingService websocketMessagingService,
-            GeneralInstantNotificationService generalInstantNotificationService) {
+    public ConversationNotificationService(ConversationNotificationRepository conversationNotificationRepository, GeneralInstantNotificationService generalInstantNotificationService) {
         this.conversationNotificationRepository = conversationNotificationRepository;
-        this.websocketMessagingService = websocketMessagingService;
         this.generalInstantNotificationService = generalInstantNotificationService;
     }
 
     /**
-     * Notify registered students about new message
+     * Creates and saves the notification about a new message without sending it to anyone
      *
      * @param createdMessage the new message
-     * @param recipients     the users which should be notified about the new message
      * @param course         the course in which the message was posted
+     * @return the saved notification
      */
-    public void notifyAboutNewMessage(Post createdMessage, Set<User> recipients, Course course) {
+    public ConversationNotification createNewMessageNotification(Post createdMessage, Course course) {
         String notificationText;
         String[] placeholders;
         String conversationName = createdMessage.getConversation().getHumanReadableNameForReceiver(createdMessage.getAuthor());
@@ -65,17 +60,16 @@ public class ConversationNotificationService {
                     conversationName, "oneToOneChat" };
         }
         var notification = createConversationMessageNotification(course.getId(), createdMessage, NotificationType.CONVERSATION_NEW_MESSAGE, notificationText, true, placeholders);
-        saveAndSend(notification, recipients);
+        return conversationNotificationRepository.save(notification);
     }
 
-    private void saveAndSend(ConversationNotification notification, Set<User> recipients) {
-        conversationNotificationRepository.save(notification);
-        sendNotificationViaWebSocket(notification, recipients);
-
+    /**
+     * Sends the notification about a new message as email and push notification to the recipients that enabled these channels
+     *
+     * @param notification the saved notification about the new message
+     * @param recipients   the users which should be notified about the new message
+     */
+    public void sendInstantNotification(ConversationNotification notification, Set<User> recipients) {
         generalInstantNotificationService.sendNotification(notification, recipients, null);
     }
-
-    private void sendNotificationViaWebSocket(ConversationNotification notification, Set<User> recipients) {
-        recipients.forEach(user -> websocketMessagingService.sendMessage(notification.getTopic(user.getId()), notification));
-    }
 }
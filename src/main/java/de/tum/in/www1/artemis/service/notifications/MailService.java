@@ -5,14 +5,20 @@ import static de.tum.in.www1.artemis.domain.notification.NotificationTargetFacto
 
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.MailException;
@@ -35,6 +41,9 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismCase;
 import de.tum.in.www1.artemis.exception.ArtemisMailException;
 import de.tum.in.www1.artemis.service.TimeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
@@ -60,6 +69,12 @@ public class MailService implements InstantNotificationService {
     @Value("${server.url}")
     private URL artemisServerUrl;
 
+    @Value("${artemis.mail.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${artemis.mail.retry-backoff:5000}")
+    private long retryBackoffMillis;
+
     private final JHipsterProperties jHipsterProperties;
 
     private final JavaMailSender javaMailSender;
@@ -70,6 +85,14 @@ public class MailService implements InstantNotificationService {
 
     private final TimeService timeService;
 
+    private final Executor mailExecutor;
+
+    private final Timer bulkMailSendTimer;
+
+    private final Counter bulkMailRetryCounter;
+
+    private final Counter bulkMailFailureCounter;
+
     // notification related variables
 
     private static final String NOTIFICATION = "notification";
@@ -95,13 +118,22 @@ public class MailService implements InstantNotificationService {
 
     private static final String WEEKLY_SUMMARY_NEW_EXERCISES = "weeklySummaryNewExercises";
 
+    private static final String WEEKLY_SUMMARY_NEW_EXERCISES_CONTENT = "weeklySummaryNewExercisesContent";
+
     public MailService(JHipsterProperties jHipsterProperties, JavaMailSender javaMailSender, MessageSource messageSource, SpringTemplateEngine templateEngine,
-            TimeService timeService) {
+            TimeService timeService, @Qualifier("mailExecutor") Executor mailExecutor, MeterRegistry meterRegistry) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
         this.timeService = timeService;
+        this.mailExecutor = mailExecutor;
+        this.bulkMailSendTimer = Timer.builder("artemis.mail.bulk.send").description("Time to send one of many emails sent at once, e.g. the weekly summaries")
+                .register(meterRegistry);
+        this.bulkMailRetryCounter = Counter.builder("artemis.mail.bulk.retries").description("Number of retried attempts to send one of many emails sent at once")
+                .register(meterRegistry);
+        this.bulkMailFailureCounter = Counter.builder("artemis.mail.bulk.failures").description("Number of emails sent at once that could not be sent after all attempts")
+                .register(meterRegistry);
     }
 
     /**
@@ -402,28 +434,76 @@ public class MailService implements InstantNotificationService {
     /// Weekly Summary Email
 
     /**
-     * Sends an email based on a weekly summary
+     * Sends the weekly summary email with the same exercises to all given users.
+     * The part of the email listing the exercises is rendered only once per language, the emails are sent by the bounded mail executor.
      *
-     * @param user      who is the recipient
+     * @param users     who are the recipients
      * @param exercises that will be used in the weekly summary
+     * @return a future that completes when all emails have been sent or could not be sent after all attempts
      */
-    @Async
-    public void sendWeeklySummaryEmail(User user, Set<Exercise> exercises) {
-        log.debug("Sending weekly summary email to '{}'", user.getEmail());
-
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
+    public CompletableFuture<Void> sendWeeklySummaryEmails(Set<User> users, Set<Exercise> exercises) {
+        log.debug("Sending weekly summary email with {} exercises to {} users", exercises.size(), users.size());
+
+        Map<Locale, String> exercisesContentPerLocale = new HashMap<>();
+        CompletableFuture<?>[] futures = users.stream().map(user -> {
+            Locale locale = Locale.forLanguageTag(user.getLangKey());
+            String exercisesContent = exercisesContentPerLocale.computeIfAbsent(locale, key -> createWeeklySummaryExercisesContent(key, exercises));
+            return CompletableFuture.runAsync(() -> sendWeeklySummaryEmail(user, locale, exercisesContent), mailExecutor);
+        }).toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
 
+    private String createWeeklySummaryExercisesContent(Locale locale, Set<Exercise> exercises) {
         Context context = new Context(locale);
-        context.setVariable(USER, user);
         context.setVariable(WEEKLY_SUMMARY_NEW_EXERCISES, exercises);
-
         context.setVariable(TIME_SERVICE, this.timeService);
-        String subject = "Weekly Summary";
+        return templateEngine.process("mail/weeklySummaryExercises", context);
+    }
 
+    private void sendWeeklySummaryEmail(User user, Locale locale, String exercisesContent) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(WEEKLY_SUMMARY_NEW_EXERCISES_CONTENT, exercisesContent);
         context.setVariable(BASE_URL, artemisServerUrl);
 
         String content = templateEngine.process("mail/weeklySummary", context);
 
-        sendEmail(user, subject, content, false, true);
+        sendEmailWithRetries(user, "Weekly Summary", content);
+    }
+
+    /**
+     * Sends an email and retries failed attempts with a linearly increasing backoff.
+     * If the email could not be sent after all attempts, the failure is only logged, so that the other emails sent at the same time are not affected.
+     *
+     * @param recipient who should be contacted
+     * @param subject   the mail subject
+     * @param content   the HTML content of the mail
+     */
+    private void sendEmailWithRetries(User recipient, String subject, String content) {
+        for (int attempt = 1;; attempt++) {
+            long start = System.nanoTime();
+            try {
+                sendEmail(recipient, subject, content, false, true);
+                bulkMailSendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            }
+            catch (ArtemisMailException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Email with subject '{}' could not be sent to user '{}' after {} attempts", subject, recipient, attempt);
+                    bulkMailFailureCounter.increment();
+                    return;
+                }
+                bulkMailRetryCounter.increment();
+            }
+            try {
+                Thread.sleep(retryBackoffMillis * attempt);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Sending email with subject '{}' to user '{}' was interrupted", subject, recipient);
+                bulkMailFailureCounter.increment();
+                return;
+            }
+        }
     }
 }
@@ -2,7 +2,9 @@ package de.tum.in.www1.artemis.service.notifications.push_notifications;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.stereotype.Service;
@@ -12,6 +14,7 @@ import com.google.gson.Gson;
 
 import de.tum.in.www1.artemis.domain.push_notification.PushNotificationDeviceType;
 import de.tum.in.www1.artemis.repository.PushNotificationDeviceConfigurationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Handles the sending of iOS Notifications to the Relay Service
@@ -20,13 +23,19 @@ import de.tum.in.www1.artemis.repository.PushNotificationDeviceConfigurationRepo
 @EnableAsync(proxyTargetClass = true)
 public class ApplePushNotificationService extends PushNotificationService {
 
+    /**
+     * The relay server accepts one message per request for APNS, so the requests of a chunk are sent one after another by the same task
+     */
+    private static final int CHUNK_SIZE = 50;
+
     private final PushNotificationDeviceConfigurationRepository repository;
 
     @Value("${artemis.push-notification-relay:#{null}}")
     private Optional<String> relayServerBaseUrl;
 
-    public ApplePushNotificationService(PushNotificationDeviceConfigurationRepository repository, RestTemplate restTemplate) {
-        super(restTemplate);
+    public ApplePushNotificationService(PushNotificationDeviceConfigurationRepository repository, @Qualifier("pushNotificationRestTemplate") RestTemplate restTemplate,
+            @Qualifier("pushNotificationExecutor") Executor pushNotificationExecutor, MeterRegistry meterRegistry) {
+        super(restTemplate, pushNotificationExecutor, meterRegistry);
 
         this.repository = repository;
     }
@@ -52,10 +61,16 @@ public class ApplePushNotificationService extends PushNotificationService {
     }
 
     @Override
-    void sendSpecificNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl) {
+    int getChunkSize() {
+        return CHUNK_SIZE;
+    }
+
+    @Override
+    void sendSpecificNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl, long startNanos) {
+        Gson gson = new Gson();
         requests.forEach(request -> {
-            String body = new Gson().toJson(request);
-            sendRelayRequest(body, relayServerBaseUrl);
+            String body = gson.toJson(request);
+            sendRelayRequest(body, 1, relayServerBaseUrl, startNanos);
         });
     }
 }
@@ -2,18 +2,19 @@ package de.tum.in.www1.artemis.service.notifications.push_notifications;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 
 import de.tum.in.www1.artemis.domain.push_notification.PushNotificationDeviceType;
 import de.tum.in.www1.artemis.repository.PushNotificationDeviceConfigurationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Handles the sending of Android Notifications to the Relay Service
@@ -22,27 +23,24 @@ import de.tum.in.www1.artemis.repository.PushNotificationDeviceConfigurationRepo
 @EnableAsync(proxyTargetClass = true)
 public class FirebasePushNotificationService extends PushNotificationService {
 
+    /**
+     * The relay server accepts at most 500 messages per batch, so each chunk is sent as one batch
+     */
+    private static final int CHUNK_SIZE = 500;
+
     private final PushNotificationDeviceConfigurationRepository repository;
 
     @Value("${artemis.push-notification-relay:#{null}}")
     private Optional<String> relayServerBaseUrl;
 
-    public FirebasePushNotificationService(PushNotificationDeviceConfigurationRepository pushNotificationDeviceConfigurationRepository, RestTemplate restTemplate) {
-        super(restTemplate);
+    public FirebasePushNotificationService(PushNotificationDeviceConfigurationRepository pushNotificationDeviceConfigurationRepository,
+            @Qualifier("pushNotificationRestTemplate") RestTemplate restTemplate, @Qualifier("pushNotificationExecutor") Executor pushNotificationExecutor,
+            MeterRegistry meterRegistry) {
+        super(restTemplate, pushNotificationExecutor, meterRegistry);
 
         repository = pushNotificationDeviceConfigurationRepository;
     }
 
-    @Override
-    void sendNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayBaseUrl) {
-        // The relay server accepts at most 500 messages per batch
-        List<List<RelayNotificationRequest>> batches = Lists.partition(requests, 500);
-        var futures = batches.stream().map(batch -> CompletableFuture.runAsync(() -> sendSpecificNotificationRequestsToEndpoint(batch, relayBaseUrl))).toList()
-                .toArray(new CompletableFuture[0]);
-
-        CompletableFuture.allOf(futures);
-    }
-
     @Override
     protected PushNotificationDeviceConfigurationRepository getRepository() {
         return repository;
@@ -64,8 +62,13 @@ public class FirebasePushNotificationService extends PushNotificationService {
     }
 
     @Override
-    void sendSpecificNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl) {
+    int getChunkSize() {
+        return CHUNK_SIZE;
+    }
+
+    @Override
+    void sendSpecificNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl, long startNanos) {
         String body = new Gson().toJson(new FirebaseRelayNotificationRequests(requests));
-        sendRelayRequest(body, relayServerBaseUrl);
+        sendRelayRequest(body, requests.size(), relayServerBaseUrl, startNanos);
     }
 }
@@ -5,6 +5,8 @@ import java.security.*;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -23,6 +25,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 
 import de.tum.in.www1.artemis.config.Constants;
@@ -34,6 +37,9 @@ import de.tum.in.www1.artemis.domain.push_notification.PushNotificationDeviceCon
 import de.tum.in.www1.artemis.domain.push_notification.PushNotificationDeviceType;
 import de.tum.in.www1.artemis.repository.PushNotificationDeviceConfigurationRepository;
 import de.tum.in.www1.artemis.service.notifications.InstantNotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Wraps the sending of iOS and Android Notifications to the Relay Service
@@ -43,16 +49,17 @@ public abstract class PushNotificationService implements InstantNotificationServ
 
     private static final SecureRandom random = new SecureRandom();
 
-    private static final Cipher cipher;
-
-    static {
+    /**
+     * Ciphers are not thread safe, so every thread encrypting payloads uses its own instance, which is reused for all payloads it encrypts
+     */
+    private static final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(() -> {
         try {
-            cipher = Cipher.getInstance(Constants.PUSH_NOTIFICATION_ENCRYPTION_ALGORITHM);
+            return Cipher.getInstance(Constants.PUSH_NOTIFICATION_ENCRYPTION_ALGORITHM);
         }
         catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
             throw new RuntimeException(e);
         }
-    }
+    });
 
     private static final Logger log = LoggerFactory.getLogger(PushNotificationService.class);
 
@@ -60,33 +67,37 @@ public abstract class PushNotificationService implements InstantNotificationServ
 
     private final RestTemplate restTemplate;
 
-    protected PushNotificationService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
-    }
+    private final Executor pushNotificationExecutor;
 
-    /**
-     * Send all the notifications requests to the endpoint. Potentially, optimize the sending using a batched request.
-     *
-     * @param requests           the requests previously built using buildSendRequest
-     * @param relayServerBaseUrl the url of the relay
-     */
-    void sendNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl) {
-        var futures = requests.stream()
-                .map(request -> CompletableFuture.runAsync(() -> sendSpecificNotificationRequestsToEndpoint(Collections.singletonList(request), relayServerBaseUrl))).toList()
-                .toArray(new CompletableFuture[0]);
+    private final Timer deliveryTimer;
+
+    private final Counter deliveredCounter;
+
+    private final Counter deadLetterCounter;
 
-        CompletableFuture.allOf(futures);
+    protected PushNotificationService(RestTemplate restTemplate, Executor pushNotificationExecutor, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.pushNotificationExecutor = pushNotificationExecutor;
+        String type = getDeviceType().name();
+        this.deliveryTimer = Timer.builder("artemis.push_notification.delivery").description("Time from creating push notifications until the relay service accepted them")
+                .tag("type", type).publishPercentileHistogram().register(meterRegistry);
+        this.deliveredCounter = Counter.builder("artemis.push_notification.delivered").description("Number of push notifications accepted by the relay service")
+                .tag("type", type).register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("artemis.push_notification.dead_letters")
+                .description("Number of push notifications that could not be sent to the relay service after all retries").tag("type", type).register(meterRegistry);
     }
 
     /**
      * Sends the actual request to the Hermes Relay Service (see here: https://github.com/ls1intum/Hermes)
-     * It uses exponential backoff to retry once the request fails
+     * It uses exponential backoff to retry once the request fails.
+     * If all attempts fail, the notifications are counted as dead letters.
      *
      * @param body               to be sent to Hermes. Differs between iOS and Android
+     * @param notificationCount  the number of notifications contained in the body
      * @param relayServerBaseUrl the url where Hermes is hosted
+     * @param startNanos         the time at which the notifications were created, used to measure the delivery latency
      */
-    @Async
-    void sendRelayRequest(String body, String relayServerBaseUrl) {
+    void sendRelayRequest(String body, int notificationCount, String relayServerBaseUrl, long startNanos) {
         RetryTemplate template = RetryTemplate.builder().exponentialBackoff(1000, 4, 60 * 1000).retryOn(RestClientException.class).maxAttempts(4).build();
 
         try {
@@ -98,9 +109,12 @@ public abstract class PushNotificationService implements InstantNotificationServ
 
                 return null;
             });
+            deliveryTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            deliveredCounter.increment(notificationCount);
         }
         catch (RestClientException e) {
-            log.error("Could not send " + getDeviceType().toString() + " notifications");
+            deadLetterCounter.increment(notificationCount);
+            log.error("Could not send {} {} notifications", notificationCount, getDeviceType());
         }
     }
 
@@ -119,7 +133,7 @@ public abstract class PushNotificationService implements InstantNotificationServ
     /**
      * Handles the finding of deviceConfigurations for all given users.
      * Constructs the payload to be sent and encrypts it with an AES256 encryption.
-     * Sends the requests to the Hermes relay service with a fire and forget mechanism.
+     * The device configurations are split into chunks, which are encrypted and sent to the Hermes relay service concurrently by the push notification executor.
      *
      * @param notification        to be sent via the channel the implementing service is responsible for
      * @param users               who should be contacted
@@ -141,12 +155,26 @@ public abstract class PushNotificationService implements InstantNotificationServ
             return;
         }
 
+        final long startNanos = System.nanoTime();
         final String date = Instant.now().toString();
         final String payload = gson.toJson(new PushNotificationData(notification.getTransientPlaceholderValuesAsArray(), notification.getTarget(), type.name(), date));
 
-        final byte[] initializationVector = new byte[16];
+        for (List<PushNotificationDeviceConfiguration> chunk : Lists.partition(userDeviceConfigurations, getChunkSize())) {
+            CompletableFuture.runAsync(() -> sendSpecificNotificationRequestsToEndpoint(encryptPayload(payload, chunk), relayServerBaseUrl.get(), startNanos),
+                    pushNotificationExecutor);
+        }
+    }
 
-        List<RelayNotificationRequest> notificationRequests = userDeviceConfigurations.stream().flatMap(deviceConfiguration -> {
+    /**
+     * Encrypts the payload for each of the given devices with its secret key and a fresh initialization vector
+     *
+     * @param payload              the payload to encrypt
+     * @param deviceConfigurations the devices the payload should be sent to
+     * @return the requests for the relay service, devices for which the encryption failed are skipped
+     */
+    private static List<RelayNotificationRequest> encryptPayload(String payload, List<PushNotificationDeviceConfiguration> deviceConfigurations) {
+        return deviceConfigurations.stream().flatMap(deviceConfiguration -> {
+            final byte[] initializationVector = new byte[16];
             random.nextBytes(initializationVector);
 
             SecretKey key = new SecretKeySpec(deviceConfiguration.getSecretKey(), "AES");
@@ -156,8 +184,6 @@ public abstract class PushNotificationService implements InstantNotificationServ
 
             return payloadCiphertext.stream().map(s -> new RelayNotificationRequest(ivAsString, s, deviceConfiguration.getToken()));
         }).toList();
-
-        sendNotificationRequestsToEndpoint(notificationRequests, relayServerBaseUrl.get());
     }
 
     protected abstract PushNotificationDeviceConfigurationRepository getRepository();
@@ -168,7 +194,12 @@ public abstract class PushNotificationService implements InstantNotificationServ
 
     abstract String getRelayPath();
 
-    abstract void sendSpecificNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl);
+    /**
+     * @return the number of devices whose notifications are encrypted and sent by one task of the push notification executor
+     */
+    abstract int getChunkSize();
+
+    abstract void sendSpecificNotificationRequestsToEndpoint(List<RelayNotificationRequest> requests, String relayServerBaseUrl, long startNanos);
 
     record PushNotificationData(String[] notificationPlaceholders, String target, String type, String date) {
     }
@@ -183,9 +214,10 @@ public abstract class PushNotificationService implements InstantNotificationServ
      */
     private static Optional<String> encrypt(String payload, SecretKey key, byte[] initializationVector) {
         try {
-            cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(initializationVector));
+            Cipher threadCipher = cipher.get();
+            threadCipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(initializationVector));
 
-            return Optional.of(Base64.getEncoder().encodeToString(cipher.doFinal(payload.getBytes(StandardCharsets.UTF_8))));
+            return Optional.of(Base64.getEncoder().encodeToString(threadCipher.doFinal(payload.getBytes(StandardCharsets.UTF_8))));
         }
         catch (InvalidKeyException | InvalidAlgorithmParameterException | javax.crypto.IllegalBlockSizeException | javax.crypto.BadPaddingException e) {
             log.error("Error encrypting push notification payload!", e);
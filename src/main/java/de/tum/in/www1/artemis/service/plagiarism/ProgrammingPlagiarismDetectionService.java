@@ -4,19 +4,24 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import de.jplag.JPlag;
@@ -40,6 +45,8 @@ import de.tum.in.www1.artemis.service.FileService;
 import de.tum.in.www1.artemis.service.UrlService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismCacheService;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismTokenCacheKey;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismTokenCacheService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseExportService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
@@ -72,10 +79,15 @@ public class ProgrammingPlagiarismDetectionService {
 
     private final UrlService urlService;
 
+    private final PlagiarismTokenCacheService plagiarismTokenCacheService;
+
+    private final ThreadPoolTaskExecutor repositoryDownloadExecutor;
+
     public ProgrammingPlagiarismDetectionService(ProgrammingExerciseRepository programmingExerciseRepository, FileService fileService, GitService gitService,
             StudentParticipationRepository studentParticipationRepository, PlagiarismResultRepository plagiarismResultRepository,
             ProgrammingExerciseExportService programmingExerciseExportService, PlagiarismWebsocketService plagiarismWebsocketService, PlagiarismCacheService plagiarismCacheService,
-            UrlService urlService) {
+            UrlService urlService, PlagiarismTokenCacheService plagiarismTokenCacheService,
+            @Qualifier("repositoryExportExecutor") ThreadPoolTaskExecutor repositoryDownloadExecutor) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.fileService = fileService;
         this.gitService = gitService;
@@ -85,6 +97,8 @@ public class ProgrammingPlagiarismDetectionService {
         this.plagiarismWebsocketService = plagiarismWebsocketService;
         this.plagiarismCacheService = plagiarismCacheService;
         this.urlService = urlService;
+        this.plagiarismTokenCacheService = plagiarismTokenCacheService;
+        this.repositoryDownloadExecutor = repositoryDownloadExecutor;
     }
 
     /**
@@ -177,20 +191,24 @@ public class ProgrammingPlagiarismDetectionService {
             throw new BadRequestAlertException("Insufficient amount of valid and long enough submissions available for comparison", "Plagiarism Check", "notEnoughSubmissions");
         }
 
-        List<Repository> repositories = downloadRepositories(programmingExercise, participations, targetPath);
+        List<DownloadedRepository> downloadedRepositories = downloadRepositories(programmingExercise, participations, targetPath);
         log.info("Downloading repositories done for programming exercise {}", programmingExerciseId);
+        List<Repository> repositories = downloadedRepositories.stream().map(DownloadedRepository::clonedRepository).filter(Objects::nonNull).toList();
 
         final var projectKey = programmingExercise.getProjectKey();
-        final var repoFolder = Path.of(targetPath, projectKey).toFile();
-        final var programmingLanguage = getJPlagProgrammingLanguage(programmingExercise);
+        final var templateRepoPath = gitService.getLocalPathOfRepo(targetPath, programmingExercise.getTemplateParticipation().getVcsRepositoryUrl());
+        // the repositories are downloaded next to the template repository, which is not directly below the project key for the local VC (git/<project key>)
+        final var repoFolder = templateRepoPath != null ? templateRepoPath.getParent().toFile() : Path.of(targetPath, projectKey).toFile();
+        // only the threshold and the minimum score change when instructors repeat the check, so the tokens of unchanged repositories are read from the cache
+        final var programmingLanguage = plagiarismTokenCacheService.withTokenCache(getJPlagProgrammingLanguage(programmingExercise),
+                getTokenCacheKeys(programmingExercise, downloadedRepositories));
         final var templateRepoName = urlService.getRepositorySlugFromRepositoryUrl(programmingExercise.getTemplateParticipation().getVcsRepositoryUrl());
 
         JPlagOptions options = new JPlagOptions(programmingLanguage, Set.of(repoFolder), Set.of())
                 // JPlag expects a value between 0.0 and 1.0
                 .withSimilarityThreshold(similarityThreshold / 100.0).withClusteringOptions(new ClusteringOptions().withEnabled(false));
-        if (templateRepoName != null) {
-            var templateFolder = Path.of(targetPath, projectKey, templateRepoName).toFile();
-            options = options.withBaseCodeSubmissionDirectory(templateFolder);
+        if (templateRepoName != null && templateRepoPath != null) {
+            options = options.withBaseCodeSubmissionDirectory(templateRepoPath.toFile());
         }
 
         log.info("Start JPlag programming comparison for programming exercise {}", programmingExerciseId);
@@ -341,41 +359,107 @@ public class ProgrammingPlagiarismDetectionService {
                 }).toList();
     }
 
-    private List<Repository> downloadRepositories(ProgrammingExercise programmingExercise, List<ProgrammingExerciseParticipation> participations, String targetPath) {
+    /**
+     * Downloads the repositories of the participations and the template repository into the target path in parallel.
+     * Repositories of the local VC are not cloned, only the files of their latest commit are written to the target path.
+     *
+     * @param programmingExercise the programming exercise
+     * @param participations      the participations whose repositories should be downloaded
+     * @param targetPath          the path into which the repositories are downloaded
+     * @return the successfully downloaded repositories
+     */
+    private List<DownloadedRepository> downloadRepositories(ProgrammingExercise programmingExercise, List<ProgrammingExerciseParticipation> participations, String targetPath) {
         // Used for sending progress notifications
         var topic = plagiarismWebsocketService.getProgrammingExercisePlagiarismCheckTopic(programmingExercise.getId());
 
         int maxRepositories = participations.size() + 1;
-        List<Repository> downloadedRepositories = new ArrayList<>();
-        participations.parallelStream().forEach(participation -> {
-            try {
-                var progressMessage = "Downloading repositories: " + (downloadedRepositories.size() + 1) + "/" + maxRepositories;
-                plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+        var finishedDownloads = new AtomicInteger();
+        List<CompletableFuture<Optional<DownloadedRepository>>> downloads = new ArrayList<>();
+        for (var participation : participations) {
+            downloads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return Optional.of(downloadRepository(participation, gitService.getLocalPathForJPlag(participation, targetPath), targetPath, false));
+                }
+                catch (GitException | GitAPIException | InvalidPathException | IOException ex) {
+                    log.error("Clone student repository {} in exercise '{}' did not work as expected: {}", participation.getVcsRepositoryUrl(), programmingExercise.getTitle(),
+                            ex.getMessage());
+                    return Optional.empty();
+                }
+                finally {
+                    notifyAboutDownloadProgress(topic, finishedDownloads.incrementAndGet(), maxRepositories);
+                }
+            }, repositoryDownloadExecutor));
+        }
 
-                Repository repo = gitService.getOrCheckoutRepositoryForJPlag(participation, targetPath);
-                gitService.resetToOriginHead(repo); // start with clean state
-                downloadedRepositories.add(repo);
+        // clone the template repo
+        var templateParticipation = programmingExercise.getTemplateParticipation();
+        downloads.add(CompletableFuture.supplyAsync(() -> {
+            try {
+                var localPath = gitService.getLocalPathOfRepo(targetPath, templateParticipation.getVcsRepositoryUrl());
+                return Optional.of(downloadRepository(templateParticipation, localPath, targetPath, true));
             }
-            catch (GitException | GitAPIException | InvalidPathException ex) {
-                log.error("Clone student repository {} in exercise '{}' did not work as expected: {}", participation.getVcsRepositoryUrl(), programmingExercise.getTitle(),
-                        ex.getMessage());
+            catch (GitException | GitAPIException | IOException ex) {
+                log.error("Clone template repository {} in exercise '{}' did not work as expected: {}", templateParticipation.getVcsRepositoryUrl(),
+                        programmingExercise.getTitle(), ex.getMessage());
+                return Optional.empty();
             }
-        });
+            finally {
+                notifyAboutDownloadProgress(topic, finishedDownloads.incrementAndGet(), maxRepositories);
+            }
+        }, repositoryDownloadExecutor));
 
-        // clone the template repo
-        try {
-            var progressMessage = "Downloading repositories: " + maxRepositories + "/" + maxRepositories;
-            plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+        return downloads.stream().map(CompletableFuture::join).flatMap(Optional::stream).toList();
+    }
 
-            Repository templateRepo = gitService.getOrCheckoutRepository(programmingExercise.getTemplateParticipation(), targetPath);
-            gitService.resetToOriginHead(templateRepo); // start with clean state
-            downloadedRepositories.add(templateRepo);
+    /**
+     * Downloads the repository of a participation into the given local path
+     *
+     * @param participation the participation whose repository should be downloaded
+     * @param localPath     the path into which the files of the repository are written
+     * @param targetPath    the path into which the repositories are downloaded
+     * @param isTemplate    whether the participation is the template participation, whose repository is cloned into the default folder instead of the JPlag folder
+     * @return the downloaded repository
+     * @throws GitAPIException if the repository could not be cloned
+     * @throws IOException     if the files of the repository could not be written
+     */
+    private DownloadedRepository downloadRepository(ProgrammingExerciseParticipation participation, Path localPath, String targetPath, boolean isTemplate)
+            throws GitAPIException, IOException {
+        var bareRepositoryPath = gitService.getLocalVCBareRepositoryPath(participation.getVcsRepositoryUrl());
+        if (bareRepositoryPath.isPresent()) {
+            // JPlag only needs the files of the latest commit, which can be read directly from the local VC repository
+            var commitId = gitService.writeHeadTree(bareRepositoryPath.get(), localPath);
+            return new DownloadedRepository(participation, localPath, commitId.orElse(null), null);
         }
-        catch (GitException | GitAPIException ex) {
-            log.error("Clone template repository {} in exercise '{}' did not work as expected: {}", programmingExercise.getTemplateParticipation().getVcsRepositoryUrl(),
-                    programmingExercise.getTitle(), ex.getMessage());
+
+        Repository repository = isTemplate ? gitService.getOrCheckoutRepository(participation, targetPath) : gitService.getOrCheckoutRepositoryForJPlag(participation, targetPath);
+        gitService.resetToOriginHead(repository); // start with clean state
+        return new DownloadedRepository(participation, repository.getLocalPath(), repository.resolve(Constants.HEAD), repository);
+    }
+
+    private void notifyAboutDownloadProgress(String topic, int finishedDownloads, int maxRepositories) {
+        var progressMessage = "Downloading repositories: " + finishedDownloads + "/" + maxRepositories;
+        plagiarismWebsocketService.notifyInstructorAboutPlagiarismState(topic, PlagiarismCheckState.RUNNING, List.of(progressMessage));
+    }
+
+    private Map<Path, PlagiarismTokenCacheKey> getTokenCacheKeys(ProgrammingExercise programmingExercise, List<DownloadedRepository> downloadedRepositories) {
+        Map<Path, PlagiarismTokenCacheKey> tokenCacheKeys = new HashMap<>();
+        for (var downloadedRepository : downloadedRepositories) {
+            if (downloadedRepository.commitId() != null) {
+                var key = new PlagiarismTokenCacheKey(programmingExercise.getId(), downloadedRepository.participation().getId(), downloadedRepository.commitId().getName());
+                tokenCacheKeys.put(downloadedRepository.localPath(), key);
+            }
         }
+        return tokenCacheKeys;
+    }
 
-        return downloadedRepositories;
+    /**
+     * A repository that was downloaded for the plagiarism check
+     *
+     * @param participation    the participation the repository belongs to
+     * @param localPath        the path into which the files were written
+     * @param commitId         the id of the downloaded commit or null if the repository does not have any commits
+     * @param clonedRepository the cloned repository, which has to be deleted afterwards, or null if only the files were written
+     */
+    private record DownloadedRepository(ProgrammingExerciseParticipation participation, Path localPath, @Nullable ObjectId commitId, @Nullable Repository clonedRepository) {
     }
 }
@@ -0,0 +1,11 @@
+package de.tum.in.www1.artemis.service.plagiarism.cache;
+
+/**
+ * Identifies the tokens of a repository in the {@link PlagiarismTokenCacheService}
+ *
+ * @param exerciseId      the id of the programming exercise
+ * @param participationId the id of the participation the repository belongs to
+ * @param commitHash      the hash of the commit whose files are parsed
+ */
+public record PlagiarismTokenCacheKey(long exerciseId, long participationId, String commitHash) {
+}
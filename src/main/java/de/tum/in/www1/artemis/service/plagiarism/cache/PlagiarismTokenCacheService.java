@@ -0,0 +1,212 @@
+package de.tum.in.www1.artemis.service.plagiarism.cache;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.jplag.Language;
+import de.jplag.Token;
+import de.jplag.TokenType;
+
+/**
+ * Stores the tokens that JPlag parsed from the repository of a participation on disk, keyed by the participation and the hash of the parsed commit.
+ * Parsing the repositories takes most of the time of a programming plagiarism check, but the tokens only change if the repository changes.
+ * When instructors repeat a check with a different similarity threshold or minimum score, the tokens of unchanged repositories are read from the cache instead.
+ * <p>
+ * Each participation has one cache file, which is replaced when the tokens of a newer commit are stored.
+ */
+@Service
+public class PlagiarismTokenCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlagiarismTokenCacheService.class);
+
+    // has to be increased whenever the format of the cache files changes, so that old cache files are ignored
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String CACHE_FILE_SUFFIX = ".tokens";
+
+    private final Path tokenCachePath;
+
+    public PlagiarismTokenCacheService(@Value("${artemis.plagiarism-checks.token-cache-path:./plagiarism-token-cache}") String tokenCachePath) {
+        this.tokenCachePath = Path.of(tokenCachePath);
+    }
+
+    /**
+     * Wraps the JPlag language, so that the tokens of the given submissions are read from the cache if possible and stored in the cache after they were parsed.
+     * Submissions that are not contained in the map are always parsed.
+     *
+     * @param language    the language used to parse the submissions
+     * @param submissions the cache keys of the submissions by the root folder of the submission
+     * @return the wrapped language that should be passed to JPlag
+     */
+    public Language withTokenCache(Language language, Map<Path, PlagiarismTokenCacheKey> submissions) {
+        return new TokenCachingLanguage(language, submissions, this);
+    }
+
+    /**
+     * Deletes the cached tokens of all participations of the exercise
+     *
+     * @param exerciseId the id of the exercise
+     */
+    public void deleteCachedTokens(long exerciseId) {
+        try {
+            FileUtils.deleteDirectory(tokenCachePath.resolve(String.valueOf(exerciseId)).toFile());
+        }
+        catch (IOException e) {
+            log.warn("Could not delete the cached plagiarism tokens of exercise {}: {}", exerciseId, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the cached tokens of a submission
+     *
+     * @param key                the cache key of the submission
+     * @param languageIdentifier the identifier of the language that parsed the tokens
+     * @param submissionPath     the root folder of the submission
+     * @param files              the files of the submission that should be parsed
+     * @return the cached tokens or an empty optional if there are no cached tokens for this commit or these files
+     */
+    Optional<List<Token>> readTokens(PlagiarismTokenCacheKey key, String languageIdentifier, Path submissionPath, Set<File> files) {
+        Path cacheFile = getCacheFile(key);
+        if (!Files.exists(cacheFile)) {
+            return Optional.empty();
+        }
+
+        Map<String, File> filesByRelativePath = new HashMap<>();
+        for (File file : files) {
+            filesByRelativePath.put(getRelativePath(submissionPath, file), file);
+        }
+
+        try (var input = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(cacheFile))))) {
+            if (input.readInt() != FORMAT_VERSION || !key.commitHash().equals(input.readUTF()) || !languageIdentifier.equals(input.readUTF())) {
+                return Optional.empty();
+            }
+
+            // the tokens can only be reused if exactly the same files should be parsed
+            File[] cachedFiles = new File[input.readInt()];
+            if (cachedFiles.length != files.size()) {
+                return Optional.empty();
+            }
+            for (int i = 0; i < cachedFiles.length; i++) {
+                cachedFiles[i] = filesByRelativePath.get(input.readUTF());
+                if (cachedFiles[i] == null) {
+                    return Optional.empty();
+                }
+            }
+
+            TokenType[] tokenTypes = new TokenType[input.readInt()];
+            for (int i = 0; i < tokenTypes.length; i++) {
+                tokenTypes[i] = getTokenType(input.readUTF(), input.readUTF());
+            }
+
+            int numberOfTokens = input.readInt();
+            List<Token> tokens = new ArrayList<>(numberOfTokens);
+            for (int i = 0; i < numberOfTokens; i++) {
+                TokenType tokenType = tokenTypes[input.readInt()];
+                File file = cachedFiles[input.readInt()];
+                tokens.add(new Token(tokenType, file, input.readInt(), input.readInt(), input.readInt()));
+            }
+            return Optional.of(tokens);
+        }
+        catch (IOException | ReflectiveOperationException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            // e.g. the token types changed with a new JPlag version, the submission is parsed again and the cache file is replaced
+            log.warn("Could not read the cached plagiarism tokens of participation {}: {}", key.participationId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the parsed tokens of a submission in the cache and replaces the tokens of previous commits.
+     * Tokens whose type cannot be restored (i.e. is not an enum constant) are not cached.
+     *
+     * @param key                the cache key of the submission
+     * @param languageIdentifier the identifier of the language that parsed the tokens
+     * @param submissionPath     the root folder of the submission
+     * @param files              the files of the submission that were parsed
+     * @param tokens             the parsed tokens
+     */
+    void writeTokens(PlagiarismTokenCacheKey key, String languageIdentifier, Path submissionPath, Set<File> files, List<Token> tokens) {
+        Map<File, Integer> fileIndices = new HashMap<>();
+        for (File file : files) {
+            fileIndices.put(file, fileIndices.size());
+        }
+        Map<TokenType, Integer> tokenTypeIndices = new LinkedHashMap<>();
+        for (Token token : tokens) {
+            if (!(token.getType() instanceof Enum<?>) || !fileIndices.containsKey(token.getFile())) {
+                return;
+            }
+            tokenTypeIndices.putIfAbsent(token.getType(), tokenTypeIndices.size());
+        }
+
+        Path cacheFile = getCacheFile(key);
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            // the tokens are written into a temporary file first, so that a check on another thread never reads an incomplete cache file
+            Path temporaryFile = Files.createTempFile(cacheFile.getParent(), key.participationId() + "-", ".tmp");
+            try (var output = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile))))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(key.commitHash());
+                output.writeUTF(languageIdentifier);
+
+                output.writeInt(fileIndices.size());
+                for (File file : files) {
+                    output.writeUTF(getRelativePath(submissionPath, file));
+                }
+
+                output.writeInt(tokenTypeIndices.size());
+                for (TokenType tokenType : tokenTypeIndices.keySet()) {
+                    output.writeUTF(tokenType.getClass().getName());
+                    output.writeUTF(((Enum<?>) tokenType).name());
+                }
+
+                output.writeInt(tokens.size());
+                for (Token token : tokens) {
+                    output.writeInt(tokenTypeIndices.get(token.getType()));
+                    output.writeInt(fileIndices.get(token.getFile()));
+                    output.writeInt(token.getLine());
+                    output.writeInt(token.getColumn());
+                    output.writeInt(token.getLength());
+                }
+            }
+            catch (IOException e) {
+                Files.deleteIfExists(temporaryFile);
+                throw e;
+            }
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            log.warn("Could not cache the plagiarism tokens of participation {}: {}", key.participationId(), e.getMessage());
+        }
+    }
+
+    private Path getCacheFile(PlagiarismTokenCacheKey key) {
+        return tokenCachePath.resolve(String.valueOf(key.exerciseId())).resolve(key.participationId() + CACHE_FILE_SUFFIX);
+    }
+
+    private static String getRelativePath(Path submissionPath, File file) {
+        return submissionPath.relativize(TokenCachingLanguage.normalize(file.toPath())).toString();
+    }
+
+    private static TokenType getTokenType(String className, String name) throws ClassNotFoundException {
+        Class<?> tokenTypeClass = Class.forName(className);
+        if (!tokenTypeClass.isEnum() || !TokenType.class.isAssignableFrom(tokenTypeClass)) {
+            throw new IllegalArgumentException(className + " is not an enum of token types");
+        }
+        for (Object tokenType : tokenTypeClass.getEnumConstants()) {
+            if (((Enum<?>) tokenType).name().equals(name)) {
+                return (TokenType) tokenType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown token type " + className + "." + name);
+    }
+}
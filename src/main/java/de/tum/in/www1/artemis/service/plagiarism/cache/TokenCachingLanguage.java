@@ -0,0 +1,112 @@
+package de.tum.in.www1.artemis.service.plagiarism.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import de.jplag.Language;
+import de.jplag.ParsingException;
+import de.jplag.Token;
+
+/**
+ * Delegates to a JPlag language, but reads the tokens of known submissions from the {@link PlagiarismTokenCacheService} instead of parsing them again.
+ * JPlag parses each submission with one call of {@link #parse(Set)} with all files of the submission, so the submission is identified by the folder that contains the files.
+ */
+class TokenCachingLanguage implements Language {
+
+    private final Language language;
+
+    private final Map<Path, PlagiarismTokenCacheKey> submissions = new HashMap<>();
+
+    private final PlagiarismTokenCacheService tokenCacheService;
+
+    TokenCachingLanguage(Language language, Map<Path, PlagiarismTokenCacheKey> submissions, PlagiarismTokenCacheService tokenCacheService) {
+        this.language = language;
+        this.tokenCacheService = tokenCacheService;
+        submissions.forEach((submissionPath, key) -> this.submissions.put(normalize(submissionPath), key));
+    }
+
+    @Override
+    public String[] suffixes() {
+        return language.suffixes();
+    }
+
+    @Override
+    public String getName() {
+        return language.getName();
+    }
+
+    @Override
+    public String getIdentifier() {
+        return language.getIdentifier();
+    }
+
+    @Override
+    public int minimumTokenMatch() {
+        return language.minimumTokenMatch();
+    }
+
+    @Override
+    public boolean isPreformatted() {
+        return language.isPreformatted();
+    }
+
+    @Override
+    public boolean useViewFiles() {
+        return language.useViewFiles();
+    }
+
+    @Override
+    public String viewFileSuffix() {
+        return language.viewFileSuffix();
+    }
+
+    @Override
+    public List<Token> parse(Set<File> files) throws ParsingException {
+        Optional<Path> submissionPath = findSubmissionPath(files);
+        if (submissionPath.isEmpty()) {
+            return language.parse(files);
+        }
+
+        PlagiarismTokenCacheKey key = submissions.get(submissionPath.get());
+        Optional<List<Token>> cachedTokens = tokenCacheService.readTokens(key, getIdentifier(), submissionPath.get(), files);
+        if (cachedTokens.isPresent()) {
+            return cachedTokens.get();
+        }
+
+        List<Token> tokens = language.parse(files);
+        tokenCacheService.writeTokens(key, getIdentifier(), submissionPath.get(), files, tokens);
+        return tokens;
+    }
+
+    /**
+     * Finds the known submission that contains all files
+     *
+     * @param files the files that should be parsed
+     * @return the root folder of the submission or an empty optional if the files do not belong to a single known submission
+     */
+    private Optional<Path> findSubmissionPath(Set<File> files) {
+        if (files.isEmpty()) {
+            return Optional.empty();
+        }
+        Path submissionPath = normalize(files.iterator().next().toPath()).getParent();
+        while (submissionPath != null && !submissions.containsKey(submissionPath)) {
+            submissionPath = submissionPath.getParent();
+        }
+        if (submissionPath == null) {
+            return Optional.empty();
+        }
+        final Path path = submissionPath;
+        return files.stream().allMatch(file -> normalize(file.toPath()).startsWith(path)) ? Optional.of(path) : Optional.empty();
+    }
+
+    static Path normalize(Path path) {
+        try {
+            return path.toRealPath();
+        }
+        catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+}
@@ -5,18 +5,24 @@ import static de.tum.in.www1.artemis.service.util.XmlFileUtils.getDocumentBuilde
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
@@ -35,8 +41,10 @@ import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -56,10 +64,12 @@ import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
 import de.tum.in.www1.artemis.service.ExerciseDateService;
 import de.tum.in.www1.artemis.service.FilePathService;
 import de.tum.in.www1.artemis.service.FileService;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService;
 import de.tum.in.www1.artemis.service.ZipFileService;
 import de.tum.in.www1.artemis.service.archival.ArchivalReportEntry;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.web.rest.dto.RepositoryExportOptionsDTO;
+import de.tum.in.www1.artemis.web.rest.dto.RepositoryExportProgressDTO;
 
 @Service
 public class ProgrammingExerciseExportService {
@@ -84,6 +94,10 @@ public class ProgrammingExerciseExportService {
 
     private final ZipFileService zipFileService;
 
+    private final WebsocketMessagingService websocketMessagingService;
+
+    private final ThreadPoolTaskExecutor repositoryExportExecutor;
+
     public static final String EXPORTED_EXERCISE_DETAILS_FILE_PREFIX = "Exercise-Details";
 
     public static final String EXPORTED_EXERCISE_PROBLEM_STATEMENT_FILE_PREFIX = "Problem-Statement";
@@ -94,7 +108,8 @@ public class ProgrammingExerciseExportService {
 
     public ProgrammingExerciseExportService(ProgrammingExerciseRepository programmingExerciseRepository, StudentParticipationRepository studentParticipationRepository,
             FileService fileService, GitService gitService, ZipFileService zipFileService, MappingJackson2HttpMessageConverter springMvcJacksonConverter,
-            AuxiliaryRepositoryRepository auxiliaryRepositoryRepository) {
+            AuxiliaryRepositoryRepository auxiliaryRepositoryRepository, WebsocketMessagingService websocketMessagingService,
+            @Qualifier("repositoryExportExecutor") ThreadPoolTaskExecutor repositoryExportExecutor) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.studentParticipationRepository = studentParticipationRepository;
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
@@ -102,6 +117,8 @@ public class ProgrammingExerciseExportService {
         this.gitService = gitService;
         this.zipFileService = zipFileService;
         this.auxiliaryRepositoryRepository = auxiliaryRepositoryRepository;
+        this.websocketMessagingService = websocketMessagingService;
+        this.repositoryExportExecutor = repositoryExportExecutor;
     }
 
     /**
@@ -399,6 +416,20 @@ public class ProgrammingExerciseExportService {
         String zippedRepoName = getZippedRepoName(exercise, repositoryType.getName());
         Predicate<Path> gitDirFilter = path -> StreamSupport.stream(path.spliterator(), false).noneMatch(pathPart -> ".git".equalsIgnoreCase(pathPart.toString()));
 
+        try {
+            // The ".git" directory is not exported, so the repositories do not need to be cloned if they are stored in the local VC
+            Optional<File> zippedRepo = exportStudentRequestedRepositoryFromLocalVC(exercise, includeTests, zippedRepoName, uniquePath);
+            if (zippedRepo.isPresent()) {
+                return zippedRepo;
+            }
+        }
+        catch (IOException e) {
+            var error = "Failed to export " + repositoryType.getName() + " repository for programming exercise '" + exercise.getTitle() + "' (id: " + exercise.getId() + ")";
+            log.error("{}: {}", error, e.getMessage());
+            exportErrors.add(error);
+            return Optional.empty();
+        }
+
         if (includeTests) {
             return exportSolutionAndTestStudentRepositoryForExercise(zippedRepoName, exercise, uniquePath, gitDirFilter, exportErrors);
         }
@@ -408,6 +439,55 @@ public class ProgrammingExerciseExportService {
         }
     }
 
+    /**
+     * Zips the files of the latest commit of the solution repository (and the tests and auxiliary repositories in the same structure as in the build plan) directly from the
+     * bare repositories of the local VC, without cloning them.
+     *
+     * @param exercise       the programming exercise
+     * @param includeTests   flag that indicates whether the tests should also be exported
+     * @param zippedRepoName the name of the zip file
+     * @param uniquePath     the directory used to store the zip file
+     * @return the zip file or an empty optional if not all repositories are stored in the local VC
+     * @throws IOException if the repositories could not be read or the zip file could not be created
+     */
+    private Optional<File> exportStudentRequestedRepositoryFromLocalVC(ProgrammingExercise exercise, boolean includeTests, String zippedRepoName, Path uniquePath)
+            throws IOException {
+        var solutionRepository = gitService.getLocalVCBareRepositoryPath(exercise.getVcsSolutionRepositoryUrl());
+        var testRepository = gitService.getLocalVCBareRepositoryPath(exercise.getVcsTestRepositoryUrl());
+        var auxiliaryRepositories = new HashMap<String, Path>();
+        if (includeTests) {
+            for (AuxiliaryRepository auxRepo : exercise.getAuxiliaryRepositoriesForBuildPlan()) {
+                var auxiliaryRepository = gitService.getLocalVCBareRepositoryPath(auxRepo.getVcsRepositoryUrl());
+                if (auxiliaryRepository.isEmpty()) {
+                    return Optional.empty();
+                }
+                auxiliaryRepositories.put(auxRepo.getCheckoutDirectory() + "/", auxiliaryRepository.get());
+            }
+        }
+        if (solutionRepository.isEmpty() || (includeTests && testRepository.isEmpty())) {
+            return Optional.empty();
+        }
+
+        Files.createDirectories(uniquePath);
+        Path zipFilePath = uniquePath.resolve(zippedRepoName.replaceAll("\\s", "") + ".zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFilePath))) {
+            if (includeTests) {
+                // the solution and auxiliary repositories replace the corresponding folders of the tests repository, as in the build plan
+                String assignmentPath = RepositoryCheckoutPath.ASSIGNMENT.forProgrammingLanguage(exercise.getProgrammingLanguage()) + "/";
+                gitService.addHeadTreeToZipFile(testRepository.get(), zipOutputStream, "", filePath -> !filePath.startsWith(assignmentPath)
+                        && auxiliaryRepositories.keySet().stream().noneMatch(checkoutDirectory -> filePath.startsWith(checkoutDirectory)));
+                gitService.addHeadTreeToZipFile(solutionRepository.get(), zipOutputStream, assignmentPath, filePath -> true);
+                for (var auxiliaryRepository : auxiliaryRepositories.entrySet()) {
+                    gitService.addHeadTreeToZipFile(auxiliaryRepository.getValue(), zipOutputStream, auxiliaryRepository.getKey(), filePath -> true);
+                }
+            }
+            else {
+                gitService.addHeadTreeToZipFile(solutionRepository.get(), zipOutputStream, "", filePath -> true);
+            }
+        }
+        return Optional.of(zipFilePath.toFile());
+    }
+
     private Optional<ProgrammingExercise> loadExerciseForRepoExport(long exerciseId, List<String> exportErrors) {
         var exerciseOrEmpty = programmingExerciseRepository.findWithTemplateAndSolutionParticipationAndAuxiliaryRepositoriesById(exerciseId);
         if (exerciseOrEmpty.isEmpty()) {
@@ -491,6 +571,8 @@ public class ProgrammingExerciseExportService {
     /**
      * Get participations of programming exercises of a requested list of students packed together in one zip file.
      * <p>
+     * The repositories are checked out in parallel and the content of each repository is streamed directly into a folder of the zip file, without creating a separate zip
+     * file per repository. The progress is sent to the topic {@link #getRepositoryExportProgressTopic}.
      * The repository download directory is used as the output directory and is destroyed after 5 minutes.
      *
      * @param programmingExerciseId   the id of the exercise entity
@@ -504,16 +586,37 @@ public class ProgrammingExerciseExportService {
                 .orElseThrow();
 
         Path outputDir = fileService.getUniquePath(repoDownloadClonePath);
-        var zippedRepos = exportStudentRepositories(programmingExercise, participations, repositoryExportOptions, outputDir, outputDir, new ArrayList<>());
+        Path zipFilePath = outputDir.resolve(getZipFilenameForAllRepositories(programmingExercise));
+        logExportOfStudentRepositories(programmingExercise, participations, repositoryExportOptions);
 
         try {
-            // Create a zip folder containing the zipped repositories.
-            return createZipWithAllRepositories(programmingExercise, zippedRepos, outputDir);
+            Files.createDirectories(outputDir);
+            int exportedRepositories;
+            try (OutputStream outputStream = Files.newOutputStream(zipFilePath)) {
+                var zipOutputStream = new ZipOutputStream(outputStream);
+                exportedRepositories = addStudentRepositoriesToZipFile(programmingExercise, participations, repositoryExportOptions, outputDir, zipOutputStream,
+                        new ArrayList<>());
+                // a zip file without entries is invalid, closing the zip output stream would fail with a ZipException in this case
+                if (exportedRepositories > 0) {
+                    zipOutputStream.close();
+                }
+            }
+            if (exportedRepositories == 0) {
+                log.warn("The zip file could not be created. Ignoring the request to export repositories for exercise {}", programmingExercise.getTitle());
+                Files.deleteIfExists(zipFilePath);
+                return null;
+            }
+            return zipFilePath.toFile();
         }
         catch (IOException ex) {
             log.error("Creating zip file for programming exercise {} did not work correctly: {} ", programmingExercise.getTitle(), ex.getMessage());
             return null;
         }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.error("Creating zip file for programming exercise {} was interrupted", programmingExercise.getTitle());
+            return null;
+        }
         finally {
             fileService.scheduleForDirectoryDeletion(outputDir, 5);
         }
@@ -521,6 +624,7 @@ public class ProgrammingExerciseExportService {
 
     /**
      * Zip the participations of programming exercises of a requested list of students separately.
+     * The repositories are checked out and zipped in parallel, the returned list is therefore not ordered.
      *
      * @param programmingExercise     the programming exercise
      * @param participations          participations that should be exported
@@ -532,6 +636,133 @@ public class ProgrammingExerciseExportService {
      */
     public List<Path> exportStudentRepositories(ProgrammingExercise programmingExercise, @NotNull List<ProgrammingExerciseStudentParticipation> participations,
             RepositoryExportOptionsDTO repositoryExportOptions, Path workingDir, Path outputDir, List<String> exportErrors) {
+        logExportOfStudentRepositories(programmingExercise, participations, repositoryExportOptions);
+
+        List<Path> exportedStudentRepositories = new ArrayList<>();
+        try {
+            exportRepositoriesInParallel(participations,
+                    participation -> () -> createZipForRepositoryWithParticipation(programmingExercise, participation, repositoryExportOptions, workingDir, outputDir),
+                    (participation, zipFile) -> {
+                        if (zipFile != null) {
+                            exportedStudentRepositories.add(zipFile);
+                        }
+                    }, (participation, exception) -> exportErrors.add(getStudentRepositoryExportError(programmingExercise, participation)));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exportErrors.add("The export of the student repositories for programming exercise '" + programmingExercise.getTitle() + "' (id: " + programmingExercise.getId()
+                    + ") was interrupted.");
+        }
+        return exportedStudentRepositories;
+    }
+
+    /**
+     * Checks out the repositories of the participations in parallel and adds the content of each repository to a separate folder in the given zip file.
+     * The repositories are written one after another by the calling thread as soon as they are checked out, and the checked out repositories are deleted afterwards,
+     * so that at most twice as many repositories as there are export threads are on the disk at the same time.
+     *
+     * @param programmingExercise     the programming exercise
+     * @param participations          participations that should be exported
+     * @param repositoryExportOptions the options that should be used for the export
+     * @param workingDir              The directory used to clone the repositories
+     * @param zipOutputStream         the zip file to which the repositories are added
+     * @param exportErrors            A list of errors that occurred during export (populated by this function)
+     * @return the number of repositories that were added to the zip file
+     * @throws IOException          if a repository could not be added to the zip file, the zip file is incomplete in this case
+     * @throws InterruptedException if the thread was interrupted while waiting for the next checked out repository
+     */
+    private int addStudentRepositoriesToZipFile(ProgrammingExercise programmingExercise, List<ProgrammingExerciseStudentParticipation> participations,
+            RepositoryExportOptionsDTO repositoryExportOptions, Path workingDir, ZipOutputStream zipOutputStream, List<String> exportErrors)
+            throws IOException, InterruptedException {
+        var exportedRepositories = new AtomicInteger();
+        var processedRepositories = new AtomicInteger();
+        // sends at most 100 progress updates, also for exports of thousands of repositories
+        int progressInterval = Math.max(1, participations.size() / 100);
+        BiConsumer<ProgrammingExerciseStudentParticipation, Repository> addToZipFile = (participation, repository) -> {
+            if (repository != null) {
+                addRepositoryToZipFile(repository, repositoryExportOptions, workingDir, zipOutputStream);
+                exportedRepositories.incrementAndGet();
+            }
+            if (processedRepositories.incrementAndGet() % progressInterval == 0 || processedRepositories.get() == participations.size()) {
+                sendRepositoryExportProgress(programmingExercise, processedRepositories.get(), participations.size());
+            }
+        };
+        BiConsumer<ProgrammingExerciseStudentParticipation, Exception> addError = (participation, exception) -> {
+            log.warn("Failed to export the student repository with participation {}: {}", participation.getId(), exception.getMessage());
+            exportErrors.add(getStudentRepositoryExportError(programmingExercise, participation));
+            addToZipFile.accept(participation, null);
+        };
+
+        try {
+            exportRepositoriesInParallel(participations,
+                    participation -> () -> checkoutRepositoryForExport(programmingExercise, participation, repositoryExportOptions, workingDir), addToZipFile, addError);
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return exportedRepositories.get();
+    }
+
+    private void addRepositoryToZipFile(Repository repository, RepositoryExportOptionsDTO repositoryExportOptions, Path workingDir, ZipOutputStream zipOutputStream) {
+        log.debug("Add repository {} to the zip file", repository.getLocalPath());
+        try {
+            String folderName = gitService.getExportNameOfRepositoryWithParticipation(repository, repositoryExportOptions.isAnonymizeRepository());
+            zipFileService.addFolderToZipFile(zipOutputStream, repository.getLocalPath(), folderName, null);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Only delete repositories that were checked out for this export
+        if (repository.getLocalPath().toAbsolutePath().startsWith(workingDir.toAbsolutePath())) {
+            try {
+                gitService.deleteLocalRepository(repository);
+            }
+            catch (IOException e) {
+                // the working directory is deleted after the export anyway
+                log.warn("Could not delete the exported repository {}: {}", repository.getLocalPath(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Performs the export of each participation on the repository export executor, with at most twice as many exports in progress as there are threads.
+     * The results are passed to the given consumers by the calling thread in the order in which the exports finish, so the consumers do not need to be thread-safe.
+     *
+     * @param participations the participations whose repositories should be exported
+     * @param export         creates the task that exports the repository of a participation
+     * @param onExported     is called with the result of each successful export
+     * @param onFailed       is called with the exception of each failed export
+     * @param <T>            the result type of the export
+     * @throws InterruptedException if the thread was interrupted while waiting for the next export to finish
+     */
+    private <T> void exportRepositoriesInParallel(List<ProgrammingExerciseStudentParticipation> participations,
+            Function<ProgrammingExerciseStudentParticipation, Callable<T>> export, BiConsumer<ProgrammingExerciseStudentParticipation, T> onExported,
+            BiConsumer<ProgrammingExerciseStudentParticipation, Exception> onFailed) throws InterruptedException {
+        CompletionService<T> completionService = new ExecutorCompletionService<>(repositoryExportExecutor);
+        Map<Future<T>, ProgrammingExerciseStudentParticipation> exportsInProgress = new HashMap<>();
+        int maxExportsInProgress = 2 * repositoryExportExecutor.getMaxPoolSize();
+        Iterator<ProgrammingExerciseStudentParticipation> remainingParticipations = participations.iterator();
+
+        while (remainingParticipations.hasNext() || !exportsInProgress.isEmpty()) {
+            while (remainingParticipations.hasNext() && exportsInProgress.size() < maxExportsInProgress) {
+                var participation = remainingParticipations.next();
+                exportsInProgress.put(completionService.submit(export.apply(participation)), participation);
+            }
+
+            Future<T> finishedExport = completionService.take();
+            var participation = exportsInProgress.remove(finishedExport);
+            try {
+                onExported.accept(participation, finishedExport.get());
+            }
+            catch (ExecutionException e) {
+                onFailed.accept(participation, e.getCause() instanceof Exception cause ? cause : e);
+            }
+        }
+    }
+
+    private void logExportOfStudentRepositories(ProgrammingExercise programmingExercise, List<ProgrammingExerciseStudentParticipation> participations,
+            RepositoryExportOptionsDTO repositoryExportOptions) {
         var programmingExerciseId = programmingExercise.getId();
         if (repositoryExportOptions.isExportAllParticipants()) {
             log.info("Request to export all student or team repositories of programming exercise {} with title '{}'", programmingExerciseId, programmingExercise.getTitle());
@@ -540,22 +771,26 @@ public class ProgrammingExerciseExportService {
             log.info("Request to export the repositories of programming exercise {} with title '{}' of the following students or teams: {}", programmingExerciseId,
                     programmingExercise.getTitle(), participations.stream().map(StudentParticipation::getParticipantIdentifier).collect(Collectors.joining(", ")));
         }
+    }
 
-        List<Path> exportedStudentRepositories = new ArrayList<>();
-        participations.forEach(participation -> {
-            try {
-                Path zipFile = createZipForRepositoryWithParticipation(programmingExercise, participation, repositoryExportOptions, workingDir, outputDir);
-                if (zipFile != null) {
-                    exportedStudentRepositories.add(zipFile);
-                }
-            }
-            catch (Exception e) {
-                var error = "Failed to export the student repository with participation: " + participation.getId() + " for programming exercise '" + programmingExercise.getTitle()
-                        + "' (id: " + programmingExercise.getId() + ") because the repository couldn't be downloaded. ";
-                exportErrors.add(error);
-            }
-        });
-        return exportedStudentRepositories;
+    private String getStudentRepositoryExportError(ProgrammingExercise programmingExercise, ProgrammingExerciseStudentParticipation participation) {
+        return "Failed to export the student repository with participation: " + participation.getId() + " for programming exercise '" + programmingExercise.getTitle()
+                + "' (id: " + programmingExercise.getId() + ") because the repository couldn't be downloaded. ";
+    }
+
+    private void sendRepositoryExportProgress(ProgrammingExercise programmingExercise, int processedRepositories, int totalRepositories) {
+        var progress = new RepositoryExportProgressDTO(processedRepositories, totalRepositories);
+        websocketMessagingService.sendMessage(getRepositoryExportProgressTopic(programmingExercise.getId()), progress);
+    }
+
+    /**
+     * Return the topic on which the progress of exports of student repositories of the programming exercise is sent
+     *
+     * @param programmingExerciseId the id of the exercise
+     * @return the topic
+     */
+    public static String getRepositoryExportProgressTopic(Long programmingExerciseId) {
+        return "/topic/programming-exercises/" + programmingExerciseId + "/repository-export-progress";
     }
 
     /**
@@ -584,27 +819,9 @@ public class ProgrammingExerciseExportService {
         return gitService.zipFiles(localRepoPath, zipFilename, outputDir.toString(), contentFilter);
     }
 
-    /**
-     * Creates one single zip archive containing all zipped repositories found under the given paths
-     *
-     * @param programmingExercise The programming exercise to which all repos belong to
-     * @param pathsToZippedRepos  The paths to all zipped repositories
-     * @param outputDir           The directory used for downloading and zipping the repository
-     * @return the zip file
-     */
-    private File createZipWithAllRepositories(ProgrammingExercise programmingExercise, List<Path> pathsToZippedRepos, Path outputDir) throws IOException {
-        if (pathsToZippedRepos.isEmpty()) {
-            log.warn("The zip file could not be created. Ignoring the request to export repositories for exercise {}", programmingExercise.getTitle());
-            return null;
-        }
-
-        log.debug("Create zip file for {} repositorie(s) of programming exercise: {}", pathsToZippedRepos.size(), programmingExercise.getTitle());
-        String filename = programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-" + programmingExercise.getShortName() + "-" + System.currentTimeMillis()
+    private String getZipFilenameForAllRepositories(ProgrammingExercise programmingExercise) {
+        return programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-" + programmingExercise.getShortName() + "-" + System.currentTimeMillis()
                 + ".zip";
-
-        Path zipFilePath = Path.of(outputDir.toString(), filename);
-        zipFileService.createZipFile(zipFilePath, pathsToZippedRepos);
-        return zipFilePath.toFile();
     }
 
     /**
@@ -621,6 +838,26 @@ public class ProgrammingExerciseExportService {
      */
     private Path createZipForRepositoryWithParticipation(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
             final RepositoryExportOptionsDTO repositoryExportOptions, Path workingDir, Path outputDir) throws IOException, UncheckedIOException {
+        Repository repository = checkoutRepositoryForExport(programmingExercise, participation, repositoryExportOptions, workingDir);
+        if (repository == null) {
+            return null;
+        }
+
+        log.debug("Create temporary zip file for repository {}", repository.getLocalPath().toString());
+        return gitService.zipRepositoryWithParticipation(repository, outputDir.toString(), repositoryExportOptions.isAnonymizeRepository());
+    }
+
+    /**
+     * Checks out the repository for the given participation and applies the export options to it.
+     *
+     * @param programmingExercise     The programming exercise for the participation
+     * @param participation           The participation, whose repository should get checked out
+     * @param repositoryExportOptions The options, that should get applied to the repo
+     * @param workingDir              The directory used to clone the repository
+     * @return The checked out repository or null if the participation is not exported
+     */
+    private Repository checkoutRepositoryForExport(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
+            final RepositoryExportOptionsDTO repositoryExportOptions, Path workingDir) {
         if (participation.getVcsRepositoryUrl() == null) {
             log.warn("Ignore participation {} for export, because its repository URL is null", participation.getId());
             return null;
@@ -671,8 +908,7 @@ public class ProgrammingExerciseExportService {
                 }
             }
 
-            log.debug("Create temporary zip file for repository {}", repository.getLocalPath().toString());
-            return gitService.zipRepositoryWithParticipation(repository, outputDir.toString(), repositoryExportOptions.isAnonymizeRepository());
+            return repository;
         }
         catch (GitAPIException | GitException ex) {
             log.error("Failed to create zip for participation id {} with exercise id {} because of the following exception ", participation.getId(),
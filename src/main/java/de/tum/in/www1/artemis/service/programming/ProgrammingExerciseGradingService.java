@@ -5,9 +5,12 @@ import static de.tum.in.www1.artemis.domain.ProgrammingSubmission.createFallback
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.math3.util.Precision;
@@ -372,7 +375,8 @@ public class ProgrammingExerciseGradingService {
         }
 
         // We only apply submission policies if it is a student participation
-        return calculateScoreForResult(testCases, relevantTestCases, result, exercise, isStudentParticipation);
+        SubmissionPolicy submissionPolicy = isStudentParticipation ? findSubmissionPolicy(exercise) : null;
+        return calculateScoreForResult(testCases, relevantTestCases, result, exercise, submissionPolicy);
     }
 
     /**
@@ -444,15 +448,58 @@ public class ProgrammingExerciseGradingService {
         final Set<ProgrammingExerciseTestCase> testCases = testCaseRepository.findByExerciseIdAndActive(exercise.getId(), true);
         final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(testCases, true);
         final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(testCases, false);
+        final SubmissionPolicy submissionPolicy = findSubmissionPolicy(exercise);
 
-        final Optional<Result> updatedAutomaticResult = studentParticipationRepository.findByIdWithLatestAutomaticResultAndFeedbacks(participation.getId())
-                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, true));
-        final Optional<Result> updatedManualResult = studentParticipationRepository.findByIdWithManualResultAndFeedbacks(participation.getId())
-                .flatMap(studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, true));
+        final Optional<Result> updatedAutomaticResult = studentParticipationRepository.findByIdWithLatestAutomaticResultAndFeedbacks(participation.getId()).flatMap(
+                studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy));
+        final Optional<Result> updatedManualResult = studentParticipationRepository.findByIdWithManualResultAndFeedbacks(participation.getId()).flatMap(
+                studentParticipation -> updateLatestResult(exercise, studentParticipation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy));
 
         return Stream.of(updatedAutomaticResult, updatedManualResult).flatMap(Optional::stream).toList();
     }
 
+    /**
+     * Updates the latest results of the template and solution participation of the given exercise.
+     * <p>
+     * For details what will be updated for individual results, see {@link ProgrammingExerciseGradingService#updateAllResults}.
+     *
+     * @param exercise whose template and solution results should be updated.
+     * @return the results that have been updated (maximum two).
+     */
+    public List<Result> updateTemplateAndSolutionResults(final ProgrammingExercise exercise) {
+        final Set<ProgrammingExerciseTestCase> testCases = testCaseRepository.findByExerciseIdAndActive(exercise.getId(), true);
+        return updateTemplateAndSolutionResults(exercise, testCases).toList();
+    }
+
+    /**
+     * Updates the latest automatic and manual results of the given student participations of the exercise.
+     * In contrast to {@link ProgrammingExerciseGradingService#updateAllResults}, only the given participations are loaded, so that the results of large exercises can be
+     * updated in chunks. The scores of the participations are calculated in parallel, as they are independent of each other. The submission policy is loaded once before, so
+     * that the parallel calculations neither query nor modify the shared exercise.
+     *
+     * @param exercise         the participations belong to.
+     * @param testCases        the active test cases of the exercise.
+     * @param participationIds the ids of the student participations whose results should be updated.
+     * @param executor         calculates the scores of the individual participations.
+     * @return the results that have been updated.
+     */
+    public List<Result> updateResultsOfParticipations(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> testCases, final Collection<Long> participationIds,
+            final Executor executor) {
+        final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(testCases, true);
+        final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(testCases, false);
+        final SubmissionPolicy submissionPolicy = findSubmissionPolicy(exercise);
+
+        final List<StudentParticipation> participations = new ArrayList<>();
+        // We only update the latest automatic results here, later manual assessments are not affected
+        participations.addAll(studentParticipationRepository.findByIdsWithLatestAutomaticResultAndFeedbacks(participationIds));
+        // Also update manual results
+        participations.addAll(studentParticipationRepository.findByIdsWithManualResultAndFeedbacks(participationIds));
+
+        final List<CompletableFuture<Optional<Result>>> updatedResults = participations.stream().map(participation -> CompletableFuture
+                .supplyAsync(() -> updateLatestResult(exercise, participation, testCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy), executor)).toList();
+        return updatedResults.stream().map(CompletableFuture::join).flatMap(Optional::stream).toList();
+    }
+
     /**
      * Updates the latest results for the given participations.
      *
@@ -464,8 +511,10 @@ public class ProgrammingExerciseGradingService {
     private Stream<Result> updateResults(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> allTestCases, final List<StudentParticipation> participations) {
         final Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate = filterTestCasesForStudents(allTestCases, true);
         final Set<ProgrammingExerciseTestCase> testCasesAfterDueDate = filterTestCasesForStudents(allTestCases, false);
+        final SubmissionPolicy submissionPolicy = findSubmissionPolicy(exercise);
 
-        return participations.stream().map(participation -> updateLatestResult(exercise, participation, allTestCases, testCasesBeforeDueDate, testCasesAfterDueDate, true))
+        return participations.stream()
+                .map(participation -> updateLatestResult(exercise, participation, allTestCases, testCasesBeforeDueDate, testCasesAfterDueDate, submissionPolicy))
                 .flatMap(Optional::stream);
     }
 
@@ -480,11 +529,11 @@ public class ProgrammingExerciseGradingService {
     private Stream<Result> updateTemplateAndSolutionResults(final ProgrammingExercise exercise, final Set<ProgrammingExerciseTestCase> testCases) {
         final Optional<Result> templateResult = templateProgrammingExerciseParticipationRepository
                 .findWithEagerResultsAndFeedbacksAndSubmissionsByProgrammingExerciseId(exercise.getId())
-                .flatMap(templateParticipation -> updateLatestResult(exercise, templateParticipation, testCases, testCases, testCases, false));
+                .flatMap(templateParticipation -> updateLatestResult(exercise, templateParticipation, testCases, testCases, testCases, null));
 
         final Optional<Result> solutionResult = solutionProgrammingExerciseParticipationRepository
                 .findWithEagerResultsAndFeedbacksAndSubmissionsByProgrammingExerciseId(exercise.getId())
-                .flatMap(solutionParticipation -> updateLatestResult(exercise, solutionParticipation, testCases, testCases, testCases, false));
+                .flatMap(solutionParticipation -> updateLatestResult(exercise, solutionParticipation, testCases, testCases, testCases, null));
 
         return Stream.of(templateResult, solutionResult).flatMap(Optional::stream);
     }
@@ -497,11 +546,11 @@ public class ProgrammingExerciseGradingService {
      * @param allTestCases           of this exercise.
      * @param testCasesBeforeDueDate the test cases that are visible to the student before the due date.
      * @param testCasesAfterDueDate  the test cases that are visible to the student after the due date.
-     * @param applySubmissionPolicy  true, if submission policies should be taken into account when updating the score.
+     * @param submissionPolicy       the submission policy of the exercise that should be taken into account when updating the score, or null if no policy applies.
      * @return the latest result with an updated score, or nothing if the participation had no results.
      */
     private Optional<Result> updateLatestResult(ProgrammingExercise exercise, Participation participation, Set<ProgrammingExerciseTestCase> allTestCases,
-            Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate, Set<ProgrammingExerciseTestCase> testCasesAfterDueDate, boolean applySubmissionPolicy) {
+            Set<ProgrammingExerciseTestCase> testCasesBeforeDueDate, Set<ProgrammingExerciseTestCase> testCasesAfterDueDate, @Nullable SubmissionPolicy submissionPolicy) {
         final Result result = participation.findLatestLegalResult();
         if (result == null) {
             return Optional.empty();
@@ -510,7 +559,7 @@ public class ProgrammingExerciseGradingService {
         boolean isBeforeDueDate = exerciseDateService.isBeforeDueDate(participation);
         final Set<ProgrammingExerciseTestCase> testCasesForCurrentDate = isBeforeDueDate ? testCasesBeforeDueDate : testCasesAfterDueDate;
 
-        calculateScoreForResult(allTestCases, testCasesForCurrentDate, result, exercise, applySubmissionPolicy);
+        calculateScoreForResult(allTestCases, testCasesForCurrentDate, result, exercise, submissionPolicy);
 
         return Optional.of(result);
     }
@@ -521,13 +570,12 @@ public class ProgrammingExerciseGradingService {
      * @param user     who triggered the re-evaluation.
      * @param exercise for which the evaluation was triggered.
      * @param course   the exercise belongs to.
-     * @param results  of the exercise.
+     * @param results  the number of re-evaluated results of the exercise.
      */
-    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, List<Result> results) {
-        var auditEvent = new AuditEvent(user.getLogin(), Constants.RE_EVALUATE_RESULTS, "exercise=" + exercise.getTitle(), "course=" + course.getTitle(),
-                "results=" + results.size());
+    public void logReEvaluate(User user, ProgrammingExercise exercise, Course course, long results) {
+        var auditEvent = new AuditEvent(user.getLogin(), Constants.RE_EVALUATE_RESULTS, "exercise=" + exercise.getTitle(), "course=" + course.getTitle(), "results=" + results);
         auditEventRepository.add(auditEvent);
-        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), results.size(), exercise.getTitle(), exercise.getId());
+        log.info("User {} triggered a re-evaluation of {} results for exercise {} with id {}", user.getLogin(), results, exercise.getTitle(), exercise.getId());
     }
 
     /**
@@ -584,11 +632,11 @@ public class ProgrammingExerciseGradingService {
      * @param relevantTestCases     Test cases relevant at the current due date depending on visibility and permission
      * @param result                The result to be updated
      * @param exercise              The current exercise
-     * @param applySubmissionPolicy true, if submission policies should be taken into account when updating the score.
+     * @param submissionPolicy      The submission policy of the exercise that should be taken into account when updating the score, or null if no policy applies
      * @return The updated result
      */
     private Result calculateScoreForResult(Set<ProgrammingExerciseTestCase> testCases, Set<ProgrammingExerciseTestCase> relevantTestCases, @NotNull Result result,
-            ProgrammingExercise exercise, boolean applySubmissionPolicy) {
+            ProgrammingExercise exercise, @Nullable SubmissionPolicy submissionPolicy) {
         List<Feedback> automaticFeedbacks = result.getFeedbacks().stream().filter(feedback -> FeedbackType.AUTOMATIC.equals(feedback.getType())).toList();
         List<Feedback> staticCodeAnalysisFeedback = new ArrayList<>();
         List<Feedback> testCaseFeedback = new ArrayList<>();
@@ -605,11 +653,6 @@ public class ProgrammingExerciseGradingService {
         // Remove feedback that is in an invisible SCA category
         staticCodeAnalysisFeedback = staticCodeAnalysisCategoryRepository.categorizeScaFeedback(result, staticCodeAnalysisFeedback, exercise);
 
-        if (applySubmissionPolicy) {
-            SubmissionPolicy submissionPolicy = programmingExerciseRepository.findByIdWithSubmissionPolicyElseThrow(exercise.getId()).getSubmissionPolicy();
-            exercise.setSubmissionPolicy(submissionPolicy);
-        }
-
         // Case 1: There are tests and test case feedback, find out which tests were not executed or should only count to the score after the due date.
         if (!relevantTestCases.isEmpty() && !testCaseFeedback.isEmpty() && !result.getFeedbacks().isEmpty()) {
             filterAutomaticFeedbacksWithoutTestCase(result, testCases);
@@ -617,14 +660,14 @@ public class ProgrammingExerciseGradingService {
 
             createFeedbackForNotExecutedTests(result, relevantTestCases);
             boolean hasDuplicateTestCases = createFeedbacksForDuplicateTests(result, exercise);
-            createSubmissionPolicyFeedback(result, exercise);
+            createSubmissionPolicyFeedback(result, submissionPolicy);
 
             final Set<ProgrammingExerciseTestCase> successfulTestCases = relevantTestCases.stream().filter(testCase -> testCase.isSuccessful(result)).collect(Collectors.toSet());
 
             var scoreCalculationData = new ScoreCalculationData(exercise, result, testCases, successfulTestCases, staticCodeAnalysisFeedback);
             // The score is always calculated from ALL (except visibility=never) test cases, regardless of the current date!
 
-            updateResultScore(scoreCalculationData, hasDuplicateTestCases, applySubmissionPolicy);
+            updateResultScore(scoreCalculationData, hasDuplicateTestCases, submissionPolicy);
             updateFeedbackCredits(scoreCalculationData);
 
             result.setTestCaseCount(relevantTestCases.size());
@@ -646,8 +689,12 @@ public class ProgrammingExerciseGradingService {
         return result;
     }
 
-    private void createSubmissionPolicyFeedback(Result result, ProgrammingExercise exercise) {
-        if (exercise.getSubmissionPolicy() instanceof SubmissionPenaltyPolicy penaltyPolicy) {
+    private SubmissionPolicy findSubmissionPolicy(ProgrammingExercise exercise) {
+        return programmingExerciseRepository.findByIdWithSubmissionPolicyElseThrow(exercise.getId()).getSubmissionPolicy();
+    }
+
+    private void createSubmissionPolicyFeedback(Result result, @Nullable SubmissionPolicy submissionPolicy) {
+        if (submissionPolicy instanceof SubmissionPenaltyPolicy penaltyPolicy) {
             submissionPolicyService.createFeedbackForPenaltyPolicy(result, penaltyPolicy);
         }
     }
@@ -741,11 +788,11 @@ public class ProgrammingExerciseGradingService {
      * Takes weight, bonus multiplier and absolute bonus points into account.
      * All tests in this case do not include ones with visibility=never.
      */
-    private void updateResultScore(ScoreCalculationData scoreCalculationData, boolean hasDuplicateTestCases, boolean applySubmissionPolicy) {
+    private void updateResultScore(ScoreCalculationData scoreCalculationData, boolean hasDuplicateTestCases, @Nullable SubmissionPolicy submissionPolicy) {
         double score = 0D;
 
         if (!hasDuplicateTestCases) {
-            score = calculateScore(scoreCalculationData, applySubmissionPolicy);
+            score = calculateScore(scoreCalculationData, submissionPolicy);
         }
 
         scoreCalculationData.result().setScore(score, scoreCalculationData.exercise().getCourseViaExerciseGroupOrCourseMember());
@@ -766,10 +813,10 @@ public class ProgrammingExerciseGradingService {
      *
      * @return the final total score in percent that should be given to the result.
      */
-    private double calculateScore(ScoreCalculationData scoreCalculationData, boolean applySubmissionPolicy) {
+    private double calculateScore(ScoreCalculationData scoreCalculationData, @Nullable SubmissionPolicy submissionPolicy) {
 
         double points = calculateSuccessfulTestPoints(scoreCalculationData);
-        points -= calculateTotalPenalty(scoreCalculationData, applySubmissionPolicy);
+        points -= calculateTotalPenalty(scoreCalculationData, submissionPolicy);
 
         points = Math.max(0, points);
 
@@ -868,7 +915,7 @@ public class ProgrammingExerciseGradingService {
      *
      * @return a total penalty that should be deducted from the score.
      */
-    private double calculateTotalPenalty(ScoreCalculationData scoreCalculationData, boolean applySubmissionPolicy) {
+    private double calculateTotalPenalty(ScoreCalculationData scoreCalculationData, @Nullable SubmissionPolicy submissionPolicy) {
         double penalty = 0;
         var exercise = scoreCalculationData.exercise();
         int maxStaticCodeAnalysisPenalty = Optional.ofNullable(exercise.getMaxStaticCodeAnalysisPenalty()).orElse(100);
@@ -876,7 +923,7 @@ public class ProgrammingExerciseGradingService {
             penalty += calculateStaticCodeAnalysisPenalty(scoreCalculationData.staticCodeAnalysisFeedback(), exercise);
         }
 
-        if (applySubmissionPolicy && exercise.getSubmissionPolicy() instanceof SubmissionPenaltyPolicy penaltyPolicy) {
+        if (submissionPolicy instanceof SubmissionPenaltyPolicy penaltyPolicy) {
             penalty += submissionPolicyService.calculateSubmissionPenalty(scoreCalculationData.participation(), penaltyPolicy);
         }
 
@@ -0,0 +1,167 @@
+package de.tum.in.www1.artemis.service.programming;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.ProgrammingExerciseReEvaluation;
+import de.tum.in.www1.artemis.domain.ProgrammingExerciseTestCase;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.WebsocketMessagingService;
+import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseReEvaluationProgressDTO;
+
+/**
+ * Re-evaluates the results of all participations of a programming exercise, e.g. after the weights of the test cases were changed.
+ * <p>
+ * Large exercises can have thousands of participations with hundreds of feedbacks each, so the participations are not loaded at once but in chunks ordered by their id.
+ * The scores of each chunk are calculated in parallel and the updated results are saved before the next chunk is loaded.
+ * After each chunk, the progress is stored in the database and sent to the instructors.
+ * If the re-evaluation is interrupted, e.g. because the instance was restarted, it is continued after the last stored chunk by the instance with the scheduling profile.
+ */
+@Service
+public class ProgrammingExerciseReEvaluationService {
+
+    private final Logger log = LoggerFactory.getLogger(ProgrammingExerciseReEvaluationService.class);
+
+    private final ProgrammingExerciseGradingService programmingExerciseGradingService;
+
+    private final ProgrammingExerciseRepository programmingExerciseRepository;
+
+    private final ProgrammingExerciseTestCaseRepository testCaseRepository;
+
+    private final ProgrammingExerciseReEvaluationRepository reEvaluationRepository;
+
+    private final StudentParticipationRepository studentParticipationRepository;
+
+    private final ResultRepository resultRepository;
+
+    private final WebsocketMessagingService websocketMessagingService;
+
+    private final Executor reEvaluationExecutor;
+
+    private final int chunkSize;
+
+    private final long continueAfterMinutes;
+
+    public ProgrammingExerciseReEvaluationService(ProgrammingExerciseGradingService programmingExerciseGradingService,
+            ProgrammingExerciseRepository programmingExerciseRepository, ProgrammingExerciseTestCaseRepository testCaseRepository,
+            ProgrammingExerciseReEvaluationRepository reEvaluationRepository, StudentParticipationRepository studentParticipationRepository, ResultRepository resultRepository,
+            WebsocketMessagingService websocketMessagingService, @Qualifier("reEvaluationExecutor") Executor reEvaluationExecutor,
+            @Value("${artemis.re-evaluation.chunk-size:100}") int chunkSize, @Value("${artemis.re-evaluation.continue-after-minutes:5}") long continueAfterMinutes) {
+        this.programmingExerciseGradingService = programmingExerciseGradingService;
+        this.programmingExerciseRepository = programmingExerciseRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.reEvaluationRepository = reEvaluationRepository;
+        this.studentParticipationRepository = studentParticipationRepository;
+        this.resultRepository = resultRepository;
+        this.websocketMessagingService = websocketMessagingService;
+        this.reEvaluationExecutor = reEvaluationExecutor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.continueAfterMinutes = continueAfterMinutes;
+    }
+
+    /**
+     * Re-evaluates and saves the latest automatic and manual results of all participations of the exercise, including the template and solution participation.
+     * A re-evaluation of the same exercise that is still running or was interrupted is restarted from the first participation.
+     * For details what will be updated for individual results, see {@link ProgrammingExerciseGradingService#updateAllResults}.
+     *
+     * @param exercise whose results should be re-evaluated, including the template and solution participation.
+     * @return the number of results that were updated.
+     */
+    public long reEvaluateAllResults(ProgrammingExercise exercise) {
+        ProgrammingExerciseReEvaluation reEvaluation = reEvaluationRepository.save(new ProgrammingExerciseReEvaluation(exercise.getId()));
+
+        List<Result> updatedTemplateAndSolutionResults = programmingExerciseGradingService.updateTemplateAndSolutionResults(exercise);
+        resultRepository.saveAll(updatedTemplateAndSolutionResults);
+
+        return updatedTemplateAndSolutionResults.size() + reEvaluateStudentResults(exercise, reEvaluation);
+    }
+
+    /**
+     * Continues all re-evaluations that have not made progress for the configured time, because the instance which performed them was stopped.
+     * Each re-evaluation is claimed first, so that it is only continued once, even if the check runs on multiple instances.
+     */
+    public void continueInterruptedReEvaluations() {
+        ZonedDateTime interruptedBefore = ZonedDateTime.now().minusMinutes(continueAfterMinutes);
+        for (ProgrammingExerciseReEvaluation reEvaluation : reEvaluationRepository.findAllByLastUpdateDateBefore(interruptedBefore)) {
+            ZonedDateTime now = ZonedDateTime.now();
+            if (reEvaluationRepository.claim(reEvaluation.getExerciseId(), reEvaluation.getLastUpdateDate(), now) == 0) {
+                continue;
+            }
+            reEvaluation.setLastUpdateDate(now);
+
+            Optional<ProgrammingExercise> exercise = programmingExerciseRepository.findById(reEvaluation.getExerciseId());
+            if (exercise.isEmpty()) {
+                reEvaluationRepository.delete(reEvaluation);
+                continue;
+            }
+            log.info("Continue the interrupted re-evaluation of the results of programming exercise {} after {} of the participations", reEvaluation.getExerciseId(),
+                    reEvaluation.getProcessedParticipations());
+            try {
+                reEvaluateStudentResults(exercise.get(), reEvaluation);
+            }
+            catch (Exception e) {
+                // the re-evaluation is continued again after the configured time
+                log.error("Could not continue the re-evaluation of the results of programming exercise {}", reEvaluation.getExerciseId(), e);
+            }
+        }
+    }
+
+    /**
+     * Re-evaluates the results of the student participations after the last participation of the re-evaluation chunk by chunk
+     *
+     * @param exercise     whose results should be re-evaluated.
+     * @param reEvaluation the progress of the re-evaluation, which is updated after each chunk.
+     * @return the number of student results that were updated.
+     */
+    private long reEvaluateStudentResults(ProgrammingExercise exercise, ProgrammingExerciseReEvaluation reEvaluation) {
+        final Set<ProgrammingExerciseTestCase> testCases = testCaseRepository.findByExerciseIdAndActive(exercise.getId(), true);
+        final long totalParticipations = studentParticipationRepository.countByExerciseId(exercise.getId());
+
+        List<Long> participationIds = findNextParticipationIds(exercise, reEvaluation);
+        while (!participationIds.isEmpty()) {
+            List<Result> updatedResults = programmingExerciseGradingService.updateResultsOfParticipations(exercise, testCases, participationIds, reEvaluationExecutor);
+            resultRepository.saveAll(updatedResults);
+
+            reEvaluation.addProcessedChunk(participationIds.get(participationIds.size() - 1), participationIds.size(), updatedResults.size());
+            reEvaluationRepository.save(reEvaluation);
+            sendProgress(exercise, reEvaluation, totalParticipations, false);
+
+            participationIds = findNextParticipationIds(exercise, reEvaluation);
+        }
+
+        reEvaluationRepository.delete(reEvaluation);
+        sendProgress(exercise, reEvaluation, totalParticipations, true);
+        return reEvaluation.getUpdatedResults();
+    }
+
+    private List<Long> findNextParticipationIds(ProgrammingExercise exercise, ProgrammingExerciseReEvaluation reEvaluation) {
+        return studentParticipationRepository.findIdsByExerciseIdAfterParticipationId(exercise.getId(), reEvaluation.getLastParticipationId(), PageRequest.of(0, chunkSize));
+    }
+
+    private void sendProgress(ProgrammingExercise exercise, ProgrammingExerciseReEvaluation reEvaluation, long totalParticipations, boolean finished) {
+        var progress = new ProgrammingExerciseReEvaluationProgressDTO(reEvaluation.getProcessedParticipations(), totalParticipations, reEvaluation.getUpdatedResults(), finished);
+        websocketMessagingService.sendMessage(getReEvaluationProgressTopic(exercise.getId()), progress);
+    }
+
+    /**
+     * Return the topic on which the progress of re-evaluations of the programming exercise is sent
+     *
+     * @param programmingExerciseId the id of the exercise
+     * @return the topic
+     */
+    public static String getReEvaluationProgressTopic(Long programmingExerciseId) {
+        return "/topic/programming-exercises/" + programmingExerciseId + "/re-evaluation-progress";
+    }
+}
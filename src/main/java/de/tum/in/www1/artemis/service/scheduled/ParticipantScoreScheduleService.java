@@ -32,6 +32,7 @@ import de.tum.in.www1.artemis.domain.scores.TeamScore;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.CompetencyProgressService;
+import de.tum.in.www1.artemis.service.ManagementStatisticsCacheService;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
 
 /**
@@ -42,6 +43,9 @@ import de.tum.in.www1.artemis.service.util.RoundingUtil;
  * Using a listener on the {@link Result} entity, changes are detected and forwarded (via the broker if not on the main instance) to this service.
  * This method is fast, but not 100% reliable. Therefore, a cron job regularly checks for invalid participant scores and updates them.
  * In all cases, using asynchronous scheduled tasks speeds up all requests that modify results.
+ * <p>
+ * Changes are coalesced per combination of exercise and participant in a pending queue, which is processed by a single scheduled batch task.
+ * The batch groups the pending updates by exercise, so that the exercise, the participants and their existing scores are loaded once per exercise.
  *
  * @see de.tum.in.www1.artemis.service.listeners.ResultListener
  */
@@ -55,12 +59,24 @@ public class ParticipantScoreScheduleService {
 
     private final TaskScheduler scheduler;
 
-    private final Map<Integer, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
+    /**
+     * The pending participant score updates, coalesced by the combination of exercise and participant
+     */
+    private final Map<ParticipantScoreId, PendingParticipantScoreUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+    /**
+     * Determines if a batch task to process the pending updates is scheduled or running
+     */
+    private final AtomicBoolean batchScheduled = new AtomicBoolean(false);
+
+    private volatile ScheduledFuture<?> scheduledBatch;
 
     private Optional<Instant> lastScheduledRun = Optional.empty();
 
     private final CompetencyProgressService competencyProgressService;
 
+    private final ManagementStatisticsCacheService managementStatisticsCacheService;
+
     private final ParticipantScoreRepository participantScoreRepository;
 
     private final StudentScoreRepository studentScoreRepository;
@@ -82,10 +98,12 @@ public class ParticipantScoreScheduleService {
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
 
     public ParticipantScoreScheduleService(@Qualifier("taskScheduler") TaskScheduler scheduler, CompetencyProgressService competencyProgressService,
-            ParticipantScoreRepository participantScoreRepository, StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository,
-            ExerciseRepository exerciseRepository, ResultRepository resultRepository, UserRepository userRepository, TeamRepository teamRepository) {
+            ManagementStatisticsCacheService managementStatisticsCacheService, ParticipantScoreRepository participantScoreRepository,
+            StudentScoreRepository studentScoreRepository, TeamScoreRepository teamScoreRepository, ExerciseRepository exerciseRepository, ResultRepository resultRepository,
+            UserRepository userRepository, TeamRepository teamRepository) {
         this.scheduler = scheduler;
         this.competencyProgressService = competencyProgressService;
+        this.managementStatisticsCacheService = managementStatisticsCacheService;
         this.participantScoreRepository = participantScoreRepository;
         this.studentScoreRepository = studentScoreRepository;
         this.teamScoreRepository = teamScoreRepository;
@@ -104,7 +122,7 @@ public class ParticipantScoreScheduleService {
         if (!isRunning.get()) {
             return true;
         }
-        return scheduledTasks.isEmpty();
+        return pendingUpdates.isEmpty() && !batchScheduled.get();
     }
 
     /**
@@ -133,8 +151,12 @@ public class ParticipantScoreScheduleService {
     public void shutdown() {
         isRunning.set(false);
         // Stop all running tasks, we will reschedule them on startup again
-        scheduledTasks.values().forEach(future -> future.cancel(true));
-        scheduledTasks.clear();
+        var batch = scheduledBatch;
+        if (batch != null) {
+            batch.cancel(true);
+        }
+        pendingUpdates.clear();
+        batchScheduled.set(false);
     }
 
     /**
@@ -199,6 +221,7 @@ public class ParticipantScoreScheduleService {
 
     /**
      * Schedule a task to update the participant score for the given combination of exercise and participant.
+     * If an update for this combination is already pending, both are merged into one update.
      *
      * @param exerciseId          the id of the exercise
      * @param participantId       the id of the participant (user or team, determined by the exercise)
@@ -206,34 +229,59 @@ public class ParticipantScoreScheduleService {
      * @param resultIdToBeDeleted the id of the result that is about to be deleted (or null, if result is created/updated)
      */
     private void scheduleTask(Long exerciseId, Long participantId, Instant resultLastModified, Long resultIdToBeDeleted) {
-        final int participantScoreHash = new ParticipantScoreId(exerciseId, participantId).hashCode();
-        var task = scheduledTasks.get(participantScoreHash);
-        if (task != null) {
-            // If a task is already scheduled, cancel it and reschedule it with the latest result
-            task.cancel(true);
-            scheduledTasks.remove(participantScoreHash);
+        var update = new PendingParticipantScoreUpdate(resultLastModified, resultIdToBeDeleted == null ? Set.of() : Set.of(resultIdToBeDeleted));
+        pendingUpdates.merge(new ParticipantScoreId(exerciseId, participantId), update, PendingParticipantScoreUpdate::merge);
+        scheduleBatch();
+        logger.debug("Scheduled update for exercise {} and participant {}.", exerciseId, participantId);
+    }
+
+    /**
+     * Schedules the batch task that processes all pending updates, unless it is already scheduled or running.
+     */
+    private void scheduleBatch() {
+        if (batchScheduled.compareAndSet(false, true)) {
+            var schedulingTime = ZonedDateTime.now().plus(DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS, ChronoUnit.MILLIS);
+            scheduledBatch = scheduler.schedule(this::processPendingUpdates, schedulingTime.toInstant());
         }
+    }
 
-        var schedulingTime = ZonedDateTime.now().plus(DEFAULT_WAITING_TIME_FOR_SCHEDULED_TASKS, ChronoUnit.MILLIS);
-        var future = scheduler.schedule(() -> this.executeTask(exerciseId, participantId, resultLastModified, resultIdToBeDeleted), schedulingTime.toInstant());
-        scheduledTasks.put(participantScoreHash, future);
-        logger.debug("Scheduled task for exercise {} and participant {} at {}.", exerciseId, participantId, schedulingTime);
+    /**
+     * Takes all pending updates and processes them grouped by exercise.
+     * Updates that arrive while the batch is running are processed by the next batch.
+     */
+    private void processPendingUpdates() {
+        try {
+            SecurityUtils.setAuthorizationObject();
+            Map<Long, Map<Long, PendingParticipantScoreUpdate>> updatesByExercise = new HashMap<>();
+            for (var participantScoreId : new ArrayList<>(pendingUpdates.keySet())) {
+                var update = pendingUpdates.remove(participantScoreId);
+                if (update != null) {
+                    updatesByExercise.computeIfAbsent(participantScoreId.exerciseId(), exerciseId -> new HashMap<>()).put(participantScoreId.participantId(), update);
+                }
+            }
+            updatesByExercise.forEach(this::executeExerciseBatch);
+        }
+        catch (Exception e) {
+            logger.error("Exception while processing pending participant score updates:", e);
+        }
+        finally {
+            batchScheduled.set(false);
+            if (isRunning.get() && !pendingUpdates.isEmpty()) {
+                scheduleBatch();
+            }
+        }
     }
 
     /**
-     * Execute the task to update the participant score for the given combination of exercise and participant.
+     * Execute the updates of the participant scores for the given exercise.
      *
-     * @param exerciseId          the id of the exercise
-     * @param participantId       the id of the participant (user or team, determined by the exercise)
-     * @param resultLastModified  the last modified date of the result that triggered the update
-     * @param resultIdToBeDeleted the id of the result that is about to be deleted (optional)
+     * @param exerciseId              the id of the exercise
+     * @param updatesByParticipantIds the pending updates by the id of the participant (user or team, determined by the exercise)
      */
-    private void executeTask(Long exerciseId, Long participantId, Instant resultLastModified, Long resultIdToBeDeleted) {
+    private void executeExerciseBatch(Long exerciseId, Map<Long, PendingParticipantScoreUpdate> updatesByParticipantIds) {
         long start = System.currentTimeMillis();
-        logger.info("Processing exercise {} and participant {} to update participant scores.", exerciseId, participantId);
+        logger.info("Processing exercise {} and {} participants to update participant scores.", exerciseId, updatesByParticipantIds.size());
         try {
-            SecurityUtils.setAuthorizationObject();
-
             var exercise = exerciseRepository.findById(exerciseId).orElse(null);
             if (exercise == null) {
                 // If the exercise was deleted, we can delete all participant scores for it as well and skip
@@ -242,34 +290,61 @@ public class ParticipantScoreScheduleService {
                 return;
             }
 
-            Participant participant;
-            Optional<ParticipantScore> participantScore;
+            // Fetch the participants and their scores for the given exercise at once
+            Set<Long> participantIds = updatesByParticipantIds.keySet();
+            Map<Long, Participant> participants = new HashMap<>();
+            Map<Long, ParticipantScore> participantScores = new HashMap<>();
             if (exercise.isTeamMode()) {
-                // Fetch the team and its score for the given exercise
-                participant = teamRepository.findById(participantId).orElse(null);
-                if (participant == null) {
-                    // If the team was deleted, we can delete all participant scores for it as well and skip
+                teamRepository.findAllById(participantIds).forEach(team -> participants.put(team.getId(), team));
+                teamScoreRepository.findAllByExercise_IdAndTeam_IdIn(exerciseId, participantIds).forEach(score -> participantScores.put(score.getTeam().getId(), score));
+            }
+            else {
+                userRepository.findAllById(participantIds).forEach(user -> participants.put(user.getId(), user));
+                studentScoreRepository.findAllByExercise_IdAndUser_IdIn(exerciseId, participantIds).forEach(score -> participantScores.put(score.getUser().getId(), score));
+            }
+
+            updatesByParticipantIds.forEach((participantId, update) -> executeTask(exercise, participantId, participants.get(participantId),
+                    Optional.ofNullable(participantScores.get(participantId)), update));
+
+            // The average scores and score distributions in the course and exercise statistics are based on the participant scores
+            managementStatisticsCacheService.invalidateExerciseAndCourseStatistics(exercise);
+        }
+        catch (Exception e) {
+            logger.error("Exception while processing participant scores for exercise {}:", exerciseId, e);
+        }
+        long end = System.currentTimeMillis();
+        logger.info("Updating the participant scores for exercise {} and {} participants took {} ms.", exerciseId, updatesByParticipantIds.size(), end - start);
+    }
+
+    /**
+     * Execute the task to update the participant score for the given combination of exercise and participant.
+     *
+     * @param exercise         the exercise
+     * @param participantId    the id of the participant (user or team, determined by the exercise)
+     * @param participant      the participant or null, if it no longer exists
+     * @param participantScore the existing participant score for the given combination of exercise and participant
+     * @param update           the pending update containing the last modified date of the result that triggered the update and the ids of results that are about to be
+     *                             deleted
+     */
+    private void executeTask(Exercise exercise, Long participantId, Participant participant, Optional<ParticipantScore> participantScore,
+            PendingParticipantScoreUpdate update) {
+        try {
+            if (participant == null) {
+                // If the participant was deleted, we can delete all participant scores for it as well and skip
+                if (exercise.isTeamMode()) {
                     logger.debug("Team {} no longer exists, deleting all participant scores for it.", participantId);
                     teamScoreRepository.deleteAllByTeamId(participantId);
-                    return;
                 }
-                participantScore = teamScoreRepository.findByExercise_IdAndTeam_Id(exerciseId, participantId).map(score -> score);
-            }
-            else {
-                // Fetch the student and its score for the given exercise
-                participant = userRepository.findById(participantId).orElse(null);
-                if (participant == null) {
-                    // If the user was deleted, we can delete all participant scores for it as well and skip
+                else {
                     logger.debug("User {} no longer exists, deleting all participant scores for them.", participantId);
                     studentScoreRepository.deleteAllByUserId(participantId);
-                    return;
                 }
-                participantScore = studentScoreRepository.findByExercise_IdAndUser_Id(exerciseId, participantId).map(score -> score);
+                return;
             }
 
             if (participantScore.isPresent()) {
                 var lastModified = participantScore.get().getLastModifiedDate();
-                if (lastModified != null && lastModified.isAfter(resultLastModified)) {
+                if (lastModified != null && lastModified.isAfter(update.resultLastModified())) {
                     // The participant score was already updated after the last modified date of the result that initiated this task
                     // We assume we already processed the result with the last task that ran and therefore skip the processing
                     logger.debug("Participant score {} is already up-to-date, skipping.", participantScore.get().getId());
@@ -277,11 +352,11 @@ public class ParticipantScoreScheduleService {
                 }
             }
             else {
-                if (resultIdToBeDeleted != null) {
+                if (!update.resultIdsToBeDeleted().isEmpty()) {
                     // A participant score for this exercise/participant combination does not exist and this task was triggered because a result will be deleted
                     // It is very likely that the whole participation or exercise is about to be deleted and their participant scores were already removed
                     // We do not need to do anything in that case
-                    logger.debug("Result {} will be deleted and participant score for its participation is already gone, skipping.", resultIdToBeDeleted);
+                    logger.debug("Results {} will be deleted and participant score for its participation is already gone, skipping.", update.resultIdsToBeDeleted());
                     return;
                 }
             }
@@ -306,25 +381,15 @@ public class ParticipantScoreScheduleService {
             });
 
             // Now do the heavy lifting and calculate the latest score based on all results for this exercise
-            // The result that is about to be deleted is excluded from the calculation
-            if (resultIdToBeDeleted != null) {
-                updateParticipantScore(score, resultIdToBeDeleted);
-            }
-            else {
-                updateParticipantScore(score);
-            }
+            // The results that are about to be deleted are excluded from the calculation
+            updateParticipantScore(score, update.resultIdsToBeDeleted().toArray(Long[]::new));
 
             // Update the progress for competencies linked to this exercise
             competencyProgressService.updateProgressByLearningObject(score.getExercise(), score.getParticipant().getParticipants());
         }
         catch (Exception e) {
-            logger.error("Exception while processing participant score for exercise {} and participant {} for participant scores:", exerciseId, participantId, e);
-        }
-        finally {
-            scheduledTasks.remove(new ParticipantScoreId(exerciseId, participantId).hashCode());
+            logger.error("Exception while processing participant score for exercise {} and participant {} for participant scores:", exercise.getId(), participantId, e);
         }
-        long end = System.currentTimeMillis();
-        logger.info("Updating the participant score for exercise {} and participant {} took {} ms.", exerciseId, participantId, end - start);
     }
 
     /**
@@ -449,4 +514,23 @@ public class ParticipantScoreScheduleService {
      */
     public record ParticipantScoreId(Long exerciseId, Long participantId) {
     }
+
+    /**
+     * A pending update of a participant score, which combines all changes since the last update.
+     *
+     * @param resultLastModified   the latest last modified date of the results that triggered the update
+     * @param resultIdsToBeDeleted the ids of the results that are about to be deleted
+     */
+    private record PendingParticipantScoreUpdate(Instant resultLastModified, Set<Long> resultIdsToBeDeleted) {
+
+        private PendingParticipantScoreUpdate merge(PendingParticipantScoreUpdate other) {
+            var lastModified = resultLastModified.isAfter(other.resultLastModified) ? resultLastModified : other.resultLastModified;
+            if (other.resultIdsToBeDeleted.isEmpty()) {
+                return new PendingParticipantScoreUpdate(lastModified, resultIdsToBeDeleted);
+            }
+            var resultIds = new HashSet<>(resultIdsToBeDeleted);
+            resultIds.addAll(other.resultIdsToBeDeleted);
+            return new PendingParticipantScoreUpdate(lastModified, resultIds);
+        }
+    }
 }
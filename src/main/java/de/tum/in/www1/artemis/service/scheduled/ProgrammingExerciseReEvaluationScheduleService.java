@@ -0,0 +1,28 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseReEvaluationService;
+
+@Service
+@Profile("scheduling")
+public class ProgrammingExerciseReEvaluationScheduleService {
+
+    private final ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService;
+
+    public ProgrammingExerciseReEvaluationScheduleService(ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService) {
+        this.programmingExerciseReEvaluationService = programmingExerciseReEvaluationService;
+    }
+
+    /**
+     * Continues re-evaluations of programming exercise results that were interrupted, e.g. by a restart, every few minutes in form of a repeating "cron" job
+     */
+    @Scheduled(cron = "${artemis.scheduling.re-evaluation-continue-time:0 */5 * * * *}") // execute this every 5 minutes
+    public void continueInterruptedReEvaluations() {
+        SecurityUtils.setAuthorizationObject();
+        programmingExerciseReEvaluationService.continueInterruptedReEvaluations();
+    }
+}
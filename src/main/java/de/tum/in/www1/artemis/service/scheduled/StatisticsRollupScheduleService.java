@@ -0,0 +1,26 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
+
+@Service
+@Profile("scheduling")
+public class StatisticsRollupScheduleService {
+
+    private final StatisticsRollupService statisticsRollupService;
+
+    public StatisticsRollupScheduleService(StatisticsRollupService statisticsRollupService) {
+        this.statisticsRollupService = statisticsRollupService;
+    }
+
+    /**
+     * Rolls up the statistics of all completed hours that are not yet rolled up, shortly after every full hour in form of a repeating "cron" job
+     */
+    @Scheduled(cron = "${artemis.scheduling.statistics-rollup-time:0 10 * * * *}") // execute this every hour at xx:10:00
+    public void rollUpStatistics() {
+        statisticsRollupService.rollUpCompletedHours();
+    }
+}
@@ -44,6 +44,8 @@ import de.tum.in.www1.artemis.service.QuizMessagingService;
 import de.tum.in.www1.artemis.service.QuizStatisticService;
 import de.tum.in.www1.artemis.service.WebsocketMessagingService;
 import de.tum.in.www1.artemis.service.scheduled.cache.Cache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class QuizScheduleService {
@@ -52,6 +54,13 @@ public class QuizScheduleService {
 
     private static final String HAZELCAST_PROCESS_CACHE_HANDLER = QuizProcessCacheTask.HAZELCAST_PROCESS_CACHE_TASK + "-handler";
 
+    /**
+     * The maximum number of cached submissions that are saved together, i.e. for which the users are loaded with one query and the cache is updated at once
+     */
+    private static final int SUBMISSION_PERSISTENCE_CHUNK_SIZE = 100;
+
+    private static final String PERSISTED_ROWS_PER_SECOND_METRIC = "artemis.quiz.scheduler.persisted_rows_per_second";
+
     private final IScheduledExecutorService threadPoolTaskScheduler;
 
     private final IAtomicReference<ScheduledTaskHandler> scheduledProcessQuizSubmissions;
@@ -72,9 +81,11 @@ public class QuizScheduleService {
 
     private final QuizExerciseRepository quizExerciseRepository;
 
+    private final DistributionSummary persistedRowsPerSecond;
+
     public QuizScheduleService(WebsocketMessagingService websocketMessagingService, StudentParticipationRepository studentParticipationRepository, UserRepository userRepository,
             QuizSubmissionRepository quizSubmissionRepository, HazelcastInstance hazelcastInstance, QuizExerciseRepository quizExerciseRepository,
-            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService) {
+            QuizMessagingService quizMessagingService, QuizStatisticService quizStatisticService, MeterRegistry meterRegistry) {
         this.websocketMessagingService = websocketMessagingService;
         this.studentParticipationRepository = studentParticipationRepository;
         this.userRepository = userRepository;
@@ -85,6 +96,8 @@ public class QuizScheduleService {
         this.scheduledProcessQuizSubmissions = hazelcastInstance.getCPSubsystem().getAtomicReference(HAZELCAST_PROCESS_CACHE_HANDLER);
         this.threadPoolTaskScheduler = hazelcastInstance.getScheduledExecutorService(Constants.HAZELCAST_QUIZ_SCHEDULER);
         this.quizCache = new QuizCache(hazelcastInstance);
+        this.persistedRowsPerSecond = DistributionSummary.builder(PERSISTED_ROWS_PER_SECOND_METRIC).description("Rows written per second when saving cached quiz submissions")
+                .baseUnit("rows").register(meterRegistry);
     }
 
     /**
@@ -132,18 +145,6 @@ public class QuizScheduleService {
         }
     }
 
-    /**
-     * add a participation to participationHashMap to send them back to the user when the quiz ends
-     *
-     * @param quizExerciseId the quizExerciseId of the quiz the result belongs to (first Key)
-     * @param participation  the result, which should be added
-     */
-    private void addParticipation(Long quizExerciseId, StudentParticipation participation) {
-        if (quizExerciseId != null && participation != null) {
-            getWriteCache(quizExerciseId).getParticipations().put(participation.getParticipantIdentifier(), participation);
-        }
-    }
-
     /**
      * get a cached quizSubmission by quizExerciseId and username
      *
@@ -419,8 +420,8 @@ public class QuizScheduleService {
                 QuizExerciseCache cachedQuiz = (QuizExerciseCache) cache;
                 // this way near cache is used (values will deserialize new objects)
                 Long quizExerciseId = cachedQuiz.getExerciseId();
-                // Get fresh QuizExercise from DB
-                QuizExercise quizExercise = quizExerciseRepository.findOne(quizExerciseId);
+                // Get fresh QuizExercise from DB, at first only with the batches that are needed to commit the attempts of ended batches
+                QuizExercise quizExercise = quizExerciseRepository.findWithEagerBatchesById(quizExerciseId).orElse(null);
                 // check if quiz has been deleted
                 if (quizExercise == null) {
                     log.info("Remove quiz {} from resultHashMap", quizExerciseId);
@@ -428,8 +429,6 @@ public class QuizScheduleService {
                     continue;
                 }
 
-                // Update cached exercise object (use the expensive operation upfront)
-                quizExercise = quizExerciseRepository.findByIdWithQuestionsAndStatisticsElseThrow(quizExerciseId);
                 Map<Long, QuizBatch> batchCache = quizExercise.getQuizBatches().stream().collect(Collectors.toUnmodifiableMap(QuizBatch::getId, batch -> batch));
 
                 // ensure that attempts that were never submitted get committed to the database and saved
@@ -457,6 +456,10 @@ public class QuizScheduleService {
                     continue;
                 }
 
+                // The questions and statistics are only loaded if there are cached changes: the questions are needed to evaluate the submissions and the statistics are
+                // updated by applying the submitted answers of the new results to them
+                quizExercise = quizExerciseRepository.findByIdWithQuestionsAndStatisticsElseThrow(quizExerciseId);
+
                 // Save cached Submissions (this will also generate results and participations and place them in the cache)
                 long start = System.nanoTime();
 
@@ -467,14 +470,16 @@ public class QuizScheduleService {
                     Map<String, QuizSubmission> submissions = cachedQuiz.getSubmissions();
                     Map<String, Long> batches = cachedQuiz.getBatches();
                     // This call will remove the processed Submission map entries itself
-                    int numberOfSubmittedSubmissions = saveQuizSubmissionWithParticipationAndResultToDatabase(quizExercise, submissions, batches, batchCache);
+                    PersistedSubmissions persisted = saveQuizSubmissionWithParticipationAndResultToDatabase(quizExercise, submissions, batches, batchCache);
                     // .. and likely generate new participations and results
-                    if (numberOfSubmittedSubmissions > 0) {
+                    if (persisted.submissions() > 0) {
                         // .. so we set the boolean variables here again if some were submitted
                         hasNewParticipations = true;
                         hasNewResults = true;
 
-                        log.info("Saved {} submissions to database in {} in quiz {}", numberOfSubmittedSubmissions, formatDurationFrom(start), quizExercise.getTitle());
+                        recordPersistenceThroughput(persisted.rows(), System.nanoTime() - start);
+                        log.info("Saved {} submissions ({} rows) to database in {} in quiz {}", persisted.submissions(), persisted.rows(), formatDurationFrom(start),
+                                quizExercise.getTitle());
                     }
                 }
 
@@ -483,9 +488,9 @@ public class QuizScheduleService {
 
                 if (hasNewParticipations && hasEnded) {
                     // Send the participation with containing result and quiz back to the users via websocket and remove the participation from the ParticipationHashMap
-                    Collection<Entry<String, StudentParticipation>> finishedParticipations = cachedQuiz.getParticipations().entrySet();
-                    // TODO maybe find a better way to optimize the performance (use an executor service with e.g. X parallel threads)
-                    finishedParticipations.parallelStream().forEach(entry -> {
+                    Collection<Entry<String, StudentParticipation>> finishedParticipations = new ArrayList<>(cachedQuiz.getParticipations().entrySet());
+                    // the messages are sent by the bounded websocket fan-out executor, so we do not need to parallelize here
+                    for (Entry<String, StudentParticipation> entry : finishedParticipations) {
                         StudentParticipation participation = entry.getValue();
                         if (participation.getParticipant() == null || participation.getParticipantIdentifier() == null) {
                             log.error("Participation is missing student (or student is missing username): {}", participation);
@@ -494,7 +499,7 @@ public class QuizScheduleService {
                             sendQuizResultToUser(quizExerciseId, participation);
                             cachedQuiz.getParticipations().remove(entry.getKey());
                         }
-                    });
+                    }
                     if (!finishedParticipations.isEmpty()) {
                         log.info("Sent out {} participations in {} for quiz {}", finishedParticipations.size(), formatDurationFrom(start), quizExercise.getTitle());
                     }
@@ -537,6 +542,12 @@ public class QuizScheduleService {
         return Optional.ofNullable(quizExerciseCache.getBatches().get(login));
     }
 
+    private void recordPersistenceThroughput(int rows, long durationInNanos) {
+        if (durationInNanos > 0) {
+            persistedRowsPerSecond.record(rows * (double) TimeUnit.SECONDS.toNanos(1) / durationInNanos);
+        }
+    }
+
     private void removeCachedQuiz(QuizExerciseCache cachedQuiz) {
         cancelScheduledQuizStart(cachedQuiz.getExerciseId());
         quizCache.remove(cachedQuiz.getExerciseId());
@@ -545,7 +556,7 @@ public class QuizScheduleService {
     private void sendQuizResultToUser(long quizExerciseId, StudentParticipation participation) {
         var user = participation.getParticipantIdentifier();
         removeUnnecessaryObjectsBeforeSendingToClient(participation);
-        websocketMessagingService.sendMessageToUser(user, "/topic/exercise/" + quizExerciseId + "/participation", participation);
+        websocketMessagingService.sendFanOutMessageToUser(user, "/topic/exercise/" + quizExerciseId + "/participation", participation);
     }
 
     private void removeUnnecessaryObjectsBeforeSendingToClient(StudentParticipation participation) {
@@ -578,54 +589,97 @@ public class QuizScheduleService {
     /**
      * check if the user submitted the submission or if the quiz has ended: if true: -> Create Participation and Result and save to Database (DB Write) Remove processed Submissions
      * from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
+     * <p>
+     * The cached submissions are processed in chunks of at most {@link #SUBMISSION_PERSISTENCE_CHUNK_SIZE} entries: the users of a chunk are loaded with one query and the
+     * processed participations and results are written to the distributed cache at once, instead of issuing one database and one cache round-trip per user.
      *
      * @param quizExercise      the quiz which should be checked
      * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
      * @param userBatchMap      a Map of the username to quiz batch id for the given quizExercise
      * @param batchCache        a Map of all the batches for the given quizExercise
-     * @return                  the number of processed submissions (submit or timeout)
+     * @return                  the number of processed submissions (submit or timeout) and the number of persisted rows
      */
-    private int saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap, Map<String, Long> userBatchMap, Map<Long, QuizBatch> batchCache) {
-
-        int count = 0;
+    private PersistedSubmissions saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap,
+            Map<String, Long> userBatchMap, Map<Long, QuizBatch> batchCache) {
+
+        // take one snapshot of the cached submissions (for distributed maps, this is a single bulk operation instead of one remote call per user)
+        List<Entry<String, QuizSubmission>> cachedSubmissions = new ArrayList<>(userSubmissionMap.entrySet());
+        PersistedSubmissions persisted = PersistedSubmissions.NONE;
+        for (int chunkStart = 0; chunkStart < cachedSubmissions.size(); chunkStart += SUBMISSION_PERSISTENCE_CHUNK_SIZE) {
+            var chunk = cachedSubmissions.subList(chunkStart, Math.min(chunkStart + SUBMISSION_PERSISTENCE_CHUNK_SIZE, cachedSubmissions.size()));
+            persisted = persisted.add(saveQuizSubmissionChunk(quizExercise, chunk, userSubmissionMap, userBatchMap, batchCache));
+        }
+        return persisted;
+    }
 
-        for (String username : userSubmissionMap.keySet()) {
-            try {
-                // first case: the user submitted the quizSubmission
-                QuizSubmission quizSubmission = userSubmissionMap.get(username);
-                QuizBatch quizBatch = batchCache.get(userBatchMap.getOrDefault(username, 0L));
-                if (quizSubmission.isSubmitted()) {
-                    if (quizSubmission.getType() == null) {
-                        quizSubmission.setType(SubmissionType.MANUAL);
-                    }
-                } // second case: the quiz or batch has ended
-                else if (quizExercise.isQuizEnded() || quizBatch != null && quizBatch.isEnded()) {
-                    quizSubmission.setSubmitted(true);
-                    quizSubmission.setType(SubmissionType.TIMEOUT);
-                    quizSubmission.setSubmissionDate(ZonedDateTime.now());
-                }
-                else {
-                    // the quiz is running and the submission was not yet submitted.
-                    continue;
+    /**
+     * Saves one chunk of cached submissions, see {@link #saveQuizSubmissionWithParticipationAndResultToDatabase(QuizExercise, Map, Map, Map)}.
+     *
+     * @param quizExercise      the quiz which should be checked
+     * @param chunk             the cached submissions of this chunk mapped by the username
+     * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
+     * @param userBatchMap      a Map of the username to quiz batch id for the given quizExercise
+     * @param batchCache        a Map of all the batches for the given quizExercise
+     * @return                  the number of processed submissions (submit or timeout) and the number of persisted rows in this chunk
+     */
+    private PersistedSubmissions saveQuizSubmissionChunk(QuizExercise quizExercise, List<Entry<String, QuizSubmission>> chunk, Map<String, QuizSubmission> userSubmissionMap,
+            Map<String, Long> userBatchMap, Map<Long, QuizBatch> batchCache) {
+
+        // first determine which submissions are ready to be saved, so that we only load the users we actually need
+        Map<String, QuizSubmission> submissionsToSave = new HashMap<>();
+        for (Entry<String, QuizSubmission> entry : chunk) {
+            String username = entry.getKey();
+            QuizSubmission quizSubmission = entry.getValue();
+            QuizBatch quizBatch = batchCache.get(userBatchMap.getOrDefault(username, 0L));
+            // first case: the user submitted the quizSubmission
+            if (quizSubmission.isSubmitted()) {
+                if (quizSubmission.getType() == null) {
+                    quizSubmission.setType(SubmissionType.MANUAL);
                 }
+            } // second case: the quiz or batch has ended
+            else if (quizExercise.isQuizEnded() || quizBatch != null && quizBatch.isEnded()) {
+                quizSubmission.setSubmitted(true);
+                quizSubmission.setType(SubmissionType.TIMEOUT);
+                quizSubmission.setSubmissionDate(ZonedDateTime.now());
+            }
+            else {
+                // the quiz is running and the submission was not yet submitted.
+                continue;
+            }
 
-                if (quizBatch != null) {
-                    // record which batch the submission belongs to
-                    quizSubmission.setQuizBatch(quizBatch.getId());
-                }
+            if (quizBatch != null) {
+                // record which batch the submission belongs to
+                quizSubmission.setQuizBatch(quizBatch.getId());
+            }
+            submissionsToSave.put(username, quizSubmission);
+        }
+
+        if (submissionsToSave.isEmpty()) {
+            return PersistedSubmissions.NONE;
+        }
 
-                count++;
+        Map<String, User> usersByLogin = userRepository.findAllByLoginIn(submissionsToSave.keySet()).stream().collect(Collectors.toMap(User::getLogin, user -> user));
+        Map<String, StudentParticipation> savedParticipations = new HashMap<>();
+        Map<Long, Result> savedResults = new HashMap<>();
+        Set<String> processedUsernames = new HashSet<>();
+        int rows = 0;
+
+        for (Entry<String, QuizSubmission> entry : submissionsToSave.entrySet()) {
+            String username = entry.getKey();
+            QuizSubmission quizSubmission = entry.getValue();
+            try {
                 // Create Participation and Result and save to Database (DB Write)
                 // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
 
                 StudentParticipation participation = new StudentParticipation();
                 // TODO: when this is set earlier for the individual quiz start of a student, we don't need to set this here anymore
                 participation.setInitializationDate(quizSubmission.getSubmissionDate());
-                Optional<User> user = userRepository.findOneByLogin(username);
-                if (user.isEmpty()) {
+                User user = usersByLogin.get(username);
+                if (user == null) {
                     log.error("Cannot find the user for username {}", username);
-                } else {
-                    participation.setParticipant(user.get());
+                }
+                else {
+                    participation.setParticipant(user);
                 }
                 // add the quizExercise to the participation
                 participation.setExercise(quizExercise);
@@ -657,7 +711,7 @@ public class QuizScheduleService {
                 // this automatically saves the results due to CascadeType.ALL
                 quizSubmission = quizSubmissionRepository.save(quizSubmission);
 
-                log.info("Successfully saved submission in quiz {} for user {}", quizExercise.getTitle(), username);
+                log.debug("Successfully saved submission in quiz {} for user {}", quizExercise.getTitle(), username);
 
                 // reconnect entities after save
                 participation.setSubmissions(Set.of(quizSubmission));
@@ -666,22 +720,20 @@ public class QuizScheduleService {
                 result.setParticipation(participation);
 
                 // no point in keeping the participation around for non-synchronized modes where the due date may only be in a week
-                if (quizExercise.getQuizMode() == QuizMode.SYNCHRONIZED) {
+                if (quizExercise.getQuizMode() == QuizMode.SYNCHRONIZED && participation.getParticipantIdentifier() != null) {
                     // add the participation to the participationHashMap for the send out at the end of the quiz
-                    addParticipation(quizExercise.getId(), participation);
+                    savedParticipations.put(participation.getParticipantIdentifier(), participation);
                 }
-
-                // remove the submission only after the participation has been added to the participation hashmap to avoid duplicated key exceptions for multiple participations for
-                // the same user
-                userSubmissionMap.remove(username);
-                // clean up the batch association
-                userBatchMap.remove(username);
-
                 // add the result of the participation resultHashMap for the statistic-Update
-                addResultForStatisticUpdate(quizExercise.getId(), result);
+                savedResults.put(result.getId(), result);
+                processedUsernames.add(username);
+
+                // participation, submission and result plus one row per submitted answer
+                rows += 3 + (quizSubmission.getSubmittedAnswers() != null ? quizSubmission.getSubmittedAnswers().size() : 0);
             }
             catch (ConstraintViolationException | DataIntegrityViolationException violationException) {
-                log.error("ConstraintViolationException | DataIntegrityViolationException in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), violationException.getMessage(), violationException);
+                log.error("ConstraintViolationException | DataIntegrityViolationException in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username,
+                        quizExercise.getId(), violationException.getMessage(), violationException);
                 // We got a ConstraintViolationException -> The "User-Quiz" pair is already saved in the database, but for some reason was not removed from the maps
                 // We remove it from the maps now to prevent this error from occurring again
                 // We do NOT add it to the participation map, as this should have been done already earlier (when the entry was added to the database)
@@ -695,7 +747,37 @@ public class QuizScheduleService {
                 log.error("Exception in saveQuizSubmissionWithParticipationAndResultToDatabase() for user {} in quiz {}: {}", username, quizExercise.getId(), ex.getMessage(), ex);
             }
         }
-        return count;
+
+        if (!processedUsernames.isEmpty()) {
+            QuizExerciseCache cachedQuiz = getWriteCache(quizExercise.getId());
+            // add the participations to the participationHashMap for the send out at the end of the quiz
+            cachedQuiz.getParticipations().putAll(savedParticipations);
+            // remove the submissions only after the participations have been added to the participation hashmap to avoid duplicated key exceptions for multiple participations
+            // for the same user
+            for (String username : processedUsernames) {
+                userSubmissionMap.remove(username);
+                // clean up the batch association
+                userBatchMap.remove(username);
+            }
+            // add the results to the resultHashMap for the statistic-Update
+            cachedQuiz.getResults().putAll(savedResults);
+        }
+        return new PersistedSubmissions(processedUsernames.size(), rows);
+    }
+
+    /**
+     * The outcome of persisting cached quiz submissions.
+     *
+     * @param submissions the number of processed submissions (submit or timeout)
+     * @param rows        the number of rows written to the database (participations, submissions, results and submitted answers)
+     */
+    private record PersistedSubmissions(int submissions, int rows) {
+
+        private static final PersistedSubmissions NONE = new PersistedSubmissions(0, 0);
+
+        private PersistedSubmissions add(PersistedSubmissions other) {
+            return new PersistedSubmissions(submissions + other.submissions, rows + other.rows);
+        }
     }
 
     QuizExerciseCache getWriteCache(long exerciseId) {
@@ -28,6 +28,7 @@ import de.tum.in.www1.artemis.repository.CourseRepository;
 import de.tum.in.www1.artemis.repository.OrganizationRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
 import de.tum.in.www1.artemis.service.connectors.ci.CIUserManagementService;
 import de.tum.in.www1.artemis.service.connectors.vcs.VcsUserManagementService;
 import de.tum.in.www1.artemis.web.rest.vm.ManagedUserVM;
@@ -69,9 +70,11 @@ public class UserCreationService {
 
     private final CacheManager cacheManager;
 
+    private final WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService;
+
     public UserCreationService(UserRepository userRepository, PasswordService passwordService, AuthorityRepository authorityRepository, CourseRepository courseRepository,
             Optional<VcsUserManagementService> optionalVcsUserManagementService, Optional<CIUserManagementService> optionalCIUserManagementService, CacheManager cacheManager,
-            OrganizationRepository organizationRepository) {
+            OrganizationRepository organizationRepository, WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService) {
         this.userRepository = userRepository;
         this.passwordService = passwordService;
         this.authorityRepository = authorityRepository;
@@ -79,6 +82,7 @@ public class UserCreationService {
         this.optionalVcsUserManagementService = optionalVcsUserManagementService;
         this.optionalCIUserManagementService = optionalCIUserManagementService;
         this.cacheManager = cacheManager;
+        this.websocketSubscriptionAuthorizationCacheService = websocketSubscriptionAuthorizationCacheService;
         this.organizationRepository = organizationRepository;
     }
 
@@ -301,6 +305,8 @@ public class UserCreationService {
         if (userCache != null) {
             userCache.evict(user.getLogin());
         }
+        // the groups and authorities of the user might have changed
+        websocketSubscriptionAuthorizationCacheService.invalidateUser(user.getLogin());
     }
 
     /**
@@ -33,6 +33,7 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.security.ArtemisAuthenticationProvider;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
 import de.tum.in.www1.artemis.service.connectors.ci.CIUserManagementService;
 import de.tum.in.www1.artemis.service.connectors.jira.JiraAuthenticationProvider;
 import de.tum.in.www1.artemis.service.connectors.vcs.VcsUserManagementService;
@@ -84,6 +85,8 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService;
+
     private final AuthorityRepository authorityRepository;
 
     private final GuidedTourSettingsRepository guidedTourSettingsRepository;
@@ -93,12 +96,14 @@ public class UserService {
     public UserService(UserCreationService userCreationService, UserRepository userRepository, AuthorityService authorityService, AuthorityRepository authorityRepository,
             CacheManager cacheManager, Optional<LdapUserService> ldapUserService, GuidedTourSettingsRepository guidedTourSettingsRepository, PasswordService passwordService,
             Optional<VcsUserManagementService> optionalVcsUserManagementService, Optional<CIUserManagementService> optionalCIUserManagementService,
-            ArtemisAuthenticationProvider artemisAuthenticationProvider, InstanceMessageSendService instanceMessageSendService) {
+            ArtemisAuthenticationProvider artemisAuthenticationProvider, InstanceMessageSendService instanceMessageSendService,
+            WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService) {
         this.userCreationService = userCreationService;
         this.userRepository = userRepository;
         this.authorityService = authorityService;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.websocketSubscriptionAuthorizationCacheService = websocketSubscriptionAuthorizationCacheService;
         this.ldapUserService = ldapUserService;
         this.guidedTourSettingsRepository = guidedTourSettingsRepository;
         this.passwordService = passwordService;
@@ -530,6 +535,8 @@ public class UserService {
         if (userCache != null) {
             userCache.evict(user.getLogin());
         }
+        // the groups and authorities of the user might have changed
+        websocketSubscriptionAuthorizationCacheService.invalidateUser(user.getLogin());
     }
 
     /**
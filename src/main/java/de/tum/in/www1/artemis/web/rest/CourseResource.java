@@ -113,12 +113,15 @@ public class CourseResource {
 
     private final ChannelService channelService;
 
+    private final WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService;
+
     public CourseResource(UserRepository userRepository, CourseService courseService, CourseRepository courseRepository, ExerciseService exerciseService,
             OAuth2JWKSService oAuth2JWKSService, OnlineCourseConfigurationService onlineCourseConfigurationService, AuthorizationCheckService authCheckService,
             TutorParticipationRepository tutorParticipationRepository, SubmissionService submissionService, Optional<VcsUserManagementService> optionalVcsUserManagementService,
             AssessmentDashboardService assessmentDashboardService, ExerciseRepository exerciseRepository, Optional<CIUserManagementService> optionalCiUserManagementService,
             FileService fileService, TutorialGroupsConfigurationService tutorialGroupsConfigurationService, GradingScaleService gradingScaleService,
-            CourseScoreCalculationService courseScoreCalculationService, GradingScaleRepository gradingScaleRepository, ChannelService channelService) {
+            CourseScoreCalculationService courseScoreCalculationService, GradingScaleRepository gradingScaleRepository, ChannelService channelService,
+            WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService) {
         this.courseService = courseService;
         this.courseRepository = courseRepository;
         this.exerciseService = exerciseService;
@@ -138,6 +141,7 @@ public class CourseResource {
         this.courseScoreCalculationService = courseScoreCalculationService;
         this.gradingScaleRepository = gradingScaleRepository;
         this.channelService = channelService;
+        this.websocketSubscriptionAuthorizationCacheService = websocketSubscriptionAuthorizationCacheService;
     }
 
     /**
@@ -249,6 +253,10 @@ public class CourseResource {
                 .ifPresent(userManagementService -> userManagementService.updateCoursePermissions(result, oldInstructorGroup, oldEditorGroup, oldTeachingAssistantGroup));
         optionalCiUserManagementService
                 .ifPresent(ciUserManagementService -> ciUserManagementService.updateCoursePermissions(result, oldInstructorGroup, oldEditorGroup, oldTeachingAssistantGroup));
+        if (!changedGroupNames.isEmpty()) {
+            // users of the old and new groups may now be allowed or no longer allowed to subscribe to topics of the course
+            websocketSubscriptionAuthorizationCacheService.invalidateAll();
+        }
         if (timeZoneChanged) {
             tutorialGroupsConfigurationService.onTimeZoneUpdate(result);
         }
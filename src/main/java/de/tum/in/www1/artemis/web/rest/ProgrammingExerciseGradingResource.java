@@ -1,7 +1,5 @@
 package de.tum.in.www1.artemis.web.rest;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -9,13 +7,13 @@ import org.springframework.web.bind.annotation.*;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.security.annotations.EnforceAtLeastEditor;
 import de.tum.in.www1.artemis.security.annotations.EnforceAtLeastInstructor;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseReEvaluationService;
 import de.tum.in.www1.artemis.web.rest.dto.ProgrammingExerciseGradingStatisticsDTO;
 
 /**
@@ -40,15 +38,15 @@ public class ProgrammingExerciseGradingResource {
 
     private final UserRepository userRepository;
 
-    private final ResultRepository resultRepository;
+    private final ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService;
 
     public ProgrammingExerciseGradingResource(ProgrammingExerciseGradingService programmingExerciseGradingService, ProgrammingExerciseRepository programmingExerciseRepository,
-            AuthorizationCheckService authCheckService, UserRepository userRepository, ResultRepository resultRepository) {
+            AuthorizationCheckService authCheckService, UserRepository userRepository, ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService) {
         this.programmingExerciseGradingService = programmingExerciseGradingService;
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.authCheckService = authCheckService;
         this.userRepository = userRepository;
-        this.resultRepository = resultRepository;
+        this.programmingExerciseReEvaluationService = programmingExerciseReEvaluationService;
     }
 
     /**
@@ -67,11 +65,11 @@ public class ProgrammingExerciseGradingResource {
 
         authCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.INSTRUCTOR, programmingExercise, user);
 
-        List<Result> updatedResults = programmingExerciseGradingService.updateAllResults(programmingExercise);
+        // the results are re-evaluated and saved in chunks, the progress is sent to the client via websocket
+        long updatedResults = programmingExerciseReEvaluationService.reEvaluateAllResults(programmingExercise);
 
         programmingExerciseGradingService.logReEvaluate(user, programmingExercise, course, updatedResults);
-        resultRepository.saveAll(updatedResults);
-        return ResponseEntity.ok(updatedResults.size());
+        return ResponseEntity.ok(Math.toIntExact(updatedResults));
     }
 
     /**
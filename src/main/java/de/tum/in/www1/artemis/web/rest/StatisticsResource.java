@@ -18,6 +18,7 @@ import de.tum.in.www1.artemis.repository.ExerciseRepository;
 import de.tum.in.www1.artemis.security.Role;
 import de.tum.in.www1.artemis.security.annotations.EnforceAtLeastTutor;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
+import de.tum.in.www1.artemis.service.ManagementStatisticsCacheService;
 import de.tum.in.www1.artemis.service.StatisticsService;
 import de.tum.in.www1.artemis.web.rest.dto.CourseManagementStatisticsDTO;
 import de.tum.in.www1.artemis.web.rest.dto.ExerciseManagementStatisticsDTO;
@@ -37,12 +38,15 @@ public class StatisticsResource {
 
     private final ExerciseRepository exerciseRepository;
 
+    private final ManagementStatisticsCacheService managementStatisticsCacheService;
+
     public StatisticsResource(StatisticsService statisticsService, AuthorizationCheckService authorizationCheckService, CourseRepository courseRepository,
-            ExerciseRepository exerciseRepository) {
+            ExerciseRepository exerciseRepository, ManagementStatisticsCacheService managementStatisticsCacheService) {
         this.statisticsService = statisticsService;
         this.authorizationCheckService = authorizationCheckService;
         this.courseRepository = courseRepository;
         this.exerciseRepository = exerciseRepository;
+        this.managementStatisticsCacheService = managementStatisticsCacheService;
     }
 
     /**
@@ -72,31 +76,34 @@ public class StatisticsResource {
     }
 
     /**
-     * GET management/statistics/course-statistics : get the data for the average score graph in the course statistics
+     * GET management/statistics/course-statistics : get the data for the average score graph in the course statistics.
+     * The response contains an ETag, so that unchanged statistics are answered with status 304 (Not Modified) if the client sends it in the If-None-Match header.
      *
      * @param courseId the id of the course for which the data should be fetched
-     * @return the ResponseEntity with status 200 (OK) and the data in body, or status 404 (Not Found)
+     * @return the ResponseEntity with status 200 (OK) and the data in body, status 304 (Not Modified) or status 404 (Not Found)
      */
     @GetMapping("management/statistics/course-statistics")
     @EnforceAtLeastTutor
     public ResponseEntity<CourseManagementStatisticsDTO> getCourseStatistics(@RequestParam Long courseId) {
         Course course = courseRepository.findByIdElseThrow(courseId);
         authorizationCheckService.checkHasAtLeastRoleInCourseElseThrow(Role.TEACHING_ASSISTANT, course, null);
-        return ResponseEntity.ok(this.statisticsService.getCourseStatistics(courseId));
+        var courseStatistics = managementStatisticsCacheService.getCourseStatistics(courseId);
+        return ResponseEntity.ok().eTag(courseStatistics.eTag()).body(courseStatistics.statistics());
     }
 
     /**
-     * GET management/statistics/exercise-statistics: get the data for the score distribution in the exercise statistics
+     * GET management/statistics/exercise-statistics: get the data for the score distribution in the exercise statistics.
+     * The response contains an ETag, so that unchanged statistics are answered with status 304 (Not Modified) if the client sends it in the If-None-Match header.
      *
      * @param exerciseId the id of the exercise for which the data should be fetched
-     * @return the ResponseEntity with status 200 (OK) and the data in body, or status 404 (Not Found)
+     * @return the ResponseEntity with status 200 (OK) and the data in body, status 304 (Not Modified) or status 404 (Not Found)
      */
     @GetMapping("management/statistics/exercise-statistics")
     @EnforceAtLeastTutor
     public ResponseEntity<ExerciseManagementStatisticsDTO> getExerciseStatistics(@RequestParam Long exerciseId) {
         Exercise exercise = exerciseRepository.findByIdElseThrow(exerciseId);
         authorizationCheckService.checkHasAtLeastRoleForExerciseElseThrow(Role.TEACHING_ASSISTANT, exercise, null);
-        var exerciseManagementStatisticsDTO = statisticsService.getExerciseStatistics(exercise);
-        return ResponseEntity.ok(exerciseManagementStatisticsDTO);
+        var exerciseStatistics = managementStatisticsCacheService.getExerciseStatistics(exercise);
+        return ResponseEntity.ok().eTag(exerciseStatistics.eTag()).body(exerciseStatistics.statistics());
     }
 }
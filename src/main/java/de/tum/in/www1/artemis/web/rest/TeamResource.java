@@ -31,6 +31,7 @@ import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.SubmissionService;
 import de.tum.in.www1.artemis.service.TeamService;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
 import de.tum.in.www1.artemis.service.dto.TeamSearchUserDTO;
 import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
@@ -75,10 +76,12 @@ public class TeamResource {
 
     private final TeamScoreRepository teamScoreRepository;
 
+    private final WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService;
+
     public TeamResource(TeamRepository teamRepository, TeamService teamService, TeamWebsocketService teamWebsocketService, CourseRepository courseRepository,
             ExerciseRepository exerciseRepository, UserRepository userRepository, AuthorizationCheckService authCheckService, ParticipationService participationService,
             SubmissionService submissionService, AuditEventRepository auditEventRepository, StudentParticipationRepository studentParticipationRepository,
-            TeamScoreRepository teamScoreRepository) {
+            TeamScoreRepository teamScoreRepository, WebsocketSubscriptionAuthorizationCacheService websocketSubscriptionAuthorizationCacheService) {
         this.teamRepository = teamRepository;
         this.teamService = teamService;
         this.teamWebsocketService = teamWebsocketService;
@@ -91,6 +94,7 @@ public class TeamResource {
         this.auditEventRepository = auditEventRepository;
         this.studentParticipationRepository = studentParticipationRepository;
         this.teamScoreRepository = teamScoreRepository;
+        this.websocketSubscriptionAuthorizationCacheService = websocketSubscriptionAuthorizationCacheService;
     }
 
     /**
@@ -189,6 +193,8 @@ public class TeamResource {
 
         // Save team (includes check for conflicts that no student is assigned to multiple teams for an exercise)
         Team savedTeam = teamRepository.save(exercise, team);
+        // removed students are no longer allowed and added students are now allowed to subscribe to the topics of the team participation
+        invalidateSubscriptionAuthorizations(List.of(existingTeam.get(), savedTeam));
 
         // Propagate team owner change to other instances of this team in the course
         if (ownerWasChanged) {
@@ -284,6 +290,7 @@ public class TeamResource {
         teamScoreRepository.deleteAllByTeamId(team.getId());
 
         teamRepository.delete(team);
+        invalidateSubscriptionAuthorizations(List.of(team));
 
         teamWebsocketService.sendTeamAssignmentUpdate(exercise, team, null);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, Long.toString(teamId))).build();
@@ -357,7 +364,9 @@ public class TeamResource {
         auditEventRepository.add(auditEvent);
 
         // Import teams and return the teams that now belong to the destination exercise
+        List<Team> existingTeams = teamRepository.findAllByExerciseIdWithEagerStudents(exercise.getId());
         List<Team> destinationTeams = teamService.importTeamsFromTeamListIntoExerciseUsingStrategy(exercise, filledTeams, importStrategyType);
+        invalidateSubscriptionAuthorizations(Stream.concat(existingTeams.stream(), destinationTeams.stream()).toList());
         destinationTeams.forEach(Team::filterSensitiveInformation);
         destinationTeams.forEach(team -> team.getStudents().forEach(student -> student.setVisibleRegistrationNumber(student.getRegistrationNumber())));
 
@@ -403,7 +412,9 @@ public class TeamResource {
         auditEventRepository.add(auditEvent);
 
         // Import teams and return the teams that now belong to the destination exercise
+        List<Team> existingTeams = teamRepository.findAllByExerciseIdWithEagerStudents(destinationExercise.getId());
         List<Team> destinationTeams = teamService.importTeamsFromSourceExerciseIntoDestinationExerciseUsingStrategy(sourceExercise, destinationExercise, importStrategyType);
+        invalidateSubscriptionAuthorizations(Stream.concat(existingTeams.stream(), destinationTeams.stream()).toList());
         destinationTeams.forEach(Team::filterSensitiveInformation);
         destinationTeams.forEach(team -> team.getStudents().forEach(student -> student.setVisibleRegistrationNumber(student.getRegistrationNumber())));
         // Send out team assignment update via websockets
@@ -493,4 +504,13 @@ public class TeamResource {
         // Send out team assignment update via websockets to each team
         teams.forEach(team -> teamWebsocketService.sendTeamAssignmentUpdate(exercise, null, team, participationsMap.getOrDefault(team.getParticipantIdentifier(), List.of())));
     }
+
+    /**
+     * Invalidates the cached websocket subscription authorizations of all members of the given teams, so that changed memberships take effect immediately
+     *
+     * @param teams the teams before and after the change of their members
+     */
+    private void invalidateSubscriptionAuthorizations(List<Team> teams) {
+        teams.stream().flatMap(team -> team.getStudents().stream()).map(User::getLogin).distinct().forEach(websocketSubscriptionAuthorizationCacheService::invalidateUser);
+    }
 }
@@ -36,6 +36,8 @@ public class PostContextFilter {
 
     private SortingOrder sortingOrder;
 
+    private String cursor;
+
     /**
      * Constructor for PostContextFilter, which sets every member as null, except boolean members and courseId
      *
@@ -140,4 +142,15 @@ public class PostContextFilter {
     public void setSortingOrder(SortingOrder sortingOrder) {
         this.sortingOrder = sortingOrder;
     }
+
+    /**
+     * @return the encoded {@link PostCursor} of the requested page, or null if the page is requested by its number
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
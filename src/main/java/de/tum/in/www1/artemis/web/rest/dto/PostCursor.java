@@ -0,0 +1,81 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import javax.annotation.Nullable;
+
+import de.tum.in.www1.artemis.domain.metis.Post;
+import de.tum.in.www1.artemis.repository.specs.PostSpecs;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+
+/**
+ * The position of the last post of a page, from which the next page of posts or messages continues (keyset pagination).
+ * In contrast to the page number, the position does not shift if posts are created or deleted while scrolling, and the database can directly seek to it instead of
+ * skipping all posts of the previous pages. Clients receive the cursor of the next page in the {@link #NEXT_CURSOR_HEADER} header and pass it unchanged as request param.
+ *
+ * @param displayPriorityRank the rank of the display priority of the post (see {@link PostSpecs#getDisplayPriorityRank(Post)}), null for messages which are not ordered by it
+ * @param creationDate        the creation date of the post
+ * @param id                  the id of the post, which orders posts with the same creation date
+ */
+public record PostCursor(@Nullable Integer displayPriorityRank, ZonedDateTime creationDate, Long id) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "_";
+
+    /**
+     * Creates the cursor after a message in a conversation
+     *
+     * @param message the last message of a page
+     * @return the cursor of the next page
+     */
+    public static PostCursor afterMessage(Post message) {
+        return new PostCursor(null, message.getCreationDate(), message.getId());
+    }
+
+    /**
+     * Creates the cursor after a post in a course, which also contains the rank of its display priority
+     *
+     * @param post the last post of a page
+     * @return the cursor of the next page
+     */
+    public static PostCursor afterCoursePost(Post post) {
+        return new PostCursor(PostSpecs.getDisplayPriorityRank(post), post.getCreationDate(), post.getId());
+    }
+
+    /**
+     * Encodes the cursor as opaque string, so that clients do not depend on its content
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String value = (displayPriorityRank != null ? displayPriorityRank.toString() : "") + SEPARATOR + creationDate.toInstant() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor that was encoded with {@link #encode()}
+     *
+     * @param cursor the encoded cursor
+     * @return the decoded cursor
+     * @throws BadRequestAlertException if the cursor is invalid
+     */
+    public static PostCursor decode(String cursor) {
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+            if (values.length != 3) {
+                throw new IllegalArgumentException("Unexpected number of values: " + values.length);
+            }
+            Integer displayPriorityRank = values[0].isEmpty() ? null : Integer.valueOf(values[0]);
+            return new PostCursor(displayPriorityRank, ZonedDateTime.ofInstant(Instant.parse(values[1]), ZoneOffset.UTC), Long.valueOf(values[2]));
+        }
+        catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestAlertException("The cursor is invalid", "metis.post", "invalidCursor");
+        }
+    }
+}
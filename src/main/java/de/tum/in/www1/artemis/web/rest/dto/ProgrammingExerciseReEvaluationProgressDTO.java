@@ -0,0 +1,10 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of a re-evaluation of the results of a programming exercise, which is sent to the instructors after each processed chunk of participations.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record ProgrammingExerciseReEvaluationProgressDTO(long processedParticipations, long totalParticipations, long updatedResults, boolean finished) {
+}
@@ -0,0 +1,10 @@
+package de.tum.in.www1.artemis.web.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The progress of an export of student repositories into one zip file, which is sent while the repositories are checked out and added to the zip file.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record RepositoryExportProgressDTO(int processedRepositories, int totalRepositories) {
+}
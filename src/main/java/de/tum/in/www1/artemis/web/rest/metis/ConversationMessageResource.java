@@ -11,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,7 @@ import de.tum.in.www1.artemis.security.annotations.EnforceAtLeastStudent;
 import de.tum.in.www1.artemis.service.metis.ConversationMessagingService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import io.swagger.annotations.ApiParam;
 import tech.jhipster.web.util.PaginationUtil;
 
@@ -59,24 +61,23 @@ public class ConversationMessageResource {
      * GET /courses/{courseId}/posts : Get all message posts for a conversation by its id
      *
      * @param pageable          pagination settings to fetch posts in smaller batches
-     * @param postContextFilter request param for filtering posts
+     * @param postContextFilter request param for filtering posts, including the cursor of the requested page (if any)
      * @param principal         contains the login of the user for the purpose of logging
-     * @return ResponseEntity with status 200 (OK) and with body all posts for course, that match the specified context
+     * @return ResponseEntity with status 200 (OK) and with body all posts for course, that match the specified context, and the cursor of the next page in the header
      *         or 400 (Bad Request) if the checks on user, course or post validity fail
      */
     @GetMapping("courses/{courseId}/messages")
     @EnforceAtLeastStudent
     public ResponseEntity<List<Post>> getMessages(@ApiParam Pageable pageable, PostContextFilter postContextFilter, Principal principal) {
         long timeNanoStart = System.nanoTime();
-        Page<Post> coursePosts = conversationMessagingService.getMessages(pageable, postContextFilter);
-        // keep the data as small as possible and avoid unnecessary information sent to the client
-        // TODO: in the future we should set conversation to null
-        coursePosts.getContent().forEach(post -> {
-            if (post.getConversation() != null) {
-                post.getConversation().hideDetails();
-            }
-        });
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), coursePosts);
+        // the messages must not be modified here, because the first page is shared between requests by the ConversationMessagePageCacheService
+        Slice<Post> coursePosts = conversationMessagingService.getMessages(pageable, postContextFilter);
+        // pages requested with a cursor do not count the total number of messages
+        HttpHeaders headers = coursePosts instanceof Page<Post> page ? PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page)
+                : new HttpHeaders();
+        if (coursePosts.hasNext() && coursePosts.hasContent()) {
+            headers.add(PostCursor.NEXT_CURSOR_HEADER, PostCursor.afterMessage(coursePosts.getContent().get(coursePosts.getNumberOfElements() - 1)).encode());
+        }
         logDuration(coursePosts.getContent(), principal, timeNanoStart);
         return new ResponseEntity<>(coursePosts.getContent(), headers, HttpStatus.OK);
     }
@@ -9,6 +9,7 @@ import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,7 @@ import de.tum.in.www1.artemis.security.annotations.EnforceAtLeastStudent;
 import de.tum.in.www1.artemis.security.annotations.EnforceAtLeastTutor;
 import de.tum.in.www1.artemis.service.metis.PostService;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import io.swagger.annotations.ApiParam;
 import tech.jhipster.web.util.PaginationUtil;
@@ -107,8 +109,8 @@ public class PostResource {
      *
      * @param pageable          pagination settings to fetch posts in smaller batches
      * @param pagingEnabled     flag stating whether requesting component has paging enabled or not
-     * @param postContextFilter request param for filtering posts
-     * @return ResponseEntity with status 200 (OK) and with body all posts for course, that match the specified context
+     * @param postContextFilter request param for filtering posts, including the cursor of the requested page (if any)
+     * @return ResponseEntity with status 200 (OK) and with body all posts for course, that match the specified context, and the cursor of the next page in the header
      *         or 400 (Bad Request) if the checks on user, course or post validity fail
      */
     @GetMapping("courses/{courseId}/posts")
@@ -116,8 +118,13 @@ public class PostResource {
     public ResponseEntity<List<Post>> getPostsInCourse(@ApiParam Pageable pageable, @RequestParam(defaultValue = "false") boolean pagingEnabled,
             PostContextFilter postContextFilter) {
 
-        Page<Post> coursePosts = postService.getPostsInCourse(pagingEnabled, pageable, postContextFilter);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), coursePosts);
+        Slice<Post> coursePosts = postService.getPostsInCourse(pagingEnabled, pageable, postContextFilter);
+        // pages requested with a cursor do not count the total number of posts
+        HttpHeaders headers = coursePosts instanceof Page<Post> page ? PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page)
+                : new HttpHeaders();
+        if (PostService.isKeysetPaginationSupported(pagingEnabled, postContextFilter) && coursePosts.hasNext() && coursePosts.hasContent()) {
+            headers.add(PostCursor.NEXT_CURSOR_HEADER, PostCursor.afterCoursePost(coursePosts.getContent().get(coursePosts.getNumberOfElements() - 1)).encode());
+        }
 
         return new ResponseEntity<>(coursePosts.getContent(), headers, HttpStatus.OK);
     }
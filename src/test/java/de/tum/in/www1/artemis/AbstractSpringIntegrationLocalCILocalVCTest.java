@@ -60,6 +60,7 @@ import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
 // Note: the server.port property must correspond to the port used in the artemis.version-control.url property.
 @TestPropertySource(properties = { "server.port=49152", "artemis.version-control.url=http://localhost:49152", "artemis.version-control.local-vcs-repo-path=${java.io.tmpdir}",
         "artemis.continuous-integration.thread-pool-size=1", "artemis.continuous-integration.asynchronous=false",
+        "artemis.continuous-integration.build-result-cache-size=0", "artemis.version-control.auth-cache-ttl-seconds=0",
         "artemis.continuous-integration.build.images.java.default=dummy-docker-image", "artemis.user-management.use-external=false" })
 @ContextConfiguration(classes = LocalCITestConfiguration.class)
 public abstract class AbstractSpringIntegrationLocalCILocalVCTest extends AbstractArtemisIntegrationTest {
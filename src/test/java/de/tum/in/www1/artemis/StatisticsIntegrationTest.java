@@ -5,6 +5,7 @@ import static org.awaitility.Awaitility.await;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -14,8 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -37,11 +40,15 @@ import de.tum.in.www1.artemis.exercise.textexercise.TextExerciseUtilService;
 import de.tum.in.www1.artemis.participation.ParticipationUtilService;
 import de.tum.in.www1.artemis.repository.GradingScaleRepository;
 import de.tum.in.www1.artemis.repository.ParticipantScoreRepository;
+import de.tum.in.www1.artemis.repository.StatisticsRollupRepository;
+import de.tum.in.www1.artemis.repository.StatisticsRollupWatermarkRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
 import de.tum.in.www1.artemis.repository.TextExerciseRepository;
 import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.repository.metis.AnswerPostRepository;
 import de.tum.in.www1.artemis.repository.metis.PostRepository;
+import de.tum.in.www1.artemis.service.ManagementStatisticsCacheService;
+import de.tum.in.www1.artemis.service.StatisticsRollupService;
 import de.tum.in.www1.artemis.user.UserUtilService;
 import de.tum.in.www1.artemis.web.rest.dto.CourseManagementStatisticsDTO;
 import de.tum.in.www1.artemis.web.rest.dto.ExerciseManagementStatisticsDTO;
@@ -71,6 +78,18 @@ class StatisticsIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
     @Autowired
     private StudentParticipationRepository studentParticipationRepository;
 
+    @Autowired
+    private StatisticsRollupService statisticsRollupService;
+
+    @Autowired
+    private StatisticsRollupRepository statisticsRollupRepository;
+
+    @Autowired
+    private StatisticsRollupWatermarkRepository statisticsRollupWatermarkRepository;
+
+    @Autowired
+    private ManagementStatisticsCacheService managementStatisticsCacheService;
+
     @Autowired
     private UserUtilService userUtilService;
 
@@ -193,6 +212,73 @@ class StatisticsIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         }
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetChartDataFromRollups() throws Exception {
+        // one submission in an hour that is rolled up
+        TextSubmission textSubmission = new TextSubmission();
+        textSubmission.submissionDate(ZonedDateTime.now().minusDays(2));
+        var submission = participationUtilService.addSubmission(exercise, textSubmission, TEST_PREFIX + "student1");
+        participationUtilService.addResultToSubmission(submission, AssessmentType.MANUAL);
+
+        var graphs = List.of(GraphType.SUBMISSIONS, GraphType.CREATED_RESULTS, GraphType.CREATED_FEEDBACKS);
+        var courseParameters = graphs.stream().map(graph -> buildParameters(SpanType.WEEK, 0, graph, StatisticsView.COURSE, course.getId())).toList();
+        var exerciseParameters = graphs.stream().map(graph -> buildParameters(SpanType.WEEK, 0, graph, StatisticsView.EXERCISE, exercise.getId())).toList();
+        List<Integer[]> expectedCourseResults = new ArrayList<>();
+        List<Integer[]> expectedExerciseResults = new ArrayList<>();
+        for (int i = 0; i < graphs.size(); i++) {
+            expectedCourseResults.add(request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, courseParameters.get(i)));
+            expectedExerciseResults.add(request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, exerciseParameters.get(i)));
+        }
+
+        ReflectionTestUtils.setField(statisticsRollupService, "backfillDays", 8);
+        try {
+            statisticsRollupService.rollUpCompletedHours();
+            assertThat(statisticsRollupWatermarkRepository.findAll()).hasSize(graphs.size());
+
+            for (int i = 0; i < graphs.size(); i++) {
+                assertThat(request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, courseParameters.get(i)))
+                        .containsExactly(expectedCourseResults.get(i));
+                assertThat(request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, exerciseParameters.get(i)))
+                        .containsExactly(expectedExerciseResults.get(i));
+            }
+        }
+        finally {
+            ReflectionTestUtils.setField(statisticsRollupService, "backfillDays", 1826);
+            statisticsRollupWatermarkRepository.deleteAll();
+            statisticsRollupRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testRollUpAgainIncludesLaterChanges() throws Exception {
+        TextSubmission textSubmission = new TextSubmission();
+        textSubmission.submissionDate(ZonedDateTime.now().minusHours(3));
+        participationUtilService.addSubmission(exercise, textSubmission, TEST_PREFIX + "student1");
+        var parameters = buildParameters(SpanType.YEAR, 0, GraphType.SUBMISSIONS, StatisticsView.EXERCISE, exercise.getId());
+
+        ReflectionTestUtils.setField(statisticsRollupService, "backfillDays", 8);
+        try {
+            statisticsRollupService.rollUpCompletedHours();
+            Integer[] rolledUpResult = request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+
+            // a submission that is saved for an hour that has already been rolled up
+            TextSubmission laterTextSubmission = new TextSubmission();
+            laterTextSubmission.submissionDate(ZonedDateTime.now().minusHours(3));
+            participationUtilService.addSubmission(exercise, laterTextSubmission, TEST_PREFIX + "student2");
+            statisticsRollupService.rollUpCompletedHours();
+
+            Integer[] result = request.get("/api/management/statistics/data-for-content", HttpStatus.OK, Integer[].class, parameters);
+            assertThat(Arrays.stream(result).mapToInt(Integer::intValue).sum()).isEqualTo(Arrays.stream(rolledUpResult).mapToInt(Integer::intValue).sum() + 1);
+        }
+        finally {
+            ReflectionTestUtils.setField(statisticsRollupService, "backfillDays", 1826);
+            statisticsRollupWatermarkRepository.deleteAll();
+            statisticsRollupRepository.deleteAll();
+        }
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
     void testGetCourseStatistics() throws Exception {
@@ -298,6 +384,28 @@ class StatisticsIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         assertThat(result.getScoreDistribution()).isEqualTo(expectedScoresResult);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testGetExerciseStatisticsNotModified() throws Exception {
+        ZonedDateTime pastTimestamp = ZonedDateTime.now().minusDays(5);
+        TextExercise textExercise = textExerciseUtilService.createIndividualTextExercise(course, pastTimestamp, pastTimestamp, pastTimestamp);
+        User student1 = userRepository.findOneByLogin(TEST_PREFIX + "student1").orElseThrow();
+
+        LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        parameters.add("exerciseId", "" + textExercise.getId());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"" + managementStatisticsCacheService.getExerciseStatistics(textExercise).eTag() + "\"");
+        request.get("/api/management/statistics/exercise-statistics", HttpStatus.NOT_MODIFIED, ExerciseManagementStatisticsDTO.class, parameters, headers);
+
+        // the new participant score invalidates the cached statistics, so that the outdated ETag no longer matches
+        participationUtilService.createParticipationSubmissionAndResult(textExercise.getId(), student1, 10.0, 0.0, 50, true);
+        await().untilAsserted(() -> {
+            ExerciseManagementStatisticsDTO result = request.get("/api/management/statistics/exercise-statistics", HttpStatus.OK, ExerciseManagementStatisticsDTO.class,
+                    parameters, headers);
+            assertThat(result.getAverageScoreOfExercise()).isEqualTo(50.0);
+        });
+    }
+
     private MultiValueMap<String, String> buildParameters(SpanType span, Integer periodIndex, GraphType graph) {
         return buildParameters(span, periodIndex, graph, null, null);
     }
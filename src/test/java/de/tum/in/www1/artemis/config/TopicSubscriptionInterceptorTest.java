@@ -1,9 +1,11 @@
 package de.tum.in.www1.artemis.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
 import java.security.Principal;
+import java.util.HashSet;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +18,8 @@ import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.config.websocket.WebsocketConfiguration;
 import de.tum.in.www1.artemis.course.CourseUtilService;
 import de.tum.in.www1.artemis.exam.ExamUtilService;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.WebsocketSubscriptionAuthorizationCacheService;
 import de.tum.in.www1.artemis.user.UserUtilService;
 
 @SuppressWarnings("unchecked")
@@ -35,6 +39,12 @@ class TopicSubscriptionInterceptorTest extends AbstractSpringIntegrationBambooBi
     @Autowired
     private ExamUtilService examUtilService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WebsocketSubscriptionAuthorizationCacheService subscriptionAuthorizationCacheService;
+
     @Test
     void testAllowSubscription() {
         userUtilService.addUsers(TEST_PREFIX, 1, 0, 1, 1);
@@ -115,4 +125,36 @@ class TopicSubscriptionInterceptorTest extends AbstractSpringIntegrationBambooBi
             assertThat(returnedValue).isNull();
         }
     }
+
+    @Test
+    void testAllowSubscription_cachedUntilInvalidated() {
+        String prefix = TEST_PREFIX + "cache";
+        userUtilService.addUsers(prefix, 0, 0, 0, 1);
+        var course = courseUtilService.addEmptyCourse();
+        var exam = examUtilService.addExam(course);
+
+        var interceptor = websocketConfiguration.new TopicSubscriptionInterceptor();
+        var msgMock = (Message<String>) mock(Message.class);
+        try (var ignored = mockStatic(StompHeaderAccessor.class)) {
+            var headerAccessorMock = mock(StompHeaderAccessor.class);
+            when(StompHeaderAccessor.wrap(msgMock)).thenReturn(headerAccessorMock);
+            when(headerAccessorMock.getCommand()).thenReturn(StompCommand.SUBSCRIBE);
+            var principalMock = mock(Principal.class);
+            when(headerAccessorMock.getUser()).thenReturn(principalMock);
+            when(principalMock.getName()).thenReturn(prefix + "instructor1");
+            when(headerAccessorMock.getDestination()).thenReturn("/topic/exams/" + exam.getId() + "/test");
+            var channel = mock(MessageChannel.class);
+
+            assertThat(interceptor.preSend(msgMock, channel)).isEqualTo(msgMock);
+
+            // the group is removed without invalidating the cached result, so the subscription is still allowed
+            var instructor = userUtilService.getUserByLogin(prefix + "instructor1");
+            instructor.setGroups(new HashSet<>());
+            userRepository.save(instructor);
+            assertThat(interceptor.preSend(msgMock, channel)).isEqualTo(msgMock);
+
+            subscriptionAuthorizationCacheService.invalidateUser(prefix + "instructor1");
+            await().until(() -> interceptor.preSend(msgMock, channel) == null);
+        }
+    }
 }
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.regex.Pattern;
 
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.AfterEach;
@@ -772,6 +773,35 @@ class ModelingAssessmentIntegrationTest extends AbstractSpringIntegrationBambooB
         participationUtilService.checkFeedbackCorrectlyStored(feedbacks, storedResultOfSubmission2.getFeedbacks(), FeedbackType.AUTOMATIC);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
+    void testAutomaticAssessmentOfLateSubmissionAddedToExistingClusters() throws Exception {
+        ModelingSubmission submission1 = modelingExerciseUtilService.addModelingSubmissionFromResources(classExercise, "test-data/model-submission/model.54727.json",
+                TEST_PREFIX + "student1");
+        modelingExerciseUtilService.addModelingSubmissionFromResources(classExercise, "test-data/model-submission/model.54727-copy.json", TEST_PREFIX + "student2");
+
+        compassService.build(classExercise);
+
+        // the late submission has the same content but new element ids, as it would be the case for a model created by another student
+        Map<String, String> newElementIds = new HashMap<>();
+        String lateModel = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}").matcher(validModel)
+                .replaceAll(match -> newElementIds.computeIfAbsent(match.group(), elementId -> UUID.randomUUID().toString()));
+        ModelingSubmission lateSubmission = modelingExerciseUtilService.addModelingSubmission(classExercise, ParticipationFactory.generateModelingSubmission(lateModel, true),
+                TEST_PREFIX + "student3");
+
+        compassService.build(classExercise);
+
+        assertThat(modelElementRepository.findByModelElementIdIn(List.copyOf(newElementIds.values()))).as("elements of the late submission are clustered")
+                .hasSize(newElementIds.size()).allMatch(modelElement -> modelElement.getSubmission().getId().equals(lateSubmission.getId()));
+
+        List<Feedback> feedbacks = participationUtilService.loadAssessmentFomResources("test-data/model-assessment/assessment.54727.json");
+        createAssessment(submission1, feedbacks, "/assessment?submit=true", HttpStatus.OK);
+
+        Result automaticResult = compassService.getSuggestionResult(lateSubmission, classExercise);
+        assertThat(automaticResult).as("automatic result is created").isNotNull();
+        assertThat(automaticResult.getFeedbacks()).as("all elements are assessed automatically").hasSameSizeAs(feedbacks);
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "TA")
     void testAutomaticAssessmentActivityDiagramUponAssessmentSubmission() throws Exception {
@@ -5,6 +5,8 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -22,6 +24,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
 import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -288,4 +291,20 @@ class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
             assertThat(fileContent3).isEqualTo(oldFileContent3);
         });
     }
+
+    @Test
+    void testWriteHeadTreeWithoutCheckout(@TempDir Path targetPath) throws IOException {
+        gitUtilService.updateFile(GitUtilService.REPOS.LOCAL, GitUtilService.FILES.FILE1, "lorem ipsum");
+        gitUtilService.stashAndCommitAll(GitUtilService.REPOS.LOCAL);
+        // uncommitted changes are not part of the HEAD commit
+        gitUtilService.updateFile(GitUtilService.REPOS.LOCAL, GitUtilService.FILES.FILE2, "lorem ipsum solet");
+        Path gitDir = gitUtilService.getRepoByType(GitUtilService.REPOS.LOCAL).getDirectory().toPath();
+
+        gitService.writeHeadTree(gitDir, targetPath);
+
+        assertThat(targetPath.resolve(".git")).doesNotExist();
+        assertThat(Files.readString(targetPath.resolve(GitUtilService.FILES.FILE1.toString()))).isEqualTo("lorem ipsum");
+        assertThat(Files.readString(targetPath.resolve(GitUtilService.FILES.FILE2.toString()))).isEmpty();
+        assertThat(targetPath.resolve(GitUtilService.FILES.FILE3.toString())).exists();
+    }
 }
@@ -39,6 +39,7 @@ import de.tum.in.www1.artemis.exercise.ExerciseUtilService;
 import de.tum.in.www1.artemis.participation.ParticipationUtilService;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseGradingService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseReEvaluationService;
 import de.tum.in.www1.artemis.service.util.RoundingUtil;
 import de.tum.in.www1.artemis.user.UserUtilService;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseGradingResource;
@@ -83,6 +84,12 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
     @Autowired
     private ProgrammingExerciseGradingService gradingService;
 
+    @Autowired
+    private ProgrammingExerciseReEvaluationService programmingExerciseReEvaluationService;
+
+    @Autowired
+    private ProgrammingExerciseReEvaluationRepository programmingExerciseReEvaluationRepository;
+
     @Autowired
     private UserUtilService userUtilService;
 
@@ -687,6 +694,29 @@ abstract class ProgrammingExerciseGradingServiceTest extends AbstractSpringInteg
         }
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void shouldContinueInterruptedReEvaluation() {
+        programmingExercise = (ProgrammingExercise) exerciseUtilService.addMaxScoreAndBonusPointsToExercise(programmingExercise);
+        programmingExercise = programmingExerciseUtilService.addTemplateParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = programmingExerciseUtilService.addSolutionParticipationForProgrammingExercise(programmingExercise);
+        programmingExercise = programmingExerciseRepository.findByIdWithTemplateAndSolutionParticipationWithResultsElseThrow(programmingExercise.getId());
+
+        final var testCases = createTestCases(false);
+        final var testParticipations = createTestParticipations();
+        changeTestCaseWeights(testCases);
+
+        // a re-evaluation that has not made progress for longer than the configured time was interrupted
+        var interruptedReEvaluation = new ProgrammingExerciseReEvaluation(programmingExercise.getId());
+        interruptedReEvaluation.setLastUpdateDate(ZonedDateTime.now().minusHours(1));
+        programmingExerciseReEvaluationRepository.save(interruptedReEvaluation);
+
+        programmingExerciseReEvaluationService.continueInterruptedReEvaluations();
+
+        verifyStudentScoreCalculations(testParticipations);
+        assertThat(programmingExerciseReEvaluationRepository.findById(programmingExercise.getId())).isEmpty();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void shouldUpdateOnlyResultsForParticipationsWithoutIndividualDueDate() {
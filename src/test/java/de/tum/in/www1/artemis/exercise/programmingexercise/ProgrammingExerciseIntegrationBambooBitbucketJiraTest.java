@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.exercise.programmingexercise;
 
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 
 import java.io.IOException;
@@ -82,6 +83,12 @@ class ProgrammingExerciseIntegrationBambooBitbucketJiraTest extends AbstractSpri
         programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds_includePracticeSubmissions();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testExportSubmissionsByParticipationIds_allParticipationsSkipped_badRequest() throws Exception {
+        programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds_allParticipationsSkipped_badRequest();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void testExportSubmissionsByParticipationIds_addParticipantIdentifierToProjectName() throws Exception {
@@ -130,7 +137,7 @@ class ProgrammingExerciseIntegrationBambooBitbucketJiraTest extends AbstractSpri
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void testExportSubmissionsByStudentLogins_failToCreateZip() throws Exception {
-        doThrow(IOException.class).when(zipFileService).createZipFile(any(Path.class), any());
+        doThrow(IOException.class).when(zipFileService).addFolderToZipFile(any(), any(Path.class), anyString(), any());
         programmingExerciseIntegrationTestService.testExportSubmissionsByStudentLogins_failToCreateZip();
     }
 
@@ -803,6 +810,12 @@ class ProgrammingExerciseIntegrationBambooBitbucketJiraTest extends AbstractSpri
         programmingExerciseIntegrationTestService.testCheckPlagiarism();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testCheckPlagiarismTwice_reusesTokensOfUnchangedRepositories() throws Exception {
+        programmingExerciseIntegrationTestService.testCheckPlagiarismTwice_reusesTokensOfUnchangedRepositories();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void testCheckPlagiarismJplagReport() throws Exception {
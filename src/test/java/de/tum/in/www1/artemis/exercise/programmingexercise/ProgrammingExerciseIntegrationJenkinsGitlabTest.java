@@ -84,6 +84,12 @@ class ProgrammingExerciseIntegrationJenkinsGitlabTest extends AbstractSpringInte
         programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds_includePracticeSubmissions();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testExportSubmissionsByParticipationIds_allParticipationsSkipped_badRequest() throws Exception {
+        programmingExerciseIntegrationTestService.testExportSubmissionsByParticipationIds_allParticipationsSkipped_badRequest();
+    }
+
     @Test
     @DisabledOnOs(OS.WINDOWS) // git file locking issues
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
@@ -917,6 +923,12 @@ class ProgrammingExerciseIntegrationJenkinsGitlabTest extends AbstractSpringInte
         programmingExerciseIntegrationTestService.testCheckPlagiarism();
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
+    void testCheckPlagiarismTwice_reusesTokensOfUnchangedRepositories() throws Exception {
+        programmingExerciseIntegrationTestService.testCheckPlagiarismTwice_reusesTokensOfUnchangedRepositories();
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "instructor1", roles = "INSTRUCTOR")
     void testCheckPlagiarismJplagReport() throws Exception {
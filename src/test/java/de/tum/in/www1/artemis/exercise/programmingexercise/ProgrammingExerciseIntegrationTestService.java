@@ -17,6 +17,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.BiFunction;
 import java.util.stream.IntStream;
 import java.util.zip.ZipFile;
@@ -31,13 +32,16 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.util.LinkedMultiValueMap;
@@ -45,11 +49,13 @@ import org.springframework.util.MultiValueMap;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import de.jplag.Language;
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.course.CourseUtilService;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.*;
 import de.tum.in.www1.artemis.domain.notification.Notification;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.plagiarism.PlagiarismComparison;
@@ -66,6 +72,8 @@ import de.tum.in.www1.artemis.service.UrlService;
 import de.tum.in.www1.artemis.service.connectors.GitService;
 import de.tum.in.www1.artemis.service.connectors.vcs.VersionControlRepositoryPermission;
 import de.tum.in.www1.artemis.service.connectors.vcs.VersionControlService;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismTokenCacheKey;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismTokenCacheService;
 import de.tum.in.www1.artemis.user.UserUtilService;
 import de.tum.in.www1.artemis.util.*;
 import de.tum.in.www1.artemis.web.rest.ProgrammingExerciseResourceEndpoints;
@@ -85,6 +93,64 @@ class ProgrammingExerciseIntegrationTestService {
 
     private static final String NON_EXISTING_ID = Integer.toString(Integer.MAX_VALUE);
 
+    private static final String EXAMPLE_PROGRAM = """
+            public class Main {
+
+                /**
+                 * DO NOT EDIT!
+                 */
+                public static void main(String[] args) {
+                    Main main = new Main();
+                    int magicNumber = main.calculateMagicNumber();
+
+                    System.out.println("Magic number: " + magicNumber);
+                }
+
+                /**
+                 * Calculate the magic number.
+                 *
+                 * @return the magic number.
+                 */
+                private int calculateMagicNumber() {
+                    int a = 0;
+                    int b = 5;
+                    int magicNumber = 0;
+
+                    while (a < b) {
+                        magicNumber += b;
+                        a++;
+                    }
+
+                    return magicNumber;
+                }
+            }
+            """;
+
+    private static final String EXAMPLE_TEMPLATE_PROGRAM = """
+            public class Main {
+
+                /**
+                 * DO NOT EDIT!
+                 */
+                public static void main(String[] args) {
+                    Main main = new Main();
+                    int magicNumber = main.calculateMagicNumber();
+
+                    System.out.println("Magic number: " + magicNumber);
+                }
+
+                /**
+                 * Calculate the magic number.
+                 *
+                 * @return the magic number.
+                 */
+                private int calculateMagicNumber() {
+                    // TODO: calculate the magic number
+                    return 0;
+                }
+            }
+            """;
+
     private String userPrefix;
 
     @Value("${artemis.version-control.default-branch:main}")
@@ -93,6 +159,9 @@ class ProgrammingExerciseIntegrationTestService {
     @Value("${artemis.repo-download-clone-path}")
     private String repoDownloadClonePath;
 
+    @Value("${artemis.plagiarism-checks.token-cache-path:./plagiarism-token-cache}")
+    private String plagiarismTokenCachePath;
+
     @Autowired
     // this will be a SpyBean because it was configured as SpyBean in the super class of the actual test class (see AbstractArtemisIntegrationTest)
     private FileService fileService;
@@ -150,6 +219,14 @@ class ProgrammingExerciseIntegrationTestService {
     @Autowired
     private TextExerciseUtilService textExerciseUtilService;
 
+    @Autowired
+    // this will be a SpyBean because it was configured as SpyBean in the super class of the actual test class (see AbstractArtemisIntegrationTest)
+    private PlagiarismTokenCacheService plagiarismTokenCacheService;
+
+    @Autowired
+    @Qualifier("repositoryExportExecutor")
+    private ThreadPoolTaskExecutor repositoryExportExecutor;
+
     private Course course;
 
     public ProgrammingExercise programmingExercise;
@@ -336,6 +413,27 @@ class ProgrammingExerciseIntegrationTestService {
                 .anyMatch(entry -> entry.toString().matches(".*practice-[^\\/]*student2.*.git$"));
     }
 
+    void testExportSubmissionsByParticipationIds_allParticipationsSkipped_badRequest() throws Exception {
+        // Set all participations to practice mode, so that every participation is skipped
+        participation1.setTestRun(true);
+        participation2.setTestRun(true);
+        programmingExerciseStudentParticipationRepository.saveAll(List.of(participation1, participation2));
+
+        var participationIds = programmingExerciseStudentParticipationRepository.findAll().stream().map(participation -> participation.getId().toString()).toList();
+        final var path = ROOT + EXPORT_SUBMISSIONS_BY_PARTICIPATIONS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participationIds}",
+                String.join(",", participationIds));
+        var exportOptions = new RepositoryExportOptionsDTO();
+        exportOptions.setExcludePracticeSubmissions(true);
+
+        request.postWithResponseBodyFile(path, exportOptions, HttpStatus.BAD_REQUEST);
+
+        // Make sure that the zip file without entries was deleted
+        verify(gitService, never()).getOrCheckoutRepository(any(ProgrammingExerciseParticipation.class), anyString());
+        try (var files = Files.walk(Path.of(repoDownloadClonePath))) {
+            assertThat(files).noneMatch(file -> file.getFileName().toString().endsWith(".zip"));
+        }
+    }
+
     void testExportSubmissionsByParticipationIds_addParticipantIdentifierToProjectName() throws Exception {
         var repository1 = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile.toPath(), null);
         var repository2 = gitService.getExistingCheckedOutRepositoryByLocalPath(localRepoFile2.toPath(), null);
@@ -1706,6 +1804,82 @@ class ProgrammingExerciseIntegrationTestService {
         }
     }
 
+    void testCheckPlagiarismTwice_reusesTokensOfUnchangedRepositories() throws Exception {
+        var course = programmingExerciseUtilService.addCourseWithOneProgrammingExercise();
+        var programmingExercise = programmingExerciseRepository
+                .findWithTemplateAndSolutionParticipationById(exerciseUtilService.getFirstExerciseWithType(course, ProgrammingExercise.class).getId()).orElseThrow();
+        plagiarismTokenCacheService.deleteCachedTokens(programmingExercise.getId());
+
+        var jPlagReposDir = Path.of(repoDownloadClonePath, "jplag-repos").toString();
+        doReturn(jPlagReposDir).when(fileService).getUniquePathString(any());
+
+        // the repositories are checked out into the folders of the JPlag submissions and the template repository is the base code
+        Map<Long, Repository> repositories = new HashMap<>();
+        var templateParticipation = programmingExercise.getTemplateParticipation();
+        var templateRepoPath = gitService.getLocalPathOfRepo(jPlagReposDir, templateParticipation.getVcsRepositoryUrl());
+        String templateCommitHash = createRepositoryForPlagiarismCheck(templateParticipation, templateRepoPath, EXAMPLE_TEMPLATE_PROGRAM, repositories);
+        for (String student : List.of("student1", "student2")) {
+            var participation = participationUtilService.addStudentParticipationForProgrammingExercise(programmingExercise, userPrefix + student);
+            var submission = programmingExerciseUtilService.createProgrammingSubmission(participation, false);
+            participationUtilService.addResultToSubmission(submission, AssessmentType.AUTOMATIC, null);
+            createRepositoryForPlagiarismCheck(participation, gitService.getLocalPathForJPlag(participation, jPlagReposDir), EXAMPLE_PROGRAM, repositories);
+        }
+
+        Set<String> checkoutThreads = Collections.synchronizedSet(new HashSet<>());
+        Answer<Repository> checkoutRepository = invocation -> {
+            checkoutThreads.add(Thread.currentThread().getName());
+            return repositories.get(invocation.<ProgrammingExerciseParticipation>getArgument(0).getId());
+        };
+        doAnswer(checkoutRepository).when(gitService).getOrCheckoutRepositoryForJPlag(any(), anyString());
+        doAnswer(checkoutRepository).when(gitService).getOrCheckoutRepository(any(ProgrammingExerciseParticipation.class), anyString());
+        doNothing().when(gitService).resetToOriginHead(any());
+
+        // spies on the language wrapped by the token cache to count how often the repositories are parsed
+        List<Language> parsingLanguages = Collections.synchronizedList(new ArrayList<>());
+        List<Map<Path, PlagiarismTokenCacheKey>> tokenCacheKeys = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Language language = spy(invocation.<Language>getArgument(0));
+            parsingLanguages.add(language);
+            tokenCacheKeys.add(invocation.getArgument(1));
+            return new PlagiarismTokenCacheService(plagiarismTokenCachePath).withTokenCache(language, invocation.getArgument(1));
+        }).when(plagiarismTokenCacheService).withTokenCache(any(), any());
+
+        final var path = ROOT + CHECK_PLAGIARISM.replace("{exerciseId}", String.valueOf(programmingExercise.getId()));
+        request.get(path, HttpStatus.OK, TextPlagiarismResult.class, plagiarismUtilService.getPlagiarismOptions(0D, 0, 0));
+
+        // the repositories are checked out by the repository export executor, which lets the caller check out the repository if its queue is full
+        assertThat(checkoutThreads).isNotEmpty().allMatch(thread -> thread.startsWith("repository-export-"));
+        assertThat(repositoryExportExecutor.getThreadPoolExecutor().getRejectedExecutionHandler()).isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+
+        assertThat(parsingLanguages).hasSize(1);
+        verify(parsingLanguages.get(0), atLeast(3)).parse(any());
+        // the template repository is cached with the commit of the base code, like the student repositories
+        assertThat(tokenCacheKeys.get(0)).hasSize(3).containsValue(new PlagiarismTokenCacheKey(programmingExercise.getId(), templateParticipation.getId(), templateCommitHash));
+        for (var participationId : repositories.keySet()) {
+            assertThat(Path.of(plagiarismTokenCachePath, programmingExercise.getId().toString(), participationId + ".tokens")).exists();
+        }
+
+        // only the similarity threshold changes, so none of the unchanged repositories has to be parsed again
+        request.get(path, HttpStatus.OK, TextPlagiarismResult.class, plagiarismUtilService.getPlagiarismOptions(50D, 0, 0));
+
+        assertThat(parsingLanguages).hasSize(2);
+        verify(parsingLanguages.get(1), never()).parse(any());
+        assertThat(tokenCacheKeys.get(1)).isEqualTo(tokenCacheKeys.get(0));
+
+        plagiarismTokenCacheService.deleteCachedTokens(programmingExercise.getId());
+    }
+
+    private String createRepositoryForPlagiarismCheck(ProgrammingExerciseParticipation participation, Path repositoryPath, String program, Map<Long, Repository> repositories)
+            throws IOException, GitAPIException {
+        try (Git git = LocalRepository.initialize(repositoryPath.toFile(), defaultBranch)) {
+            Files.writeString(repositoryPath.resolve("Main.java"), program);
+            git.add().addFilepattern(".").call();
+            RevCommit commit = git.commit().setMessage("Add Main.java").setSign(false).setAuthor("test", "test@test.com").call();
+            repositories.put(participation.getId(), gitService.getExistingCheckedOutRepositoryByLocalPath(repositoryPath, null));
+            return commit.getName();
+        }
+    }
+
     private void assertPlagiarismResult(ProgrammingExercise programmingExercise, TextPlagiarismResult result, double expectedSimilarity) {
         assertThat(result.getComparisons()).hasSize(1);
         assertThat(result.getExercise().getId()).isEqualTo(programmingExercise.getId());
@@ -1727,44 +1901,11 @@ class ProgrammingExerciseIntegrationTestService {
         var jPlagReposDir = Path.of(repoDownloadClonePath, "jplag-repos").toString();
         var projectKey = programmingExercise.getProjectKey();
 
-        var exampleProgram = """
-                public class Main {
-
-                    /**
-                     * DO NOT EDIT!
-                     */
-                    public static void main(String[] args) {
-                        Main main = new Main();
-                        int magicNumber = main.calculateMagicNumber();
-
-                        System.out.println("Magic number: " + magicNumber);
-                    }
-
-                    /**
-                     * Calculate the magic number.
-                     *
-                     * @return the magic number.
-                     */
-                    private int calculateMagicNumber() {
-                        int a = 0;
-                        int b = 5;
-                        int magicNumber = 0;
-
-                        while (a < b) {
-                            magicNumber += b;
-                            a++;
-                        }
-
-                        return magicNumber;
-                    }
-                }
-                """;
-
         Files.createDirectories(Path.of(jPlagReposDir, projectKey));
         Path file1 = Files.createFile(Path.of(jPlagReposDir, projectKey, "Submission-1.java"));
-        Files.writeString(file1, exampleProgram);
+        Files.writeString(file1, EXAMPLE_PROGRAM);
         Path file2 = Files.createFile(Path.of(jPlagReposDir, projectKey, "Submission-2.java"));
-        Files.writeString(file2, exampleProgram);
+        Files.writeString(file2, EXAMPLE_PROGRAM);
 
         doReturn(jPlagReposDir).when(fileService).getUniquePathString(any());
         doReturn(null).when(urlService).getRepositorySlugFromRepositoryUrl(any());
@@ -0,0 +1,85 @@
+package de.tum.in.www1.artemis.localvcci;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.service.connectors.localci.LocalCITestResultParser;
+import de.tum.in.www1.artemis.service.connectors.localci.dto.LocalCIBuildResult;
+
+class LocalCITestResultParserTest {
+
+    private final LocalCITestResultParser parser = new LocalCITestResultParser(XMLInputFactory.newInstance(), 20);
+
+    @Test
+    void testParseTestResultsOfMultipleFiles() throws Exception {
+        String firstFile = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="FirstTest" tests="2">
+                    <testcase name="testPassing" classname="FirstTest" time="0.01"/>
+                    <testcase name="testFailing" classname="FirstTest" time="0.02">
+                        <failure message="expected: &lt;1&gt; but was: &lt;2&gt;" type="org.opentest4j.AssertionFailedError">long stack trace</failure>
+                    </testcase>
+                </testsuite>
+                """;
+        String secondFile = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="SecondTest" tests="1">
+                    <testcase name="testAlsoPassing" classname="SecondTest" time="0.01">
+                    </testcase>
+                </testsuite>
+                """;
+        List<LocalCIBuildResult.LocalCITestJobDTO> failedTests = new ArrayList<>();
+        List<LocalCIBuildResult.LocalCITestJobDTO> successfulTests = new ArrayList<>();
+
+        parser.parseTestResults(createTestResultArchive(firstFile, "ignored", secondFile), failedTests, successfulTests);
+
+        assertThat(successfulTests).extracting(LocalCIBuildResult.LocalCITestJobDTO::name).containsExactly("testPassing", "testAlsoPassing");
+        assertThat(failedTests).extracting(LocalCIBuildResult.LocalCITestJobDTO::name).containsExactly("testFailing");
+        assertThat(failedTests.get(0).errors()).as("message is truncated").containsExactly("expected: <1> but wa");
+    }
+
+    @Test
+    void testParseTestResultsWithInvalidRootElement() throws Exception {
+        String invalidFile = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testcase name="testPassing"/>
+                """;
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> parser.parseTestResults(createTestResultArchive(invalidFile), new ArrayList<>(), new ArrayList<>()));
+    }
+
+    /**
+     * Creates an archive like the one retrieved from the build container. Every content is added as a test result file, except for "ignored" which is added as a file that is
+     * not a test result file.
+     */
+    private TarArchiveInputStream createTestResultArchive(String... contents) throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tarArchiveOutputStream = new TarArchiveOutputStream(archive)) {
+            for (int i = 0; i < contents.length; i++) {
+                boolean ignored = "ignored".equals(contents[i]);
+                byte[] content = (ignored ? "<not-a-test-result/>" : contents[i]).getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry(ignored ? "test/binary/output.bin" : "test/TEST-" + i + ".xml");
+                entry.setSize(content.length);
+                tarArchiveOutputStream.putArchiveEntry(entry);
+                tarArchiveOutputStream.write(content);
+                tarArchiveOutputStream.closeArchiveEntry();
+            }
+        }
+        return new TarArchiveInputStream(new ByteArrayInputStream(archive.toByteArray()));
+    }
+}
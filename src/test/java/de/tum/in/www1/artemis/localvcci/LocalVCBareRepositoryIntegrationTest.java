@@ -0,0 +1,168 @@
+package de.tum.in.www1.artemis.localvcci;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.tum.in.www1.artemis.domain.AuxiliaryRepository;
+import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
+import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
+import de.tum.in.www1.artemis.domain.plagiarism.text.TextPlagiarismResult;
+import de.tum.in.www1.artemis.exercise.programmingexercise.ProgrammingExerciseUtilService;
+import de.tum.in.www1.artemis.repository.AuxiliaryRepositoryRepository;
+import de.tum.in.www1.artemis.service.plagiarism.ProgrammingPlagiarismDetectionService;
+import de.tum.in.www1.artemis.service.programming.ProgrammingExerciseExportService;
+import de.tum.in.www1.artemis.util.LocalRepository;
+
+/**
+ * This class contains integration tests for the features that read the files of the latest commit directly from the bare repositories of the local VC system instead of
+ * cloning the repositories.
+ */
+class LocalVCBareRepositoryIntegrationTest extends AbstractLocalCILocalVCIntegrationTest {
+
+    private static final String EXAMPLE_PROGRAM = """
+            public class Main {
+
+                public static void main(String[] args) {
+                    Main main = new Main();
+                    int magicNumber = main.calculateMagicNumber();
+
+                    System.out.println("Magic number: " + magicNumber);
+                }
+
+                private int calculateMagicNumber() {
+                    int a = 0;
+                    int b = 5;
+                    int magicNumber = 0;
+
+                    while (a < b) {
+                        magicNumber += b;
+                        a++;
+                    }
+
+                    return magicNumber;
+                }
+            }
+            """;
+
+    @Autowired
+    private ProgrammingExerciseExportService programmingExerciseExportService;
+
+    @Autowired
+    private ProgrammingPlagiarismDetectionService programmingPlagiarismDetectionService;
+
+    @Autowired
+    private ProgrammingExerciseUtilService programmingExerciseUtilService;
+
+    @Autowired
+    private AuxiliaryRepositoryRepository auxiliaryRepositoryRepository;
+
+    private final List<LocalRepository> localRepositories = new ArrayList<>();
+
+    @AfterEach
+    void removeRepositories() throws IOException {
+        for (LocalRepository localRepository : localRepositories) {
+            localRepository.resetLocalRepo();
+        }
+    }
+
+    @Test
+    void testExportStudentRequestedRepository_includeTests_sameLayoutAsClonedRepositories() throws Exception {
+        AuxiliaryRepository auxiliaryRepository = programmingExerciseUtilService.addAuxiliaryRepositoryToExercise(programmingExercise);
+        String auxiliaryRepositorySlug = projectKey1.toLowerCase() + "-auxrepo";
+        auxiliaryRepository.setCheckoutDirectory("helper");
+        auxiliaryRepository.setRepositoryUrl(localVCBaseUrl + "/git/" + projectKey1 + "/" + auxiliaryRepositorySlug + ".git");
+        auxiliaryRepositoryRepository.save(auxiliaryRepository);
+
+        // the folders of the tests repository that are replaced by the solution and the auxiliary repository in the build plan
+        commitAndPush(projectKey1.toLowerCase() + "-tests", "build.gradle", "test/SortingTest.java", "assignment/src/Template.java", "helper/Outdated.java");
+        commitAndPush(solutionRepositorySlug, "src/Solution.java");
+        commitAndPush(auxiliaryRepositorySlug, "Helper.java");
+
+        File exportFromBareRepositories = programmingExerciseExportService.exportStudentRequestedRepository(programmingExercise.getId(), true, new ArrayList<>()).orElseThrow();
+        verify(gitService, never()).getOrCheckoutRepository(any(), any(Path.class), anyBoolean());
+
+        // the repositories are cloned if they are not stored in the local VC
+        doReturn(Optional.empty()).when(gitService).getLocalVCBareRepositoryPath(any());
+        File exportFromClonedRepositories = programmingExerciseExportService.exportStudentRequestedRepository(programmingExercise.getId(), true, new ArrayList<>())
+                .orElseThrow();
+
+        List<String> entries = getZipEntryNames(exportFromBareRepositories);
+        assertThat(entries).containsExactlyInAnyOrderElementsOf(getZipEntryNames(exportFromClonedRepositories));
+        assertThat(entries).contains("build.gradle", "test/SortingTest.java", "assignment/src/Solution.java", "helper/Helper.java")
+                .doesNotContain("assignment/src/Template.java", "helper/Outdated.java").noneMatch(entry -> entry.startsWith(".git/") || entry.contains("/.git/"));
+    }
+
+    @Test
+    void testCheckPlagiarism_writesFilesToJPlagFolderOfParticipation() throws Exception {
+        var participation1 = createParticipationWithSubmission(student1Login);
+        var participation2 = createParticipationWithSubmission(student2Login);
+        commitAndPush(assignmentRepositorySlug, "Main.java");
+        commitAndPush(localVCLocalCITestService.getRepositorySlug(projectKey1, student2Login), "Main.java");
+        commitAndPush(templateRepositorySlug, "Main.java");
+
+        TextPlagiarismResult result = programmingPlagiarismDetectionService.checkPlagiarism(programmingExercise.getId(), 0, 0);
+        assertThat(result.getExercise().getId()).isEqualTo(programmingExercise.getId());
+
+        // the files are written directly from the bare repositories into the folders, whose names carry the participation ids for JPlag
+        verify(gitService, never()).getOrCheckoutRepositoryForJPlag(any(), anyString());
+        ArgumentCaptor<Path> repositoryFolders = ArgumentCaptor.forClass(Path.class);
+        verify(gitService, times(3)).writeHeadTree(any(), repositoryFolders.capture());
+        for (ProgrammingExerciseParticipation participation : List.of(participation1, participation2)) {
+            Path repositoryFolder = repositoryFolders.getAllValues().stream().filter(folder -> folder.getFileName().toString().startsWith(participation.getId() + "-"))
+                    .findFirst().orElseThrow();
+            assertThat(repositoryFolder.resolve("Main.java")).hasContent(EXAMPLE_PROGRAM);
+            assertThat(repositoryFolder.resolve(".git")).doesNotExist();
+        }
+    }
+
+    private ProgrammingExerciseStudentParticipation createParticipationWithSubmission(String userLogin) {
+        var participation = localVCLocalCITestService.createParticipation(programmingExercise, userLogin);
+        var submission = programmingExerciseUtilService.createProgrammingSubmission(participation, false);
+        participationUtilService.addResultToSubmission(submission, AssessmentType.AUTOMATIC);
+        return participation;
+    }
+
+    /**
+     * Creates the repository in the local VC and pushes a commit with the given files. Main.java contains the example program, the other files their own path.
+     *
+     * @param repositorySlug the slug of the repository
+     * @param filePaths      the paths of the files relative to the repository root
+     */
+    private void commitAndPush(String repositorySlug, String... filePaths) throws GitAPIException, IOException, URISyntaxException {
+        LocalRepository localRepository = localVCLocalCITestService.createAndConfigureLocalRepository(projectKey1, repositorySlug);
+        localRepositories.add(localRepository);
+        for (String filePath : filePaths) {
+            Path file = localRepository.localRepoFile.toPath().resolve(filePath);
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, filePath.endsWith("Main.java") ? EXAMPLE_PROGRAM : filePath);
+        }
+        localRepository.localGit.add().addFilepattern(".").call();
+        localRepository.localGit.commit().setMessage("Add files").call();
+        localRepository.localGit.push().setRemote("origin").call();
+    }
+
+    private static List<String> getZipEntryNames(File zipFile) throws IOException {
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            return Collections.list(zip.entries()).stream().filter(entry -> !entry.isDirectory()).map(ZipEntry::getName).toList();
+        }
+    }
+}
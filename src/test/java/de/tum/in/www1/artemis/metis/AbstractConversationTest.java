@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -134,6 +135,17 @@ abstract class AbstractConversationTest extends AbstractSpringIntegrationBambooB
 
     }
 
+    void verifyNewMessageParticipantTopicWebsocketSent(Long conversationId, String... userLoginsWithoutPrefix) {
+        var participantTopicName = ConversationService.getConversationParticipantTopicName(exampleCourseId);
+        var expectedTopics = Arrays.stream(userLoginsWithoutPrefix).map(login -> userUtilService.getUserByLogin(testPrefix + login))
+                .collect(Collectors.toMap(User::getLogin, user -> participantTopicName + user.getId()));
+        verify(websocketMessagingService, timeout(2000)).sendFanOutEnvelopes(argThat(envelopes -> expectedTopics.entrySet().stream()
+                .allMatch(expected -> envelopes.stream().anyMatch(envelope -> envelope.userLogin().equals(expected.getKey()) && envelope.messages().stream()
+                        .anyMatch(message -> message.topic().equals(expected.getValue()) && message.payload() instanceof ConversationWebsocketDTO websocketDTO
+                                && websocketDTO.metisCrudAction() == MetisCrudAction.NEW_MESSAGE && websocketDTO.conversation().getId().equals(conversationId))))),
+                anyInt());
+    }
+
     void verifyNoParticipantTopicWebsocketSent() {
         verify(this.websocketMessagingService, never()).sendMessageToUser(anyString(), anyString(), any(ConversationWebsocketDTO.class));
     }
@@ -107,7 +107,7 @@ class GroupChatIntegrationTest extends AbstractConversationTest {
         var post = this.postInConversation(chat.getId(), "student1");
         // then
         // send conversation with updated last message date to participants. This is necessary to show the unread messages badge in the client
-        verifyMultipleParticipantTopicWebsocketSent(MetisCrudAction.NEW_MESSAGE, chat.getId(), "student2", "student3");
+        verifyNewMessageParticipantTopicWebsocketSent(chat.getId(), "student2", "student3");
         verifyNoParticipantTopicWebsocketSentExceptAction(MetisCrudAction.NEW_MESSAGE);
 
         // cleanup
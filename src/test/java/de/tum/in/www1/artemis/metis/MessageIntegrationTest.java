@@ -11,6 +11,7 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.validation.*;
 
@@ -21,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -29,6 +31,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.util.LinkedMultiValueMap;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
@@ -49,6 +52,7 @@ import de.tum.in.www1.artemis.repository.metis.conversation.OneToOneChatReposito
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.user.UserUtilService;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.websocket.dto.metis.PostDTO;
 
 class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -158,7 +162,8 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         assertThat(conversationMessageRepository.findMessages(postContextFilter, Pageable.unpaged(), requestingUser.getId())).hasSize(1);
 
         // both conversation participants should be notified
-        verify(websocketMessagingService, timeout(2000).times(2)).sendMessageToUser(anyString(), anyString(), any(PostDTO.class));
+        verify(websocketMessagingService, timeout(2000)).sendFanOutEnvelopes(argThat(envelopes -> envelopes.size() == 2
+                && envelopes.stream().allMatch(envelope -> envelope.messages().stream().anyMatch(message -> message.payload() instanceof PostDTO))), anyInt());
     }
 
     @ParameterizedTest
@@ -218,6 +223,7 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
 
         // conversation participants should not be notified
         verify(websocketMessagingService, never()).sendMessageToUser(anyString(), anyString(), any(PostDTO.class));
+        verify(websocketMessagingService, never()).sendFanOutEnvelopes(anyList(), anyInt());
 
         // active messaging again
         persistedCourse.setCourseInformationSharingConfiguration(CourseInformationSharingConfiguration.COMMUNICATION_AND_MESSAGING);
@@ -244,6 +250,7 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
 
         // conversation participants should not be notified
         verify(websocketMessagingService, never()).sendMessageToUser(anyString(), anyString(), any(PostDTO.class));
+        verify(websocketMessagingService, never()).sendFanOutEnvelopes(anyList(), anyInt());
     }
 
     @Test
@@ -288,6 +295,81 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         assertThat(returnedPosts).hasSize(existingConversationPosts.size());
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "USER")
+    void testGetConversationPostsWithCursor() throws Exception {
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("conversationId", existingConversationPosts.get(0).getConversation().getId().toString());
+        params.add("size", String.valueOf(existingConversationPosts.size() - 1));
+
+        MockHttpServletResponse firstPageResponse = getMessagesResponse(params);
+        List<Post> firstPage = readMessages(firstPageResponse);
+        String nextCursor = firstPageResponse.getHeader(PostCursor.NEXT_CURSOR_HEADER);
+        assertThat(firstPage).hasSize(existingConversationPosts.size() - 1);
+        assertThat(nextCursor).isNotNull();
+
+        params.add("cursor", nextCursor);
+        MockHttpServletResponse secondPageResponse = getMessagesResponse(params);
+        List<Post> secondPage = readMessages(secondPageResponse);
+        assertThat(secondPage).hasSize(1);
+        // the last page has no next page
+        assertThat(secondPageResponse.getHeader(PostCursor.NEXT_CURSOR_HEADER)).isNull();
+
+        List<Long> pagedIds = Stream.concat(firstPage.stream(), secondPage.stream()).map(Post::getId).toList();
+        assertThat(pagedIds).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(existingConversationPosts.stream().map(Post::getId).toList());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "USER")
+    void testGetConversationPostsWithInvalidCursor() throws Exception {
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("conversationId", existingConversationPosts.get(0).getConversation().getId().toString());
+        params.add("cursor", "invalid");
+
+        request.getList("/api/courses/" + courseId + "/messages", HttpStatus.BAD_REQUEST, Post.class, params);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "tutor1", roles = "USER")
+    void testCachedFirstPageIsInvalidatedOnCreateEditAndDelete() throws Exception {
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("conversationId", existingConversationPosts.get(0).getConversation().getId().toString());
+        String messagesUrl = "/api/courses/" + courseId + "/messages";
+
+        // the unfiltered first page is cached by the first request
+        assertThat(request.getList(messagesUrl, HttpStatus.OK, Post.class, params)).hasSize(existingConversationPosts.size());
+
+        Post postToSave = new Post();
+        postToSave.setContent("New message that has to be visible on the cached first page");
+        postToSave.setDisplayPriority(DisplayPriority.NONE);
+        postToSave.setConversation(existingConversationPosts.get(0).getConversation());
+        Post createdPost = request.postWithResponseBody(messagesUrl, postToSave, Post.class, HttpStatus.CREATED);
+        List<Post> messagesAfterCreate = request.getList(messagesUrl, HttpStatus.OK, Post.class, params);
+        assertThat(messagesAfterCreate).hasSize(existingConversationPosts.size() + 1);
+        assertThat(messagesAfterCreate).extracting(Post::getId).contains(createdPost.getId());
+
+        createdPost.setContent("Edited message that has to be visible on the cached first page");
+        request.putWithResponseBody(messagesUrl + "/" + createdPost.getId(), createdPost, Post.class, HttpStatus.OK);
+        List<Post> messagesAfterEdit = request.getList(messagesUrl, HttpStatus.OK, Post.class, params);
+        assertThat(messagesAfterEdit).filteredOn(post -> post.getId().equals(createdPost.getId())).singleElement().extracting(Post::getContent)
+                .isEqualTo(createdPost.getContent());
+
+        request.delete(messagesUrl + "/" + createdPost.getId(), HttpStatus.OK);
+        List<Post> messagesAfterDelete = request.getList(messagesUrl, HttpStatus.OK, Post.class, params);
+        assertThat(messagesAfterDelete).hasSize(existingConversationPosts.size());
+        assertThat(messagesAfterDelete).extracting(Post::getId).doesNotContain(createdPost.getId());
+    }
+
+    private MockHttpServletResponse getMessagesResponse(LinkedMultiValueMap<String, String> params) throws Exception {
+        return request.getMvc().perform(MockMvcRequestBuilders.get("/api/courses/" + courseId + "/messages").params(params)).andExpect(status().isOk()).andReturn()
+                .getResponse();
+    }
+
+    private List<Post> readMessages(MockHttpServletResponse response) throws Exception {
+        return objectMapper.readValue(response.getContentAsString(), new TypeReference<>() {
+        });
+    }
+
     @Test
     @WithMockUser(username = TEST_PREFIX + "tutor1")
     void testEditConversationPost() throws Exception {
@@ -318,6 +400,7 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
 
         // conversation participants should not be notified
         verify(websocketMessagingService, never()).sendMessageToUser(anyString(), anyString(), any(PostDTO.class));
+        verify(websocketMessagingService, never()).sendFanOutEnvelopes(anyList(), anyInt());
     }
 
     @Test
@@ -342,6 +425,7 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         assertThat(conversationMessageRepository.findById(conversationPostToDelete.getId())).isPresent();
         // conversation participants should not be notified
         verify(websocketMessagingService, never()).sendMessageToUser(anyString(), anyString(), any(PostDTO.class));
+        verify(websocketMessagingService, never()).sendFanOutEnvelopes(anyList(), anyInt());
     }
 
     @Test
@@ -350,10 +434,10 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         Post postToSave = createPostWithOneToOneChat(TEST_PREFIX);
         Post createdPost = request.postWithResponseBody("/api/courses/" + courseId + "/messages", postToSave, Post.class, HttpStatus.CREATED);
 
-        long unreadMessages = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost.getConversation().getId()).orElseThrow()
-                .getConversationParticipants().stream()
+        var oneToOneChat = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost.getConversation().getId()).orElseThrow();
+        long unreadMessages = oneToOneChat.getConversationParticipants().stream()
                 .filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave.getAuthor().getId())).findAny().orElseThrow()
-                .getUnreadMessagesCount();
+                .getUnreadMessagesCount(oneToOneChat.getMessageSequence());
         assertThat(unreadMessages).isEqualTo(1L);
     }
 
@@ -379,9 +463,10 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
 
         await().untilAsserted(() -> {
             SecurityUtils.setAuthorizationObject();
-            assertThat(oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost1.getConversation().getId()).orElseThrow().getConversationParticipants()
-                    .stream().filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave1.getAuthor().getId())).findAny().orElseThrow()
-                    .getUnreadMessagesCount()).isZero();
+            var oneToOneChat = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost1.getConversation().getId()).orElseThrow();
+            assertThat(oneToOneChat.getConversationParticipants().stream()
+                    .filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave1.getAuthor().getId())).findAny().orElseThrow()
+                    .getUnreadMessagesCount(oneToOneChat.getMessageSequence())).isZero();
         });
     }
 
@@ -413,10 +498,10 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
                 .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
 
         SecurityContextHolder.setContext(TestSecurityContextHolder.getContext());
-        long unreadMessages = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost1.getConversation().getId()).orElseThrow()
-                .getConversationParticipants().stream()
+        var oneToOneChat = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(createdPost1.getConversation().getId()).orElseThrow();
+        long unreadMessages = oneToOneChat.getConversationParticipants().stream()
                 .filter(conversationParticipant -> !Objects.equals(conversationParticipant.getUser().getId(), postToSave1.getAuthor().getId())).findAny().orElseThrow()
-                .getUnreadMessagesCount();
+                .getUnreadMessagesCount(oneToOneChat.getMessageSequence());
 
         assertThat(unreadMessages).isEqualTo(1);
     }
@@ -433,13 +518,13 @@ class MessageIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJir
         var participant1 = new ConversationParticipant();
         participant1.setConversation(chat);
         participant1.setUser(student1);
-        participant1.setUnreadMessagesCount(0L);
+        participant1.setLastReadSequence(0L);
         participant1.setLastRead(ZonedDateTime.now().minusYears(2));
         conversationParticipantRepository.save(participant1);
         var participant2 = new ConversationParticipant();
         participant2.setConversation(chat);
         participant2.setUser(student2);
-        participant2.setUnreadMessagesCount(0L);
+        participant2.setLastReadSequence(0L);
         participant2.setLastRead(ZonedDateTime.now().minusYears(2));
         conversationParticipantRepository.save(participant2);
         chat = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(chat.getId()).orElseThrow();
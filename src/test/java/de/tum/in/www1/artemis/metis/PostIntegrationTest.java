@@ -3,6 +3,8 @@ package de.tum.in.www1.artemis.metis;
 import static de.tum.in.www1.artemis.service.metis.PostService.TOP_K_SIMILARITY_RESULTS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -20,10 +22,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
@@ -46,6 +52,7 @@ import de.tum.in.www1.artemis.repository.plagiarism.PlagiarismCaseRepository;
 import de.tum.in.www1.artemis.service.notifications.GroupNotificationService;
 import de.tum.in.www1.artemis.user.UserUtilService;
 import de.tum.in.www1.artemis.web.rest.dto.PostContextFilter;
+import de.tum.in.www1.artemis.web.rest.dto.PostCursor;
 import de.tum.in.www1.artemis.web.websocket.dto.metis.PostDTO;
 
 class PostIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -70,6 +77,9 @@ class PostIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTe
     @Autowired
     private ExamUtilService examUtilService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private List<Post> existingPosts;
 
     private List<Post> existingCoursePosts;
@@ -893,6 +903,47 @@ class PostIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTe
         assertThat(returnedPosts.size()).isIn(returnedPosts.size(), MAX_POSTS_PER_PAGE);
     }
 
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testGetPostsPageForCourse_withCursor() throws Exception {
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("pagingEnabled", "true");
+        params.add("page", "0");
+        params.add("size", "4");
+        params.add("postSortCriterion", PostSortCriterion.CREATION_DATE.toString());
+        params.add("sortingOrder", SortingOrder.DESCENDING.toString());
+        List<Post> offsetPage = getPosts(params);
+
+        params.set("size", "2");
+        MockHttpServletResponse firstPageResponse = request.getMvc().perform(get("/api/courses/" + courseId + "/posts").params(params)).andExpect(status().isOk()).andReturn()
+                .getResponse();
+        List<Post> firstPage = objectMapper.readValue(firstPageResponse.getContentAsString(), new TypeReference<>() {
+        });
+        String nextCursor = firstPageResponse.getHeader(PostCursor.NEXT_CURSOR_HEADER);
+        assertThat(nextCursor).isNotNull();
+
+        params.add("cursor", nextCursor);
+        List<Post> secondPage = getPosts(params);
+
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(2);
+        assertThat(firstPage.stream().map(Post::getId)).containsExactlyElementsOf(offsetPage.subList(0, 2).stream().map(Post::getId).toList());
+        assertThat(secondPage.stream().map(Post::getId)).containsExactlyElementsOf(offsetPage.subList(2, 4).stream().map(Post::getId).toList());
+    }
+
+    @Test
+    @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
+    void testGetPostsPageForCourse_withInvalidCursor() throws Exception {
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("pagingEnabled", "true");
+        params.add("size", "2");
+        params.add("postSortCriterion", PostSortCriterion.CREATION_DATE.toString());
+        params.add("sortingOrder", SortingOrder.DESCENDING.toString());
+        params.add("cursor", "invalid");
+
+        request.getList("/api/courses/" + courseId + "/posts", HttpStatus.BAD_REQUEST, Post.class, params);
+    }
+
     // DELETE
 
     @Test
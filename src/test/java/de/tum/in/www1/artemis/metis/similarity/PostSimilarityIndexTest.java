@@ -0,0 +1,64 @@
+package de.tum.in.www1.artemis.metis.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.service.metis.similarity.PostSimilarityIndex;
+import de.tum.in.www1.artemis.service.metis.similarity.PostTextTokenizer;
+
+class PostSimilarityIndexTest {
+
+    private PostSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSimilarityIndex();
+        index.addOrUpdatePost(1L, "Gradle build fails", "The build of my submission fails with a compilation error");
+        index.addOrUpdatePost(2L, "Question about the deadline", "Can the deadline of the exercise be extended?");
+        index.addOrUpdatePost(3L, "Test cases fail", "Which tests are failing in the sorting exercise?");
+    }
+
+    @Test
+    void testTokenize_normalizesWords() {
+        assertThat(PostTextTokenizer.tokenize("Compiling compiles COMPILE")).containsExactly("compil", "compil", "compil");
+        assertThat(PostTextTokenizer.tokenize("Übungen zur Übung")).containsExactly("ubung", "ubung");
+        assertThat(PostTextTokenizer.tokenize("How does the class work?")).containsExactly("class", "work");
+        assertThat(PostTextTokenizer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void testFindMostSimilarPostIds_ordersBySimilarity() {
+        assertThat(index.findMostSimilarPostIds("The deadline of exercises", null, null, 5)).containsExactly(2L, 3L);
+        assertThat(index.findMostSimilarPostIds("My build failed", "compilation error", null, 1)).containsExactly(1L);
+    }
+
+    @Test
+    void testFindMostSimilarPostIds_noCommonTerms() {
+        assertThat(index.findMostSimilarPostIds("Lecture slides", "Where are the slides?", null, 5)).isEmpty();
+    }
+
+    @Test
+    void testFindMostSimilarPostIds_excludesPost() {
+        assertThat(index.findMostSimilarPostIds("Gradle build fails", null, 1L, 5)).doesNotContain(1L);
+    }
+
+    @Test
+    void testAddOrUpdatePost_replacesText() {
+        index.addOrUpdatePost(2L, "Lecture slides missing", null);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.findMostSimilarPostIds("deadline", null, null, 5)).isEmpty();
+        assertThat(index.findMostSimilarPostIds("slides", null, null, 5)).containsExactly(2L);
+    }
+
+    @Test
+    void testRemovePost() {
+        index.removePost(1L);
+        index.removePost(42L);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.findMostSimilarPostIds("Gradle build", null, null, 5)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package de.tum.in.www1.artemis.plagiarism;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.jplag.Language;
+import de.jplag.Token;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismTokenCacheKey;
+import de.tum.in.www1.artemis.service.plagiarism.cache.PlagiarismTokenCacheService;
+
+class PlagiarismTokenCacheServiceTest {
+
+    @TempDir
+    Path cachePath;
+
+    @TempDir
+    Path submissionPath;
+
+    private PlagiarismTokenCacheService plagiarismTokenCacheService;
+
+    private Language language;
+
+    private Set<File> files;
+
+    private List<Token> tokens;
+
+    @BeforeEach
+    void init() throws Exception {
+        plagiarismTokenCacheService = new PlagiarismTokenCacheService(cachePath.toString());
+
+        Path sourceFile = submissionPath.resolve("src").resolve("Main.java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, "public class Main {\n    public static void main(String[] args) {\n        System.out.println(\"Hello\");\n    }\n}\n");
+        files = Set.of(sourceFile.toFile());
+        tokens = new de.jplag.java.Language().parse(files);
+
+        language = mock(Language.class);
+        when(language.getIdentifier()).thenReturn("java");
+        when(language.parse(any())).thenReturn(tokens);
+    }
+
+    @Test
+    void testParseReadsTokensOfSameCommitFromCache() throws Exception {
+        var cachingLanguage = plagiarismTokenCacheService.withTokenCache(language, Map.of(submissionPath, new PlagiarismTokenCacheKey(1L, 2L, "abc")));
+
+        cachingLanguage.parse(files);
+        List<Token> cachedTokens = cachingLanguage.parse(files);
+
+        verify(language, times(1)).parse(any());
+        assertThat(cachedTokens).hasSameSizeAs(tokens);
+        for (int i = 0; i < tokens.size(); i++) {
+            assertThat(cachedTokens.get(i).getType()).isEqualTo(tokens.get(i).getType());
+            assertThat(cachedTokens.get(i).getFile()).isEqualTo(tokens.get(i).getFile());
+            assertThat(cachedTokens.get(i).getLine()).isEqualTo(tokens.get(i).getLine());
+            assertThat(cachedTokens.get(i).getColumn()).isEqualTo(tokens.get(i).getColumn());
+            assertThat(cachedTokens.get(i).getLength()).isEqualTo(tokens.get(i).getLength());
+        }
+    }
+
+    @Test
+    void testParseParsesOtherCommitAgainAndAfterDeletion() throws Exception {
+        plagiarismTokenCacheService.withTokenCache(language, Map.of(submissionPath, new PlagiarismTokenCacheKey(1L, 2L, "abc"))).parse(files);
+        plagiarismTokenCacheService.withTokenCache(language, Map.of(submissionPath, new PlagiarismTokenCacheKey(1L, 2L, "def"))).parse(files);
+        verify(language, times(2)).parse(any());
+
+        plagiarismTokenCacheService.deleteCachedTokens(1L);
+        plagiarismTokenCacheService.withTokenCache(language, Map.of(submissionPath, new PlagiarismTokenCacheKey(1L, 2L, "def"))).parse(files);
+        verify(language, times(3)).parse(any());
+    }
+}
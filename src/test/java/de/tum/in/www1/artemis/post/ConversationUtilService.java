@@ -138,13 +138,13 @@ public class ConversationUtilService {
         var participant1 = new ConversationParticipant();
         participant1.setConversation(chat);
         participant1.setUser(student1);
-        participant1.setUnreadMessagesCount(0L);
+        participant1.setLastReadSequence(0L);
         participant1.setLastRead(ZonedDateTime.now().minusYears(2));
         conversationParticipantRepository.save(participant1);
         var participant2 = new ConversationParticipant();
         participant2.setConversation(chat);
         participant2.setUser(student2);
-        participant2.setUnreadMessagesCount(0L);
+        participant2.setLastReadSequence(0L);
         participant2.setLastRead(ZonedDateTime.now().minusYears(2));
         conversationParticipantRepository.save(participant2);
         chat = oneToOneChatRepository.findByIdWithConversationParticipantsAndUserGroups(chat.getId()).orElseThrow();
@@ -135,7 +135,7 @@ class EmailSummaryServiceTest extends AbstractSpringIntegrationBambooBitbucketJi
         weeklyEmailSummaryService.prepareEmailSummariesForUsers(Set.of(userWithActivatedWeeklySummaries));
 
         ArgumentCaptor<Set<Exercise>> captor = ArgumentCaptor.forClass(Set.class);
-        verify(mailService, timeout(5000)).sendWeeklySummaryEmail(eq(userWithActivatedWeeklySummaries), captor.capture());
+        verify(mailService, timeout(5000)).sendWeeklySummaryEmails(eq(Set.of(userWithActivatedWeeklySummaries)), captor.capture());
         verify(javaMailSender, timeout(5000)).send(any(MimeMessage.class));
 
         Set<Exercise> capturedExerciseSet = captor.getValue();
@@ -6,6 +6,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,4 +45,26 @@ class ZipFileServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTes
         assertThat(rootDirPathInZip).isDirectoryContaining(Predicate.isEqual(rootDirPathInZip.resolve(file1.getFileName())));
 
     }
+
+    @Test
+    void testAddFolderToZipFile_addsFoldersWithoutIntermediateZipFiles() throws IOException {
+        Path repoDir1 = Files.createTempDirectory("repo1");
+        Path repoDir2 = Files.createTempDirectory("repo2");
+        Files.createDirectories(repoDir1.resolve("src"));
+        Files.writeString(repoDir1.resolve("src").resolve("Main.java"), "class Main {}");
+        Files.writeString(repoDir2.resolve("README.md"), "readme");
+        Path zipFile = Files.createTempDirectory("zip-dir").resolve("repos.zip");
+
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            zipFileService.addFolderToZipFile(zipOutputStream, repoDir1, "student1", null);
+            zipFileService.addFolderToZipFile(zipOutputStream, repoDir2, "student2", path -> !path.endsWith("README.md"));
+        }
+
+        // the second folder is empty, as its only file was excluded by the filter
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            assertThat(zip.stream().map(ZipEntry::getName)).containsExactly("student1/src/Main.java");
+        }
+        zipFileService.extractZipFileRecursively(zipFile);
+        assertThat(zipFile.getParent().resolve("repos").resolve("student1").resolve("src").resolve("Main.java")).hasContent("class Main {}");
+    }
 }
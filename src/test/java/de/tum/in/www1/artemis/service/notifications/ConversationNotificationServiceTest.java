@@ -2,7 +2,6 @@ package de.tum.in.www1.artemis.service.notifications;
 
 import static de.tum.in.www1.artemis.domain.notification.NotificationConstants.*;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import java.time.ZonedDateTime;
@@ -100,7 +99,7 @@ class ConversationNotificationServiceTest extends AbstractSpringIntegrationBambo
 
     @Test
     @WithMockUser(username = TEST_PREFIX + "student1", roles = "USER")
-    void notifyAboutNewMessageInConversation() {
+    void createAndSendNewMessageNotification() {
         Post post = new Post();
         post.setAuthor(user1);
         post.setCreationDate(ZonedDateTime.now());
@@ -109,10 +108,11 @@ class ConversationNotificationServiceTest extends AbstractSpringIntegrationBambo
         post.setContent("hi test");
         post = conversationMessageRepository.save(post);
 
-        conversationNotificationService.notifyAboutNewMessage(post, Set.of(user2), course);
-        verify(websocketMessagingService, timeout(2000)).sendMessage(eq("/topic/user/" + user2.getId() + "/notifications/conversations"), (Object) any());
+        ConversationNotification notification = conversationNotificationService.createNewMessageNotification(post, course);
         verifyRepositoryCallWithCorrectNotification(NEW_MESSAGE_TITLE);
+        assertThat(notification.getTopic(user2.getId())).isEqualTo("/topic/user/" + user2.getId() + "/notifications/conversations");
 
+        conversationNotificationService.sendInstantNotification(notification, Set.of(user2));
         Notification sentNotification = notificationRepository.findAll().stream().max(Comparator.comparing(DomainObject::getId)).orElseThrow();
 
         verify(generalInstantNotificationService).sendNotification(sentNotification, Set.of(user2), null);
@@ -3,18 +3,24 @@ package de.tum.in.www1.artemis.service.notifications;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.*;
 
+import java.util.Set;
+
 import javax.mail.internet.MimeMessage;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.context.MessageSource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.exception.ArtemisMailException;
 import de.tum.in.www1.artemis.service.TimeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
@@ -78,7 +84,7 @@ class MailServiceTest {
         jHipsterProperties = mock(JHipsterProperties.class);
         when(jHipsterProperties.getMail()).thenReturn(mail);
 
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine, timeService);
+        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine, timeService, Runnable::run, new SimpleMeterRegistry());
     }
 
     /**
@@ -98,4 +104,21 @@ class MailServiceTest {
         doThrow(new org.springframework.mail.MailSendException("Some error occurred")).when(javaMailSender).send(any(MimeMessage.class));
         assertThatExceptionOfType(ArtemisMailException.class).isThrownBy(() -> mailService.sendEmail(student1, subject, content, false, true));
     }
+
+    /**
+     * Emails sent to many users at once should be retried if an attempt fails.
+     */
+    @Test
+    void testSendWeeklySummaryEmailsRetriesFailedAttempt() {
+        templateEngine = mock(SpringTemplateEngine.class);
+        when(templateEngine.process(anyString(), any(Context.class))).thenReturn(content);
+        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine, timeService, Runnable::run, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(mailService, "maxAttempts", 2);
+        student1.setLangKey("en");
+        doThrow(new MailSendException("Some error occurred")).doNothing().when(javaMailSender).send(any(MimeMessage.class));
+
+        mailService.sendWeeklySummaryEmails(Set.of(student1), Set.of()).join();
+
+        verify(javaMailSender, times(2)).send(any(MimeMessage.class));
+    }
 }
@@ -10,6 +10,8 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,7 @@ import de.tum.in.www1.artemis.domain.notification.NotificationConstants;
 import de.tum.in.www1.artemis.domain.push_notification.PushNotificationDeviceConfiguration;
 import de.tum.in.www1.artemis.domain.push_notification.PushNotificationDeviceType;
 import de.tum.in.www1.artemis.repository.PushNotificationDeviceConfigurationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class AppleFirebasePushNotificationServiceTest {
 
@@ -69,8 +72,8 @@ class AppleFirebasePushNotificationServiceTest {
         when(repositoryMock.findByUserIn(anySet(), eq(PushNotificationDeviceType.APNS))).thenReturn(Collections.singletonList(applePushNotificationDeviceConfiguration));
         when(repositoryMock.findByUserIn(anySet(), eq(PushNotificationDeviceType.FIREBASE))).thenReturn(Collections.singletonList(firebasePushNotificationDeviceConfiguration));
 
-        applePushNotificationService = new ApplePushNotificationService(repositoryMock, appleRestTemplateMock);
-        firebasePushNotificationService = new FirebasePushNotificationService(repositoryMock, firebaseRestTemplateMock);
+        applePushNotificationService = new ApplePushNotificationService(repositoryMock, appleRestTemplateMock, ForkJoinPool.commonPool(), new SimpleMeterRegistry());
+        firebasePushNotificationService = new FirebasePushNotificationService(repositoryMock, firebaseRestTemplateMock, ForkJoinPool.commonPool(), new SimpleMeterRegistry());
 
         ReflectionTestUtils.setField(applePushNotificationService, "relayServerBaseUrl", Optional.of("test"));
         ReflectionTestUtils.setField(firebasePushNotificationService, "relayServerBaseUrl", Optional.of("test"));
@@ -91,6 +94,22 @@ class AppleFirebasePushNotificationServiceTest {
         verify(firebaseRestTemplateMock, timeout(1000)).postForObject(anyString(), any(HttpEntity.class), eq(String.class));
     }
 
+    @Test
+    void sendNotification_shouldSendFirebaseNotificationsInBatches() {
+        // Given
+        byte[] secretKey = HexFormat.of().parseHex("e04fd020ea3a6910a2d808002b30309d");
+        var deviceConfigurations = Stream.generate(() -> new PushNotificationDeviceConfiguration("token", PushNotificationDeviceType.FIREBASE, new Date(), secretKey, student))
+                .limit(501).toList();
+        when(repositoryMock.findByUserIn(anySet(), eq(PushNotificationDeviceType.FIREBASE))).thenReturn(deviceConfigurations);
+        when(firebaseRestTemplateMock.postForObject(any(String.class), any(HttpEntity.class), eq(String.class))).thenReturn("ok");
+
+        // When
+        firebasePushNotificationService.sendNotification(notification, student, null);
+
+        // Then
+        verify(firebaseRestTemplateMock, timeout(1000).times(2)).postForObject(anyString(), any(HttpEntity.class), eq(String.class));
+    }
+
     @Test
     void scheduleSendBatch_shouldRetryOnRestClientException() throws InterruptedException {
         when(appleRestTemplateMock.postForObject(anyString(), any(HttpEntity.class), any())).thenThrow(new RestClientException(""));